@@ -0,0 +1,98 @@
+package com.symphony.bdk.core.service.message.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares {@link MessageUtil#escapeSpecialChars(String)} with the former regex based implementation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageUtilBenchmark {
+
+  private static final Map<String, String> TOKENS = new LinkedHashMap<>();
+  private static final Pattern PATTERN;
+
+  static {
+    TOKENS.put("&", "&amp;");
+    TOKENS.put("<", "&lt;");
+    TOKENS.put(">", "&gt;");
+    TOKENS.put("'", "&apos;");
+    TOKENS.put("\"", "&quot;");
+    TOKENS.put("#", "&#35;");
+    TOKENS.put("\\$", "&#36;");
+    TOKENS.put("%", "&#37;");
+    TOKENS.put("\\(", "&#40;");
+    TOKENS.put("\\)", "&#41;");
+    TOKENS.put("\\*", "&#42;");
+    TOKENS.put("\\.", "&#46;");
+    TOKENS.put(";", "&#59;");
+    TOKENS.put("=", "&#61;");
+    TOKENS.put("\\[", "&#91;");
+    TOKENS.put("\\\\", "&#92;");
+    TOKENS.put("\\]", "&#93;");
+    TOKENS.put("`", "&#96;");
+    TOKENS.put("\\{", "&#123;");
+    TOKENS.put("\\}", "&#125;");
+    PATTERN = Pattern.compile("(" + StringUtils.join(TOKENS.keySet(), "|") + ")");
+  }
+
+  @Param({"plain", "special"})
+  private String kind;
+
+  @Param({"64", "65536"})
+  private int length;
+
+  private String text;
+  private final StringBuilder output = new StringBuilder();
+
+  @Setup
+  public void setUp() {
+    final String sample = "plain".equals(this.kind)
+        ? "Hello world this text has no special character at all "
+        : "Price is $100 (or 20% off) for {VIP} users; see [docs] & <faq>. ";
+    this.text = StringUtils.repeat(sample, this.length / sample.length() + 1).substring(0, this.length);
+  }
+
+  @Benchmark
+  public String regex() {
+    final Matcher matcher = PATTERN.matcher(this.text);
+    final StringBuffer parsedText = new StringBuffer();
+    while (matcher.find()) {
+      String replacement = TOKENS.get(matcher.group(1));
+      if (replacement == null) {
+        replacement = TOKENS.get("\\" + matcher.group(1));
+      }
+      matcher.appendReplacement(parsedText, replacement);
+    }
+    matcher.appendTail(parsedText);
+    return parsedText.toString();
+  }
+
+  @Benchmark
+  public String lookupTable() {
+    return MessageUtil.escapeSpecialChars(this.text);
+  }
+
+  @Benchmark
+  public StringBuilder lookupTableToAppendable() throws IOException {
+    this.output.setLength(0);
+    MessageUtil.escapeSpecialChars(this.text, this.output);
+    return this.output;
+  }
+}
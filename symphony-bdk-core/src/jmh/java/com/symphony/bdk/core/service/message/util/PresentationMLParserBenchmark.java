@@ -0,0 +1,71 @@
+package com.symphony.bdk.core.service.message.util;
+
+import com.symphony.bdk.core.service.message.exception.PresentationMLParserException;
+
+import org.apache.commons.text.StringEscapeUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.w3c.dom.Document;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+/**
+ * Compares the streaming {@link PresentationMLParser#getTextContent(String)} with the former DOM based extraction.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PresentationMLParserBenchmark {
+
+  @Param({"small", "large"})
+  private String size;
+
+  private String presentationML;
+  private DocumentBuilder builder;
+  private final StringBuilder sink = new StringBuilder();
+
+  @Setup
+  public void setUp() throws Exception {
+    final StringBuilder pml = new StringBuilder("<div data-format=\"PresentationML\" data-version=\"2.0\">");
+    final int rows = "small".equals(this.size) ? 1 : 2000;
+    for (int i = 0; i < rows; i++) {
+      pml.append("<p>Hello <span class=\"entity\" data-entity-id=\"0\">@John Doe</span>, ")
+          .append("price is &lt; 100 &amp; rising <b>fast</b>&#xA0;#").append(i).append("</p>\n");
+    }
+    this.presentationML = pml.append("</div>").toString();
+
+    final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+    this.builder = factory.newDocumentBuilder();
+  }
+
+  @Benchmark
+  public String dom() throws Exception {
+    final Document doc = this.builder.parse(
+        new ByteArrayInputStream(this.presentationML.getBytes(StandardCharsets.UTF_8)));
+    return StringEscapeUtils.unescapeHtml4(doc.getChildNodes().item(0).getTextContent()).trim();
+  }
+
+  @Benchmark
+  public String streaming() throws PresentationMLParserException {
+    return PresentationMLParser.getTextContent(this.presentationML);
+  }
+
+  @Benchmark
+  public StringBuilder streamingToSink() throws Exception {
+    this.sink.setLength(0);
+    PresentationMLParser.appendTextContent(this.presentationML, this.sink, true);
+    return this.sink;
+  }
+}
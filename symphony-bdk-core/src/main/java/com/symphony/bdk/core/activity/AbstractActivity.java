@@ -1,12 +1,15 @@
 package com.symphony.bdk.core.activity;
 
 import com.symphony.bdk.core.activity.model.ActivityInfo;
+import com.symphony.bdk.core.activity.throttling.ActivityThrottler;
 import com.symphony.bdk.core.service.datafeed.DatafeedLoop;
 import com.symphony.bdk.core.service.datafeed.EventException;
 import com.symphony.bdk.core.service.datafeed.EventPayload;
 import com.symphony.bdk.core.service.datafeed.RealTimeEventListener;
 import com.symphony.bdk.gen.api.model.V4Initiator;
 
+import lombok.AccessLevel;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apiguardian.api.API;
@@ -18,6 +21,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Consumer;
 
+import javax.annotation.Nullable;
+
 /**
  * Base abstract class for activities provided by the BDK. Provides a generic flow to process an incoming chat event.
  */
@@ -28,6 +33,12 @@ public abstract class AbstractActivity<E, C extends ActivityContext<E>> {
   private ActivityInfo info;
   private final ExecutorService executorService;
 
+  /**
+   * Optional admission layer, set by the {@link ActivityRegistry} when throttling is enabled
+   */
+  @Setter(AccessLevel.PACKAGE)
+  private ActivityThrottler throttler;
+
   public AbstractActivity() {
     ThreadFactory threadFactory = new ThreadFactoryBuilder()
         .setName("Activity-Async-Thread")
@@ -97,6 +108,18 @@ public abstract class AbstractActivity<E, C extends ActivityContext<E>> {
     // nothing is done here by default
   }
 
+  /**
+   * Returns the stream the activity has been triggered from. Used by the {@link ActivityThrottler} to apply per-stream
+   * rate limiting, the value is only read once the matcher returned true.
+   *
+   * @param context The activity context object.
+   * @return the stream id, or null if the activity is not bound to a stream.
+   */
+  @Nullable
+  protected String getStreamId(C context) {
+    return null;
+  }
+
   protected void processEvent(V4Initiator initiator, E event) throws EventException {
 
     final C context = this.createContextInstance(initiator, event);
@@ -113,7 +136,10 @@ public abstract class AbstractActivity<E, C extends ActivityContext<E>> {
     // executes matcher with no failure
     final Optional<Boolean> matcherResult = this.executeMatcher(context);
     if (matcherResult.isPresent() && Boolean.TRUE.equals(matcherResult.get())) {
-      if (isAsynchronous()) {
+      if (this.throttler != null) {
+        this.throttler.execute(this.getInitiatorUserId(context), this.getStreamId(context), isAsynchronous(),
+            () -> executeActivity(context));
+      } else if (isAsynchronous()) {
         executorService.submit(() -> executeActivity(context));
       } else {
         executeActivity(context);
@@ -132,6 +158,13 @@ public abstract class AbstractActivity<E, C extends ActivityContext<E>> {
     }
   }
 
+  private Long getInitiatorUserId(C context) {
+    if (context.getInitiator() == null || context.getInitiator().getUser() == null) {
+      return null;
+    }
+    return context.getInitiator().getUser().getUserId();
+  }
+
   private Optional<Boolean> executeMatcher(C context) {
     try {
       log.trace("Before matcher execution");
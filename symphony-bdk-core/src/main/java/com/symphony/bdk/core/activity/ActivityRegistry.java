@@ -3,6 +3,8 @@ package com.symphony.bdk.core.activity;
 import com.symphony.bdk.core.activity.command.CommandActivity;
 import com.symphony.bdk.core.activity.command.SlashCommand;
 import com.symphony.bdk.core.activity.command.HelpCommand;
+import com.symphony.bdk.core.activity.throttling.ActivityThrottler;
+import com.symphony.bdk.core.activity.throttling.ActivityThrottlingConfig;
 import com.symphony.bdk.core.service.datafeed.DatafeedLoop;
 import com.symphony.bdk.gen.api.model.UserV2;
 
@@ -12,6 +14,11 @@ import org.apiguardian.api.API;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class allows to bind an {@link AbstractActivity} to the Real Time Events source, or Datafeed.
@@ -40,6 +47,17 @@ public class ActivityRegistry {
    */
   private final DatafeedLoop datafeedLoop;
 
+  /**
+   * The optional admission layer shared by all the registered activities
+   */
+  private ActivityThrottler throttler;
+
+  /**
+   * The executors of the admission layer, created once and reused when throttling is enabled again
+   */
+  private ExecutorService throttlingExecutor;
+  private ScheduledExecutorService throttlingDelayExecutor;
+
   public ActivityRegistry(UserV2 botSession, DatafeedLoop datafeedLoop) {
     this.botSession = botSession;
     this.datafeedLoop = datafeedLoop;
@@ -59,6 +77,40 @@ public class ActivityRegistry {
     return new ArrayList<>(activityList);
   }
 
+  /**
+   * Enables per-user and per-stream rate limiting for all the activities of the registry, including the ones that are
+   * already registered. Asynchronous activities are then dispatched round-robin across initiators.
+   * <p>
+   * Calling this method again replaces the throttling configuration, the threads of the admission layer are reused.
+   *
+   * @param config The throttling configuration.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public synchronized void enableThrottling(final ActivityThrottlingConfig config) {
+    if (this.throttlingExecutor == null) {
+      final ScheduledThreadPoolExecutor delayExecutor = new ScheduledThreadPoolExecutor(1,
+          new ThreadFactoryBuilder().setName("Activity-Throttling-Delay-Thread").build());
+      delayExecutor.setKeepAliveTime(60, TimeUnit.SECONDS);
+      delayExecutor.allowCoreThreadTimeOut(true);
+      this.throttlingDelayExecutor = delayExecutor;
+      this.throttlingExecutor =
+          Executors.newCachedThreadPool(new ThreadFactoryBuilder().setName("Activity-Throttled-Thread").build());
+    }
+
+    this.throttler = new ActivityThrottler(config, this.throttlingExecutor, this.throttlingDelayExecutor);
+    this.activityList.forEach(activity -> activity.setThrottler(this.throttler));
+  }
+
+  /**
+   * Returns the admission layer of the registry, giving access to its metrics.
+   *
+   * @return the {@link ActivityThrottler} if throttling has been enabled, empty otherwise.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public Optional<ActivityThrottler> getThrottler() {
+    return Optional.ofNullable(this.throttler);
+  }
+
   private void preProcessActivity(AbstractActivity<?, ?> activity) {
 
     Optional<AbstractActivity<?, ?>> act = this.activityList.stream()
@@ -79,6 +131,8 @@ public class ActivityRegistry {
       ((CommandActivity<?>) activity).setBotUserId(this.botSession.getId());
     }
 
+    activity.setThrottler(this.throttler);
+
     // make the activity to subscribe to its expected real-time event
     activity.bindToRealTimeEventsSource(this.datafeedLoop::subscribe);
   }
@@ -55,6 +55,14 @@ public abstract class CommandActivity<C extends CommandContext> extends Abstract
     bindRealTimeListener(realTimeEventsSource, listener);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected String getStreamId(C context) {
+    return context.getStreamId();
+  }
+
   /**
    * {@inheritDoc}
    */
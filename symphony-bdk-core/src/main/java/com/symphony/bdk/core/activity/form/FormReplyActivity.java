@@ -29,6 +29,12 @@ public abstract class FormReplyActivity<C extends FormReplyContext>
     bindOnSymphonyElementsAction(realTimeEventsSource, this::processEvent);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  protected String getStreamId(C context) {
+    return context.getStreamId();
+  }
+
   /** {@inheritDoc} */
   @Override
   protected void beforeMatcher(C context) {
@@ -1,12 +1,10 @@
 package com.symphony.bdk.core.activity.parsing;
 
-import static org.apache.commons.lang3.StringUtils.isBlank;
-
 import com.symphony.bdk.core.service.message.util.EntityTypeEnum;
+import com.symphony.bdk.core.service.message.util.MessageParser;
+import com.symphony.bdk.core.service.message.util.ParsedEntities;
 import com.symphony.bdk.gen.api.model.V4Message;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -33,15 +31,11 @@ import javax.xml.parsers.DocumentBuilderFactory;
 public class InputTokenizer {
 
   private static final DocumentBuilder DOCUMENT_BUILDER = initBuilder();
-  private static final ObjectMapper MAPPER = new ObjectMapper();
 
   private static final String DATA_ENTITY_ID = "data-entity-id";
-  private static final String TYPE = "type";
   private static final String SPAN = "span";
   private static final String CLASS = "class";
   private static final String ENTITY = "entity";
-  private static final String ID = "id";
-  private static final String VALUE = "value";
 
   private static final String SYMPHONY_USER_ID_TYPE = "com.symphony.user.userId";
   private static final String CASHTAG_VALUE_TYPE = "org.symphonyoss.fin.security.id.ticker";
@@ -56,7 +50,7 @@ public class InputTokenizer {
   }
 
   private Document document;
-  private JsonNode dataNode;
+  private ParsedEntities entities;
   private List<Object> tokens;
   private StringBuilder buffer;
 
@@ -68,8 +62,7 @@ public class InputTokenizer {
   public InputTokenizer(V4Message message) {
     this.document = DOCUMENT_BUILDER.parse(
         new ByteArrayInputStream(message.getMessage().getBytes(StandardCharsets.UTF_8)));
-    String jsonData = isBlank(message.getData()) ? "{}" : message.getData();
-    this.dataNode = MAPPER.readTree(jsonData);
+    this.entities = MessageParser.getEntities(message);
     this.tokens = new ArrayList<>();
     this.buffer = new StringBuilder();
 
@@ -126,7 +119,7 @@ public class InputTokenizer {
 
   private String getEntityType(Node node) {
     String entityId = node.getAttributes().getNamedItem(DATA_ENTITY_ID).getNodeValue();
-    return dataNode.get(entityId).get(TYPE).asText();
+    return entities.getEntityType(entityId);
   }
 
   private boolean isEntityNode(Node node) {
@@ -145,17 +138,12 @@ public class InputTokenizer {
     }
 
     String entityId = entityIdAttribute.getNodeValue();
-    return dataNode.has(entityId);
+    return entities.hasEntity(entityId);
   }
 
   private String extractEntityValue(Node node, String type) {
     String entityId = node.getAttributes().getNamedItem(DATA_ENTITY_ID).getNodeValue();
-    for (JsonNode id : dataNode.get(entityId).get(ID)) {
-      if (id.get(TYPE).asText().equals(type)) {
-        return id.get(VALUE).asText();
-      }
-    }
-    return null;
+    return entities.getEntityIdValue(entityId, type);
   }
 
   private void tokenizeRegularContent() {
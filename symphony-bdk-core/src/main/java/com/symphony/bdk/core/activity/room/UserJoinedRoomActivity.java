@@ -34,4 +34,12 @@ public abstract class UserJoinedRoomActivity<C extends UserJoinedRoomContext>
     context.setRoomId(context.getSourceEvent().getStream().getStreamId());
     context.setUserId(context.getSourceEvent().getAffectedUser().getUserId());
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected String getStreamId(C context) {
+    return context.getRoomId();
+  }
 }
@@ -0,0 +1,145 @@
+package com.symphony.bdk.core.activity.throttling;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * Admission layer for activities. Each activity execution consumes one token from the bucket of its initiator and
+ * one token from the bucket of its stream. When one of the buckets is empty, the execution is either dropped or
+ * delayed depending on the configured {@link ThrottlingPolicy}.
+ * <p>
+ * Asynchronous activity executions are dispatched round-robin across initiators on a bounded number of workers, so
+ * that a single user flooding the bot cannot take all the asynchronous slots.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class ActivityThrottler {
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final ThrottlingPolicy policy;
+  private final long maxDelayNanos;
+  private final TokenBuckets userBuckets;
+  private final TokenBuckets streamBuckets;
+  private final FairTaskScheduler scheduler;
+  private final ScheduledExecutorService delayExecutor;
+  private final LongSupplier clock;
+
+  @Getter private final ThrottlingMetrics metrics = new ThrottlingMetrics();
+
+  public ActivityThrottler(ActivityThrottlingConfig config, Executor executor,
+      ScheduledExecutorService delayExecutor) {
+    this(config, executor, delayExecutor, System::nanoTime);
+  }
+
+  ActivityThrottler(ActivityThrottlingConfig config, Executor executor, ScheduledExecutorService delayExecutor,
+      LongSupplier clock) {
+    this.policy = config.getPolicy();
+    this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxDelayMillis());
+    this.userBuckets = config.isUserThrottlingEnabled()
+        ? new TokenBuckets(config.getUserPermitsPerSecond(), config.getUserBurst(), config.getKeyExpiryMillis())
+        : null;
+    this.streamBuckets = config.isStreamThrottlingEnabled()
+        ? new TokenBuckets(config.getStreamPermitsPerSecond(), config.getStreamBurst(), config.getKeyExpiryMillis())
+        : null;
+    this.scheduler = new FairTaskScheduler(executor, config.getMaxConcurrency());
+    this.delayExecutor = delayExecutor;
+    this.clock = clock;
+  }
+
+  /**
+   * Submits an activity execution to the admission layer.
+   * <p>
+   * Synchronous executions are run on the calling thread when they are not delayed. Asynchronous executions, and
+   * delayed synchronous ones, are queued on the fair scheduler, keyed by initiator, once their delay has elapsed.
+   *
+   * @param userId       the activity initiator user id, if any.
+   * @param streamId     the stream the activity was triggered from, if any.
+   * @param asynchronous whether the execution must be run asynchronously.
+   * @param execution    the activity execution.
+   * @return true if the execution has been admitted, false if it has been dropped.
+   */
+  public boolean execute(@Nullable Long userId, @Nullable String streamId, boolean asynchronous,
+      Runnable execution) {
+    final long streamKey = streamId == null ? 0L : streamKey(streamId);
+    final long delay = this.admit(userId, streamId == null ? null : streamKey);
+    if (delay < 0) {
+      log.debug("Activity execution dropped for user {} in stream {}", userId, streamId);
+      return false;
+    }
+
+    if (delay == 0 && !asynchronous) {
+      execution.run();
+      return true;
+    }
+
+    final long fairnessKey = userId != null ? userId : streamKey;
+    if (delay == 0) {
+      this.scheduler.submit(fairnessKey, execution);
+    } else {
+      // delayed executions never wait on the calling thread, which usually dispatches the events of all the users
+      this.delayExecutor.schedule(() -> this.scheduler.submit(fairnessKey, execution), delay, TimeUnit.NANOSECONDS);
+    }
+    return true;
+  }
+
+  /**
+   * @return the number of asynchronous activity executions waiting for a worker.
+   */
+  public int getPendingTasks() {
+    return this.scheduler.getPendingTasks();
+  }
+
+  /**
+   * Computes a 64-bit key out of a stream id, so that stream buckets can be stored in a primitive-keyed table.
+   *
+   * @param streamId a stream id.
+   * @return the FNV-1a hash of the stream id.
+   */
+  static long streamKey(String streamId) {
+    long hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < streamId.length(); i++) {
+      hash ^= streamId.charAt(i);
+      hash *= FNV_PRIME;
+    }
+    return hash;
+  }
+
+  private synchronized long admit(@Nullable Long userId, @Nullable Long streamKey) {
+    final long now = this.clock.getAsLong();
+    final boolean checkUser = this.userBuckets != null && userId != null;
+    final boolean checkStream = this.streamBuckets != null && streamKey != null;
+
+    final long userWait = checkUser ? this.userBuckets.waitNanos(userId, now) : 0;
+    final long streamWait = checkStream ? this.streamBuckets.waitNanos(streamKey, now) : 0;
+    final long delay = Math.max(userWait, streamWait);
+
+    if (delay > 0) {
+      this.metrics.onThrottled(userWait > 0, streamWait > 0);
+      if (this.policy == ThrottlingPolicy.DROP || delay > this.maxDelayNanos) {
+        this.metrics.onDropped();
+        return -1;
+      }
+      this.metrics.onDelayed();
+    } else {
+      this.metrics.onAdmitted();
+    }
+
+    if (checkUser) {
+      this.userBuckets.consume(userId);
+    }
+    if (checkStream) {
+      this.streamBuckets.consume(streamKey);
+    }
+    return delay;
+  }
+}
@@ -0,0 +1,56 @@
+package com.symphony.bdk.core.activity.throttling;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apiguardian.api.API;
+
+/**
+ * Configuration of the activities admission layer, see {@link ActivityThrottler}.
+ * <p>
+ * Rates are expressed in permits per second, a rate lower or equal to zero disables the corresponding token bucket.
+ */
+@Getter
+@Setter
+@API(status = API.Status.EXPERIMENTAL)
+public class ActivityThrottlingConfig {
+
+  public static final double DEFAULT_USER_PERMITS_PER_SECOND = 1;
+  public static final int DEFAULT_USER_BURST = 5;
+  public static final double DEFAULT_STREAM_PERMITS_PER_SECOND = 5;
+  public static final int DEFAULT_STREAM_BURST = 20;
+  public static final long DEFAULT_MAX_DELAY_MILLIS = 5000L;
+  public static final long DEFAULT_KEY_EXPIRY_MILLIS = 10 * 60 * 1000L;
+  public static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+  /** Tokens refilled per second in the bucket of a given initiator */
+  private double userPermitsPerSecond = DEFAULT_USER_PERMITS_PER_SECOND;
+
+  /** Maximum number of tokens held by the bucket of a given initiator */
+  private int userBurst = DEFAULT_USER_BURST;
+
+  /** Tokens refilled per second in the bucket of a given stream */
+  private double streamPermitsPerSecond = DEFAULT_STREAM_PERMITS_PER_SECOND;
+
+  /** Maximum number of tokens held by the bucket of a given stream */
+  private int streamBurst = DEFAULT_STREAM_BURST;
+
+  /** What to do with an activity execution that has been throttled */
+  private ThrottlingPolicy policy = ThrottlingPolicy.DROP;
+
+  /** Maximum delay an activity execution can be postponed, only used with {@link ThrottlingPolicy#DELAY} */
+  private long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+
+  /** Idle time after which the bucket of an initiator or a stream is forgotten */
+  private long keyExpiryMillis = DEFAULT_KEY_EXPIRY_MILLIS;
+
+  /** Maximum number of asynchronous activities executed at the same time */
+  private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+  public boolean isUserThrottlingEnabled() {
+    return this.userPermitsPerSecond > 0;
+  }
+
+  public boolean isStreamThrottlingEnabled() {
+    return this.streamPermitsPerSecond > 0;
+  }
+}
@@ -0,0 +1,87 @@
+package com.symphony.bdk.core.activity.throttling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Executes tasks on a bounded number of workers, picking tasks round-robin across keys instead of in submission
+ * order. A key that submitted a lot of tasks therefore cannot delay the tasks of the other keys by more than one
+ * task per key.
+ */
+@Slf4j
+@API(status = API.Status.INTERNAL)
+class FairTaskScheduler {
+
+  private final Executor executor;
+  private final int maxConcurrency;
+
+  private final Map<Long, Deque<Runnable>> queues = new HashMap<>();
+  private final Deque<Long> ring = new ArrayDeque<>();
+  private int workers;
+  private int pending;
+
+  FairTaskScheduler(Executor executor, int maxConcurrency) {
+    this.executor = executor;
+    this.maxConcurrency = Math.max(1, maxConcurrency);
+  }
+
+  /**
+   * Queues a task for the given key, and starts a new worker if the concurrency limit has not been reached yet.
+   *
+   * @param key  the fairness key (e.g. the initiator user id).
+   * @param task the task to be executed.
+   */
+  void submit(long key, Runnable task) {
+    synchronized (this) {
+      final Deque<Runnable> queue = this.queues.computeIfAbsent(key, k -> {
+        this.ring.addLast(k);
+        return new ArrayDeque<>();
+      });
+      queue.addLast(task);
+      this.pending++;
+      if (this.workers >= this.maxConcurrency) {
+        return;
+      }
+      this.workers++;
+    }
+    this.executor.execute(this::drain);
+  }
+
+  synchronized int getPendingTasks() {
+    return this.pending;
+  }
+
+  private void drain() {
+    Runnable task;
+    while ((task = this.next()) != null) {
+      try {
+        task.run();
+      } catch (Exception e) {
+        log.warn("Throttled activity execution failed.", e);
+      }
+    }
+  }
+
+  private synchronized Runnable next() {
+    final Long key = this.ring.pollFirst();
+    if (key == null) {
+      this.workers--;
+      return null;
+    }
+    final Deque<Runnable> queue = this.queues.get(key);
+    final Runnable task = queue.pollFirst();
+    if (queue.isEmpty()) {
+      this.queues.remove(key);
+    } else {
+      this.ring.addLast(key);
+    }
+    this.pending--;
+    return task;
+  }
+}
@@ -0,0 +1,74 @@
+package com.symphony.bdk.core.activity.throttling;
+
+import org.apiguardian.api.API;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters exposed by the {@link ActivityThrottler}.
+ */
+@API(status = API.Status.EXPERIMENTAL)
+public class ThrottlingMetrics {
+
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder delayed = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder throttledByUser = new LongAdder();
+  private final LongAdder throttledByStream = new LongAdder();
+
+  /**
+   * @return number of activity executions admitted right away.
+   */
+  public long getAdmitted() {
+    return this.admitted.sum();
+  }
+
+  /**
+   * @return number of activity executions postponed because of {@link ThrottlingPolicy#DELAY}.
+   */
+  public long getDelayed() {
+    return this.delayed.sum();
+  }
+
+  /**
+   * @return number of activity executions discarded.
+   */
+  public long getDropped() {
+    return this.dropped.sum();
+  }
+
+  /**
+   * @return number of activity executions that exceeded the rate of their initiator.
+   */
+  public long getThrottledByUser() {
+    return this.throttledByUser.sum();
+  }
+
+  /**
+   * @return number of activity executions that exceeded the rate of their stream.
+   */
+  public long getThrottledByStream() {
+    return this.throttledByStream.sum();
+  }
+
+  void onAdmitted() {
+    this.admitted.increment();
+  }
+
+  void onDelayed() {
+    this.delayed.increment();
+  }
+
+  void onDropped() {
+    this.dropped.increment();
+  }
+
+  void onThrottled(boolean byUser, boolean byStream) {
+    if (byUser) {
+      this.throttledByUser.increment();
+    }
+    if (byStream) {
+      this.throttledByStream.increment();
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.symphony.bdk.core.activity.throttling;
+
+import org.apiguardian.api.API;
+
+/**
+ * Defines what happens to an activity execution when its initiator or its stream ran out of tokens.
+ */
+@API(status = API.Status.EXPERIMENTAL)
+public enum ThrottlingPolicy {
+
+  /**
+   * The activity execution is discarded.
+   */
+  DROP,
+
+  /**
+   * The activity execution is postponed until a token becomes available, as long as the required delay does not
+   * exceed {@link ActivityThrottlingConfig#getMaxDelayMillis()}. Otherwise, the execution is discarded. A delayed
+   * execution is always run asynchronously, so that the datafeed thread is not blocked.
+   */
+  DELAY
+}
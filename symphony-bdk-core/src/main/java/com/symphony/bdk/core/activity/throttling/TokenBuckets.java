@@ -0,0 +1,152 @@
+package com.symphony.bdk.core.activity.throttling;
+
+import org.apiguardian.api.API;
+
+/**
+ * Set of token buckets keyed by a primitive {@code long}, stored in an open-addressing hash table made of parallel
+ * arrays so that no object is allocated per key. Buckets that have not been used for {@link #expiryNanos} are purged
+ * when the table is swept.
+ * <p>
+ * This class is not thread-safe, callers are expected to synchronize accesses.
+ */
+@API(status = API.Status.INTERNAL)
+class TokenBuckets {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final double permitsPerNano;
+  private final double burst;
+  private final long expiryNanos;
+
+  private long[] keys;
+  private double[] tokens;
+  private long[] lastRefill;
+  private boolean[] used;
+  private int size;
+  private long lastSweep;
+
+  TokenBuckets(double permitsPerSecond, int burst, long expiryMillis) {
+    this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+    this.burst = Math.max(1, burst);
+    this.expiryNanos = expiryMillis * 1_000_000L;
+    this.allocate(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Refills the bucket of the given key and computes how long a caller has to wait before a token is available.
+   *
+   * @param key the bucket key.
+   * @param now current time in nanoseconds, as returned by {@link System#nanoTime()}.
+   * @return 0 if a token is available right now, the waiting time in nanoseconds otherwise.
+   */
+  long waitNanos(long key, long now) {
+    this.sweepIfNeeded(now);
+    final int slot = this.slotOf(key, now);
+    final double refill = (now - this.lastRefill[slot]) * this.permitsPerNano;
+    final double available = Math.min(this.burst, this.tokens[slot] + refill);
+    this.tokens[slot] = available;
+    this.lastRefill[slot] = now;
+    return available >= 1 ? 0 : (long) Math.ceil((1 - available) / this.permitsPerNano);
+  }
+
+  /**
+   * Takes one token from the bucket of the given key. The bucket can go below zero when a token is reserved ahead of
+   * time, following callers will then have to wait accordingly.
+   * Must be called after {@link #waitNanos(long, long)} for the same key.
+   *
+   * @param key the bucket key.
+   */
+  void consume(long key) {
+    final int slot = this.find(key);
+    if (slot >= 0) {
+      this.tokens[slot] -= 1;
+    }
+  }
+
+  int size() {
+    return this.size;
+  }
+
+  private int slotOf(long key, long now) {
+    int slot = this.find(key);
+    if (slot >= 0) {
+      return slot;
+    }
+    if ((this.size + 1) * 2 > this.keys.length) {
+      this.rehash(this.keys.length * 2, now, false);
+    }
+    slot = this.insertionSlot(key);
+    this.keys[slot] = key;
+    this.used[slot] = true;
+    this.tokens[slot] = this.burst;
+    this.lastRefill[slot] = now;
+    this.size++;
+    return slot;
+  }
+
+  private int find(long key) {
+    final int mask = this.keys.length - 1;
+    int slot = mix(key) & mask;
+    while (this.used[slot]) {
+      if (this.keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private int insertionSlot(long key) {
+    final int mask = this.keys.length - 1;
+    int slot = mix(key) & mask;
+    while (this.used[slot]) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void sweepIfNeeded(long now) {
+    if (now - this.lastSweep < this.expiryNanos) {
+      return;
+    }
+    this.lastSweep = now;
+    int capacity = this.keys.length;
+    while (capacity > INITIAL_CAPACITY && this.size * 8 < capacity) {
+      capacity >>= 1;
+    }
+    this.rehash(capacity, now, true);
+  }
+
+  private void rehash(int capacity, long now, boolean dropExpired) {
+    final long[] oldKeys = this.keys;
+    final double[] oldTokens = this.tokens;
+    final long[] oldLastRefill = this.lastRefill;
+    final boolean[] oldUsed = this.used;
+
+    this.allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (!oldUsed[i] || (dropExpired && now - oldLastRefill[i] >= this.expiryNanos)) {
+        continue;
+      }
+      final int slot = this.insertionSlot(oldKeys[i]);
+      this.keys[slot] = oldKeys[i];
+      this.used[slot] = true;
+      this.tokens[slot] = oldTokens[i];
+      this.lastRefill[slot] = oldLastRefill[i];
+      this.size++;
+    }
+  }
+
+  private void allocate(int capacity) {
+    this.keys = new long[capacity];
+    this.tokens = new double[capacity];
+    this.lastRefill = new long[capacity];
+    this.used = new boolean[capacity];
+    this.size = 0;
+  }
+
+  private static int mix(long key) {
+    final long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
@@ -5,6 +5,7 @@ import com.symphony.bdk.core.config.model.BdkConfig;
 import com.symphony.bdk.http.api.ApiException;
 import com.symphony.bdk.http.api.ApiResponse;
 import com.symphony.bdk.http.api.Pair;
+import com.symphony.bdk.http.api.ResponseBodyHandler;
 import com.symphony.bdk.http.api.util.TypeReference;
 
 import org.apiguardian.api.API;
@@ -34,4 +35,15 @@ public class DatafeedLoadBalancedApiClient extends LoadBalancedApiClient {
     return apiClient.invokeAPI(path, method, queryParams, body, headerParams, cookieParams, formParams, accept,
         contentType, authNames, returnType);
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public <T> ApiResponse<T> invokeStreamingAPI(String path, String method, List<Pair> queryParams,
+      Map<String, String> headerParams, String accept, String[] authNames, ResponseBodyHandler<T> bodyHandler)
+      throws ApiException {
+
+    return apiClient.invokeStreamingAPI(path, method, queryParams, headerParams, accept, authNames, bodyHandler);
+  }
 }
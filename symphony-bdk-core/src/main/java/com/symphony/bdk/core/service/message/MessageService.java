@@ -9,6 +9,14 @@ import com.symphony.bdk.core.auth.AuthSession;
 import com.symphony.bdk.core.retry.RetryWithRecovery;
 import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
 import com.symphony.bdk.core.service.OboService;
+import com.symphony.bdk.core.service.message.blast.BlastChunkResult;
+import com.symphony.bdk.core.service.message.blast.BlastConfig;
+import com.symphony.bdk.core.service.message.blast.BlastReport;
+import com.symphony.bdk.core.service.message.blast.MessageBlaster;
+import com.symphony.bdk.core.service.message.exception.MessageCreationException;
+import com.symphony.bdk.core.service.message.export.ExportConfig;
+import com.symphony.bdk.core.service.message.export.ExportReport;
+import com.symphony.bdk.core.service.message.export.MessageExporter;
 import com.symphony.bdk.core.service.message.model.Attachment;
 import com.symphony.bdk.core.service.message.model.Message;
 import com.symphony.bdk.core.service.message.model.SortDir;
@@ -36,18 +44,41 @@ import com.symphony.bdk.gen.api.model.V4Stream;
 import com.symphony.bdk.http.api.ApiClient;
 import com.symphony.bdk.http.api.ApiClientBodyPart;
 import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.Pair;
+import com.symphony.bdk.http.api.ResponseBodyHandler;
 import com.symphony.bdk.http.api.util.ApiUtils;
 import com.symphony.bdk.http.api.util.TypeReference;
 import com.symphony.bdk.template.api.TemplateEngine;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
 import org.apiguardian.api.API;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -61,6 +92,8 @@ import javax.annotation.Nullable;
 @API(status = API.Status.STABLE)
 public class MessageService implements OboMessageService, OboService<OboMessageService> {
 
+  private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+
   private final MessagesApi messagesApi;
   private final MessageApi messageApi;
   private final MessageSuppressionApi messageSuppressionApi;
@@ -347,6 +380,129 @@ public class MessageService implements OboMessageService, OboService<OboMessageS
         () -> doSendBlast(streamIds, message));
   }
 
+  /**
+   * Sends a message to a large number of existing streams. Streams are split into chunks sent concurrently with
+   * one blast call each, only the streams reported as failed by a blast call are retried.
+   * <p>
+   * Attachments created from an input stream are read once and sent again from memory for each chunk, prefer
+   * reopenable attachments (see {@link Attachment}) for large files.
+   * The workers run on a dedicated thread pool which is shut down once the fan-out has completed.
+   *
+   * @param streamIds the list of stream IDs to send the message to
+   * @param message   the message to be sent
+   * @param config    the fan-out configuration
+   * @param listener  optional listener notified each time a blast call completes
+   * @return a future completed with the report of the fan-out once all the chunks have been sent
+   * @see MessageBlaster
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public CompletableFuture<BlastReport> send(@Nonnull List<String> streamIds, @Nonnull Message message,
+      @Nonnull BlastConfig config, @Nullable Consumer<BlastChunkResult> listener) {
+    final AtomicInteger threadCount = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, config.getMaxConcurrency()), r -> {
+      final Thread thread = new Thread(r, "Message-Blast-Thread-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    return this.send(streamIds, message, config, executor, listener).whenComplete((r, e) -> executor.shutdown());
+  }
+
+  /**
+   * Same as {@link #send(List, Message, BlastConfig, Consumer)}, with the workers running on the given executor.
+   *
+   * @param streamIds the list of stream IDs to send the message to
+   * @param message   the message to be sent
+   * @param config    the fan-out configuration
+   * @param executor  the executor running the workers, it must be able to run
+   *                  {@link BlastConfig#getMaxConcurrency()} tasks at the same time
+   * @param listener  optional listener notified each time a blast call completes
+   * @return a future completed with the report of the fan-out once all the chunks have been sent
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public CompletableFuture<BlastReport> send(@Nonnull List<String> streamIds, @Nonnull Message message,
+      @Nonnull BlastConfig config, @Nonnull Executor executor, @Nullable Consumer<BlastChunkResult> listener) {
+    final Map<String, Object> form = getFormWithoutAttachments(message);
+    final Supplier<ApiClientBodyPart[]> attachments = bufferApiClientBodyParts(message.getAttachments());
+    final Supplier<ApiClientBodyPart[]> previews = bufferApiClientBodyParts(message.getPreviews());
+
+    final MessageBlaster blaster = new MessageBlaster(config, executor, chunk -> {
+      final String sids = String.join(",", chunk);
+      return this.executeAndRetry("sendBlast", messagesApi.getApiClient().getBasePath(), () -> {
+        // each attempt needs its own parts, the streams of the previous attempt have been consumed
+        final Map<String, Object> chunkForm = new HashMap<>(form);
+        chunkForm.put("sids", sids);
+        chunkForm.put("attachment", attachments.get());
+        chunkForm.put("preview", previews.get());
+        return doSendFormData("/v4/message/blast", chunkForm, new TypeReference<V4MessageBlastResponse>() {});
+      });
+    });
+    return blaster.blast(streamIds, listener);
+  }
+
+  /**
+   * Exports the messages of a stream sent in a time range. The range is split into time shards fetched concurrently,
+   * messages being delivered to the sink in timestamp order from the calling thread.
+   * The shards are fetched on a dedicated thread pool which is shut down once the export has completed.
+   *
+   * @param streamId           the ID of the stream to export the messages from.
+   * @param since              start of the range, inclusive.
+   * @param until              end of the range, exclusive.
+   * @param config             the export configuration.
+   * @param sink               receives the exported messages.
+   * @param checkpointListener optional listener notified with the instant before which all the messages have been
+   *                           delivered, an interrupted export can be resumed from there.
+   * @return the export report.
+   * @see MessageExporter
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public ExportReport exportMessages(@Nonnull String streamId, @Nonnull Instant since, @Nonnull Instant until,
+      @Nonnull ExportConfig config, @Nonnull Consumer<V4Message> sink, @Nullable Consumer<Instant> checkpointListener) {
+    final ExecutorService executor = newExportExecutor(config);
+    try {
+      return this.exporter(streamId, config, executor).export(since, until, sink, checkpointListener);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Exports the messages of a stream sent in a time range to a file, one JSON message per line. Exporting again the
+   * same range to the same file resumes an interrupted export.
+   *
+   * @param streamId the ID of the stream to export the messages from.
+   * @param since    start of the range, inclusive.
+   * @param until    end of the range, exclusive.
+   * @param config   the export configuration.
+   * @param file     the file to write the messages to.
+   * @return the export report.
+   * @throws IOException if the file cannot be written.
+   * @see MessageExporter#export(Instant, Instant, Path)
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public ExportReport exportMessages(@Nonnull String streamId, @Nonnull Instant since, @Nonnull Instant until,
+      @Nonnull ExportConfig config, @Nonnull Path file) throws IOException {
+    final ExecutorService executor = newExportExecutor(config);
+    try {
+      return this.exporter(streamId, config, executor).export(since, until, file);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private MessageExporter exporter(String streamId, ExportConfig config, Executor executor) {
+    return new MessageExporter(config, executor,
+        (since, pagination) -> this.listMessages(streamId, since, pagination));
+  }
+
+  private static ExecutorService newExportExecutor(ExportConfig config) {
+    final AtomicInteger threadCount = new AtomicInteger();
+    return Executors.newFixedThreadPool(Math.max(1, config.getMaxConcurrency()), r -> {
+      final Thread thread = new Thread(r, "Message-Export-Thread-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
   /**
    * The generated {@link MessagesApi#v4StreamSidMessageCreatePost(String, String, String, String, String, String, File, File)}
    * does not allow to send multiple attachments as well as in-memory files, so we have to "manually" process this call.
@@ -371,22 +527,61 @@ public class MessageService implements OboMessageService, OboService<OboMessageS
   }
 
   private Map<String, Object> getForm(Message message) {
+    final Map<String, Object> form = getFormWithoutAttachments(message);
+    form.put("attachment", toApiClientBodyParts(message.getAttachments()));
+    form.put("preview", toApiClientBodyParts(message.getPreviews()));
+    return form;
+  }
+
+  private static Map<String, Object> getFormWithoutAttachments(Message message) {
     final Map<String, Object> form = new HashMap<>();
     form.put("message", message.getContent());
     form.put("data", message.getData());
     form.put("version", message.getVersion());
     form.put("silent", message.getSilent());
-    form.put("attachment", toApiClientBodyParts(message.getAttachments()));
-    form.put("preview", toApiClientBodyParts(message.getPreviews()));
     return form;
   }
 
   private static ApiClientBodyPart[] toApiClientBodyParts(List<Attachment> attachments) {
     return attachments.stream()
-        .map(a -> new ApiClientBodyPart(a.getContent(), a.getFilename()))
+        .map(MessageService::toApiClientBodyPart)
         .toArray(ApiClientBodyPart[]::new);
   }
 
+  private static ApiClientBodyPart toApiClientBodyPart(Attachment attachment) {
+    return attachment.isReopenable()
+        ? new ApiClientBodyPart(attachment::getContent, attachment.getFilename())
+        : new ApiClientBodyPart(attachment.getContent(), attachment.getFilename());
+  }
+
+  /**
+   * Reads the attachments that cannot be reopened once, so that they can be sent several times.
+   * Reopenable attachments are streamed again for each call.
+   */
+  private static Supplier<ApiClientBodyPart[]> bufferApiClientBodyParts(List<Attachment> attachments) {
+    final byte[][] contents = new byte[attachments.size()][];
+    for (int i = 0; i < contents.length; i++) {
+      if (attachments.get(i).isReopenable()) {
+        continue;
+      }
+      try {
+        contents[i] = IOUtils.toByteArray(attachments.get(i).getContent());
+      } catch (IOException e) {
+        throw new MessageCreationException("Failed to read attachment " + attachments.get(i).getFilename(), e);
+      }
+    }
+    return () -> {
+      final ApiClientBodyPart[] parts = new ApiClientBodyPart[contents.length];
+      for (int i = 0; i < parts.length; i++) {
+        final Attachment attachment = attachments.get(i);
+        parts[i] = contents[i] == null
+            ? toApiClientBodyPart(attachment)
+            : new ApiClientBodyPart(new ByteArrayInputStream(contents[i]), attachment.getFilename());
+      }
+      return parts;
+    };
+  }
+
   private <T> T doSendFormData(String path, Map<String, Object> form, TypeReference<T> typeReference)
       throws ApiException {
     final ApiClient apiClient = this.messagesApi.getApiClient();
@@ -425,6 +620,101 @@ public class MessageService implements OboMessageService, OboService<OboMessageS
             authSession.getSessionToken(), authSession.getKeyManagerToken()));
   }
 
+  /**
+   * Downloads the attachment body by the stream ID, message ID and attachment ID, and writes it to the given output.
+   * Unlike {@link #getAttachment(String, String, String)}, the content is never held in memory: it is decoded from
+   * base 64 while being read from the response.
+   * <p>
+   * The output is not closed. If the download fails midway, the output may have received partial content. As the bytes
+   * already written cannot be taken back, the download is only retried if it failed before any byte was written.
+   *
+   * @param streamId     the stream ID where to look for the attachment
+   * @param messageId    the ID of the message containing the attachment
+   * @param attachmentId the ID of the attachment
+   * @param output       where the decoded attachment is written
+   * @param progress     optional listener, notified with the total number of bytes written so far
+   * @return the size of the decoded attachment in bytes
+   * @see <a href="https://developers.symphony.com/restapi/reference#attachment">Attachment</a>
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public long downloadAttachment(@Nonnull String streamId, @Nonnull String messageId, @Nonnull String attachmentId,
+      @Nonnull OutputStream output, @Nullable LongConsumer progress) {
+    final AtomicBoolean written = new AtomicBoolean();
+    final OutputStream trackedOutput = new FilterOutputStream(output) {
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        if (len > 0) {
+          written.set(true);
+        }
+        this.out.write(b, off, len);
+      }
+    };
+    // a retry would append the attachment again after the bytes already written
+    final RetryWithRecoveryBuilder<?> downloadRetryBuilder = RetryWithRecoveryBuilder.from(this.retryBuilder)
+        .retryOnException(e -> !written.get() && RetryWithRecoveryBuilder.isNetworkIssueOrMinorError(e));
+    return this.doDownloadAttachment(downloadRetryBuilder, streamId, messageId, attachmentId,
+        body -> decodeBase64(body, trackedOutput, progress));
+  }
+
+  /**
+   * Downloads the attachment body by the stream ID, message ID and attachment ID to a file. The content is decoded
+   * from base 64 while being read from the response and written to the file, which is created or truncated once the
+   * attachment has been found.
+   *
+   * @param streamId     the stream ID where to look for the attachment
+   * @param messageId    the ID of the message containing the attachment
+   * @param attachmentId the ID of the attachment
+   * @param target       the file where the decoded attachment is written
+   * @param progress     optional listener, notified with the total number of bytes written so far
+   * @return the size of the decoded attachment in bytes
+   * @see <a href="https://developers.symphony.com/restapi/reference#attachment">Attachment</a>
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public long downloadAttachment(@Nonnull String streamId, @Nonnull String messageId, @Nonnull String attachmentId,
+      @Nonnull Path target, @Nullable LongConsumer progress) {
+    return this.doDownloadAttachment(this.retryBuilder, streamId, messageId, attachmentId, body -> {
+      try (OutputStream output = Channels.newOutputStream(FileChannel.open(target, StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+        return decodeBase64(body, output, progress);
+      }
+    });
+  }
+
+  private long doDownloadAttachment(RetryWithRecoveryBuilder<?> downloadRetryBuilder, String streamId,
+      String messageId, String attachmentId, ResponseBodyHandler<Long> bodyHandler) {
+    final ApiClient apiClient = this.attachmentsApi.getApiClient();
+    final String path = "/v1/stream/" + apiClient.escapeString(toUrlSafeIdIfNeeded(streamId)) + "/attachment";
+
+    final List<Pair> queryParams = new ArrayList<>(apiClient.parameterToPairs("", "file", attachmentId));
+    queryParams.addAll(apiClient.parameterToPairs("", "messageId", messageId));
+
+    return executeAndRetry(downloadRetryBuilder, "downloadAttachment", apiClient.getBasePath(), () -> {
+      final Map<String, String> headers = new HashMap<>();
+      headers.put("sessionToken", apiClient.parameterToString(this.authSession.getSessionToken()));
+      headers.put("keyManagerToken", apiClient.parameterToString(this.authSession.getKeyManagerToken()));
+
+      return apiClient.invokeStreamingAPI(path, "GET", queryParams, headers,
+          apiClient.selectHeaderAccept("application/octet-stream"), new String[0], bodyHandler).getData();
+    });
+  }
+
+  private static long decodeBase64(InputStream body, OutputStream output, @Nullable LongConsumer progress)
+      throws IOException {
+    final InputStream decoded = Base64.getMimeDecoder().wrap(body);
+    final byte[] buffer = new byte[DOWNLOAD_BUFFER_SIZE];
+    long total = 0;
+    int read;
+    while ((read = decoded.read(buffer)) >= 0) {
+      output.write(buffer, 0, read);
+      total += read;
+      if (progress != null && read > 0) {
+        progress.accept(total);
+      }
+    }
+    output.flush();
+    return total;
+  }
+
   /**
    * Imports a list of messages to Symphony
    *
@@ -526,6 +816,11 @@ public class MessageService implements OboMessageService, OboService<OboMessageS
   }
 
   private <T> T executeAndRetry(String name, String address, SupplierWithApiException<T> supplier) {
+    return executeAndRetry(retryBuilder, name, address, supplier);
+  }
+
+  private <T> T executeAndRetry(RetryWithRecoveryBuilder<?> retryBuilder, String name, String address,
+      SupplierWithApiException<T> supplier) {
     checkAuthSession(authSession);
     return RetryWithRecovery.executeAndRetry(retryBuilder, name, address, supplier);
   }
@@ -0,0 +1,64 @@
+package com.symphony.bdk.core.service.message.blast;
+
+import com.symphony.bdk.gen.api.model.V4Message;
+
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * Outcome of one blast call made by a {@link MessageBlaster}, notified as soon as the call completes.
+ */
+@Getter
+@API(status = API.Status.EXPERIMENTAL)
+public class BlastChunkResult {
+
+  /**
+   * Index of the chunk, in the order of the targeted streams.
+   */
+  private final int chunkIndex;
+
+  /**
+   * Attempt number, starting at 1. Retries only target the streams that failed in the previous attempt.
+   */
+  private final int attempt;
+
+  /**
+   * Streams targeted by this call.
+   */
+  private final List<String> streamIds;
+
+  /**
+   * Messages successfully sent by this call.
+   */
+  private final List<V4Message> messages;
+
+  /**
+   * Streams the message could not be sent to by this call.
+   */
+  private final List<String> failedStreamIds;
+
+  /**
+   * Error raised by the call when it failed as a whole, null otherwise.
+   */
+  @Nullable private final Throwable error;
+
+  /**
+   * Whether the failed streams of this chunk will be retried.
+   */
+  private final boolean retried;
+
+  BlastChunkResult(int chunkIndex, int attempt, List<String> streamIds, List<V4Message> messages,
+      List<String> failedStreamIds, @Nullable Throwable error, boolean retried) {
+    this.chunkIndex = chunkIndex;
+    this.attempt = attempt;
+    this.streamIds = streamIds;
+    this.messages = messages;
+    this.failedStreamIds = failedStreamIds;
+    this.error = error;
+    this.retried = retried;
+  }
+}
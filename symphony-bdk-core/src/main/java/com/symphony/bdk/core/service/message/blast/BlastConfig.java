@@ -0,0 +1,35 @@
+package com.symphony.bdk.core.service.message.blast;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apiguardian.api.API;
+
+/**
+ * Configuration of a message fan-out, see {@link MessageBlaster}.
+ */
+@Getter
+@Setter
+@API(status = API.Status.EXPERIMENTAL)
+public class BlastConfig {
+
+  public static final int DEFAULT_CHUNK_SIZE = 100;
+  public static final int DEFAULT_MAX_CONCURRENCY = 4;
+  public static final double DEFAULT_CHUNKS_PER_SECOND = 5;
+  public static final int DEFAULT_MAX_ATTEMPTS = 3;
+  public static final long DEFAULT_RETRY_INTERVAL_MILLIS = 2000L;
+
+  /** Maximum number of streams targeted by a single blast call */
+  private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+  /** Maximum number of blast calls running at the same time */
+  private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+  /** Maximum number of blast calls started per second, a value lower or equal to zero disables the rate limit */
+  private double chunksPerSecond = DEFAULT_CHUNKS_PER_SECOND;
+
+  /** Maximum number of times a message is sent to a given stream, including the first attempt */
+  private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+  /** Time to wait before sending the message again to the streams that failed */
+  private long retryIntervalMillis = DEFAULT_RETRY_INTERVAL_MILLIS;
+}
@@ -0,0 +1,44 @@
+package com.symphony.bdk.core.service.message.blast;
+
+import com.symphony.bdk.gen.api.model.V4Message;
+
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import java.util.List;
+
+/**
+ * Final outcome of a message fan-out, once all the chunks have been sent and retried.
+ */
+@Getter
+@API(status = API.Status.EXPERIMENTAL)
+public class BlastReport {
+
+  /**
+   * Number of distinct streams targeted.
+   */
+  private final int streamCount;
+
+  /**
+   * Messages successfully sent, in completion order.
+   */
+  private final List<V4Message> messages;
+
+  /**
+   * Streams the message could not be sent to after all the attempts.
+   */
+  private final List<String> failedStreamIds;
+
+  BlastReport(int streamCount, List<V4Message> messages, List<String> failedStreamIds) {
+    this.streamCount = streamCount;
+    this.messages = messages;
+    this.failedStreamIds = failedStreamIds;
+  }
+
+  /**
+   * @return true if the message has been sent to all the targeted streams.
+   */
+  public boolean isSuccessful() {
+    return this.failedStreamIds.isEmpty();
+  }
+}
@@ -0,0 +1,244 @@
+package com.symphony.bdk.core.service.message.blast;
+
+import static java.util.Collections.emptyList;
+
+import com.symphony.bdk.core.util.IdUtil;
+import com.symphony.bdk.gen.api.model.V4Message;
+import com.symphony.bdk.gen.api.model.V4MessageBlastResponse;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+/**
+ * Fan-out engine sending a message to a large number of streams. Streams are split into chunks of
+ * {@link BlastConfig#getChunkSize()} streams, each chunk being sent with a single blast call. Chunks are sent
+ * concurrently by at most {@link BlastConfig#getMaxConcurrency()} workers, and no more than
+ * {@link BlastConfig#getChunksPerSecond()} calls are started per second.
+ * <p>
+ * When a blast call reports errors for some streams, only these streams are sent the message again, after
+ * {@link BlastConfig#getRetryIntervalMillis()}, until {@link BlastConfig#getMaxAttempts()} is reached.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class MessageBlaster {
+
+  private static final long POLL_INTERVAL_MILLIS = 100L;
+
+  private final BlastConfig config;
+  private final Executor executor;
+  private final Function<List<String>, V4MessageBlastResponse> sender;
+
+  /**
+   * @param config   the fan-out configuration.
+   * @param executor the executor running the workers, it must be able to run
+   *                 {@link BlastConfig#getMaxConcurrency()} tasks at the same time.
+   * @param sender   sends the message to a chunk of streams with a single blast call.
+   */
+  public MessageBlaster(BlastConfig config, Executor executor, Function<List<String>, V4MessageBlastResponse> sender) {
+    this.config = config;
+    this.executor = executor;
+    this.sender = sender;
+  }
+
+  /**
+   * Sends the message to the given streams.
+   *
+   * @param streamIds the streams to send the message to, duplicates are ignored.
+   * @param listener  optional listener notified, from the worker threads, each time a blast call completes.
+   * @return a future completed once the message has been sent to all the streams, or once all the attempts have
+   *     been made for the streams that failed.
+   */
+  public CompletableFuture<BlastReport> blast(List<String> streamIds, @Nullable Consumer<BlastChunkResult> listener) {
+    return new Run(new ArrayList<>(new LinkedHashSet<>(streamIds)), listener).start();
+  }
+
+  private static List<String> failedStreamIds(List<String> streamIds, @Nullable Map<String, ?> errors) {
+    if (errors == null || errors.isEmpty()) {
+      return emptyList();
+    }
+    final Set<String> errorIds = new HashSet<>();
+    for (String streamId : errors.keySet()) {
+      errorIds.add(IdUtil.toUrlSafeIdIfNeeded(streamId));
+    }
+    final List<String> failed = new ArrayList<>();
+    for (String streamId : streamIds) {
+      if (errorIds.contains(IdUtil.toUrlSafeIdIfNeeded(streamId))) {
+        failed.add(streamId);
+      }
+    }
+    return failed;
+  }
+
+  private final class Run {
+
+    private final List<String> streamIds;
+    private final Consumer<BlastChunkResult> listener;
+    private final DelayQueue<ChunkTask> queue = new DelayQueue<>();
+    private final AtomicInteger remainingChunks = new AtomicInteger();
+    private final Queue<V4Message> messages = new ConcurrentLinkedQueue<>();
+    private final Queue<String> failedStreamIds = new ConcurrentLinkedQueue<>();
+    private final CompletableFuture<BlastReport> result = new CompletableFuture<>();
+    private final long intervalNanos;
+    private final long retryIntervalNanos;
+    private long nextSlot;
+
+    Run(List<String> streamIds, @Nullable Consumer<BlastChunkResult> listener) {
+      this.streamIds = streamIds;
+      this.listener = listener;
+      this.intervalNanos = config.getChunksPerSecond() > 0 ? (long) (1e9 / config.getChunksPerSecond()) : 0;
+      this.retryIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getRetryIntervalMillis());
+    }
+
+    CompletableFuture<BlastReport> start() {
+      final int chunkSize = Math.max(1, config.getChunkSize());
+      final long now = System.nanoTime();
+      for (int from = 0, index = 0; from < this.streamIds.size(); from += chunkSize, index++) {
+        final List<String> chunk = this.streamIds.subList(from, Math.min(from + chunkSize, this.streamIds.size()));
+        this.queue.add(new ChunkTask(index, new ArrayList<>(chunk), 1, now));
+      }
+      this.remainingChunks.set(this.queue.size());
+
+      if (this.queue.isEmpty()) {
+        this.complete();
+        return this.result;
+      }
+
+      final int workers = Math.min(Math.max(1, config.getMaxConcurrency()), this.queue.size());
+      log.debug("Sending message to {} streams in {} chunks with {} workers", this.streamIds.size(),
+          this.queue.size(), workers);
+      try {
+        for (int i = 0; i < workers; i++) {
+          executor.execute(this::work);
+        }
+      } catch (RuntimeException e) {
+        this.result.completeExceptionally(e);
+      }
+      return this.result;
+    }
+
+    private void work() {
+      try {
+        while (this.remainingChunks.get() > 0 && !this.result.isDone()) {
+          final ChunkTask task = this.queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+          if (task != null) {
+            this.pace();
+            this.send(task);
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        this.result.completeExceptionally(e);
+      }
+    }
+
+    private void send(ChunkTask task) {
+      List<V4Message> sent = emptyList();
+      List<String> failed;
+      Throwable error = null;
+      try {
+        final V4MessageBlastResponse response = sender.apply(task.streamIds);
+        if (response.getMessages() != null) {
+          sent = response.getMessages();
+        }
+        failed = failedStreamIds(task.streamIds, response.getErrors());
+      } catch (RuntimeException e) {
+        log.debug("Blast call of chunk {} failed at attempt {}", task.index, task.attempt, e);
+        failed = task.streamIds;
+        error = e;
+      }
+      this.messages.addAll(sent);
+
+      final boolean retried = !failed.isEmpty() && task.attempt < config.getMaxAttempts();
+      this.notify(new BlastChunkResult(task.index, task.attempt, task.streamIds, sent, failed, error, retried));
+
+      if (retried) {
+        final long notBefore = System.nanoTime() + this.retryIntervalNanos;
+        this.queue.add(new ChunkTask(task.index, failed, task.attempt + 1, notBefore));
+      } else {
+        this.failedStreamIds.addAll(failed);
+        if (this.remainingChunks.decrementAndGet() == 0) {
+          this.complete();
+        }
+      }
+    }
+
+    private void notify(BlastChunkResult chunkResult) {
+      if (this.listener == null) {
+        return;
+      }
+      try {
+        this.listener.accept(chunkResult);
+      } catch (RuntimeException e) {
+        log.warn("Blast listener failed on chunk {}", chunkResult.getChunkIndex(), e);
+      }
+    }
+
+    private void pace() throws InterruptedException {
+      if (this.intervalNanos <= 0) {
+        return;
+      }
+      final long wait;
+      synchronized (this) {
+        final long now = System.nanoTime();
+        final long slot = this.nextSlot == 0 ? now : Math.max(now, this.nextSlot);
+        this.nextSlot = slot + this.intervalNanos;
+        wait = slot - now;
+      }
+      if (wait > 0) {
+        TimeUnit.NANOSECONDS.sleep(wait);
+      }
+    }
+
+    private void complete() {
+      this.result.complete(new BlastReport(this.streamIds.size(),
+          Collections.unmodifiableList(new ArrayList<>(this.messages)),
+          Collections.unmodifiableList(new ArrayList<>(this.failedStreamIds))));
+    }
+  }
+
+  private static final class ChunkTask implements Delayed {
+
+    private final int index;
+    private final List<String> streamIds;
+    private final int attempt;
+    private final long notBefore;
+
+    ChunkTask(int index, List<String> streamIds, int attempt, long notBefore) {
+      this.index = index;
+      this.streamIds = streamIds;
+      this.attempt = attempt;
+      this.notBefore = notBefore;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(this.notBefore - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      final int byTime = Long.compare(this.notBefore, ((ChunkTask) other).notBefore);
+      return byTime != 0 ? byTime : Integer.compare(this.index, ((ChunkTask) other).index);
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.symphony.bdk.core.service.message.export;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apiguardian.api.API;
+
+import java.time.Duration;
+
+/**
+ * Configuration of a message history export, see {@link MessageExporter}.
+ */
+@Getter
+@Setter
+@API(status = API.Status.EXPERIMENTAL)
+public class ExportConfig {
+
+  public static final Duration DEFAULT_SHARD_DURATION = Duration.ofDays(1);
+  public static final int DEFAULT_MAX_CONCURRENCY = 4;
+  public static final int DEFAULT_PAGE_SIZE = 500;
+  public static final int DEFAULT_MAX_BUFFERED_PAGES = 4;
+
+  /** Time range covered by each shard, shards are fetched independently from each other */
+  private Duration shardDuration = DEFAULT_SHARD_DURATION;
+
+  /** Maximum number of shards fetched at the same time */
+  private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+  /** Maximum number of messages returned by each call */
+  private int pageSize = DEFAULT_PAGE_SIZE;
+
+  /** Maximum number of pages fetched ahead for each shard, bounding the memory used by an export */
+  private int maxBufferedPages = DEFAULT_MAX_BUFFERED_PAGES;
+}
@@ -0,0 +1,47 @@
+package com.symphony.bdk.core.service.message.export;
+
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a message history export.
+ */
+@Getter
+@API(status = API.Status.EXPERIMENTAL)
+public class ExportReport {
+
+  /**
+   * Start of the range exported by this run, later than the requested one when an export is resumed.
+   */
+  private final Instant since;
+
+  /**
+   * End of the exported range, exclusive.
+   */
+  private final Instant until;
+
+  /**
+   * Number of shards the range has been split into.
+   */
+  private final int shardCount;
+
+  /**
+   * Number of messages written to the sink by this run.
+   */
+  private final long messageCount;
+
+  /**
+   * Number of messages returned more than once by the API, and written only once.
+   */
+  private final long duplicateCount;
+
+  ExportReport(Instant since, Instant until, int shardCount, long messageCount, long duplicateCount) {
+    this.since = since;
+    this.until = until;
+    this.shardCount = shardCount;
+    this.messageCount = messageCount;
+    this.duplicateCount = duplicateCount;
+  }
+}
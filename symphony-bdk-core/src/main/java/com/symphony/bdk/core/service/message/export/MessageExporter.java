@@ -0,0 +1,357 @@
+package com.symphony.bdk.core.service.message.export;
+
+import com.symphony.bdk.core.service.pagination.model.PaginationAttribute;
+import com.symphony.bdk.gen.api.model.V4Message;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Exports the message history of a stream over a time range. The range is split into shards of
+ * {@link ExportConfig#getShardDuration()}, each shard being paged through independently so that at most
+ * {@link ExportConfig#getMaxConcurrency()} shards are fetched at the same time.
+ * <p>
+ * Messages are delivered to the sink from the calling thread, in timestamp order: shards are consumed one after the
+ * other while the next ones are fetched ahead, up to {@link ExportConfig#getMaxBufferedPages()} pages each, so the
+ * memory used does not depend on the size of the history. Messages returned twice, at shard or page boundaries, are
+ * delivered once.
+ * <p>
+ * Once a shard has been fully delivered, its end is notified as a checkpoint: an interrupted export can be resumed by
+ * exporting again from the last checkpoint.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class MessageExporter {
+
+  private static final long POLL_INTERVAL_MILLIS = 100L;
+  private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+  private static final String SINCE = "since";
+  private static final String UNTIL = "until";
+  private static final String EXPORTED = "exported";
+  private static final String OFFSET = "offset";
+
+  private static final ObjectMapper MAPPER = new JsonMapper();
+  private static final ObjectWriter WRITER = MAPPER.writer()
+      .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+      .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+  private static final Comparator<V4Message> BY_TIMESTAMP =
+      Comparator.comparingLong(message -> message.getTimestamp() == null ? 0L : message.getTimestamp());
+  private static final Page LAST = new Page(Collections.emptyList(), null);
+
+  private final ExportConfig config;
+  private final Executor executor;
+  private final BiFunction<Instant, PaginationAttribute, List<V4Message>> reader;
+
+  /**
+   * @param config   the export configuration.
+   * @param executor the executor fetching the shards, it must be able to run
+   *                 {@link ExportConfig#getMaxConcurrency()} tasks at the same time.
+   * @param reader   returns a page of the messages sent since a given instant, in timestamp order.
+   */
+  public MessageExporter(ExportConfig config, Executor executor,
+      BiFunction<Instant, PaginationAttribute, List<V4Message>> reader) {
+    this.config = config;
+    this.executor = executor;
+    this.reader = reader;
+  }
+
+  /**
+   * Exports the messages sent in the given range to a sink.
+   *
+   * @param since              start of the range, inclusive.
+   * @param until              end of the range, exclusive.
+   * @param sink               receives the messages in timestamp order, from the calling thread.
+   * @param checkpointListener optional listener notified, from the calling thread, with the instant before which all
+   *                           the messages have been delivered to the sink.
+   * @return the export report.
+   * @throws CancellationException if the calling thread is interrupted.
+   */
+  public ExportReport export(Instant since, Instant until, Consumer<V4Message> sink,
+      @Nullable Consumer<Instant> checkpointListener) {
+    final List<Shard> shards = this.split(since.toEpochMilli(), until.toEpochMilli());
+    final RecentIds recentIds = new RecentIds(2 * this.pageSize());
+    long messageCount = 0;
+    long duplicateCount = 0;
+
+    log.debug("Exporting messages from {} to {} in {} shards", since, until, shards.size());
+    try {
+      int next = 0;
+      for (; next < Math.min(Math.max(1, this.config.getMaxConcurrency()), shards.size()); next++) {
+        this.start(shards.get(next));
+      }
+      for (Shard shard : shards) {
+        Page page;
+        while ((page = shard.take()) != LAST) {
+          for (V4Message message : page.messages) {
+            if (recentIds.add(message.getMessageId())) {
+              sink.accept(message);
+              messageCount++;
+            } else {
+              duplicateCount++;
+            }
+          }
+        }
+        if (next < shards.size()) {
+          this.start(shards.get(next++));
+        }
+        if (checkpointListener != null) {
+          checkpointListener.accept(Instant.ofEpochMilli(shard.until));
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Message export interrupted");
+    } finally {
+      shards.forEach(Shard::cancel);
+    }
+    return new ExportReport(since, until, shards.size(), messageCount, duplicateCount);
+  }
+
+  /**
+   * Exports the messages sent in the given range to a file, one JSON message per line (NDJSON).
+   * <p>
+   * Progress is saved in a checkpoint file, next to the export file with the {@code .checkpoint} suffix. If the
+   * export is interrupted, exporting again the same range to the same file resumes it from the last checkpoint. Once
+   * the export has completed the checkpoint file is deleted; an existing export file without checkpoint is overwritten.
+   *
+   * @param since start of the range, inclusive.
+   * @param until end of the range, exclusive.
+   * @param file  the file to write the messages to.
+   * @return the export report.
+   * @throws IOException if the file cannot be written.
+   */
+  public ExportReport export(Instant since, Instant until, Path file) throws IOException {
+    final Path checkpointFile = file.resolveSibling(file.getFileName() + CHECKPOINT_SUFFIX);
+    final JsonNode checkpoint = readCheckpoint(checkpointFile, since, until);
+    final Instant from = checkpoint == null ? since : Instant.ofEpochMilli(checkpoint.get(EXPORTED).asLong());
+
+    final ExportReport report;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      channel.truncate(checkpoint == null ? 0 : checkpoint.get(OFFSET).asLong());
+      channel.position(channel.size());
+      if (checkpoint != null) {
+        log.info("Resuming export to {} from {}", file, from);
+      }
+      final Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1);
+      try {
+        report = this.export(from, until, message -> {
+          try {
+            WRITER.writeValue(writer, message);
+            writer.write('\n');
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }, exported -> {
+          try {
+            writer.flush();
+            channel.force(false);
+            writeCheckpoint(checkpointFile, since, until, exported, channel.position());
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      writer.flush();
+    }
+    Files.deleteIfExists(checkpointFile);
+    return report;
+  }
+
+  private List<Shard> split(long since, long until) {
+    final long duration = Math.max(1L, this.config.getShardDuration().toMillis());
+    final int capacity = Math.max(1, this.config.getMaxBufferedPages());
+    final List<Shard> shards = new ArrayList<>();
+    long from = since;
+    while (from < until) {
+      final long to = until - from <= duration ? until : from + duration;
+      shards.add(new Shard(from, to, capacity));
+      from = to;
+    }
+    return shards;
+  }
+
+  private void start(Shard shard) {
+    this.executor.execute(() -> this.fetch(shard));
+  }
+
+  private void fetch(Shard shard) {
+    final int pageSize = this.pageSize();
+    // one millisecond earlier in case messages sent at the exact start of the shard are not returned,
+    // messages outside of the shard are filtered out anyway
+    final Instant from = Instant.ofEpochMilli(shard.since - 1);
+    try {
+      int skip = 0;
+      while (!shard.cancelled) {
+        final List<V4Message> page = this.reader.apply(from, new PaginationAttribute(skip, pageSize));
+        if (page == null || page.isEmpty()) {
+          break;
+        }
+        final List<V4Message> messages = new ArrayList<>(page.size());
+        boolean reachedEnd = false;
+        for (V4Message message : page) {
+          final long timestamp = message.getTimestamp() == null ? shard.since : message.getTimestamp();
+          if (timestamp >= shard.until) {
+            reachedEnd = true;
+          } else if (timestamp >= shard.since) {
+            messages.add(message);
+          }
+        }
+        if (!messages.isEmpty()) {
+          messages.sort(BY_TIMESTAMP);
+          shard.put(new Page(messages, null));
+        }
+        if (reachedEnd || page.size() < pageSize) {
+          break;
+        }
+        skip += page.size();
+      }
+      shard.put(LAST);
+    } catch (RuntimeException e) {
+      log.debug("Failed to fetch messages from {}", Instant.ofEpochMilli(shard.since), e);
+      try {
+        shard.put(new Page(null, e));
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      shard.pages.offer(new Page(null, new CancellationException("Message export interrupted")));
+    }
+  }
+
+  private int pageSize() {
+    return Math.max(1, this.config.getPageSize());
+  }
+
+  @Nullable
+  private static JsonNode readCheckpoint(Path checkpointFile, Instant since, Instant until) {
+    if (!Files.exists(checkpointFile)) {
+      return null;
+    }
+    try {
+      final JsonNode checkpoint = MAPPER.readTree(checkpointFile.toFile());
+      if (checkpoint.path(SINCE).asLong() == since.toEpochMilli()
+          && checkpoint.path(UNTIL).asLong() == until.toEpochMilli()
+          && checkpoint.has(EXPORTED) && checkpoint.has(OFFSET)) {
+        return checkpoint;
+      }
+      log.info("Checkpoint {} was saved for another range, starting a new export", checkpointFile);
+    } catch (IOException e) {
+      log.warn("Unable to read checkpoint {}, starting a new export", checkpointFile, e);
+    }
+    return null;
+  }
+
+  private static void writeCheckpoint(Path checkpointFile, Instant since, Instant until, Instant exported,
+      long offset) throws IOException {
+    final Path temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+    Files.write(temporaryFile, MAPPER.writeValueAsBytes(MAPPER.createObjectNode()
+        .put(SINCE, since.toEpochMilli())
+        .put(UNTIL, until.toEpochMilli())
+        .put(EXPORTED, exported.toEpochMilli())
+        .put(OFFSET, offset)));
+    Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static final class Shard {
+
+    private final long since;
+    private final long until;
+    private final BlockingQueue<Page> pages;
+    private volatile boolean cancelled;
+
+    Shard(long since, long until, int capacity) {
+      this.since = since;
+      this.until = until;
+      this.pages = new ArrayBlockingQueue<>(capacity);
+    }
+
+    void put(Page page) throws InterruptedException {
+      // the consumer may still be busy with previous shards
+      while (!this.cancelled) {
+        if (this.pages.offer(page, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+      }
+    }
+
+    Page take() throws InterruptedException {
+      final Page page = this.pages.take();
+      if (page.error != null) {
+        throw page.error;
+      }
+      return page;
+    }
+
+    void cancel() {
+      this.cancelled = true;
+      this.pages.clear();
+    }
+  }
+
+  private static final class Page {
+
+    private final List<V4Message> messages;
+    private final RuntimeException error;
+
+    Page(List<V4Message> messages, @Nullable RuntimeException error) {
+      this.messages = messages;
+      this.error = error;
+    }
+  }
+
+  /**
+   * Bounded set of the last delivered message IDs, duplicates can only be returned close to each other.
+   */
+  private static final class RecentIds extends LinkedHashMap<String, Boolean> {
+
+    private final int maxSize;
+
+    RecentIds(int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    boolean add(@Nullable String messageId) {
+      return messageId == null || this.put(messageId, Boolean.TRUE) == null;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+      return this.size() > this.maxSize;
+    }
+  }
+}
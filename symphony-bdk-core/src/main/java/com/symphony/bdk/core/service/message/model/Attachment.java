@@ -2,27 +2,69 @@ package com.symphony.bdk.core.service.message.model;
 
 import com.symphony.bdk.core.service.message.exception.MessageCreationException;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.apiguardian.api.API;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
 
 /**
  * Attachment model to be used in {@link com.symphony.bdk.core.service.message.model.Message.MessageBuilder}
  * to attach a file to a {@link Message}
+ * <p>
+ * An attachment created from a file or a {@link Supplier} is reopenable: its content is streamed when the message is
+ * sent and opened again if the message has to be sent several times (retries, blast chunks), instead of being
+ * loaded in memory.
  */
 @Getter
 @API(status = API.Status.STABLE)
 public class Attachment {
 
-  private final InputStream content;
+  @Getter(AccessLevel.NONE)
+  private final Supplier<InputStream> contentSupplier;
   private final String filename;
+  private final boolean reopenable;
 
   public Attachment(InputStream content, String filename) {
-    this.content = content;
+    this(() -> content, filename, false);
+  }
+
+  @API(status = API.Status.EXPERIMENTAL)
+  public Attachment(Supplier<InputStream> contentSupplier, String filename) {
+    this(contentSupplier, filename, true);
+  }
+
+  @API(status = API.Status.EXPERIMENTAL)
+  public Attachment(Path file) {
+    this(() -> open(file), String.valueOf(file.getFileName()), true);
+  }
+
+  private Attachment(Supplier<InputStream> contentSupplier, String filename, boolean reopenable) {
+    this.contentSupplier = contentSupplier;
     if (filename.split("\\.").length < 2 ) {
       throw new MessageCreationException("Invalid attachment's filename, extension is missing.");
     }
     this.filename = filename;
+    this.reopenable = reopenable;
+  }
+
+  /**
+   * @return the content of the attachment, a newly opened stream if the attachment is reopenable.
+   */
+  public InputStream getContent() {
+    return this.contentSupplier.get();
+  }
+
+  private static InputStream open(Path file) {
+    try {
+      return Files.newInputStream(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open attachment " + file, e);
+    }
   }
 }
@@ -19,8 +19,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.apiguardian.api.API;
 
 import java.io.InputStream;
+import java.nio.CharBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import javax.annotation.Nonnull;
 
@@ -89,6 +92,9 @@ public class Message {
   public static class MessageBuilder {
 
     private static final ObjectMapper MAPPER = new JsonMapper();
+    private static final String MESSAGEML_START = "<messageML>";
+    private static final String MESSAGEML_END = "</messageML>";
+    private static final int INITIAL_CONTENT_CAPACITY = 1024;
 
     private String version = "2.0";
     private String content;
@@ -109,14 +115,26 @@ public class Message {
     }
 
     /**
-     * Add content from a template to the message.
+     * Add content from a template to the message. The template is rendered directly into the buffer the content is
+     * built from, so that no intermediate string is created even for large contents.
      *
      * @param   template    a custom or built-in template.
      * @param   parameters  parameters to be used in the template.
      * @return  this builder with the content configured.
      */
     public MessageBuilder template(@Nonnull Template template, @Nonnull Object parameters) {
-      this.content = template.process(parameters);
+      // the opening tag is written first so that wrapping the content does not require moving it afterwards
+      final StringBuilder output = new StringBuilder(INITIAL_CONTENT_CAPACITY).append(MESSAGEML_START);
+      final int start = output.length();
+      template.process(parameters, output);
+      final CharSequence rendered = CharBuffer.wrap(output, start, output.length());
+      if (rendered.length() == 0) {
+        this.content = "";
+      } else if (isMessageML(rendered)) {
+        this.content = output.substring(start);
+      } else {
+        this.content = output.append(MESSAGEML_END).toString();
+      }
       return this;
     }
 
@@ -160,6 +178,30 @@ public class Message {
       return this;
     }
 
+    /**
+     * Add a file attachment to the message. The file is streamed when the message is sent.
+     * @param file Path of the attachment, its name is used as filename.
+     * @return  this builder with the data configured.
+     */
+    @API(status = API.Status.EXPERIMENTAL)
+    public MessageBuilder addAttachment(@Nonnull Path file) {
+      this.attachments.add(new Attachment(file));
+      return this;
+    }
+
+    /**
+     * Add a reopenable attachment to the message. The supplier is called each time the message is sent, so that
+     * retries do not require the content to be held in memory.
+     * @param content Supplier opening a new stream of the attachment content.
+     * @param filename Filename of the attachment.
+     * @return  this builder with the data configured.
+     */
+    @API(status = API.Status.EXPERIMENTAL)
+    public MessageBuilder addAttachment(@Nonnull Supplier<InputStream> content, @Nonnull String filename) {
+      this.attachments.add(new Attachment(content, filename));
+      return this;
+    }
+
     /**
      * Add attachment (with preview) to the message.
      * @param attachment Input stream of the attachment content.
@@ -185,9 +227,9 @@ public class Message {
       }
 
       // check if content is encapsulated in <messageML/> node
-      if (!this.content.startsWith("<messageML>") && !this.content.endsWith("</messageML>")) {
+      if (!isMessageML(this.content)) {
         log.trace("Processing content to prefix with <messageML> and suffix with </messageML>");
-        this.content = "<messageML>" + this.content + "</messageML>";
+        this.content = MESSAGEML_START + this.content + MESSAGEML_END;
       }
 
       // check done below because it will rejected by the agent otherwise
@@ -197,5 +239,9 @@ public class Message {
 
       return new Message(this);
     }
+
+    private static boolean isMessageML(CharSequence content) {
+      return StringUtils.startsWith(content, MESSAGEML_START) || StringUtils.endsWith(content, MESSAGEML_END);
+    }
   }
 }
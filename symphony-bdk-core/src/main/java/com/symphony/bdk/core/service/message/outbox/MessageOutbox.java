@@ -0,0 +1,441 @@
+package com.symphony.bdk.core.service.message.outbox;
+
+import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
+import com.symphony.bdk.core.service.message.MessageService;
+import com.symphony.bdk.core.service.message.model.Message;
+import com.symphony.bdk.gen.api.model.V4Message;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Outbound message queue sitting in front of a {@link MessageService}: messages are accepted immediately and sent
+ * asynchronously by a fixed number of workers, so that callers such as datafeed listeners are not slowed down by the
+ * agent.
+ * <p>
+ * Messages of a given stream are sent one at a time, in the order they were accepted, while streams are served
+ * round-robin. Calls are paced to {@link OutboxConfig#getPermitsPerSecond()} and calls failing with a network issue or
+ * a 429 or 5xx error are retried up to {@link OutboxConfig#getMaxAttempts()} times, other errors failing the message at
+ * once. Consecutive updates of the same message still waiting to be sent are merged, only the last content being sent.
+ * <p>
+ * When a {@link OutboxConfig#getJournal()} is configured, pending messages are written to an append log and sent again
+ * when a new outbox is created with the same journal, e.g. after a restart. Messages with attachments are not
+ * persisted.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class MessageOutbox implements Closeable {
+
+  private static final ObjectMapper MAPPER = new JsonMapper();
+
+  private static final String STREAM_ID = "streamId";
+  private static final String MESSAGE_ID = "messageId";
+  private static final String CONTENT = "content";
+  private static final String DATA = "data";
+  private static final String VERSION = "version";
+  private static final String SILENT = "silent";
+
+  private final MessageService messageService;
+  private final int maxAttempts;
+  private final long retryIntervalMillis;
+  private final long intervalNanos;
+  private final boolean coalesceUpdates;
+  @Nullable
+  private final OutboxJournal journal;
+  private final ExecutorService workers;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition readyCondition = this.lock.newCondition();
+  /** Messages waiting to be sent, per stream. A stream is present as long as it has a message pending or in flight */
+  private final Map<String, Deque<Entry>> queues = new HashMap<>();
+  /** Streams with messages waiting to be sent and no message in flight */
+  private final Deque<String> ready = new ArrayDeque<>();
+  private int pending;
+  private long sequence;
+  private boolean running = true;
+  private final int recovered;
+
+  private long nextSlot;
+
+  /**
+   * Creates an outbox and starts its workers. If a journal is configured, the messages it still contains are queued
+   * again.
+   *
+   * @param messageService the service used to send the messages.
+   * @param config         the outbox configuration.
+   * @throws UncheckedIOException if the journal cannot be opened or read.
+   */
+  public MessageOutbox(@Nonnull MessageService messageService, @Nonnull OutboxConfig config) {
+    this.messageService = messageService;
+    this.maxAttempts = Math.max(1, config.getMaxAttempts());
+    this.retryIntervalMillis = config.getRetryIntervalMillis();
+    this.intervalNanos =
+        config.getPermitsPerSecond() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / config.getPermitsPerSecond()) : 0;
+    this.coalesceUpdates = config.isCoalesceUpdates();
+
+    List<ObjectNode> records = new ArrayList<>();
+    try {
+      this.journal = config.getJournal() == null ? null : new OutboxJournal(config.getJournal());
+      if (this.journal != null) {
+        records = this.journal.recover();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read outbox journal " + config.getJournal(), e);
+    }
+    this.lock.lock();
+    try {
+      records.forEach(this::recover);
+    } finally {
+      this.lock.unlock();
+    }
+    this.recovered = records.size();
+
+    final int concurrency = Math.max(1, config.getMaxConcurrency());
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.workers = Executors.newFixedThreadPool(concurrency, r -> {
+      final Thread thread = new Thread(r, "Message-Outbox-Thread-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    for (int i = 0; i < concurrency; i++) {
+      this.workers.execute(this::work);
+    }
+  }
+
+  /**
+   * Queues a message to be sent to a stream.
+   *
+   * @param streamId the ID of the stream to send the message to.
+   * @param message  the message to be sent.
+   * @return a future completed with the sent message, or exceptionally if the message could not be sent.
+   */
+  public CompletableFuture<V4Message> send(@Nonnull String streamId, @Nonnull Message message) {
+    return this.enqueue(streamId, null, message);
+  }
+
+  /**
+   * Queues the update of an existing message. If an update of the same message is the last message waiting to be sent
+   * to this stream, and updates coalescing is enabled, it is replaced by this one and both futures are completed with
+   * the result of the single call.
+   *
+   * @param streamId  the ID of the stream where the message to be updated comes from.
+   * @param messageId the ID of the message to be updated.
+   * @param content   the update content.
+   * @return a future completed with the updated message, or exceptionally if the message could not be updated.
+   */
+  public CompletableFuture<V4Message> update(@Nonnull String streamId, @Nonnull String messageId,
+      @Nonnull Message content) {
+    return this.enqueue(streamId, messageId, content);
+  }
+
+  /**
+   * @return the number of messages waiting to be sent or being sent.
+   */
+  public int getPendingCount() {
+    this.lock.lock();
+    try {
+      return this.pending;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of messages recovered from the journal when this outbox was created.
+   */
+  public int getRecoveredCount() {
+    return this.recovered;
+  }
+
+  /**
+   * Stops the workers. Messages that have not been sent yet are completed exceptionally with a
+   * {@link CancellationException}, they remain in the journal if any.
+   */
+  @Override
+  public void close() {
+    final List<Entry> cancelled = new ArrayList<>();
+    this.lock.lock();
+    try {
+      if (!this.running) {
+        return;
+      }
+      this.running = false;
+      this.queues.values().forEach(cancelled::addAll);
+      this.queues.clear();
+      this.ready.clear();
+      this.readyCondition.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+    this.workers.shutdownNow();
+    cancelled.forEach(entry -> entry.fail(new CancellationException("Message outbox closed")));
+    if (this.journal != null) {
+      try {
+        this.journal.close();
+      } catch (IOException e) {
+        log.warn("Unable to close outbox journal", e);
+      }
+    }
+  }
+
+  private CompletableFuture<V4Message> enqueue(String streamId, @Nullable String messageId, Message message) {
+    final CompletableFuture<V4Message> future = new CompletableFuture<>();
+    this.lock.lock();
+    try {
+      if (!this.running) {
+        future.completeExceptionally(new IllegalStateException("Message outbox is closed"));
+        return future;
+      }
+      final Deque<Entry> queue = this.queues.get(streamId);
+      final Entry last = queue == null ? null : queue.peekLast();
+      if (this.coalesceUpdates && messageId != null && last != null && messageId.equals(last.messageId)) {
+        final long replaced = last.id;
+        final boolean replacedPersisted = last.persisted;
+        last.id = ++this.sequence;
+        last.message = message;
+        last.futures.add(future);
+        this.persist(last);
+        this.acknowledge(replaced, replacedPersisted);
+        return future;
+      }
+
+      final Entry entry = new Entry(++this.sequence, streamId, messageId, message);
+      entry.futures.add(future);
+      this.persist(entry);
+      this.add(entry);
+      return future;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void recover(ObjectNode record) {
+    final Message.MessageBuilder builder = Message.builder()
+        .content(record.get(CONTENT).asText())
+        .silent(record.path(SILENT).asBoolean(true));
+    if (record.hasNonNull(VERSION)) {
+      builder.version(record.get(VERSION).asText());
+    }
+    if (record.hasNonNull(DATA)) {
+      builder.data(record.get(DATA));
+    }
+    final String messageId = record.hasNonNull(MESSAGE_ID) ? record.get(MESSAGE_ID).asText() : null;
+    // the compacted journal still holds the record, the entry keeps its sequence number instead of appending it again
+    final long id = record.get(OutboxJournal.ID).asLong();
+    this.sequence = Math.max(this.sequence, id);
+    final Entry entry = new Entry(id, record.get(STREAM_ID).asText(), messageId, builder.build());
+    entry.persisted = true;
+    final CompletableFuture<V4Message> future = new CompletableFuture<>();
+    future.whenComplete((message, error) -> {
+      if (error != null) {
+        log.warn("Unable to send message recovered from outbox journal to stream {}", entry.streamId, error);
+      }
+    });
+    entry.futures.add(future);
+    this.add(entry);
+  }
+
+  private void add(Entry entry) {
+    this.pending++;
+    final Deque<Entry> queue = this.queues.get(entry.streamId);
+    if (queue != null) {
+      // the stream is either already ready or has a message in flight
+      queue.addLast(entry);
+      return;
+    }
+    final Deque<Entry> newQueue = new ArrayDeque<>();
+    newQueue.addLast(entry);
+    this.queues.put(entry.streamId, newQueue);
+    this.ready.addLast(entry.streamId);
+    this.readyCondition.signal();
+  }
+
+  private void work() {
+    try {
+      Entry entry;
+      while ((entry = this.next()) != null) {
+        this.dispatch(entry);
+        this.release(entry);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Entry next() throws InterruptedException {
+    this.lock.lock();
+    try {
+      while (this.running && this.ready.isEmpty()) {
+        this.readyCondition.await();
+      }
+      if (!this.running) {
+        return null;
+      }
+      return this.queues.get(this.ready.pollFirst()).pollFirst();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void release(Entry entry) {
+    this.lock.lock();
+    try {
+      this.pending--;
+      final Deque<Entry> queue = this.queues.get(entry.streamId);
+      if (queue == null) {
+        return;
+      }
+      if (queue.isEmpty()) {
+        this.queues.remove(entry.streamId);
+      } else {
+        this.ready.addLast(entry.streamId);
+        this.readyCondition.signal();
+      }
+      if (this.pending == 0 && this.journal != null) {
+        this.journal.truncate();
+      }
+    } catch (IOException e) {
+      log.warn("Unable to truncate outbox journal", e);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void dispatch(Entry entry) throws InterruptedException {
+    try {
+      for (int attempt = 1; ; attempt++) {
+        this.pace();
+        try {
+          final V4Message result = entry.messageId == null
+              ? this.messageService.send(entry.streamId, entry.message)
+              : this.messageService.update(entry.streamId, entry.messageId, entry.message);
+          entry.futures.forEach(future -> future.complete(result));
+          break;
+        } catch (RuntimeException e) {
+          if (attempt >= this.maxAttempts || !isRetryable(e)) {
+            log.warn("Unable to send message to stream {} after {} attempts", entry.streamId, attempt, e);
+            entry.fail(e);
+            break;
+          }
+          log.debug("Failed to send message to stream {}, retrying", entry.streamId, e);
+        }
+        TimeUnit.MILLISECONDS.sleep(this.retryIntervalMillis);
+      }
+    } catch (InterruptedException e) {
+      // the outbox is closed, the message remains in the journal to be sent after a restart
+      entry.fail(new CancellationException("Message outbox closed"));
+      throw e;
+    }
+    this.acknowledge(entry.id, entry.persisted);
+  }
+
+  /**
+   * @return whether the error may be temporary, e.g. a network issue or a 5xx or 429 error, other errors like an
+   * invalid message or a missing stream fail the message at once.
+   */
+  private static boolean isRetryable(RuntimeException e) {
+    // the message service wraps the errors returned by the pod
+    final Throwable error = e instanceof ApiRuntimeException && e.getCause() != null ? e.getCause() : e;
+    return RetryWithRecoveryBuilder.isNetworkIssueOrMinorError(error);
+  }
+
+  private void pace() throws InterruptedException {
+    if (this.intervalNanos <= 0) {
+      return;
+    }
+    final long wait;
+    synchronized (this) {
+      final long now = System.nanoTime();
+      final long slot = this.nextSlot == 0 ? now : Math.max(now, this.nextSlot);
+      this.nextSlot = slot + this.intervalNanos;
+      wait = slot - now;
+    }
+    if (wait > 0) {
+      TimeUnit.NANOSECONDS.sleep(wait);
+    }
+  }
+
+  private void persist(Entry entry) {
+    entry.persisted = false;
+    if (this.journal == null) {
+      return;
+    }
+    if (!entry.message.getAttachments().isEmpty()) {
+      log.debug("Message to stream {} has attachments, it is not persisted", entry.streamId);
+      return;
+    }
+    final ObjectNode record = this.journal.newRecord(entry.id)
+        .put(STREAM_ID, entry.streamId)
+        .put(MESSAGE_ID, entry.messageId)
+        .put(CONTENT, entry.message.getContent())
+        .put(VERSION, entry.message.getVersion())
+        .put(SILENT, entry.message.getSilent());
+    try {
+      if (entry.message.getData() != null) {
+        record.set(DATA, MAPPER.readTree(entry.message.getData()));
+      }
+      this.journal.append(record);
+      entry.persisted = true;
+    } catch (IOException e) {
+      log.error("Unable to persist message to stream {} in outbox journal", entry.streamId, e);
+    }
+  }
+
+  private void acknowledge(long id, boolean persisted) {
+    if (this.journal == null || !persisted) {
+      return;
+    }
+    try {
+      this.journal.done(id);
+    } catch (IOException e) {
+      log.warn("Unable to acknowledge message {} in outbox journal", id, e);
+    }
+  }
+
+  private static final class Entry {
+
+    private final String streamId;
+    @Nullable
+    private final String messageId;
+    private final List<CompletableFuture<V4Message>> futures = new ArrayList<>(1);
+    private long id;
+    private Message message;
+    private boolean persisted;
+
+    private Entry(long id, String streamId, @Nullable String messageId, Message message) {
+      this.id = id;
+      this.streamId = streamId;
+      this.messageId = messageId;
+      this.message = message;
+    }
+
+    private void fail(Throwable error) {
+      this.futures.forEach(future -> future.completeExceptionally(error));
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.symphony.bdk.core.service.message.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apiguardian.api.API;
+
+import java.nio.file.Path;
+
+import javax.annotation.Nullable;
+
+/**
+ * Configuration of a {@link MessageOutbox}.
+ */
+@Getter
+@Setter
+@API(status = API.Status.EXPERIMENTAL)
+public class OutboxConfig {
+
+  public static final int DEFAULT_MAX_CONCURRENCY = 4;
+  public static final double DEFAULT_PERMITS_PER_SECOND = 10;
+  public static final int DEFAULT_MAX_ATTEMPTS = 3;
+  public static final long DEFAULT_RETRY_INTERVAL_MILLIS = 2000L;
+
+  /** Maximum number of messages being sent at the same time, messages of a given stream are always sent in order */
+  private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+  /** Maximum number of calls started per second, a value lower or equal to zero disables the rate limit */
+  private double permitsPerSecond = DEFAULT_PERMITS_PER_SECOND;
+
+  /** Maximum number of times a message is sent, including the first attempt */
+  private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+  /** Time to wait before sending a message again after a failure */
+  private long retryIntervalMillis = DEFAULT_RETRY_INTERVAL_MILLIS;
+
+  /** Whether consecutive pending updates of the same message are merged into a single call sending the last one */
+  private boolean coalesceUpdates = true;
+
+  /** Append log where pending messages are persisted to be sent again after a restart, null to disable persistence */
+  @Nullable
+  private Path journal;
+}
@@ -0,0 +1,140 @@
+package com.symphony.bdk.core.service.message.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append log of the messages accepted by a {@link MessageOutbox}. Each line is a JSON record: either a pending message,
+ * identified by a sequence number, or the acknowledgement that the message with a given sequence number does not need
+ * to be sent anymore. The log is truncated each time the outbox has no pending message left, and compacted to the
+ * pending messages when it is recovered.
+ */
+@Slf4j
+@API(status = API.Status.INTERNAL)
+class OutboxJournal implements Closeable {
+
+  static final String ID = "id";
+  static final String DONE = "done";
+
+  private static final ObjectMapper MAPPER = new JsonMapper();
+
+  private final Path path;
+  private FileChannel channel;
+
+  OutboxJournal(Path path) throws IOException {
+    this.path = path;
+    this.channel = open(path);
+  }
+
+  ObjectNode newRecord(long id) {
+    return MAPPER.createObjectNode().put(ID, id);
+  }
+
+  /**
+   * Reads the messages that were still pending when the log was last written, then rewrites the log so that it only
+   * contains them. The pending records keep their sequence numbers, they do not need to be appended again.
+   *
+   * @return the pending records, in the order they were appended.
+   */
+  synchronized List<ObjectNode> recover() throws IOException {
+    final Map<Long, ObjectNode> pending = new LinkedHashMap<>();
+    this.channel.position(0);
+    final BufferedReader reader =
+        new BufferedReader(Channels.newReader(this.channel, StandardCharsets.UTF_8.newDecoder(), -1));
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (line.isEmpty()) {
+        continue;
+      }
+      final ObjectNode record;
+      try {
+        record = (ObjectNode) MAPPER.readTree(line);
+      } catch (JsonProcessingException | ClassCastException e) {
+        // most likely the last line, partially written when the process stopped
+        log.warn("Ignoring malformed record in outbox journal {}", this.path);
+        continue;
+      }
+      if (record.has(DONE)) {
+        pending.remove(record.get(DONE).asLong());
+      } else if (record.has(ID)) {
+        pending.put(record.get(ID).asLong(), record);
+      }
+    }
+    final List<ObjectNode> records = new ArrayList<>(pending.values());
+    if (records.isEmpty()) {
+      this.truncate();
+    } else {
+      this.compact(records);
+    }
+    return records;
+  }
+
+  synchronized void append(ObjectNode record) throws IOException {
+    write(this.channel, record);
+  }
+
+  void done(long id) throws IOException {
+    this.append(MAPPER.createObjectNode().put(DONE, id));
+  }
+
+  synchronized void truncate() throws IOException {
+    this.channel.truncate(0);
+    this.channel.position(0);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    this.channel.close();
+  }
+
+  /**
+   * Writes the records to a temporary file that is then moved over the log, so that a failure at any point leaves
+   * either the previous log or the compacted one, never a log missing pending messages.
+   */
+  private void compact(List<ObjectNode> records) throws IOException {
+    final Path compacted = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+    try (FileChannel output = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      for (ObjectNode record : records) {
+        write(output, record);
+      }
+      output.force(true);
+    }
+    Files.move(compacted, this.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    this.channel.close();
+    this.channel = open(this.path);
+    this.channel.position(this.channel.size());
+  }
+
+  private static FileChannel open(Path path) throws IOException {
+    return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+  }
+
+  private static void write(FileChannel channel, ObjectNode record) throws IOException {
+    final byte[] line = (MAPPER.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+    final ByteBuffer buffer = ByteBuffer.wrap(line);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+}
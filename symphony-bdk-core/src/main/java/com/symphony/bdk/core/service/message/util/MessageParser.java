@@ -3,19 +3,16 @@ package com.symphony.bdk.core.service.message.util;
 import com.symphony.bdk.core.service.message.exception.MessageParserException;
 import com.symphony.bdk.gen.api.model.V4Message;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.apiguardian.api.API;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Helper class for extracting entities inside an incoming {@link com.symphony.bdk.gen.api.model.V4Message} such as:
@@ -25,7 +22,37 @@ import java.util.stream.Collectors;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class MessageParser {
 
-  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final int CACHE_SIZE = 64;
+
+  /**
+   * Direct-mapped cache of the last parsed messages, indexed by identity hash code. Messages are weakly referenced so
+   * that the cache never retains an event that has been processed.
+   */
+  private static final AtomicReferenceArray<CacheEntry> CACHE = new AtomicReferenceArray<>(CACHE_SIZE);
+
+  /**
+   * Parse data inside the message and returns all the entities it contains, in a single pass. The result is memoized
+   * per {@link V4Message} instance so that the different handlers of a same event can share it.
+   *
+   * @param message incoming V4 message to be parsed
+   * @return the entities contained in the message
+   */
+  public static ParsedEntities getEntities(V4Message message) throws MessageParserException {
+    final String data = message.getData();
+    if (data == null || data.isEmpty()) {
+      return ParsedEntities.EMPTY;
+    }
+
+    final int slot = System.identityHashCode(message) & (CACHE_SIZE - 1);
+    final CacheEntry cached = CACHE.get(slot);
+    if (cached != null && cached.message.get() == message && cached.data == data) {
+      return cached.entities;
+    }
+
+    final ParsedEntities entities = ParsedEntities.parse(data);
+    CACHE.set(slot, new CacheEntry(message, data, entities));
+    return entities;
+  }
 
   /**
    * Parse data inside the message and returns a list containing the user ids corresponding to the users mentioned
@@ -34,8 +61,7 @@ public final class MessageParser {
    * @return list of users ids that has been mentioned inside the message
    */
   public static List<Long> getMentions(V4Message message) throws MessageParserException {
-    List<String> mentionsList = getTags(message, EntityTypeEnum.MENTION);
-    return mentionsList.stream().map(Long::parseLong).collect(Collectors.toList());
+    return getEntities(message).getMentions();
   }
 
   /**
@@ -45,7 +71,7 @@ public final class MessageParser {
    * @return list of hashtags contained in the message
    */
   public static List<String> getHashtags(V4Message message) throws MessageParserException {
-    return getTags(message, EntityTypeEnum.HASHTAG);
+    return new ArrayList<>(getEntities(message).getHashtags());
   }
 
   /**
@@ -55,7 +81,7 @@ public final class MessageParser {
    * @return list of cashtags contained in the message
    */
   public static List<String> getCashtags(V4Message message) throws MessageParserException {
-    return getTags(message, EntityTypeEnum.CASHTAG);
+    return new ArrayList<>(getEntities(message).getCashtags());
   }
 
   /**
@@ -66,46 +92,19 @@ public final class MessageParser {
    * @return map of emojis contained in the message
    */
   public static Map<String, String> getEmojis(V4Message message) throws MessageParserException {
-    String data = message.getData();
-    if (data == null || data.isEmpty()) {
-      return Collections.emptyMap();
-    }
-    JsonNode dataJson = getJsonNode(data);
-    Map<String, String> emojisMap = new HashMap<>();
-    for (JsonNode node : dataJson) {
-      if (isType(EntityTypeEnum.EMOJI, node) && !node.findPath("annotation").isMissingNode() &&
-          !node.findPath("unicode").isMissingNode()) {
-        emojisMap.put(node.findPath("annotation").asText(), node.findPath("unicode").asText());
-      }
-    }
-    return emojisMap;
+    return new HashMap<>(getEntities(message).getEmojis());
   }
 
-  private static List<String> getTags(V4Message message, EntityTypeEnum type) throws MessageParserException {
-    String data = message.getData();
-    if (data == null || data.isEmpty()) {
-      return Collections.emptyList();
-    }
-    JsonNode dataJson = getJsonNode(data);
-    List<String> tags = new ArrayList<>();
-    for (JsonNode node : dataJson) {
-      if (isType(type, node) && !node.findPath("value").isMissingNode()) {
-        tags.add(node.findPath("value").asText());
-      }
-    }
-    return tags;
-  }
+  private static final class CacheEntry {
 
-  private static JsonNode getJsonNode(String data) throws MessageParserException {
-    try {
-      return MAPPER.readTree(data);
-    } catch (JsonProcessingException e) {
-      throw new MessageParserException("Failed to extract payload from message data", e);
-    }
-  }
+    private final WeakReference<V4Message> message;
+    private final String data;
+    private final ParsedEntities entities;
 
-  private static boolean isType(EntityTypeEnum type, JsonNode node) {
-    return type.getValue().equals(node.get("type").asText());
+    private CacheEntry(V4Message message, String data, ParsedEntities entities) {
+      this.message = new WeakReference<>(message);
+      this.data = data;
+      this.entities = entities;
+    }
   }
-
 }
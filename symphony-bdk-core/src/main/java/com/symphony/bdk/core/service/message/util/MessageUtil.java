@@ -2,13 +2,10 @@ package com.symphony.bdk.core.service.message.util;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.apiguardian.api.API;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * Helper class for pre-processing an outgoing message
@@ -16,61 +13,93 @@ import java.util.regex.Pattern;
 @API(status = API.Status.EXPERIMENTAL)
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class MessageUtil {
-  private static Map<String, String> tokens = initializeMap();
-  private static final Pattern PATTERN = initializePattern(tokens);
+
+  /**
+   * Replacement of each special ASCII character, null for characters that do not need to be escaped
+   */
+  private static final String[] REPLACEMENTS = initializeReplacements();
 
   /**
    * This method takes care of all special characters placed within the messageML that must be HTML-escaped
    * to have a valid MessageML format.
    *
    * @param rawText text to be parsed
-   * @return text in a valid messageML format
+   * @return text in a valid messageML format, the same instance if there is no special character to escape
    */
   public static String escapeSpecialChars(String rawText) {
-    Matcher matcher = PATTERN.matcher(rawText);
-    StringBuffer parsedText = new StringBuffer();
-    while (matcher.find()) {
-      matcher.appendReplacement(parsedText, getReplacementOf(matcher.group(1)));
+    final int first = indexOfSpecialChar(rawText, 0);
+    if (first < 0) {
+      return rawText;
+    }
+    final StringBuilder parsedText = new StringBuilder(rawText.length() + 16);
+    try {
+      appendEscaped(rawText, first, parsedText);
+    } catch (IOException e) {
+      // never thrown by a StringBuilder
+      throw new UncheckedIOException(e);
     }
-    matcher.appendTail(parsedText);
     return parsedText.toString();
   }
 
-  private static String getReplacementOf(String group) {
-    String replacement = tokens.get(group);
-    if (replacement == null) {
-      replacement = tokens.get("\\" + group);
-    }
-    return replacement;
+  /**
+   * Same as {@link #escapeSpecialChars(String)}, but writes the escaped text directly to the given output, for
+   * instance the {@link StringBuilder} used to build the content of a message.
+   *
+   * @param rawText text to be parsed
+   * @param output  where the text in a valid messageML format is appended
+   * @throws IOException if the output cannot be written
+   */
+  public static void escapeSpecialChars(CharSequence rawText, Appendable output) throws IOException {
+    appendEscaped(rawText, indexOfSpecialChar(rawText, 0), output);
   }
 
-  private static Map<String, String> initializeMap() {
-    tokens = new LinkedHashMap<>();
-    tokens.put("&", "&amp;");
-    tokens.put("<", "&lt;");
-    tokens.put(">", "&gt;");
-    tokens.put("'", "&apos;");
-    tokens.put("\"", "&quot;");
-    tokens.put("#", "&#35;");
-    tokens.put("\\$", "&#36;");
-    tokens.put("%", "&#37;");
-    tokens.put("\\(", "&#40;");
-    tokens.put("\\)", "&#41;");
-    tokens.put("\\*", "&#42;");
-    tokens.put("\\.", "&#46;");
-    tokens.put(";", "&#59;");
-    tokens.put("=", "&#61;");
-    tokens.put("\\[", "&#91;");
-    tokens.put("\\\\", "&#92;");
-    tokens.put("\\]", "&#93;");
-    tokens.put("`", "&#96;");
-    tokens.put("\\{", "&#123;");
-    tokens.put("\\}", "&#125;");
-    return tokens;
+  /**
+   * Appends the text to the output, escaping the special characters from the given index of the first one, -1 if
+   * there is none.
+   */
+  private static void appendEscaped(CharSequence rawText, int first, Appendable output) throws IOException {
+    int start = 0;
+    int index = first;
+    while (index >= 0) {
+      output.append(rawText, start, index).append(REPLACEMENTS[rawText.charAt(index)]);
+      start = index + 1;
+      index = indexOfSpecialChar(rawText, start);
+    }
+    output.append(rawText, start, rawText.length());
   }
 
-  private static Pattern initializePattern(Map<String, String> tokens) {
-    return Pattern.compile("(" + StringUtils.join(tokens.keySet(), "|") + ")");
+  private static int indexOfSpecialChar(CharSequence text, int from) {
+    for (int i = from; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      if (c < REPLACEMENTS.length && REPLACEMENTS[c] != null) {
+        return i;
+      }
+    }
+    return -1;
   }
 
+  private static String[] initializeReplacements() {
+    final String[] replacements = new String[128];
+    replacements['&'] = "&amp;";
+    replacements['<'] = "&lt;";
+    replacements['>'] = "&gt;";
+    replacements['\''] = "&apos;";
+    replacements['"'] = "&quot;";
+    replacements['#'] = "&#35;";
+    replacements['$'] = "&#36;";
+    replacements['%'] = "&#37;";
+    replacements['('] = "&#40;";
+    replacements[')'] = "&#41;";
+    replacements['*'] = "&#42;";
+    replacements['.'] = "&#46;";
+    replacements[';'] = "&#59;";
+    replacements['='] = "&#61;";
+    replacements['['] = "&#91;";
+    replacements['\\'] = "&#92;";
+    replacements[']'] = "&#93;";
+    replacements['`'] = "&#96;";
+    replacements['{'] = "&#123;";
+    replacements['}'] = "&#125;";
+    return replacements;
+  }
 }
@@ -0,0 +1,329 @@
+package com.symphony.bdk.core.service.message.util;
+
+import com.symphony.bdk.core.service.message.exception.MessageParserException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Entities (mentions, hashtags, cashtags and emojis) extracted from the data of a
+ * {@link com.symphony.bdk.gen.api.model.V4Message} in a single streaming pass.
+ * Instances are immutable and can be shared, see {@link MessageParser#getEntities}.
+ */
+@API(status = API.Status.EXPERIMENTAL)
+public final class ParsedEntities {
+
+  static final ParsedEntities EMPTY = new ParsedEntities(new long[0], Collections.emptyList(),
+      Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap());
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private static final String TYPE = "type";
+  private static final String ID = "id";
+  private static final String VALUE = "value";
+  private static final String ANNOTATION = "annotation";
+  private static final String UNICODE = "unicode";
+
+  private final long[] mentions;
+  private final List<String> hashtags;
+  private final List<String> cashtags;
+  private final Map<String, String> emojis;
+
+  /**
+   * Entity id to [type, id type 1, id value 1, id type 2, id value 2...]
+   */
+  private final Map<String, String[]> entities;
+
+  private ParsedEntities(long[] mentions, List<String> hashtags, List<String> cashtags, Map<String, String> emojis,
+      Map<String, String[]> entities) {
+    this.mentions = mentions;
+    this.hashtags = hashtags;
+    this.cashtags = cashtags;
+    this.emojis = emojis;
+    this.entities = entities;
+  }
+
+  /**
+   * @return the ids of the mentioned users, in order of appearance in the message data.
+   */
+  public long[] getMentionIds() {
+    return this.mentions.clone();
+  }
+
+  /**
+   * @return the ids of the mentioned users, in order of appearance in the message data.
+   */
+  public List<Long> getMentions() {
+    final List<Long> list = new ArrayList<>(this.mentions.length);
+    for (long mention : this.mentions) {
+      list.add(mention);
+    }
+    return list;
+  }
+
+  /**
+   * @param userId a user id.
+   * @return true if the given user is mentioned in the message.
+   */
+  public boolean isMentioned(long userId) {
+    for (long mention : this.mentions) {
+      if (mention == userId) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the text of the hashtags found in the message data.
+   */
+  public List<String> getHashtags() {
+    return this.hashtags;
+  }
+
+  /**
+   * @return the text of the cashtags found in the message data.
+   */
+  public List<String> getCashtags() {
+    return this.cashtags;
+  }
+
+  /**
+   * @return the emojis found in the message data, keyed by annotation with their unicode as values.
+   */
+  public Map<String, String> getEmojis() {
+    return this.emojis;
+  }
+
+  /**
+   * @param entityId id of the entity, as referenced by the data-entity-id attribute of the message.
+   * @return true if the message data contains this entity.
+   */
+  public boolean hasEntity(String entityId) {
+    return this.entities.containsKey(entityId);
+  }
+
+  /**
+   * @param entityId id of the entity, as referenced by the data-entity-id attribute of the message.
+   * @return the type of the entity (see {@link EntityTypeEnum}), null if not found.
+   */
+  @Nullable
+  public String getEntityType(String entityId) {
+    final String[] entity = this.entities.get(entityId);
+    return entity == null ? null : entity[0];
+  }
+
+  /**
+   * @param entityId id of the entity, as referenced by the data-entity-id attribute of the message.
+   * @param idType   type of the identifier, e.g. com.symphony.user.userId.
+   * @return the value of the first identifier of the given type, null if not found.
+   */
+  @Nullable
+  public String getEntityIdValue(String entityId, String idType) {
+    final String[] entity = this.entities.get(entityId);
+    if (entity == null) {
+      return null;
+    }
+    for (int i = 1; i < entity.length; i += 2) {
+      if (idType.equals(entity[i])) {
+        return entity[i + 1];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Extracts all the entities of the given message data in a single pass.
+   *
+   * @param data the message data, as returned by {@link com.symphony.bdk.gen.api.model.V4Message#getData()}.
+   * @return the parsed entities.
+   * @throws MessageParserException if the data is not a valid JSON payload.
+   */
+  static ParsedEntities parse(@Nullable String data) throws MessageParserException {
+    if (data == null || data.isEmpty()) {
+      return EMPTY;
+    }
+
+    final Builder builder = new Builder();
+    try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+      final JsonToken root = parser.nextToken();
+      if (root == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          final String entityId = parser.getCurrentName();
+          builder.add(entityId, parser, parser.nextToken());
+        }
+      } else if (root == JsonToken.START_ARRAY) {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+          builder.add(null, parser, token);
+        }
+      }
+    } catch (IOException e) {
+      throw new MessageParserException("Failed to extract payload from message data", e);
+    }
+    return builder.build();
+  }
+
+  private static final class Builder {
+
+    private long[] mentions = new long[4];
+    private int mentionCount;
+    private List<String> hashtags;
+    private List<String> cashtags;
+    private Map<String, String> emojis;
+    private Map<String, String[]> entities;
+
+    void add(@Nullable String entityId, JsonParser parser, JsonToken token) throws IOException, MessageParserException {
+      if (token != JsonToken.START_OBJECT) {
+        parser.skipChildren();
+        return;
+      }
+
+      final EntityScan scan = new EntityScan();
+      scan.scan(parser, token, EntityScan.ENTITY);
+
+      if (entityId != null) {
+        if (this.entities == null) {
+          this.entities = new HashMap<>();
+        }
+        this.entities.put(entityId, scan.toArray());
+      }
+
+      if (EntityTypeEnum.MENTION.getValue().equals(scan.type) && scan.value != null) {
+        this.addMention(scan.value);
+      } else if (EntityTypeEnum.HASHTAG.getValue().equals(scan.type) && scan.value != null) {
+        this.hashtags = add(this.hashtags, scan.value);
+      } else if (EntityTypeEnum.CASHTAG.getValue().equals(scan.type) && scan.value != null) {
+        this.cashtags = add(this.cashtags, scan.value);
+      } else if (EntityTypeEnum.EMOJI.getValue().equals(scan.type) && scan.annotation != null
+          && scan.unicode != null) {
+        if (this.emojis == null) {
+          this.emojis = new HashMap<>();
+        }
+        this.emojis.put(scan.annotation, scan.unicode);
+      }
+    }
+
+    ParsedEntities build() {
+      return new ParsedEntities(
+          Arrays.copyOf(this.mentions, this.mentionCount),
+          this.hashtags == null ? Collections.emptyList() : Collections.unmodifiableList(this.hashtags),
+          this.cashtags == null ? Collections.emptyList() : Collections.unmodifiableList(this.cashtags),
+          this.emojis == null ? Collections.emptyMap() : Collections.unmodifiableMap(this.emojis),
+          this.entities == null ? Collections.emptyMap() : this.entities);
+    }
+
+    private void addMention(String value) throws MessageParserException {
+      final long userId;
+      try {
+        userId = Long.parseLong(value);
+      } catch (NumberFormatException e) {
+        throw new MessageParserException("Invalid user id in mention entity: " + value, e);
+      }
+      if (this.mentionCount == this.mentions.length) {
+        this.mentions = Arrays.copyOf(this.mentions, this.mentionCount * 2);
+      }
+      this.mentions[this.mentionCount++] = userId;
+    }
+
+    private static List<String> add(@Nullable List<String> list, String value) {
+      final List<String> result = list == null ? new ArrayList<>(2) : list;
+      result.add(value);
+      return result;
+    }
+  }
+
+  /**
+   * Walks one entity, collecting its type, its identifiers, and the first "value", "annotation" and "unicode" fields
+   * found in document order.
+   */
+  private static final class EntityScan {
+
+    static final int ENTITY = 0;
+    static final int ID_ARRAY = 1;
+    static final int ID_ELEMENT = 2;
+    static final int OTHER = 3;
+
+    private String type;
+    private String value;
+    private String annotation;
+    private String unicode;
+    private List<String> ids;
+
+    void scan(JsonParser parser, JsonToken token, int role) throws IOException {
+      if (token == JsonToken.START_OBJECT) {
+        String idType = null;
+        String idValue = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          final String name = parser.getCurrentName();
+          final JsonToken valueToken = parser.nextToken();
+          final String text = valueToken.isScalarValue() ? parser.getText() : "";
+
+          if (role == ENTITY && TYPE.equals(name)) {
+            this.type = text;
+          } else if (role == ID_ELEMENT && TYPE.equals(name)) {
+            idType = text;
+          } else if (role == ID_ELEMENT && VALUE.equals(name)) {
+            idValue = text;
+          }
+          this.matchFirst(name, text);
+
+          if (!valueToken.isScalarValue()) {
+            final boolean idArray = role == ENTITY && ID.equals(name) && valueToken == JsonToken.START_ARRAY;
+            this.scan(parser, valueToken, idArray ? ID_ARRAY : OTHER);
+          }
+        }
+        if (role == ID_ELEMENT) {
+          this.addId(idType, idValue);
+        }
+      } else if (token == JsonToken.START_ARRAY) {
+        JsonToken elementToken;
+        while ((elementToken = parser.nextToken()) != JsonToken.END_ARRAY) {
+          if (!elementToken.isScalarValue()) {
+            this.scan(parser, elementToken, role == ID_ARRAY ? ID_ELEMENT : OTHER);
+          }
+        }
+      }
+    }
+
+    String[] toArray() {
+      final int idCount = this.ids == null ? 0 : this.ids.size();
+      final String[] array = new String[1 + idCount];
+      array[0] = this.type;
+      for (int i = 0; i < idCount; i++) {
+        array[i + 1] = this.ids.get(i);
+      }
+      return array;
+    }
+
+    private void matchFirst(String name, String text) {
+      if (this.value == null && VALUE.equals(name)) {
+        this.value = text;
+      } else if (this.annotation == null && ANNOTATION.equals(name)) {
+        this.annotation = text;
+      } else if (this.unicode == null && UNICODE.equals(name)) {
+        this.unicode = text;
+      }
+    }
+
+    private void addId(String idType, String idValue) {
+      if (this.ids == null) {
+        this.ids = new ArrayList<>(2);
+      }
+      this.ids.add(idType);
+      this.ids.add(idValue);
+    }
+  }
+}
@@ -2,19 +2,10 @@ package com.symphony.bdk.core.service.message.util;
 
 import com.symphony.bdk.core.service.message.exception.PresentationMLParserException;
 
-import lombok.Generated;
-import lombok.SneakyThrows;
 import org.apache.commons.text.StringEscapeUtils;
 import org.apiguardian.api.API;
-import org.w3c.dom.Document;
-import org.xml.sax.SAXException;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 
 /**
  * Helper class for parsing the PresentationML to text content.
@@ -22,8 +13,8 @@ import javax.xml.parsers.DocumentBuilderFactory;
 @API(status = API.Status.STABLE)
 public class PresentationMLParser {
 
-  private static final ThreadLocal<DocumentBuilder> LOCAL_BUILDER = ThreadLocal.withInitial(
-      PresentationMLParser::initBuilder);
+  private static final ThreadLocal<PresentationMLTextExtractor> LOCAL_EXTRACTOR = ThreadLocal.withInitial(
+      PresentationMLTextExtractor::new);
 
   /**
    * Get text content from PresentationML
@@ -33,14 +24,45 @@ public class PresentationMLParser {
    * @return the message text content extracted from the given PresentationML
    */
   public static String getTextContent(String presentationML, Boolean trim) throws PresentationMLParserException {
+    final PresentationMLTextExtractor extractor = LOCAL_EXTRACTOR.get();
     try {
-      final Document doc = LOCAL_BUILDER.get().parse(
-          new ByteArrayInputStream(presentationML.getBytes(StandardCharsets.UTF_8)));
-      String textContent = doc.getChildNodes().item(0).getTextContent();
-      String escapedPresentationML = StringEscapeUtils.unescapeHtml4(textContent);
-      return trim ? escapedPresentationML.trim() : escapedPresentationML;
-    } catch (SAXException | IOException e) {
-      throw new PresentationMLParserException(presentationML, "Failed to parse the PresentationML", e);
+      final CharSequence textContent = extract(extractor, presentationML);
+      if (extractor.containsAmpersand()) {
+        final String unescaped = StringEscapeUtils.unescapeHtml4(textContent.toString());
+        return trim ? unescaped.trim() : unescaped;
+      }
+      return trim
+          ? textContent.subSequence(trimStart(textContent), trimEnd(textContent)).toString()
+          : textContent.toString();
+    } finally {
+      extractor.release();
+    }
+  }
+
+  /**
+   * Extract text content from PresentationML and append it to the given sink, without creating intermediate strings
+   * in most cases.
+   *
+   * @param presentationML the PresentationML to be parsed
+   * @param sink           where the text content is appended (e.g. a {@link StringBuilder} or a {@link java.io.Writer})
+   * @param trim           flag if we want to trim the text result
+   * @throws IOException if the sink cannot be written
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public static void appendTextContent(String presentationML, Appendable sink, boolean trim)
+      throws PresentationMLParserException, IOException {
+    final PresentationMLTextExtractor extractor = LOCAL_EXTRACTOR.get();
+    try {
+      final CharSequence textContent = extract(extractor, presentationML);
+      if (extractor.containsAmpersand()) {
+        final String unescaped = StringEscapeUtils.unescapeHtml4(textContent.toString());
+        sink.append(trim ? unescaped.trim() : unescaped);
+      } else {
+        sink.append(textContent, trim ? trimStart(textContent) : 0,
+            trim ? trimEnd(textContent) : textContent.length());
+      }
+    } finally {
+      extractor.release();
     }
   }
 
@@ -54,13 +76,32 @@ public class PresentationMLParser {
     return getTextContent(presentationML, true);
   }
 
-  // Ignore the code coverage check because cannot produce the exception
-  @Generated
-  @SneakyThrows
-  private static DocumentBuilder initBuilder() {
-    final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-    factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-    return factory.newDocumentBuilder();
+  private static CharSequence extract(PresentationMLTextExtractor extractor, String presentationML)
+      throws PresentationMLParserException {
+    try {
+      return extractor.extract(presentationML);
+    } catch (IllegalArgumentException e) {
+      throw new PresentationMLParserException(presentationML, "Failed to parse the PresentationML", e);
+    }
+  }
+
+  /**
+   * Trimming bounds, same as {@link String#trim()}, without copying the characters.
+   */
+  private static int trimStart(CharSequence text) {
+    int start = 0;
+    while (start < text.length() && text.charAt(start) <= ' ') {
+      start++;
+    }
+    return start;
+  }
+
+  private static int trimEnd(CharSequence text) {
+    int end = text.length();
+    while (end > 0 && text.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return Math.max(end, trimStart(text));
   }
 
   private PresentationMLParser() {
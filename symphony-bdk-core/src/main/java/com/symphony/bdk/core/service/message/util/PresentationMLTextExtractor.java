@@ -0,0 +1,520 @@
+package com.symphony.bdk.core.service.message.util;
+
+import org.apiguardian.api.API;
+
+/**
+ * Single-pass PresentationML text extractor.
+ * <p>
+ * Scans the PresentationML once, checks that it is well-formed, decodes character and predefined entity references
+ * inline and writes the text content of the root element to a buffer that is reused across calls. This produces the
+ * same output as parsing the PresentationML into a DOM and calling {@link org.w3c.dom.Node#getTextContent()} on the
+ * first node of the document, without building the document.
+ * <p>
+ * Instances are not thread-safe, {@link PresentationMLParser} keeps one instance per thread.
+ */
+@API(status = API.Status.INTERNAL)
+class PresentationMLTextExtractor {
+
+  /**
+   * Above this capacity, the buffer is released after use so that a single large message does not stay on the heap.
+   */
+  private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final int INITIAL_DEPTH = 16;
+
+  private StringBuilder buffer = new StringBuilder(INITIAL_CAPACITY);
+  private int[] tagStarts = new int[INITIAL_DEPTH];
+  private int[] tagLengths = new int[INITIAL_DEPTH];
+  private int[] attributeStarts = new int[INITIAL_DEPTH];
+  private int[] attributeLengths = new int[INITIAL_DEPTH];
+
+  private CharSequence input;
+  private int length;
+  private int pos;
+  private int depth;
+  private boolean capturing;
+  private boolean ampersand;
+
+  /**
+   * Extracts the text content of the given PresentationML.
+   *
+   * @param presentationML the PresentationML to be parsed.
+   * @return the buffer holding the text content, only valid until the next call.
+   * @throws IllegalArgumentException if the PresentationML is not well-formed.
+   */
+  CharSequence extract(CharSequence presentationML) {
+    this.reset(presentationML);
+    this.parseDocument();
+    return this.buffer;
+  }
+
+  /**
+   * @return true if the text content extracted by the last call contains an ampersand character, meaning that HTML
+   *     entities might still have to be decoded.
+   */
+  boolean containsAmpersand() {
+    return this.ampersand;
+  }
+
+  /**
+   * Releases the reference to the last input, and the buffer if it grew too much.
+   */
+  void release() {
+    this.input = null;
+    if (this.buffer.capacity() > MAX_RETAINED_CAPACITY) {
+      this.buffer = new StringBuilder(INITIAL_CAPACITY);
+    }
+  }
+
+  private void reset(CharSequence presentationML) {
+    this.buffer.setLength(0);
+    this.input = presentationML;
+    this.length = presentationML.length();
+    this.pos = 0;
+    this.depth = 0;
+    this.capturing = false;
+    this.ampersand = false;
+  }
+
+  private void parseDocument() {
+    // byte order mark
+    if (this.pos < this.length && this.input.charAt(this.pos) == '\uFEFF') {
+      this.pos++;
+    }
+    if (this.startsWith("<?xml") && this.pos + 5 < this.length && isWhitespace(this.input.charAt(this.pos + 5))) {
+      this.parseXmlDeclaration();
+    }
+
+    boolean firstNode = true;
+    boolean rootParsed = false;
+    while (true) {
+      this.skipWhitespaces();
+      if (this.pos >= this.length) {
+        break;
+      }
+      if (this.input.charAt(this.pos) != '<') {
+        throw error("Content is not allowed outside of the root element");
+      }
+      if (this.startsWith("<!--")) {
+        this.capturing = firstNode;
+        this.parseComment();
+      } else if (this.startsWith("<?")) {
+        this.capturing = firstNode;
+        this.parseProcessingInstruction();
+      } else if (this.startsWith("<!")) {
+        throw error("Markup declarations are not allowed");
+      } else if (rootParsed) {
+        throw error("Only one root element is allowed");
+      } else {
+        this.capturing = firstNode;
+        this.parseRootElement();
+        rootParsed = true;
+      }
+      firstNode = false;
+    }
+
+    if (!rootParsed) {
+      throw error("Root element is missing");
+    }
+  }
+
+  private void parseXmlDeclaration() {
+    this.pos += 5;
+    this.skipWhitespaces();
+    if (!this.startsWith("version")) {
+      throw error("The version is required in the XML declaration");
+    }
+    this.pos += 7;
+    this.skipWhitespaces();
+    this.expect('=');
+    this.skipWhitespaces();
+    if (!this.startsWith("\"1.") && !this.startsWith("'1.")) {
+      throw error("Invalid XML version");
+    }
+    this.pos = this.indexOf("?>", this.pos) + 2;
+  }
+
+  private void parseRootElement() {
+    this.parseStartTag();
+    while (this.depth > 0) {
+      if (this.pos >= this.length) {
+        throw error("Unexpected end of document");
+      }
+      final char c = this.input.charAt(this.pos);
+      if (c == '<') {
+        if (this.startsWith("</")) {
+          this.parseEndTag();
+        } else if (this.startsWith("<!--")) {
+          final boolean wasCapturing = this.capturing;
+          this.capturing = false;
+          this.parseComment();
+          this.capturing = wasCapturing;
+        } else if (this.startsWith("<![CDATA[")) {
+          this.parseCData();
+        } else if (this.startsWith("<?")) {
+          final boolean wasCapturing = this.capturing;
+          this.capturing = false;
+          this.parseProcessingInstruction();
+          this.capturing = wasCapturing;
+        } else if (this.startsWith("<!")) {
+          throw error("Markup declarations are not allowed");
+        } else {
+          this.parseStartTag();
+        }
+      } else if (c == '&') {
+        this.parseReference(true);
+      } else {
+        this.parseText();
+      }
+    }
+  }
+
+  private void parseText() {
+    while (this.pos < this.length) {
+      final char c = this.input.charAt(this.pos);
+      if (c == '<' || c == '&') {
+        return;
+      }
+      if (c == ']' && this.startsWith("]]>")) {
+        throw error("The sequence ']]>' is not allowed in content");
+      }
+      this.appendChar(c);
+    }
+  }
+
+  private void parseCData() {
+    this.pos += 9;
+    final int end = this.indexOf("]]>", this.pos);
+    while (this.pos < end) {
+      final char c = this.input.charAt(this.pos);
+      if (c == '&') {
+        this.ampersand |= this.capturing;
+      }
+      this.appendChar(c);
+    }
+    this.pos = end + 3;
+  }
+
+  private void parseComment() {
+    this.pos += 4;
+    final int end = this.indexOf("--", this.pos);
+    if (end + 2 >= this.length || this.input.charAt(end + 2) != '>') {
+      throw error("The string '--' is not permitted within comments");
+    }
+    this.appendRange(end);
+    this.pos = end + 3;
+  }
+
+  private void parseProcessingInstruction() {
+    this.pos += 2;
+    final int targetStart = this.pos;
+    this.skipName();
+    final int targetLength = this.pos - targetStart;
+    if (targetLength == 3 && regionMatchesIgnoreCase(this.input, targetStart, "xml")) {
+      throw error("Processing instruction target matching 'xml' is reserved");
+    }
+    final int end = this.indexOf("?>", this.pos);
+    if (this.pos < end && !isWhitespace(this.input.charAt(this.pos))) {
+      throw error("White space is required after the processing instruction target");
+    }
+    this.skipWhitespaces();
+    this.appendRange(Math.max(this.pos, end));
+    this.pos = end + 2;
+  }
+
+  private void parseStartTag() {
+    this.pos++;
+    final int nameStart = this.pos;
+    this.skipName();
+    final int nameLength = this.pos - nameStart;
+
+    int attributes = 0;
+    while (true) {
+      final boolean whitespace = this.skipWhitespaces();
+      if (this.pos >= this.length) {
+        throw error("Unexpected end of document");
+      }
+      final char c = this.input.charAt(this.pos);
+      if (c == '>') {
+        this.pos++;
+        this.push(nameStart, nameLength);
+        return;
+      }
+      if (c == '/') {
+        if (!this.startsWith("/>")) {
+          throw error("Element type must be followed by '>' or '/>'");
+        }
+        this.pos += 2;
+        return;
+      }
+      if (!whitespace) {
+        throw error("Attributes must be preceded by white spaces");
+      }
+      this.parseAttribute(attributes++);
+    }
+  }
+
+  private void parseAttribute(int index) {
+    final int nameStart = this.pos;
+    this.skipName();
+    final int nameLength = this.pos - nameStart;
+    for (int i = 0; i < index; i++) {
+      if (this.attributeLengths[i] == nameLength
+          && regionMatches(this.input, this.attributeStarts[i], nameStart, nameLength)) {
+        throw error("Attribute was already specified for element");
+      }
+    }
+    if (index == this.attributeStarts.length) {
+      this.attributeStarts = grow(this.attributeStarts);
+      this.attributeLengths = grow(this.attributeLengths);
+    }
+    this.attributeStarts[index] = nameStart;
+    this.attributeLengths[index] = nameLength;
+
+    this.skipWhitespaces();
+    this.expect('=');
+    this.skipWhitespaces();
+    if (this.pos >= this.length) {
+      throw error("Unexpected end of document");
+    }
+    final char quote = this.input.charAt(this.pos);
+    if (quote != '"' && quote != '\'') {
+      throw error("Attribute value must be quoted");
+    }
+    this.pos++;
+    while (true) {
+      if (this.pos >= this.length) {
+        throw error("Unexpected end of document");
+      }
+      final char c = this.input.charAt(this.pos);
+      if (c == quote) {
+        this.pos++;
+        return;
+      } else if (c == '<') {
+        throw error("Attribute value must not contain '<'");
+      } else if (c == '&') {
+        this.parseReference(false);
+      } else {
+        this.checkChar(c);
+        this.pos++;
+      }
+    }
+  }
+
+  private void parseEndTag() {
+    this.pos += 2;
+    final int nameStart = this.pos;
+    this.skipName();
+    final int nameLength = this.pos - nameStart;
+    this.skipWhitespaces();
+    this.expect('>');
+
+    this.depth--;
+    if (this.tagLengths[this.depth] != nameLength
+        || !regionMatches(this.input, this.tagStarts[this.depth], nameStart, nameLength)) {
+      throw error("Element type must be terminated by the matching end-tag");
+    }
+  }
+
+  private void parseReference(boolean append) {
+    final int end = this.indexOf(";", this.pos + 1);
+    final int start = this.pos + 1;
+    int codePoint;
+    if (start < end && this.input.charAt(start) == '#') {
+      codePoint = this.parseCharReference(start + 1, end);
+    } else if (end - start == 2 && regionMatches(this.input, start, "lt")) {
+      codePoint = '<';
+    } else if (end - start == 2 && regionMatches(this.input, start, "gt")) {
+      codePoint = '>';
+    } else if (end - start == 3 && regionMatches(this.input, start, "amp")) {
+      codePoint = '&';
+    } else if (end - start == 4 && regionMatches(this.input, start, "quot")) {
+      codePoint = '"';
+    } else if (end - start == 4 && regionMatches(this.input, start, "apos")) {
+      codePoint = '\'';
+    } else {
+      throw error("Entity was referenced, but not declared");
+    }
+    this.pos = end + 1;
+
+    if (append && this.capturing) {
+      this.ampersand |= codePoint == '&';
+      this.buffer.appendCodePoint(codePoint);
+    }
+  }
+
+  private int parseCharReference(int start, int end) {
+    final boolean hexadecimal = start < end && this.input.charAt(start) == 'x';
+    final int radix = hexadecimal ? 16 : 10;
+    int i = hexadecimal ? start + 1 : start;
+    if (i == end) {
+      throw error("Invalid character reference");
+    }
+    int codePoint = 0;
+    for (; i < end; i++) {
+      final char c = this.input.charAt(i);
+      final int digit = c < 0x80 ? Character.digit(c, radix) : -1;
+      if (digit < 0 || codePoint > Character.MAX_CODE_POINT) {
+        throw error("Invalid character reference");
+      }
+      codePoint = codePoint * radix + digit;
+    }
+    if (!isXmlChar(codePoint)) {
+      throw error("Invalid character reference");
+    }
+    return codePoint;
+  }
+
+  /**
+   * Appends a text character, normalizing line breaks as an XML parser would do.
+   */
+  private void appendChar(char c) {
+    if (c == '\r') {
+      this.pos++;
+      if (this.pos < this.length && this.input.charAt(this.pos) == '\n') {
+        this.pos++;
+      }
+      this.append('\n');
+      return;
+    }
+    if (Character.isHighSurrogate(c)) {
+      if (this.pos + 1 < this.length && Character.isLowSurrogate(this.input.charAt(this.pos + 1))) {
+        this.append(c);
+        this.append(this.input.charAt(this.pos + 1));
+        this.pos += 2;
+        return;
+      }
+      // unpaired surrogates are replaced when the PresentationML is encoded in UTF-8
+      c = '?';
+    } else if (Character.isLowSurrogate(c)) {
+      c = '?';
+    } else {
+      this.checkChar(c);
+    }
+    this.append(c);
+    this.pos++;
+  }
+
+  private void appendRange(int end) {
+    while (this.pos < end) {
+      this.appendChar(this.input.charAt(this.pos));
+    }
+  }
+
+  private void append(char c) {
+    if (this.capturing) {
+      this.buffer.append(c);
+    }
+  }
+
+  private void push(int nameStart, int nameLength) {
+    if (this.depth == this.tagStarts.length) {
+      this.tagStarts = grow(this.tagStarts);
+      this.tagLengths = grow(this.tagLengths);
+    }
+    this.tagStarts[this.depth] = nameStart;
+    this.tagLengths[this.depth] = nameLength;
+    this.depth++;
+  }
+
+  private void skipName() {
+    final int start = this.pos;
+    while (this.pos < this.length && isNameChar(this.input.charAt(this.pos))) {
+      this.pos++;
+    }
+    if (this.pos == start || !isNameStartChar(this.input.charAt(start))) {
+      throw error("Invalid name");
+    }
+  }
+
+  private boolean skipWhitespaces() {
+    final int start = this.pos;
+    while (this.pos < this.length && isWhitespace(this.input.charAt(this.pos))) {
+      this.pos++;
+    }
+    return this.pos > start;
+  }
+
+  private void expect(char c) {
+    if (this.pos >= this.length || this.input.charAt(this.pos) != c) {
+      throw error("Expected '" + c + "'");
+    }
+    this.pos++;
+  }
+
+  private void checkChar(char c) {
+    if (c < 0x20 ? c != '\t' && c != '\n' && c != '\r' : c == '\uFFFE' || c == '\uFFFF') {
+      throw error("Invalid XML character");
+    }
+  }
+
+  private boolean startsWith(String prefix) {
+    return this.pos + prefix.length() <= this.length && regionMatches(this.input, this.pos, prefix);
+  }
+
+  private int indexOf(String token, int from) {
+    final int last = this.length - token.length();
+    for (int i = from; i <= last; i++) {
+      if (regionMatches(this.input, i, token)) {
+        return i;
+      }
+    }
+    throw error("Unexpected end of document");
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " (at offset " + this.pos + ")");
+  }
+
+  private static boolean regionMatches(CharSequence input, int offset, String token) {
+    for (int i = 0; i < token.length(); i++) {
+      if (input.charAt(offset + i) != token.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean regionMatches(CharSequence input, int offset, int otherOffset, int length) {
+    for (int i = 0; i < length; i++) {
+      if (input.charAt(offset + i) != input.charAt(otherOffset + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean regionMatchesIgnoreCase(CharSequence input, int offset, String token) {
+    for (int i = 0; i < token.length(); i++) {
+      if (Character.toLowerCase(input.charAt(offset + i)) != token.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int[] grow(int[] array) {
+    final int[] grown = new int[array.length * 2];
+    System.arraycopy(array, 0, grown, 0, array.length);
+    return grown;
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+  }
+
+  private static boolean isNameStartChar(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == ':' || c >= 0xC0;
+  }
+
+  private static boolean isNameChar(char c) {
+    return isNameStartChar(c) || (c >= '0' && c <= '9') || c == '-' || c == '.' || c == 0xB7;
+  }
+
+  private static boolean isXmlChar(int codePoint) {
+    return codePoint == 0x9 || codePoint == 0xA || codePoint == 0xD
+        || (codePoint >= 0x20 && codePoint <= 0xD7FF)
+        || (codePoint >= 0xE000 && codePoint <= 0xFFFD)
+        || (codePoint >= 0x10000 && codePoint <= 0x10FFFF);
+  }
+}
@@ -0,0 +1,99 @@
+package com.symphony.bdk.core.service.pagination;
+
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import java.time.Duration;
+
+/**
+ * Chooses the size of the chunks retrieved by the paginated services, to keep the latency of each call close to a
+ * target latency.
+ * <p>
+ * After each call, the time spent per element is measured from the call latency and the number of elements returned.
+ * The next chunk size is the number of elements that would be retrieved within the target latency, bounded by the
+ * minimum and maximum chunk sizes, and at most doubled or halved from one call to the next. Fast endpoints are
+ * therefore called with large chunks and few round trips, while slow endpoints are called with small chunks that do not
+ * time out.
+ * <p>
+ * An instance can be shared by several streams calling the same endpoint, so that each new stream starts with the
+ * chunk size learned by the previous ones.
+ */
+@API(status = API.Status.EXPERIMENTAL)
+public class AdaptiveChunkSize {
+
+  public static final Duration DEFAULT_TARGET_LATENCY = Duration.ofSeconds(1);
+
+  /** Weight of the last call in the average time spent per element */
+  private static final double SMOOTHING = 0.5;
+
+  @Getter private final int minChunkSize;
+  @Getter private final int maxChunkSize;
+  @Getter private final Duration targetLatency;
+  @Getter private final ChunkSizeMetrics metrics = new ChunkSizeMetrics();
+  private volatile int chunkSize;
+  private double nanosPerElement;
+
+  /**
+   * @param minChunkSize the minimum number of elements to retrieve in one call
+   * @param maxChunkSize the maximum number of elements to retrieve in one call
+   */
+  public AdaptiveChunkSize(int minChunkSize, int maxChunkSize) {
+    this(minChunkSize, maxChunkSize, DEFAULT_TARGET_LATENCY);
+  }
+
+  /**
+   * @param minChunkSize  the minimum number of elements to retrieve in one call
+   * @param maxChunkSize  the maximum number of elements to retrieve in one call
+   * @param targetLatency the latency each call should be close to
+   */
+  public AdaptiveChunkSize(int minChunkSize, int maxChunkSize, Duration targetLatency) {
+    if (minChunkSize <= 0 || maxChunkSize < minChunkSize) {
+      throw new IllegalArgumentException("Chunk size bounds must be strict positive and ordered");
+    }
+    if (targetLatency.isNegative() || targetLatency.isZero()) {
+      throw new IllegalArgumentException("Target latency must be strictly positive");
+    }
+    this.minChunkSize = minChunkSize;
+    this.maxChunkSize = maxChunkSize;
+    this.targetLatency = targetLatency;
+    this.chunkSize = this.bound(PaginatedService.DEFAULT_PAGINATION_CHUNK_SIZE);
+    this.metrics.onChunkSize(this.chunkSize);
+  }
+
+  /**
+   * @return the number of elements to retrieve in the next call.
+   */
+  public int getChunkSize() {
+    return this.chunkSize;
+  }
+
+  /**
+   * Records a call to the paginated api and computes the next chunk size.
+   *
+   * @param requested    the number of elements requested.
+   * @param received     the number of elements returned.
+   * @param latencyNanos the latency of the call, in nanoseconds.
+   */
+  synchronized void onChunk(int requested, int received, long latencyNanos) {
+    this.metrics.onChunk(received, latencyNanos);
+    // the last chunk is usually shorter than requested, it only tells something about the endpoint if it was slow
+    if (received == 0 || (received < requested && latencyNanos <= this.targetLatency.toNanos())) {
+      return;
+    }
+    final double lastNanosPerElement = Math.max(1d, (double) latencyNanos / received);
+    this.nanosPerElement = this.nanosPerElement == 0 ? lastNanosPerElement
+        : SMOOTHING * lastNanosPerElement + (1 - SMOOTHING) * this.nanosPerElement;
+
+    final long ideal = (long) (this.targetLatency.toNanos() / this.nanosPerElement);
+    final long next = Math.max(requested / 2, Math.min(2L * requested, ideal));
+    final int previous = this.chunkSize;
+    this.chunkSize = this.bound(next);
+    if (this.chunkSize != previous) {
+      this.metrics.onChunkSize(this.chunkSize);
+    }
+  }
+
+  private int bound(long size) {
+    return (int) Math.max(this.minChunkSize, Math.min(this.maxChunkSize, size));
+  }
+}
@@ -0,0 +1,86 @@
+package com.symphony.bdk.core.service.pagination;
+
+import org.apiguardian.api.API;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters exposed by the {@link AdaptiveChunkSize}.
+ */
+@API(status = API.Status.EXPERIMENTAL)
+public class ChunkSizeMetrics {
+
+  private final LongAdder chunks = new LongAdder();
+  private final LongAdder elements = new LongAdder();
+  private final LongAdder latencyNanos = new LongAdder();
+  private final LongAdder resizes = new LongAdder();
+  private final AtomicInteger chunkSize = new AtomicInteger();
+  private final AtomicInteger minChosenChunkSize = new AtomicInteger(Integer.MAX_VALUE);
+  private final AtomicInteger maxChosenChunkSize = new AtomicInteger();
+
+  /**
+   * @return number of chunks retrieved.
+   */
+  public long getChunks() {
+    return this.chunks.sum();
+  }
+
+  /**
+   * @return number of elements retrieved.
+   */
+  public long getElements() {
+    return this.elements.sum();
+  }
+
+  /**
+   * @return average latency of the calls, zero if no chunk has been retrieved.
+   */
+  public Duration getAverageLatency() {
+    final long count = this.chunks.sum();
+    return count == 0 ? Duration.ZERO : Duration.ofNanos(this.latencyNanos.sum() / count);
+  }
+
+  /**
+   * @return number of times the chunk size has been changed.
+   */
+  public long getResizes() {
+    return this.resizes.sum();
+  }
+
+  /**
+   * @return chunk size of the next call.
+   */
+  public int getChunkSize() {
+    return this.chunkSize.get();
+  }
+
+  /**
+   * @return smallest chunk size chosen so far.
+   */
+  public int getMinChosenChunkSize() {
+    return this.minChosenChunkSize.get();
+  }
+
+  /**
+   * @return largest chunk size chosen so far.
+   */
+  public int getMaxChosenChunkSize() {
+    return this.maxChosenChunkSize.get();
+  }
+
+  void onChunk(int elements, long latencyNanos) {
+    this.chunks.increment();
+    this.elements.add(elements);
+    this.latencyNanos.add(latencyNanos);
+  }
+
+  void onChunkSize(int chunkSize) {
+    if (this.chunkSize.getAndSet(chunkSize) != 0) {
+      this.resizes.increment();
+    }
+    this.minChosenChunkSize.accumulateAndGet(chunkSize, Math::min);
+    this.maxChosenChunkSize.accumulateAndGet(chunkSize, Math::max);
+  }
+}
@@ -1,6 +1,7 @@
 package com.symphony.bdk.core.service.pagination;
 
 import com.symphony.bdk.core.service.pagination.model.CursorPaginatedPayload;
+import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
 import com.symphony.bdk.http.api.ApiException;
 import com.symphony.bdk.http.api.ApiRuntimeException;
 
@@ -10,10 +11,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Spliterator;
-import java.util.Spliterators;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 @API(status = API.Status.INTERNAL)
 public class CursorBasedPaginatedService<T> extends PaginatedService {
@@ -25,17 +23,63 @@ public class CursorBasedPaginatedService<T> extends PaginatedService {
    * @param maxSize      the total max number of items to be retrieved
    */
   public CursorBasedPaginatedService(CursorBasedPaginatedApi<T> paginatedApi, Integer chunkSize, Integer maxSize) {
-    super(chunkSize, maxSize);
+    this(paginatedApi, chunkSize, maxSize, 0);
+  }
+
+  /**
+   * @param paginatedApi the paginated api to be called
+   * @param chunkSize    the max number of items to be retrieved in one call
+   * @param maxSize      the total max number of items to be retrieved
+   * @param prefetch     the number of chunks fetched in the background ahead of the consumed one, 0 to disable
+   *                     prefetching
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public CursorBasedPaginatedService(CursorBasedPaginatedApi<T> paginatedApi, Integer chunkSize, Integer maxSize,
+      int prefetch) {
+    super(chunkSize, maxSize, prefetch);
+    this.paginatedApi = paginatedApi;
+  }
+
+  /**
+   * @param paginatedApi the paginated api to be called
+   * @param pagination   the chunk size, total size, prefetch and adaptive chunk size of the pagination
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public CursorBasedPaginatedService(CursorBasedPaginatedApi<T> paginatedApi, StreamPaginationAttribute pagination) {
+    super(pagination.getChunkSize(), pagination.getTotalSize(), pagination.getPrefetch(),
+        pagination.getAdaptiveChunkSize());
     this.paginatedApi = paginatedApi;
   }
 
   /**
    * Returns an stream of elements with lazy fetching.
+   * When prefetching is enabled, the stream should be closed if it is not fully consumed.
    *
    * @return a {@link Stream} which lazily makes calls to the {@link #paginatedApi}.
    */
   public Stream<T> stream() {
-    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new PaginatedIterator(), Spliterator.ORDERED), false);
+    return stream(new PaginatedIterator(), new PrefetchingIterator.ChunkSupplier<T>() {
+
+      private CursorPaginatedPayload<T> payload;
+      private int fetchedItems = 0;
+
+      @Override
+      public List<T> get() throws ApiException {
+        if (fetchedItems >= maxSize || (payload != null && payload.getNext() == null)) {
+          return null;
+        }
+        final int size = nextChunkSize();
+        final long start = System.nanoTime();
+        payload = paginatedApi.get(payload == null ? null : payload.getNext(), size);
+        final List<T> data = payload.getData();
+        onChunkFetched(size, data == null ? 0 : data.size(), start);
+        if (data == null || data.isEmpty()) {
+          return null;
+        }
+        fetchedItems += data.size();
+        return data;
+      }
+    });
   }
 
   @API(status = API.Status.INTERNAL)
@@ -61,10 +105,13 @@ public class CursorBasedPaginatedService<T> extends PaginatedService {
 
     private void fetchOneChunk(String after) {
       try {
-        currentPayload = paginatedApi.get(after, chunkSize);
+        final int size = nextChunkSize();
+        final long start = System.nanoTime();
+        currentPayload = paginatedApi.get(after, size);
 
         final List<T> data = currentPayload.getData();
         currentChunk = data == null ? Collections.emptyList() : new ArrayList<>(data);
+        onChunkFetched(size, currentChunk.size(), start);
       } catch (ApiException e) {
         throw new ApiRuntimeException(e);
       }
@@ -1,5 +1,6 @@
 package com.symphony.bdk.core.service.pagination;
 
+import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
 import com.symphony.bdk.http.api.ApiException;
 import com.symphony.bdk.http.api.ApiRuntimeException;
 
@@ -9,11 +10,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Spliterator;
-import java.util.Spliterators;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import javax.annotation.Nullable;
+
 /**
  * Retrieve a list of elements given a {@link OffsetBasedPaginatedApi}.
  * Goal is to fetch elements lazily.
@@ -23,6 +24,7 @@ import java.util.stream.StreamSupport;
 public class OffsetBasedPaginatedService<T> extends PaginatedService {
 
   private final OffsetBasedPaginatedApi<T> paginatedApi;
+  private final int parallelism;
 
   /**
    * The only constructor
@@ -32,23 +34,107 @@ public class OffsetBasedPaginatedService<T> extends PaginatedService {
    * @param maxSize the maximum number to retrieve in total
    */
   public OffsetBasedPaginatedService(OffsetBasedPaginatedApi<T> paginatedApi, Integer chunkSize, Integer maxSize) {
-    super(chunkSize, maxSize);
+    this(paginatedApi, chunkSize, maxSize, 0);
+  }
+
+  /**
+   * @param paginatedApi the paginated api used to retrieve the chunks of elements
+   * @param chunkSize the maximum number to retrieve in one call of {@link OffsetBasedPaginatedApi#get(int, int)}
+   * @param maxSize the maximum number to retrieve in total
+   * @param prefetch the number of chunks fetched in the background ahead of the consumed one, 0 to disable prefetching
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public OffsetBasedPaginatedService(OffsetBasedPaginatedApi<T> paginatedApi, Integer chunkSize, Integer maxSize,
+      int prefetch) {
+    this(paginatedApi, chunkSize, maxSize, prefetch, 1);
+  }
+
+  /**
+   * @param paginatedApi the paginated api used to retrieve the chunks of elements
+   * @param chunkSize the maximum number to retrieve in one call of {@link OffsetBasedPaginatedApi#get(int, int)}
+   * @param maxSize the maximum number to retrieve in total
+   * @param prefetch the number of chunks fetched in the background ahead of the consumed one, 0 to disable prefetching
+   * @param parallelism the number of chunks fetched at the same time, 1 to fetch the chunks one after the other
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public OffsetBasedPaginatedService(OffsetBasedPaginatedApi<T> paginatedApi, Integer chunkSize, Integer maxSize,
+      int prefetch, int parallelism) {
+    this(paginatedApi, chunkSize, maxSize, prefetch, parallelism, null);
+  }
+
+  /**
+   * @param paginatedApi the paginated api used to retrieve the chunks of elements
+   * @param pagination the chunk size, total size, prefetch, parallelism and adaptive chunk size of the pagination
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public OffsetBasedPaginatedService(OffsetBasedPaginatedApi<T> paginatedApi, StreamPaginationAttribute pagination) {
+    this(paginatedApi, pagination.getChunkSize(), pagination.getTotalSize(), pagination.getPrefetch(),
+        pagination.getParallelism(), pagination.getAdaptiveChunkSize());
+  }
+
+  private OffsetBasedPaginatedService(OffsetBasedPaginatedApi<T> paginatedApi, Integer chunkSize, Integer maxSize,
+      int prefetch, int parallelism, @Nullable AdaptiveChunkSize adaptiveChunkSize) {
+    super(chunkSize, maxSize, prefetch, adaptiveChunkSize);
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be a strict positive integer");
+    }
     this.paginatedApi = paginatedApi;
+    this.parallelism = parallelism;
   }
 
   /**
    * Returns an stream of elements with lazy fetching.
+   * When prefetching or parallel fetching is enabled, the stream should be closed if it is not fully consumed.
    *
    * @return a {@link Stream} which lazily makes calls to the {@link #paginatedApi}.
    */
   public Stream<T> stream() {
-    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new PaginatedIterator(), Spliterator.ORDERED), false);
+    if (parallelism > 1) {
+      return stream(true);
+    }
+    return stream(new PaginatedIterator(), new PrefetchingIterator.ChunkSupplier<T>() {
+
+      private int offset = 0;
+      private boolean exhausted = false;
+
+      @Override
+      public List<T> get() throws ApiException {
+        if (exhausted || offset >= maxSize) {
+          return null;
+        }
+        final int size = nextChunkSize();
+        final long start = System.nanoTime();
+        final List<T> chunk = paginatedApi.get(offset, size);
+        onChunkFetched(size, chunk == null ? 0 : chunk.size(), start);
+        offset += size;
+        exhausted = chunk == null || chunk.size() < size;
+        return chunk == null ? Collections.emptyList() : chunk;
+      }
+    });
+  }
+
+  /**
+   * Returns a stream of elements fetching up to {@code parallelism} chunks at the same time. Fetching stops at the
+   * first chunk smaller than the chunk size. The stream is backed by a splittable {@link java.util.Spliterator}: once
+   * made parallel, different ranges of offsets are fetched and processed by different threads. As the offsets of the
+   * chunks are computed upfront, all the chunks have the initial chunk size, even if adaptive chunk sizing is enabled.
+   *
+   * @param ordered false if the elements can be returned in the order the chunks are received rather than in the
+   *                offset order.
+   * @return a {@link Stream} which lazily makes calls to the {@link #paginatedApi}.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public Stream<T> stream(boolean ordered) {
+    final OffsetSpliterator<T> spliterator =
+        new OffsetSpliterator<>(paginatedApi, chunkSize, 0, maxSize, parallelism, ordered);
+    return StreamSupport.stream(spliterator, false).onClose(spliterator::cancel);
   }
 
   @API(status = API.Status.INTERNAL)
   private class PaginatedIterator implements Iterator<T> {
 
     private int currentChunkSize;
+    private int requestedChunkSize;
     private List<T> remainingItemsInChunk;
     private int fetchedItems;
     private int currentOffset;
@@ -73,7 +159,7 @@ public class OffsetBasedPaginatedService<T> extends PaginatedService {
       }
 
       // no remaining items in chunk but chunk was already smaller than chunkSize: we are already at the end
-      if (fetchedItems > 0 && currentChunkSize < chunkSize) {
+      if (fetchedItems > 0 && currentChunkSize < requestedChunkSize) {
         return false;
       }
 
@@ -85,10 +171,13 @@ public class OffsetBasedPaginatedService<T> extends PaginatedService {
 
     private void fetchNewChunk() {
       try {
-        final List<T> currentChunk = paginatedApi.get(currentOffset, chunkSize);
+        requestedChunkSize = nextChunkSize();
+        final long start = System.nanoTime();
+        final List<T> currentChunk = paginatedApi.get(currentOffset, requestedChunkSize);
         remainingItemsInChunk = currentChunk == null ? Collections.emptyList() : new ArrayList<>(currentChunk);
         currentChunkSize = remainingItemsInChunk.size();
-        currentOffset += chunkSize;
+        onChunkFetched(requestedChunkSize, currentChunkSize, start);
+        currentOffset += requestedChunkSize;
       } catch (ApiException e) {
         throw new ApiRuntimeException(e);
       }
@@ -0,0 +1,196 @@
+package com.symphony.bdk.core.service.pagination;
+
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import org.apiguardian.api.API;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Splittable {@link Spliterator} over a range of offsets of an {@link OffsetBasedPaginatedApi}.
+ * <p>
+ * As the offset of a chunk does not depend on the previous chunks, up to {@code parallelism} chunks are fetched at the
+ * same time, in the background. Chunks are returned in offset order, or in completion order if the spliterator is not
+ * ordered, and the traversal stops at the first chunk smaller than the chunk size.
+ * <p>
+ * Until its traversal has started, the spliterator can be split in two halves of the offset range, so that parallel
+ * streams fetch the different parts of the range from different threads.
+ *
+ * @param <T> the type of objects to retrieve
+ */
+@API(status = API.Status.INTERNAL)
+class OffsetSpliterator<T> implements Spliterator<T> {
+
+  private final OffsetBasedPaginatedApi<T> paginatedApi;
+  private final int chunkSize;
+  private final int parallelism;
+  private final boolean ordered;
+  private final long end;
+  private final Deque<PendingChunk<T>> pendingChunks = new ArrayDeque<>();
+  private final Deque<T> items = new ArrayDeque<>();
+  private long nextOffset;
+  private boolean started;
+  private boolean exhausted;
+
+  /**
+   * @param paginatedApi the paginated api used to retrieve the chunks of elements
+   * @param chunkSize    the maximum number to retrieve in one call
+   * @param start        the offset of the first element to retrieve
+   * @param end          the offset after the last element to retrieve
+   * @param parallelism  the maximum number of chunks fetched at the same time
+   * @param ordered      false if the chunks can be returned in completion order
+   */
+  OffsetSpliterator(OffsetBasedPaginatedApi<T> paginatedApi, int chunkSize, long start, long end, int parallelism,
+      boolean ordered) {
+    this.paginatedApi = paginatedApi;
+    this.chunkSize = chunkSize;
+    this.nextOffset = start;
+    this.end = end;
+    this.parallelism = Math.max(1, parallelism);
+    this.ordered = ordered;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    while (this.items.isEmpty()) {
+      if (!this.fetchNextChunk()) {
+        return false;
+      }
+    }
+    action.accept(this.items.removeFirst());
+    return true;
+  }
+
+  @Override
+  public Spliterator<T> trySplit() {
+    if (this.started || this.exhausted) {
+      return null;
+    }
+    final long chunks = (this.end - this.nextOffset + this.chunkSize - 1) / this.chunkSize;
+    if (chunks < 2) {
+      return null;
+    }
+    final long middle = this.nextOffset + (chunks / 2) * this.chunkSize;
+    final OffsetSpliterator<T> prefix = new OffsetSpliterator<>(this.paginatedApi, this.chunkSize, this.nextOffset,
+        middle, this.parallelism, this.ordered);
+    this.nextOffset = middle;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    if (this.exhausted) {
+      return this.items.size();
+    }
+    return Math.max(0, this.end - this.nextOffset) + (long) this.chunkSize * this.pendingChunks.size()
+        + this.items.size();
+  }
+
+  @Override
+  public int characteristics() {
+    return this.ordered ? Spliterator.ORDERED : 0;
+  }
+
+  /**
+   * Cancels the chunks being fetched.
+   */
+  void cancel() {
+    this.exhausted = true;
+    this.pendingChunks.forEach(chunk -> chunk.future.cancel(true));
+    this.pendingChunks.clear();
+  }
+
+  private boolean fetchNextChunk() {
+    this.started = true;
+    if (this.parallelism == 1) {
+      return this.fetchSynchronously();
+    }
+    while (!this.exhausted && this.pendingChunks.size() < this.parallelism && this.nextOffset < this.end) {
+      final int offset = (int) this.nextOffset;
+      this.pendingChunks.addLast(new PendingChunk<>(offset,
+          CompletableFuture.supplyAsync(() -> this.get(offset), PaginatedService.FETCH_EXECUTOR)));
+      this.nextOffset += this.chunkSize;
+    }
+    if (this.pendingChunks.isEmpty()) {
+      return false;
+    }
+    final PendingChunk<T> pendingChunk = this.ordered ? this.pendingChunks.removeFirst() : this.removeCompleted();
+    try {
+      this.add(pendingChunk.offset, pendingChunk.future.join());
+    } catch (CompletionException e) {
+      this.cancel();
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
+    return true;
+  }
+
+  private boolean fetchSynchronously() {
+    if (this.exhausted || this.nextOffset >= this.end) {
+      return false;
+    }
+    final int offset = (int) this.nextOffset;
+    this.nextOffset += this.chunkSize;
+    this.add(offset, this.get(offset));
+    return true;
+  }
+
+  private PendingChunk<T> removeCompleted() {
+    CompletableFuture.anyOf(this.pendingChunks.stream().map(chunk -> chunk.future).toArray(CompletableFuture[]::new))
+        .exceptionally(e -> null)
+        .join();
+    final Iterator<PendingChunk<T>> iterator = this.pendingChunks.iterator();
+    while (iterator.hasNext()) {
+      final PendingChunk<T> pendingChunk = iterator.next();
+      if (pendingChunk.future.isDone()) {
+        iterator.remove();
+        return pendingChunk;
+      }
+    }
+    throw new IllegalStateException("No completed chunk");
+  }
+
+  private void add(int offset, List<T> chunk) {
+    final int size = chunk == null ? 0 : chunk.size();
+    if (size < this.chunkSize) {
+      // the end has been reached, chunks at higher offsets are empty
+      this.exhausted = true;
+      this.pendingChunks.removeIf(pendingChunk -> {
+        final boolean after = pendingChunk.offset > offset;
+        if (after) {
+          pendingChunk.future.cancel(true);
+        }
+        return after;
+      });
+    }
+    if (size > 0) {
+      this.items.addAll(chunk.subList(0, (int) Math.min(size, this.end - offset)));
+    }
+  }
+
+  private List<T> get(int offset) {
+    try {
+      return this.paginatedApi.get(offset, this.chunkSize);
+    } catch (ApiException e) {
+      throw new ApiRuntimeException(e);
+    }
+  }
+
+  private static final class PendingChunk<T> {
+
+    private final int offset;
+    private final CompletableFuture<List<T>> future;
+
+    private PendingChunk(int offset, CompletableFuture<List<T>> future) {
+      this.offset = offset;
+      this.future = future;
+    }
+  }
+}
@@ -2,22 +2,99 @@ package com.symphony.bdk.core.service.pagination;
 
 import org.apiguardian.api.API;
 
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.Nullable;
+
 @API(status = API.Status.INTERNAL)
 public abstract class PaginatedService {
 
   public static final int DEFAULT_PAGINATION_CHUNK_SIZE = 100;
   public static final int DEFAULT_PAGINATION_TOTAL_SIZE = 100;
 
+  /** Runs the chunk calls made in the background, when prefetching or fetching chunks in parallel */
+  static final ExecutorService FETCH_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      final Thread thread = new Thread(r, "Pagination-Fetch-Thread-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
   protected final int chunkSize;
   protected final int maxSize;
+  protected final int prefetch;
+  /** Chooses the size of each chunk, null if every call retrieves {@link #chunkSize} elements */
+  @Nullable
+  protected final AdaptiveChunkSize adaptiveChunkSize;
 
   protected PaginatedService(Integer chunkSize, Integer maxSize) {
+    this(chunkSize, maxSize, 0);
+  }
+
+  protected PaginatedService(Integer chunkSize, Integer maxSize, int prefetch) {
+    this(chunkSize, maxSize, prefetch, null);
+  }
+
+  protected PaginatedService(Integer chunkSize, Integer maxSize, int prefetch,
+      @Nullable AdaptiveChunkSize adaptiveChunkSize) {
     this.chunkSize = chunkSize == null ? PaginatedService.DEFAULT_PAGINATION_CHUNK_SIZE : chunkSize;
     this.maxSize = maxSize == null ? PaginatedService.DEFAULT_PAGINATION_TOTAL_SIZE : maxSize;
+    this.prefetch = prefetch;
+    this.adaptiveChunkSize = adaptiveChunkSize;
 
     checkSizes();
   }
 
+  /**
+   * @return the number of elements to retrieve in the next call.
+   */
+  protected int nextChunkSize() {
+    return adaptiveChunkSize == null ? chunkSize : adaptiveChunkSize.getChunkSize();
+  }
+
+  /**
+   * Records the latency and the size of a retrieved chunk, so that the next chunk size can be adapted.
+   *
+   * @param requested  the number of elements requested.
+   * @param received   the number of elements returned.
+   * @param startNanos the {@link System#nanoTime()} at which the call started.
+   */
+  protected void onChunkFetched(int requested, int received, long startNanos) {
+    if (adaptiveChunkSize != null) {
+      adaptiveChunkSize.onChunk(requested, received, System.nanoTime() - startNanos);
+    }
+  }
+
+  /**
+   * Creates the stream returned by a paginated service. When prefetching is enabled, the chunks are fetched in the
+   * background and the fetching is stopped when the stream is closed.
+   *
+   * @param iterator the iterator used when prefetching is disabled.
+   * @param supplier the chunks supplier used when prefetching is enabled.
+   * @param <T>      the type of objects to retrieve
+   * @return the stream of elements.
+   */
+  protected <T> Stream<T> stream(Iterator<T> iterator, PrefetchingIterator.ChunkSupplier<T> supplier) {
+    if (prefetch <= 0) {
+      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+    final PrefetchingIterator<T> prefetchingIterator = new PrefetchingIterator<>(supplier, maxSize, prefetch);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(prefetchingIterator, Spliterator.ORDERED), false)
+        .onClose(prefetchingIterator::close);
+  }
+
   private void checkSizes() {
     if (chunkSize <= 0) {
       throw new IllegalArgumentException("chunkSize must be a strict positive integer");
@@ -25,5 +102,8 @@ public abstract class PaginatedService {
     if (maxSize < 0) {
       throw new IllegalArgumentException("maxSize must be a positive integer");
     }
+    if (prefetch < 0) {
+      throw new IllegalArgumentException("prefetch must be a positive integer");
+    }
   }
 }
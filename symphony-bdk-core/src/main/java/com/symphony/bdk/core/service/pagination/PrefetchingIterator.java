@@ -0,0 +1,204 @@
+package com.symphony.bdk.core.service.pagination;
+
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+/**
+ * Iterator fetching the next chunks in the background while the current one is consumed. At most {@code prefetch}
+ * chunks are fetched ahead, the background fetching stops as soon as the iterator is closed or, if it is never closed,
+ * once it is garbage collected.
+ *
+ * @param <T> the type of objects to retrieve
+ */
+@Slf4j
+@API(status = API.Status.INTERNAL)
+class PrefetchingIterator<T> implements Iterator<T>, AutoCloseable {
+
+  private static final long POLL_INTERVAL_MILLIS = 100L;
+  private static final Chunk<?> LAST = new Chunk<>(Collections.emptyList(), null);
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  private final int maxSize;
+  private final BlockingQueue<Chunk<T>> chunks;
+  private final Producer<T> producer;
+  private final Cleaner.Cleanable cleanable;
+  private final Deque<T> currentChunk = new ArrayDeque<>();
+  private boolean closed;
+  private boolean exhausted;
+  private int fetchedItems;
+
+  /**
+   * @param supplier returns the next chunk, or null once all the chunks have been fetched.
+   * @param maxSize  the maximum number of items to return in total.
+   * @param prefetch the maximum number of chunks fetched ahead.
+   */
+  PrefetchingIterator(ChunkSupplier<T> supplier, int maxSize, int prefetch) {
+    this.maxSize = maxSize;
+    this.chunks = new ArrayBlockingQueue<>(Math.max(1, prefetch));
+    this.producer = new Producer<>(supplier, this.chunks);
+    // streams left without being closed (findFirst, limit, a failing consumer) must not keep a fetching thread forever,
+    // the producer does not reference this iterator so that it can be stopped once the iterator is unreachable
+    this.cleanable = CLEANER.register(this, this.producer::stop);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (this.fetchedItems == this.maxSize) {
+      this.close();
+      return false;
+    }
+    while (this.currentChunk.isEmpty()) {
+      if (this.exhausted || this.closed) {
+        return false;
+      }
+      final Chunk<T> chunk = this.take();
+      if (chunk == LAST) {
+        this.exhausted = true;
+      } else if (chunk.error != null) {
+        this.close();
+        throw chunk.error;
+      } else {
+        this.currentChunk.addAll(chunk.items);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public T next() {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+    this.fetchedItems++;
+    return this.currentChunk.removeFirst();
+  }
+
+  /**
+   * Stops fetching chunks in the background.
+   */
+  @Override
+  public void close() {
+    this.closed = true;
+    this.cleanable.clean();
+  }
+
+  private Chunk<T> take() {
+    this.producer.start();
+    try {
+      return this.chunks.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      this.close();
+      throw new IllegalStateException("Interrupted while waiting for the next chunk", e);
+    }
+  }
+
+  /**
+   * Supplies the chunks to be prefetched.
+   *
+   * @param <T> the type of objects to retrieve
+   */
+  @FunctionalInterface
+  @API(status = API.Status.INTERNAL)
+  interface ChunkSupplier<T> {
+
+    /**
+     * @return the next chunk, or null if all the chunks have been fetched.
+     */
+    @Nullable
+    List<T> get() throws ApiException;
+  }
+
+  /**
+   * Fetches the chunks in the background. It only holds the queue shared with the iterator, not the iterator itself.
+   */
+  private static final class Producer<T> implements Runnable {
+
+    private final ChunkSupplier<T> supplier;
+    private final BlockingQueue<Chunk<T>> chunks;
+    private volatile boolean stopped;
+    private Future<?> future;
+
+    Producer(ChunkSupplier<T> supplier, BlockingQueue<Chunk<T>> chunks) {
+      this.supplier = supplier;
+      this.chunks = chunks;
+    }
+
+    synchronized void start() {
+      if (this.future == null && !this.stopped) {
+        this.future = PaginatedService.FETCH_EXECUTOR.submit(this);
+      }
+    }
+
+    synchronized void stop() {
+      this.stopped = true;
+      this.chunks.clear();
+      if (this.future != null) {
+        this.future.cancel(true);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void run() {
+      try {
+        List<T> items;
+        while (!this.stopped && (items = this.supplier.get()) != null) {
+          this.put(new Chunk<>(items, null));
+        }
+        this.put((Chunk<T>) LAST);
+      } catch (ApiException e) {
+        this.offerError(new ApiRuntimeException(e));
+      } catch (RuntimeException e) {
+        this.offerError(e);
+      } catch (InterruptedException e) {
+        log.trace("Chunk prefetching interrupted");
+      }
+    }
+
+    private void put(Chunk<T> chunk) throws InterruptedException {
+      // the consumer may not be done with the previous chunks yet
+      while (!this.stopped) {
+        if (this.chunks.offer(chunk, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+      }
+    }
+
+    private void offerError(RuntimeException error) {
+      try {
+        this.put(new Chunk<>(Collections.emptyList(), error));
+      } catch (InterruptedException e) {
+        log.trace("Chunk prefetching interrupted");
+      }
+    }
+  }
+
+  private static final class Chunk<T> {
+
+    private final List<T> items;
+    private final RuntimeException error;
+
+    Chunk(List<T> items, @Nullable RuntimeException error) {
+      this.items = items;
+      this.error = error;
+    }
+  }
+}
@@ -1,9 +1,12 @@
 package com.symphony.bdk.core.service.pagination.model;
 
+import com.symphony.bdk.core.service.pagination.AdaptiveChunkSize;
+
 import lombok.Getter;
 import org.apiguardian.api.API;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Stream Pagination Attribute model to be used in stream pagination methods provided by bdk services class.
@@ -22,8 +25,71 @@ public class StreamPaginationAttribute {
    */
   private final Integer totalSize;
 
+  /**
+   * Number of chunks fetched in the background ahead of the consumed one, 0 if prefetching is disabled.
+   */
+  private final int prefetch;
+
+  /**
+   * Number of chunks fetched at the same time by offset-based paginated streams, 1 if chunks are fetched one after
+   * the other.
+   */
+  private final int parallelism;
+
+  /**
+   * Chooses the size of each chunk between bounds, null if every call retrieves {@link #chunkSize} elements.
+   */
+  @Nullable
+  private final AdaptiveChunkSize adaptiveChunkSize;
+
   public StreamPaginationAttribute(@Nonnull Integer chunkSize, @Nonnull Integer totalSize) {
+    this(chunkSize, totalSize, 0);
+  }
+
+  /**
+   * When prefetching is enabled, the returned streams should be closed if they are not fully consumed, so that the
+   * background fetching is stopped.
+   *
+   * @param chunkSize size of elements to retrieve in one call.
+   * @param totalSize total maximum number of elements to return.
+   * @param prefetch  number of chunks fetched in the background ahead of the consumed one.
+   */
+  public StreamPaginationAttribute(@Nonnull Integer chunkSize, @Nonnull Integer totalSize, int prefetch) {
+    this(chunkSize, totalSize, prefetch, 1);
+  }
+
+  /**
+   * When prefetching or parallel fetching is enabled, the returned streams should be closed if they are not fully
+   * consumed, so that the background fetching is stopped.
+   *
+   * @param chunkSize   size of elements to retrieve in one call.
+   * @param totalSize   total maximum number of elements to return.
+   * @param prefetch    number of chunks fetched in the background ahead of the consumed one.
+   * @param parallelism number of chunks fetched at the same time by offset-based paginated streams.
+   */
+  public StreamPaginationAttribute(@Nonnull Integer chunkSize, @Nonnull Integer totalSize, int prefetch,
+      int parallelism) {
     this.chunkSize = chunkSize;
     this.totalSize = totalSize;
+    this.prefetch = prefetch;
+    this.parallelism = parallelism;
+    this.adaptiveChunkSize = null;
+  }
+
+  /**
+   * The size of each chunk is chosen by the adaptive chunk size, which can be shared between several calls to reuse
+   * the chunk size learned from the previous ones.
+   *
+   * @param adaptiveChunkSize chooses the number of elements to retrieve in each call.
+   * @param totalSize         total maximum number of elements to return.
+   * @param prefetch          number of chunks fetched in the background ahead of the consumed one.
+   */
+  public StreamPaginationAttribute(@Nonnull AdaptiveChunkSize adaptiveChunkSize, @Nonnull Integer totalSize,
+      int prefetch) {
+    this.chunkSize = adaptiveChunkSize.getChunkSize();
+    this.totalSize = totalSize;
+    this.prefetch = prefetch;
+    this.parallelism = 1;
+    this.adaptiveChunkSize = adaptiveChunkSize;
   }
 }
@@ -1,11 +1,13 @@
 package com.symphony.bdk.core.service.presence;
 
+import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
 import com.symphony.bdk.core.service.presence.constant.PresenceStatus;
 import com.symphony.bdk.gen.api.model.V2Presence;
 
 import org.apiguardian.api.API;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -37,6 +39,27 @@ public interface OboPresenceService {
    */
   List<V2Presence> listPresences(@Nullable Long lastUserId, @Nullable Integer limit);
 
+  /**
+   * Get the presence info of all users in a pod, as a stream lazily fetching the pages ordered by user id.
+   * {@link PresenceService#listAllPresences(StreamPaginationAttribute)}
+   *
+   * @param pagination  The chunkSize, at most 5000, the totalSize and the prefetch for pagination.
+   * @return a {@link Stream} of the presence info of the users in a pod.
+   * @see <a href="https://developers.symphony.com/restapi/reference/get-all-presence">Get All Presence</a>
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  Stream<V2Presence> listAllPresences(@Nonnull StreamPaginationAttribute pagination);
+
+  /**
+   * Get the presence info of all users in a pod, with the default chunkSize and totalSize equal 100.
+   * {@link PresenceService#listAllPresences()}
+   *
+   * @return a {@link Stream} of the presence info of the users in a pod.
+   * @see <a href="https://developers.symphony.com/restapi/reference/get-all-presence">Get All Presence</a>
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  Stream<V2Presence> listAllPresences();
+
   /**
    * Get the presence info of a specified user.
    * {@link PresenceService#getUserPresence(Long, Boolean)}
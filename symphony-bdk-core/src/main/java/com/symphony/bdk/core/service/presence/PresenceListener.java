@@ -0,0 +1,20 @@
+package com.symphony.bdk.core.service.presence;
+
+import com.symphony.bdk.gen.api.model.V2Presence;
+
+import org.apiguardian.api.API;
+
+/**
+ * Listener notified by a {@link PresenceLoop} each time the presence of a user changes.
+ */
+@FunctionalInterface
+@API(status = API.Status.EXPERIMENTAL)
+public interface PresenceListener {
+
+  /**
+   * Called from the thread running the {@link PresenceLoop}, once the {@link PresenceTable} has been updated.
+   *
+   * @param presence the new presence of the user.
+   */
+  void onPresenceUpdated(V2Presence presence);
+}
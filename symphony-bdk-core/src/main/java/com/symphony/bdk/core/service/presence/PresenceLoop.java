@@ -0,0 +1,253 @@
+package com.symphony.bdk.core.service.presence;
+
+import static com.symphony.bdk.core.retry.RetryWithRecovery.networkIssueMessageError;
+
+import com.symphony.bdk.core.auth.AuthSession;
+import com.symphony.bdk.core.auth.exception.AuthUnauthorizedException;
+import com.symphony.bdk.core.retry.RetryWithRecovery;
+import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
+import com.symphony.bdk.core.service.datafeed.exception.NestedRetryException;
+import com.symphony.bdk.gen.api.PresenceApi;
+import com.symphony.bdk.gen.api.model.V2Presence;
+import com.symphony.bdk.http.api.ApiException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Loop keeping a {@link PresenceTable} up to date from a presence feed, so that the presence of users can be read
+ * locally instead of being requested for each user.
+ * <p>
+ * This loop will be started by calling {@link PresenceLoop#start()}, which blocks until {@link PresenceLoop#stop()} is
+ * called. It creates a presence feed, then reads it every {@link PresenceLoopConfig#getReadIntervalMillis()}, records
+ * the received presences in the table and notifies the subscribed {@link PresenceListener}s of the changes.
+ * <p>
+ * If the presence feed becomes stale or faulty, a new one is created. The feed is deleted once the loop is stopped.
+ * <p>
+ * The presence of external users is only received once the interest in them has been registered with
+ * {@link #registerInterest(List)}.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class PresenceLoop {
+
+  private final PresenceApi presenceApi;
+  private final AuthSession authSession;
+  private final PresenceLoopConfig config;
+  private final PresenceTable table = new PresenceTable();
+  private final AtomicBoolean started = new AtomicBoolean();
+  private final RetryWithRecoveryBuilder<?> retryBuilder;
+  private final RetryWithRecovery<String> createFeed;
+  private final RetryWithRecovery<Void> readFeed;
+  private final RetryWithRecovery<Void> deleteFeed;
+  private String feedId;
+  private long lastPullTimestamp;
+
+  // access needs to be thread safe (the loop is usually running on its own thread)
+  private final List<PresenceListener> listeners = new ArrayList<>();
+
+  /**
+   * @param presenceApi  the presence API.
+   * @param authSession  the session reading the presence feed.
+   * @param retryBuilder the retry configuration of the calls, including the recovery of expired sessions.
+   * @param config       the loop configuration.
+   */
+  public PresenceLoop(PresenceApi presenceApi, AuthSession authSession, RetryWithRecoveryBuilder<?> retryBuilder,
+      PresenceLoopConfig config) {
+    this.presenceApi = presenceApi;
+    this.authSession = authSession;
+    this.config = config;
+    this.retryBuilder = RetryWithRecoveryBuilder.from(retryBuilder)
+        .basePath(presenceApi.getApiClient().getBasePath());
+
+    this.createFeed = RetryWithRecoveryBuilder.<String>from(this.retryBuilder)
+        .name("Create Presence Feed")
+        .supplier(this::doCreateFeed)
+        .retryOnException(RetryWithRecoveryBuilder::isNetworkIssueOrMinorErrorOrClientError)
+        .build();
+
+    this.readFeed = RetryWithRecoveryBuilder.<Void>from(this.retryBuilder)
+        .name("Read Presence Feed")
+        .supplier(this::readAndApplyPresences)
+        .retryOnException(RetryWithRecoveryBuilder::isNetworkIssueOrMinorErrorOrClientError)
+        .recoveryStrategy(ApiException::isClientError, this::recreateFeed)
+        .build();
+
+    this.deleteFeed = RetryWithRecoveryBuilder.<Void>from(this.retryBuilder)
+        .name("Delete Presence Feed")
+        .supplier(this::doDeleteFeed)
+        .ignoreException(ApiException::isClientError)
+        .build();
+  }
+
+  /**
+   * Subscribes a listener to the presence changes.
+   *
+   * @param listener the listener to be notified.
+   */
+  public void subscribe(@Nonnull PresenceListener listener) {
+    synchronized (this.listeners) {
+      this.listeners.add(listener);
+    }
+  }
+
+  /**
+   * Unsubscribes a listener from the presence changes.
+   *
+   * @param listener the listener to remove.
+   */
+  public void unsubscribe(@Nonnull PresenceListener listener) {
+    synchronized (this.listeners) {
+      this.listeners.remove(listener);
+    }
+  }
+
+  /**
+   * Creates the presence feed and reads it until the loop is stopped.
+   *
+   * @throws AuthUnauthorizedException if the session cannot be refreshed.
+   * @throws ApiException              if the presence feed cannot be created or read after all the retries.
+   */
+  public void start() throws AuthUnauthorizedException, ApiException {
+    if (!this.started.compareAndSet(false, true)) {
+      throw new IllegalStateException("The presence loop is already started");
+    }
+
+    try {
+      this.feedId = this.createFeed.execute();
+      log.info("Start reading presences from feed {}", this.feedId);
+      while (this.started.get()) {
+        this.readFeed.execute();
+        this.pause();
+      }
+      log.info("Presence loop successfully stopped.");
+    } catch (AuthUnauthorizedException | ApiException | NestedRetryException exception) {
+      throw exception;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Throwable throwable) {
+      log.error("{}\n{}", networkIssueMessageError(throwable, presenceApi.getApiClient().getBasePath()), throwable);
+    } finally {
+      this.started.set(false);
+      this.deleteFeedQuietly();
+    }
+  }
+
+  /**
+   * Stops the loop, once the current read is finished.
+   */
+  public void stop() {
+    log.info("Stopping the presence loop (will happen once the current read is finished)...");
+    this.started.set(false);
+    synchronized (this.started) {
+      this.started.notifyAll();
+    }
+  }
+
+  /**
+   * Registers the interest in the presence of external users, so that their presence is received in the feed.
+   *
+   * @param userIds the ids of the external users.
+   */
+  public void registerInterest(@Nonnull List<Long> userIds) {
+    RetryWithRecovery.executeAndRetry(this.retryBuilder, "externalPresenceInterest",
+        presenceApi.getApiClient().getBasePath(),
+        () -> presenceApi.v1UserPresenceRegisterPost(authSession.getSessionToken(), userIds));
+  }
+
+  /**
+   * @param userId the id of the user.
+   * @return the last presence of the user received by the loop, empty if none has been received yet.
+   */
+  public Optional<V2Presence> getPresence(long userId) {
+    return this.table.get(userId);
+  }
+
+  /**
+   * @return the table of the presences received by the loop.
+   */
+  public PresenceTable getTable() {
+    return this.table;
+  }
+
+  /**
+   * @return the timestamp of the last successful read of the presence feed, in milliseconds.
+   */
+  public long lastPullTimestamp() {
+    return this.lastPullTimestamp;
+  }
+
+  private String doCreateFeed() throws ApiException {
+    return this.presenceApi.v1PresenceFeedCreatePost(this.authSession.getSessionToken()).getId();
+  }
+
+  private Void readAndApplyPresences() throws ApiException {
+    final List<V2Presence> presences =
+        this.presenceApi.v1PresenceFeedFeedIdReadGet(this.authSession.getSessionToken(), this.feedId);
+    this.lastPullTimestamp = Instant.now().toEpochMilli();
+    if (presences == null) {
+      return null;
+    }
+
+    for (V2Presence presence : presences) {
+      if (!this.table.update(presence)) {
+        continue;
+      }
+      synchronized (this.listeners) {
+        for (PresenceListener listener : this.listeners) {
+          try {
+            listener.onPresenceUpdated(presence);
+          } catch (Exception e) {
+            log.debug("An uncaught exception has occurred while dispatching presence of user {} to listener {}",
+                presence.getUserId(), listener, e);
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  private void pause() throws InterruptedException {
+    synchronized (this.started) {
+      if (this.started.get()) {
+        this.started.wait(this.config.getReadIntervalMillis());
+      }
+    }
+  }
+
+  private void recreateFeed() {
+    try {
+      log.info("Try to delete the stale presence feed");
+      this.deleteFeed.execute();
+      log.info("Recreate a new presence feed and try again");
+      this.feedId = this.createFeed.execute();
+    } catch (Throwable throwable) {
+      throw new NestedRetryException("Recreation of presence feed failed", throwable);
+    }
+  }
+
+  private void deleteFeedQuietly() {
+    if (this.feedId == null) {
+      return;
+    }
+    try {
+      this.deleteFeed.execute();
+    } catch (Throwable throwable) {
+      log.warn("Unable to delete the presence feed {}", this.feedId, throwable);
+    }
+  }
+
+  private Void doDeleteFeed() throws ApiException {
+    this.presenceApi.v1PresenceFeedFeedIdDeletePost(this.authSession.getSessionToken(), this.feedId);
+    this.feedId = null;
+    return null;
+  }
+}
@@ -0,0 +1,19 @@
+package com.symphony.bdk.core.service.presence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apiguardian.api.API;
+
+/**
+ * Configuration of a {@link PresenceLoop}.
+ */
+@Getter
+@Setter
+@API(status = API.Status.EXPERIMENTAL)
+public class PresenceLoopConfig {
+
+  public static final long DEFAULT_READ_INTERVAL_MILLIS = 1000L;
+
+  /** Time waited between two reads of the presence feed, which returns immediately */
+  private long readIntervalMillis = DEFAULT_READ_INTERVAL_MILLIS;
+}
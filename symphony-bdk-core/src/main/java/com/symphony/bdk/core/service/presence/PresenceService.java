@@ -4,6 +4,11 @@ import com.symphony.bdk.core.auth.AuthSession;
 import com.symphony.bdk.core.retry.RetryWithRecovery;
 import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
 import com.symphony.bdk.core.service.OboService;
+import com.symphony.bdk.core.service.pagination.CursorBasedPaginatedApi;
+import com.symphony.bdk.core.service.pagination.CursorBasedPaginatedService;
+import com.symphony.bdk.core.service.pagination.PaginatedService;
+import com.symphony.bdk.core.service.pagination.model.CursorPaginatedPayload;
+import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
 import com.symphony.bdk.core.service.presence.constant.PresenceStatus;
 import com.symphony.bdk.core.retry.function.SupplierWithApiException;
 import com.symphony.bdk.gen.api.PresenceApi;
@@ -14,7 +19,9 @@ import com.symphony.bdk.http.api.ApiException;
 
 import org.apiguardian.api.API;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -79,6 +86,27 @@ public class PresenceService implements OboPresenceService, OboService<OboPresen
         () -> presenceApi.v2UsersPresenceGet(authSession.getSessionToken(), lastUserId, limit));
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @API(status = API.Status.EXPERIMENTAL)
+  public Stream<V2Presence> listAllPresences(@Nonnull StreamPaginationAttribute pagination) {
+    CursorBasedPaginatedApi<V2Presence> api = (after, limit) -> new PresenceListAdapter(
+        listPresences(after == null ? null : Long.valueOf(after), limit), after, limit);
+    return new CursorBasedPaginatedService<>(api, pagination).stream();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @API(status = API.Status.EXPERIMENTAL)
+  public Stream<V2Presence> listAllPresences() {
+    return listAllPresences(new StreamPaginationAttribute(PaginatedService.DEFAULT_PAGINATION_CHUNK_SIZE,
+        PaginatedService.DEFAULT_PAGINATION_TOTAL_SIZE));
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -144,8 +172,71 @@ public class PresenceService implements OboPresenceService, OboService<OboPresen
         () -> presenceApi.v3UserPresencePost(authSession.getSessionToken(), userPresence, soft));
   }
 
+  /**
+   * Creates a loop reading a presence feed into an in-memory table, so that the presence of users can be read locally.
+   * The returned loop has to be started, e.g. on a dedicated thread, with {@link PresenceLoop#start()}.
+   *
+   * @param config the loop configuration.
+   * @return a new {@link PresenceLoop}, not started.
+   * @see PresenceLoop
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public PresenceLoop presenceLoop(@Nonnull PresenceLoopConfig config) {
+    checkAuthSession(authSession);
+    return new PresenceLoop(presenceApi, authSession, retryBuilder, config);
+  }
+
+  /**
+   * Creates a snapshot of the presence of all the users of the pod, loaded on first read and reloaded once older than
+   * {@link PresenceSnapshotConfig#getTtlMillis()}.
+   *
+   * @param config the snapshot configuration.
+   * @return a new {@link PresenceSnapshot}, not loaded yet.
+   * @see PresenceSnapshot
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public PresenceSnapshot presenceSnapshot(@Nonnull PresenceSnapshotConfig config) {
+    checkAuthSession(authSession);
+    return new PresenceSnapshot(this, config);
+  }
+
   private <T> T executeAndRetry(String name, SupplierWithApiException<T> supplier) {
     checkAuthSession(authSession);
     return RetryWithRecovery.executeAndRetry(retryBuilder, name, presenceApi.getApiClient().getBasePath(), supplier);
   }
+
+  /**
+   * Pages of presences are ordered by user id, the next page starts after the last user id of the current one. A page
+   * smaller than the requested limit is the last one.
+   */
+  private static class PresenceListAdapter implements CursorPaginatedPayload<V2Presence> {
+
+    private final List<V2Presence> presences;
+    private final String next;
+
+    public PresenceListAdapter(List<V2Presence> payload, String after, int limit) {
+      final long lastUserId = after == null ? Long.MIN_VALUE : Long.parseLong(after);
+      this.presences = new ArrayList<>();
+      if (payload != null) {
+        for (V2Presence presence : payload) {
+          // the user of the cursor may be returned again, depending on the pod version
+          if (presence.getUserId() != null && presence.getUserId() > lastUserId) {
+            this.presences.add(presence);
+          }
+        }
+      }
+      this.next = payload == null || payload.size() < limit || this.presences.isEmpty()
+          ? null : String.valueOf(this.presences.get(this.presences.size() - 1).getUserId());
+    }
+
+    @Override
+    public String getNext() {
+      return next;
+    }
+
+    @Override
+    public List<V2Presence> getData() {
+      return presences;
+    }
+  }
 }
@@ -0,0 +1,163 @@
+package com.symphony.bdk.core.service.presence;
+
+import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
+import com.symphony.bdk.gen.api.model.V2Presence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Snapshot of the presence of all the users of the pod, so that the availability of many users can be checked without
+ * calling the pod for each of them.
+ * <p>
+ * The snapshot is loaded in a {@link PresenceTable} on first read, retrieving all the presences with
+ * {@link PresenceService#listAllPresences(StreamPaginationAttribute)}, and reloaded on the next read once older than
+ * {@link PresenceSnapshotConfig#getTtlMillis()}. Only the first read waits for the snapshot to be loaded: the reload is
+ * run by the read finding the snapshot expired, while the other reads are served the current presences. A reload is
+ * merged in the table: a presence is only replaced by a more recent one, and the users not returned anymore, e.g.
+ * deleted users, are removed.
+ * <p>
+ * The snapshot is a {@link PresenceListener}: once subscribed to a {@link PresenceLoop}, the changes received from the
+ * presence feed are applied between two reloads, which allows a longer TTL.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class PresenceSnapshot implements PresenceListener {
+
+  private final PresenceService presenceService;
+  private final PresenceSnapshotConfig config;
+  private final LongSupplier clock;
+  private final PresenceTable table = new PresenceTable();
+  private final AtomicBoolean reloading = new AtomicBoolean();
+  /** Time of the last load, 0 if the snapshot has not been loaded yet */
+  private volatile long loadedAt;
+
+  /**
+   * Creates an empty snapshot, loaded on first read.
+   *
+   * @param presenceService the service used to retrieve the presences.
+   * @param config          the snapshot configuration.
+   */
+  public PresenceSnapshot(@Nonnull PresenceService presenceService, @Nonnull PresenceSnapshotConfig config) {
+    this(presenceService, config, System::currentTimeMillis);
+  }
+
+  PresenceSnapshot(PresenceService presenceService, PresenceSnapshotConfig config, LongSupplier clock) {
+    this.presenceService = presenceService;
+    this.config = config;
+    this.clock = clock;
+  }
+
+  /**
+   * @param userId the id of the user.
+   * @return the presence of the user, empty if the pod did not return it.
+   */
+  public Optional<V2Presence> getPresence(long userId) {
+    this.loadIfExpired();
+    return this.table.get(userId);
+  }
+
+  /**
+   * @param userIds the ids of the users.
+   * @return the presences of the given users, by user id, without the users whose presence is unknown.
+   */
+  public Map<Long, V2Presence> getPresences(@Nonnull Collection<Long> userIds) {
+    this.loadIfExpired();
+    final Map<Long, V2Presence> presences = new HashMap<>();
+    for (Long userId : userIds) {
+      this.table.get(userId).ifPresent(presence -> presences.put(userId, presence));
+    }
+    return presences;
+  }
+
+  /**
+   * Retrieves the presence of all the users of the pod and merges them in the snapshot, removing the users who were
+   * neither returned nor updated by the presence feed meanwhile.
+   */
+  public synchronized void load() {
+    final long startedAt = this.clock.getAsLong();
+    final StreamPaginationAttribute pagination =
+        new StreamPaginationAttribute(this.config.getChunkSize(), Integer.MAX_VALUE, this.config.getPrefetch());
+    final int generation = this.table.newGeneration();
+    int count = 0;
+    try (Stream<V2Presence> presences = this.presenceService.listAllPresences(pagination)) {
+      for (V2Presence presence : (Iterable<V2Presence>) presences::iterator) {
+        this.table.update(presence);
+        count++;
+      }
+    }
+    // a failed load does not tell which users are gone, nothing is removed then
+    final int removed = this.table.removeUnseenSince(generation);
+    this.loadedAt = startedAt;
+    log.debug("Loaded {} presences and removed {} in {} ms", count, removed, this.clock.getAsLong() - startedAt);
+  }
+
+  /**
+   * Applies a presence received from a presence feed.
+   *
+   * @param presence the presence of a user.
+   */
+  @Override
+  public void onPresenceUpdated(V2Presence presence) {
+    this.table.update(presence);
+  }
+
+  /**
+   * @return the table of the presences of the snapshot.
+   */
+  public PresenceTable getTable() {
+    return this.table;
+  }
+
+  /**
+   * @return the time of the last load, the epoch if the snapshot has not been loaded yet.
+   */
+  public Instant getLastLoad() {
+    return Instant.ofEpochMilli(this.loadedAt);
+  }
+
+  private void loadIfExpired() {
+    if (!this.isExpired()) {
+      return;
+    }
+    if (this.loadedAt == 0) {
+      synchronized (this) {
+        // another thread may have loaded the snapshot meanwhile
+        if (this.loadedAt == 0) {
+          this.load();
+        }
+      }
+      return;
+    }
+    // a single read reloads the snapshot, the others are served the current presences meanwhile
+    if (this.reloading.compareAndSet(false, true)) {
+      try {
+        if (this.isExpired()) {
+          this.load();
+        }
+      } finally {
+        this.reloading.set(false);
+      }
+    }
+  }
+
+  private boolean isExpired() {
+    final long loaded = this.loadedAt;
+    if (loaded == 0) {
+      return true;
+    }
+    final long ttl = this.config.getTtlMillis();
+    return ttl > 0 && this.clock.getAsLong() - loaded >= ttl;
+  }
+}
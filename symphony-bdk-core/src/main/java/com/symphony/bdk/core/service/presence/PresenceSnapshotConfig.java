@@ -0,0 +1,27 @@
+package com.symphony.bdk.core.service.presence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apiguardian.api.API;
+
+/**
+ * Configuration of a {@link PresenceSnapshot}.
+ */
+@Getter
+@Setter
+@API(status = API.Status.EXPERIMENTAL)
+public class PresenceSnapshotConfig {
+
+  public static final long DEFAULT_TTL_MILLIS = 60 * 1000L;
+  public static final int DEFAULT_CHUNK_SIZE = 5000;
+  public static final int DEFAULT_PREFETCH = 1;
+
+  /** Age after which the snapshot is reloaded on the next read, 0 to load it only once */
+  private long ttlMillis = DEFAULT_TTL_MILLIS;
+
+  /** Number of presences retrieved in one call, the pod supports at most 5000 */
+  private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+  /** Number of pages fetched in the background while the current one is loaded, 0 to disable prefetching */
+  private int prefetch = DEFAULT_PREFETCH;
+}
@@ -0,0 +1,245 @@
+package com.symphony.bdk.core.service.presence;
+
+import com.symphony.bdk.gen.api.model.V2Presence;
+
+import org.apiguardian.api.API;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread safe table of the last known presence of each user, keyed by user id.
+ * <p>
+ * The presences are stored in open addressing hash tables of primitive longs, split in segments locked independently,
+ * instead of a map of {@link V2Presence} objects. Presences older than the one already known for a user are ignored, so
+ * that updates received out of order do not overwrite a more recent presence.
+ * <p>
+ * Each update marks the user as seen in the current generation, so that the users who have not been seen since a given
+ * generation started, e.g. deleted users who are not returned anymore by the pod, can be removed.
+ */
+@API(status = API.Status.EXPERIMENTAL)
+public class PresenceTable {
+
+  /** Marks an empty slot of a segment, 0 is not a valid user id */
+  private static final long FREE = 0L;
+  private static final int SEGMENTS = 16;
+  private static final int MAX_CATEGORIES = 64;
+
+  private final Segment[] segments = new Segment[SEGMENTS];
+  /** Shared instances of the categories, which are a handful of values */
+  private final Map<String, String> categories = new ConcurrentHashMap<>();
+  private volatile int generation;
+
+  public PresenceTable() {
+    for (int i = 0; i < SEGMENTS; i++) {
+      this.segments[i] = new Segment();
+    }
+  }
+
+  /**
+   * @param userId the id of the user.
+   * @return the last known presence of the user, empty if none has been received yet.
+   */
+  public Optional<V2Presence> get(long userId) {
+    if (userId == FREE) {
+      return Optional.empty();
+    }
+    final Segment segment = this.segment(userId);
+    synchronized (segment) {
+      final int i = segment.find(userId);
+      if (segment.userIds[i] == FREE) {
+        return Optional.empty();
+      }
+      return Optional.of(new V2Presence()
+          .userId(userId)
+          .category(segment.categories[i])
+          .timestamp(segment.timestamps[i]));
+    }
+  }
+
+  /**
+   * Records the presence of a user, unless a more recent one is already known. In both cases the user is marked as
+   * seen in the current generation.
+   *
+   * @param presence the presence of a user, ignored if it has no user id or no category.
+   * @return true if the known presence of the user changed.
+   */
+  public boolean update(V2Presence presence) {
+    if (presence == null || presence.getUserId() == null || presence.getUserId() == FREE
+        || presence.getCategory() == null) {
+      return false;
+    }
+    final long userId = presence.getUserId();
+    final long timestamp = presence.getTimestamp() == null ? 0L : presence.getTimestamp();
+    final String category = this.category(presence.getCategory());
+    final Segment segment = this.segment(userId);
+    synchronized (segment) {
+      return segment.put(userId, category, timestamp, this.generation);
+    }
+  }
+
+  /**
+   * Starts a new generation, the users updated from now on are marked as seen in it.
+   *
+   * @return the new generation.
+   */
+  public synchronized int newGeneration() {
+    return ++this.generation;
+  }
+
+  /**
+   * Removes the users who have not been updated since the given generation started.
+   *
+   * @param generation a generation returned by {@link #newGeneration()}.
+   * @return the number of users removed.
+   */
+  public int removeUnseenSince(int generation) {
+    int removed = 0;
+    for (Segment segment : this.segments) {
+      synchronized (segment) {
+        removed += segment.removeUnseenSince(generation);
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * @return the number of users whose presence is known.
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : this.segments) {
+      synchronized (segment) {
+        size += segment.size;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Forgets all the presences.
+   */
+  public void clear() {
+    for (Segment segment : this.segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  private Segment segment(long userId) {
+    return this.segments[hash(userId) >>> 28];
+  }
+
+  private String category(String category) {
+    final String shared = this.categories.get(category);
+    if (shared != null) {
+      return shared;
+    }
+    if (this.categories.size() >= MAX_CATEGORIES) {
+      return category;
+    }
+    final String previous = this.categories.putIfAbsent(category, category);
+    return previous == null ? category : previous;
+  }
+
+  private static int hash(long userId) {
+    final long hash = userId * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  private static final class Segment {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] userIds;
+    private String[] categories;
+    private long[] timestamps;
+    private int[] generations;
+    private int size;
+
+    private Segment() {
+      this.clear();
+    }
+
+    /**
+     * @return the slot of the user, or the free slot where it would be inserted.
+     */
+    private int find(long userId) {
+      final int mask = this.userIds.length - 1;
+      int i = hash(userId) & mask;
+      while (this.userIds[i] != FREE && this.userIds[i] != userId) {
+        i = (i + 1) & mask;
+      }
+      return i;
+    }
+
+    private boolean put(long userId, String category, long timestamp, int generation) {
+      int i = this.find(userId);
+      if (this.userIds[i] == FREE) {
+        if ((this.size + 1) * 4L > this.userIds.length * 3L) {
+          this.rehash(this.userIds.length * 2);
+          i = this.find(userId);
+        }
+        this.userIds[i] = userId;
+        this.size++;
+      } else if (timestamp < this.timestamps[i]
+          || (timestamp == this.timestamps[i] && category.equals(this.categories[i]))) {
+        this.generations[i] = generation;
+        return false;
+      }
+      this.categories[i] = category;
+      this.timestamps[i] = timestamp;
+      this.generations[i] = generation;
+      return true;
+    }
+
+    /**
+     * @return the number of users removed.
+     */
+    private int removeUnseenSince(int generation) {
+      int removed = 0;
+      for (int i = 0; i < this.userIds.length; i++) {
+        if (this.userIds[i] != FREE && this.generations[i] - generation < 0) {
+          this.userIds[i] = FREE;
+          removed++;
+        }
+      }
+      if (removed > 0) {
+        // the freed slots break the probe sequences of the users inserted after them, the table is rebuilt
+        this.size -= removed;
+        this.rehash(this.userIds.length);
+      }
+      return removed;
+    }
+
+    private void rehash(int capacity) {
+      final long[] previousUserIds = this.userIds;
+      final String[] previousCategories = this.categories;
+      final long[] previousTimestamps = this.timestamps;
+      final int[] previousGenerations = this.generations;
+      this.userIds = new long[capacity];
+      this.categories = new String[capacity];
+      this.timestamps = new long[capacity];
+      this.generations = new int[capacity];
+      for (int j = 0; j < previousUserIds.length; j++) {
+        if (previousUserIds[j] != FREE) {
+          final int i = this.find(previousUserIds[j]);
+          this.userIds[i] = previousUserIds[j];
+          this.categories[i] = previousCategories[j];
+          this.timestamps[i] = previousTimestamps[j];
+          this.generations[i] = previousGenerations[j];
+        }
+      }
+    }
+
+    private void clear() {
+      this.userIds = new long[INITIAL_CAPACITY];
+      this.categories = new String[INITIAL_CAPACITY];
+      this.timestamps = new long[INITIAL_CAPACITY];
+      this.generations = new int[INITIAL_CAPACITY];
+      this.size = 0;
+    }
+  }
+}
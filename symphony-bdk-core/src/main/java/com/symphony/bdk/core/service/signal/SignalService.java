@@ -91,7 +91,7 @@ public class SignalService implements OboSignalService, OboService<OboSignalServ
   @API(status = API.Status.EXPERIMENTAL)
   public Stream<Signal> listAllSignals(@Nonnull StreamPaginationAttribute pagination) {
     OffsetBasedPaginatedApi<Signal> api = (offset, limit) -> listSignals(new PaginationAttribute(offset, limit));
-    return new OffsetBasedPaginatedService<>(api, pagination.getChunkSize(), pagination.getTotalSize()).stream();
+    return new OffsetBasedPaginatedService<>(api, pagination).stream();
   }
 
   /**
@@ -192,7 +192,7 @@ public class SignalService implements OboSignalService, OboService<OboSignalServ
       @Nonnull StreamPaginationAttribute pagination) {
     OffsetBasedPaginatedApi<ChannelSubscriber> api =
         (((offset, limit) -> listSubscribers(id, new PaginationAttribute(offset, limit))));
-    return new OffsetBasedPaginatedService<>(api, pagination.getChunkSize(), pagination.getTotalSize()).stream();
+    return new OffsetBasedPaginatedService<>(api, pagination).stream();
   }
 
   /**
@@ -0,0 +1,118 @@
+package com.symphony.bdk.core.service.stream;
+
+import static com.symphony.bdk.core.util.IdUtil.toUrlSafeIdIfNeeded;
+
+import com.symphony.bdk.core.auth.AuthSession;
+import com.symphony.bdk.core.service.datafeed.RealTimeEventListener;
+import com.symphony.bdk.core.util.KeyedCache;
+import com.symphony.bdk.core.util.KeyedCacheConfig;
+import com.symphony.bdk.gen.api.model.V4Initiator;
+import com.symphony.bdk.gen.api.model.V4RoomCreated;
+import com.symphony.bdk.gen.api.model.V4RoomDeactivated;
+import com.symphony.bdk.gen.api.model.V4RoomReactivated;
+import com.symphony.bdk.gen.api.model.V4RoomUpdated;
+import com.symphony.bdk.gen.api.model.V4Stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * Read-through cache of the stream attributes, room details and IM details retrieved by the {@link StreamService},
+ * enabled with {@link StreamService#enableCache(KeyedCacheConfig)}.
+ * <p>
+ * Streams are cached by id in a {@link KeyedCache}, tagged with their URL-safe id. Concurrent lookups of the same
+ * missing stream share a single call to the pod. As the streams visible to a session depend on the session, the
+ * streams retrieved on behalf of a user are cached separately, for as long as the OBO session is referenced.
+ * <p>
+ * Once subscribed to the datafeed, the cache drops the rooms that are created, updated, deactivated or reactivated.
+ * The streams updated through the {@link StreamService} are dropped as well.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class StreamCache extends KeyedCache<Object> implements RealTimeEventListener {
+
+  static final String STREAM = "stream";
+  static final String ROOM = "room";
+  static final String IM = "im";
+
+  public StreamCache(KeyedCacheConfig config) {
+    this(config, System::nanoTime);
+  }
+
+  StreamCache(KeyedCacheConfig config, LongSupplier clock) {
+    super(config, clock);
+  }
+
+  private StreamCache(StreamCache parent) {
+    super(parent);
+  }
+
+  /**
+   * Removes a stream from the cache, including the caches of the OBO sessions.
+   *
+   * @param streamId the id of the stream to remove, URL-safe or not.
+   */
+  public void invalidate(String streamId) {
+    this.invalidateTag(toUrlSafeIdIfNeeded(streamId));
+  }
+
+  @Override
+  public void onRoomCreated(V4Initiator initiator, V4RoomCreated event) {
+    this.onStream(event.getStream());
+  }
+
+  @Override
+  public void onRoomUpdated(V4Initiator initiator, V4RoomUpdated event) {
+    this.onStream(event.getStream());
+  }
+
+  @Override
+  public void onRoomDeactivated(V4Initiator initiator, V4RoomDeactivated event) {
+    this.onStream(event.getStream());
+  }
+
+  @Override
+  public void onRoomReactivated(V4Initiator initiator, V4RoomReactivated event) {
+    this.onStream(event.getStream());
+  }
+
+  /**
+   * Returns the cache of the streams retrieved on behalf of a user, sharing the configuration and the metrics of this
+   * cache.
+   */
+  StreamCache forSession(AuthSession oboSession) {
+    return (StreamCache) this.child(oboSession);
+  }
+
+  @Override
+  protected StreamCache newChild() {
+    return new StreamCache(this);
+  }
+
+  /**
+   * Looks up a value in the cache, loading it if missing. A value being loaded by another thread is awaited rather
+   * than loaded again.
+   *
+   * @param type     the type of the looked up value, i.e. stream, room or IM.
+   * @param streamId the id of the stream.
+   * @param loader   loads the value.
+   * @param <T>      the type of the cached value.
+   * @return the value.
+   */
+  <T> T get(String type, String streamId, Supplier<T> loader) {
+    final String urlSafeId = toUrlSafeIdIfNeeded(streamId);
+    return this.get(type + '|' + urlSafeId, loader, value -> urlSafeId);
+  }
+
+  private void onStream(@Nullable V4Stream stream) {
+    if (stream != null && stream.getStreamId() != null) {
+      log.debug("Stream {} changed, removing it from the cache", stream.getStreamId());
+      this.invalidate(stream.getStreamId());
+    }
+  }
+}
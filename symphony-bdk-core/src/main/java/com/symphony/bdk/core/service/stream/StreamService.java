@@ -12,6 +12,13 @@ import com.symphony.bdk.core.service.pagination.OffsetBasedPaginatedService;
 import com.symphony.bdk.core.service.pagination.PaginatedService;
 import com.symphony.bdk.core.service.pagination.model.PaginationAttribute;
 import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
+import com.symphony.bdk.core.service.stream.membership.BulkMembershipApi;
+import com.symphony.bdk.core.service.stream.membership.BulkMembershipConfig;
+import com.symphony.bdk.core.service.stream.membership.BulkMembershipUpdater;
+import com.symphony.bdk.core.service.stream.membership.MembershipChange;
+import com.symphony.bdk.core.service.stream.membership.MembershipChangeReport;
+import com.symphony.bdk.core.service.stream.membership.MembershipChangeResult;
+import com.symphony.bdk.core.util.KeyedCacheConfig;
 import com.symphony.bdk.gen.api.RoomMembershipApi;
 import com.symphony.bdk.gen.api.ShareApi;
 import com.symphony.bdk.gen.api.StreamsApi;
@@ -41,7 +48,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.apiguardian.api.API;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -68,6 +83,7 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
   private final ShareApi shareApi;
   private final AuthSession authSession;
   private final RetryWithRecoveryBuilder<?> retryBuilder;
+  private StreamCache cache;
 
   public StreamService(StreamsApi streamsApi, RoomMembershipApi membershipApi, ShareApi shareApi,
       AuthSession authSession, RetryWithRecoveryBuilder<?> retryBuilder) {
@@ -93,7 +109,33 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
    */
   @Override
   public OboStreamService obo(AuthSession oboSession) {
-    return new StreamService(streamsApi, roomMembershipApi, shareApi, oboSession, retryBuilder);
+    StreamService oboStreamService =
+        new StreamService(streamsApi, roomMembershipApi, shareApi, oboSession, retryBuilder);
+    if (cache != null) {
+      oboStreamService.cache = cache.forSession(oboSession);
+    }
+    return oboStreamService;
+  }
+
+  /**
+   * Caches the stream attributes, room details and IM details, including the ones retrieved on behalf of users. The
+   * cache should be subscribed to the datafeed so that modified rooms are retrieved again.
+   *
+   * @param config The cache configuration.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public void enableCache(KeyedCacheConfig config) {
+    this.cache = new StreamCache(config);
+  }
+
+  /**
+   * Returns the stream cache, giving access to its metrics.
+   *
+   * @return the {@link StreamCache} if the cache has been enabled, empty otherwise.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public Optional<StreamCache> getCache() {
+    return Optional.ofNullable(this.cache);
   }
 
   /**
@@ -101,8 +143,9 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
    */
   @Override
   public V2StreamAttributes getStream(@Nonnull String streamId) {
-    return executeAndRetry("getStreamInfo", streamsApi.getApiClient().getBasePath(),
-        () -> streamsApi.v2StreamsSidInfoGet(toUrlSafeIdIfNeeded(streamId), authSession.getSessionToken()));
+    return cached(StreamCache.STREAM, streamId, () -> executeAndRetry("getStreamInfo",
+        streamsApi.getApiClient().getBasePath(),
+        () -> streamsApi.v2StreamsSidInfoGet(toUrlSafeIdIfNeeded(streamId), authSession.getSessionToken())));
   }
 
   /**
@@ -143,7 +186,7 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
   public java.util.stream.Stream<StreamAttributes> listAllStreams(@Nullable StreamFilter filter,
       @Nonnull StreamPaginationAttribute pagination) {
     OffsetBasedPaginatedApi<StreamAttributes> api = (offset, limit) -> listStreams(filter, new PaginationAttribute(offset, limit));
-    return new OffsetBasedPaginatedService<>(api, pagination.getChunkSize(), pagination.getTotalSize()).stream();
+    return new OffsetBasedPaginatedService<>(api, pagination).stream();
   }
 
   /**
@@ -233,8 +276,10 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
       String pinnedMessageId = toUrlSafeIdIfNeeded(roomAttributes.getPinnedMessageId());
       roomAttributes.setPinnedMessageId(pinnedMessageId);
     }
-    return executeAndRetry("updateRoom", streamsApi.getApiClient().getBasePath(),
+    V3RoomDetail roomDetail = executeAndRetry("updateRoom", streamsApi.getApiClient().getBasePath(),
         () -> streamsApi.v3RoomIdUpdatePost(toUrlSafeIdIfNeeded(roomId), authSession.getSessionToken(), roomAttributes));
+    invalidate(roomId);
+    return roomDetail;
   }
 
   /**
@@ -242,8 +287,9 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
    */
   @Override
   public V3RoomDetail getRoomInfo(@Nonnull String roomId) {
-    return executeAndRetry("getRoomInfo", streamsApi.getApiClient().getBasePath(),
-        () -> streamsApi.v3RoomIdInfoGet(toUrlSafeIdIfNeeded(roomId), authSession.getSessionToken()));
+    return cached(StreamCache.ROOM, roomId, () -> executeAndRetry("getRoomInfo",
+        streamsApi.getApiClient().getBasePath(),
+        () -> streamsApi.v3RoomIdInfoGet(toUrlSafeIdIfNeeded(roomId), authSession.getSessionToken())));
   }
 
   /**
@@ -286,7 +332,7 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
       @Nonnull StreamPaginationAttribute pagination) {
     OffsetBasedPaginatedApi<V3RoomDetail> api =
         (offset, limit) -> searchRooms(query, new PaginationAttribute(offset, limit)).getRooms();
-    return new OffsetBasedPaginatedService<>(api, pagination.getChunkSize(), pagination.getTotalSize()).stream();
+    return new OffsetBasedPaginatedService<>(api, pagination).stream();
   }
 
   /**
@@ -298,8 +344,10 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
    * @see <a href="https://developers.symphony.com/restapi/reference#de-or-re-activate-room">De/Reactivate Room</a>
    */
   public RoomDetail setRoomActive(@Nonnull String roomId, @Nonnull Boolean active) {
-    return executeAndRetry("setRoomActive", streamsApi.getApiClient().getBasePath(),
+    RoomDetail roomDetail = executeAndRetry("setRoomActive", streamsApi.getApiClient().getBasePath(),
         () -> streamsApi.v1RoomIdSetActivePost(toUrlSafeIdIfNeeded(roomId), active, authSession.getSessionToken()));
+    invalidate(roomId);
+    return roomDetail;
   }
 
   /**
@@ -336,8 +384,10 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
       String pinnedMessageId = toUrlSafeIdIfNeeded(imAttributes.getPinnedMessageId());
       imAttributes.setPinnedMessageId(pinnedMessageId);
     }
-    return executeAndRetry("updateIM", streamsApi.getApiClient().getBasePath(),
+    V1IMDetail imDetail = executeAndRetry("updateIM", streamsApi.getApiClient().getBasePath(),
         () -> streamsApi.v1ImIdUpdatePost(toUrlSafeIdIfNeeded(imId), authSession.getSessionToken(), imAttributes));
+    invalidate(imId);
+    return imDetail;
   }
 
   /**
@@ -348,8 +398,8 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
    * @see <a href="https://developers.symphony.com/restapi/reference#im-info">IM Info</a>
    */
   public V1IMDetail getInstantMessageInfo(@Nonnull String imId) {
-    return executeAndRetry("getIMInfo", streamsApi.getApiClient().getBasePath(),
-        () -> streamsApi.v1ImIdInfoGet(toUrlSafeIdIfNeeded(imId), authSession.getSessionToken()));
+    return cached(StreamCache.IM, imId, () -> executeAndRetry("getIMInfo", streamsApi.getApiClient().getBasePath(),
+        () -> streamsApi.v1ImIdInfoGet(toUrlSafeIdIfNeeded(imId), authSession.getSessionToken())));
   }
 
   /**
@@ -360,8 +410,10 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
    * @return The information of the room after being deactivated or reactivated.
    */
   public RoomDetail setRoomActiveAdmin(@Nonnull String streamId, @Nonnull Boolean active) {
-    return executeAndRetry("setRoomActiveAdmin", streamsApi.getApiClient().getBasePath(),
+    RoomDetail roomDetail = executeAndRetry("setRoomActiveAdmin", streamsApi.getApiClient().getBasePath(),
         () -> streamsApi.v1AdminRoomIdSetActivePost(toUrlSafeIdIfNeeded(streamId), active, authSession.getSessionToken()));
+    invalidate(streamId);
+    return roomDetail;
   }
 
   /**
@@ -419,7 +471,7 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
       @Nonnull StreamPaginationAttribute pagination) {
     OffsetBasedPaginatedApi<V2AdminStreamInfo> api =
         (offset, limit) -> listStreamsAdmin(filter, new PaginationAttribute(offset, limit)).getStreams();
-    return new OffsetBasedPaginatedService<>(api, pagination.getChunkSize(), pagination.getTotalSize()).stream();
+    return new OffsetBasedPaginatedService<>(api, pagination).stream();
   }
 
   /**
@@ -483,7 +535,7 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
     OffsetBasedPaginatedApi<V2MemberInfo> api =
         (offset, limit) -> listStreamMembers(toUrlSafeIdIfNeeded(streamId),
             new PaginationAttribute(offset, limit)).getMembers();
-    return new OffsetBasedPaginatedService<>(api, pagination.getChunkSize(), pagination.getTotalSize()).stream();
+    return new OffsetBasedPaginatedService<>(api, pagination).stream();
   }
 
   /**
@@ -498,6 +550,76 @@ public class StreamService implements OboStreamService, OboService<OboStreamServ
         () -> roomMembershipApi.v2RoomIdMembershipListGet(toUrlSafeIdIfNeeded(roomId), authSession.getSessionToken()));
   }
 
+  /**
+   * Applies a large number of membership changes, i.e. users added to or removed from rooms, promoted to or demoted
+   * from owner. The changes of each room are applied in order, while many rooms are updated at the same time. The
+   * number of rooms updated at the same time adapts to the 429 and 5xx errors returned by the pod, and the changes that
+   * would not modify the current members of their room are skipped.
+   * <p>
+   * The update runs on a dedicated thread pool which is shut down once all the changes have been processed.
+   *
+   * @param changes  the membership changes to apply
+   * @param config   the update configuration
+   * @param listener optional listener notified each time a change is done
+   * @return a future completed with the report of the update once all the changes have been processed
+   * @see BulkMembershipUpdater
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public CompletableFuture<MembershipChangeReport> updateMemberships(@Nonnull Collection<MembershipChange> changes,
+      @Nonnull BulkMembershipConfig config, @Nullable Consumer<MembershipChangeResult> listener) {
+    checkAuthSession(authSession);
+    final AtomicInteger threadCount = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, config.getMaxConcurrency()) + 1, r -> {
+      final Thread thread = new Thread(r, "Room-Membership-Thread-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    final BulkMembershipUpdater updater = new BulkMembershipUpdater(config, executor,
+        RetryWithRecoveryBuilder.from(retryBuilder).basePath(roomMembershipApi.getApiClient().getBasePath()),
+        new BulkMembershipApi() {
+          @Override
+          public List<MemberInfo> listMembers(String roomId) throws ApiException {
+            return roomMembershipApi.v2RoomIdMembershipListGet(toUrlSafeIdIfNeeded(roomId),
+                authSession.getSessionToken());
+          }
+
+          @Override
+          public void addMember(Long userId, String roomId) throws ApiException {
+            roomMembershipApi.v1RoomIdMembershipAddPost(toUrlSafeIdIfNeeded(roomId), authSession.getSessionToken(),
+                new UserId().id(userId));
+          }
+
+          @Override
+          public void removeMember(Long userId, String roomId) throws ApiException {
+            roomMembershipApi.v1RoomIdMembershipRemovePost(toUrlSafeIdIfNeeded(roomId), authSession.getSessionToken(),
+                new UserId().id(userId));
+          }
+
+          @Override
+          public void promoteOwner(Long userId, String roomId) throws ApiException {
+            roomMembershipApi.v1RoomIdMembershipPromoteOwnerPost(toUrlSafeIdIfNeeded(roomId),
+                authSession.getSessionToken(), new UserId().id(userId));
+          }
+
+          @Override
+          public void demoteOwner(Long userId, String roomId) throws ApiException {
+            roomMembershipApi.v1RoomIdMembershipDemoteOwnerPost(toUrlSafeIdIfNeeded(roomId),
+                authSession.getSessionToken(), new UserId().id(userId));
+          }
+        });
+    return updater.update(changes, listener).whenComplete((report, error) -> executor.shutdown());
+  }
+
+
+  private <T> T cached(String type, String streamId, Supplier<T> loader) {
+    return cache == null ? loader.get() : cache.get(type, streamId, loader);
+  }
+
+  private void invalidate(String streamId) {
+    if (cache != null) {
+      cache.invalidate(streamId);
+    }
+  }
 
   private <T> T executeAndRetry(String name, String address, SupplierWithApiException<T> supplier) {
     checkAuthSession(authSession);
@@ -0,0 +1,26 @@
+package com.symphony.bdk.core.service.stream.membership;
+
+import com.symphony.bdk.gen.api.model.MemberInfo;
+import com.symphony.bdk.http.api.ApiException;
+
+import org.apiguardian.api.API;
+
+import java.util.List;
+
+/**
+ * Calls made by a {@link BulkMembershipUpdater}. Each method makes a single call to the pod, without retrying it: the
+ * updater retries the calls itself, to adapt its concurrency to the errors.
+ */
+@API(status = API.Status.INTERNAL)
+public interface BulkMembershipApi {
+
+  List<MemberInfo> listMembers(String roomId) throws ApiException;
+
+  void addMember(Long userId, String roomId) throws ApiException;
+
+  void removeMember(Long userId, String roomId) throws ApiException;
+
+  void promoteOwner(Long userId, String roomId) throws ApiException;
+
+  void demoteOwner(Long userId, String roomId) throws ApiException;
+}
@@ -0,0 +1,26 @@
+package com.symphony.bdk.core.service.stream.membership;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apiguardian.api.API;
+
+/**
+ * Configuration of a bulk membership update, see {@link BulkMembershipUpdater}.
+ */
+@Getter
+@Setter
+@API(status = API.Status.EXPERIMENTAL)
+public class BulkMembershipConfig {
+
+  public static final int DEFAULT_INITIAL_CONCURRENCY = 4;
+  public static final int DEFAULT_MAX_CONCURRENCY = 32;
+
+  /** Number of rooms updated at the same time when the update starts */
+  private int initialConcurrency = DEFAULT_INITIAL_CONCURRENCY;
+
+  /** Maximum number of rooms updated at the same time, reached while the pod does not push back */
+  private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+  /** Whether the members of each room are listed first, to skip the operations that would not change anything */
+  private boolean skipNoOps = true;
+}
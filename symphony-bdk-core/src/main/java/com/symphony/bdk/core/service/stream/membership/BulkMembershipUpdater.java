@@ -0,0 +1,255 @@
+package com.symphony.bdk.core.service.stream.membership;
+
+import static com.symphony.bdk.core.util.IdUtil.toUrlSafeIdIfNeeded;
+
+import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
+import com.symphony.bdk.core.util.AdaptiveTaskRunner;
+import com.symphony.bdk.gen.api.model.MemberInfo;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * Applies a large number of membership changes, i.e. users added to or removed from rooms, promoted to or demoted from
+ * owner.
+ * <p>
+ * The changes are grouped by room: the changes of a given room are applied one after the other, in the given order, so
+ * that they never conflict, while many rooms are updated at the same time. The number of rooms updated at the same
+ * time starts at {@link BulkMembershipConfig#getInitialConcurrency()} and grows up to
+ * {@link BulkMembershipConfig#getMaxConcurrency()} while the calls succeed. It is halved each time the pod responds
+ * with a 429 or a 5xx error. Each call is retried with the retry configuration and recovery strategies of the stream
+ * service, a change failing after all its retries does not prevent the next ones from being applied.
+ * <p>
+ * When {@link BulkMembershipConfig#isSkipNoOps()} is set, the members of each room are listed before its changes are
+ * applied, and the changes that would not modify the room, e.g. adding a user who is already a member, are skipped.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class BulkMembershipUpdater {
+
+  private final BulkMembershipConfig config;
+  private final Executor executor;
+  private final RetryWithRecoveryBuilder<?> retryBuilder;
+  private final BulkMembershipApi api;
+  private final LongSupplier clock;
+
+  /**
+   * @param config       the update configuration.
+   * @param executor     the executor running the update, it must be able to run
+   *                     {@link BulkMembershipConfig#getMaxConcurrency()} + 1 tasks at the same time.
+   * @param retryBuilder the retry configuration of each call.
+   * @param api          makes the calls to the pod.
+   */
+  public BulkMembershipUpdater(BulkMembershipConfig config, Executor executor, RetryWithRecoveryBuilder<?> retryBuilder,
+      BulkMembershipApi api) {
+    this(config, executor, retryBuilder, api, System::nanoTime);
+  }
+
+  BulkMembershipUpdater(BulkMembershipConfig config, Executor executor, RetryWithRecoveryBuilder<?> retryBuilder,
+      BulkMembershipApi api, LongSupplier clock) {
+    this.config = config;
+    this.executor = executor;
+    this.retryBuilder = retryBuilder;
+    this.api = api;
+    this.clock = clock;
+  }
+
+  /**
+   * Applies the given membership changes.
+   *
+   * @param changes  the changes to apply, the changes of a same room are applied in this order.
+   * @param listener optional listener notified, from the update threads, each time a change is done.
+   * @return a future completed once all the changes have been processed.
+   */
+  public CompletableFuture<MembershipChangeReport> update(Collection<MembershipChange> changes,
+      @Nullable Consumer<MembershipChangeResult> listener) {
+    final Map<String, List<MembershipChange>> rooms = new LinkedHashMap<>();
+    for (MembershipChange change : changes) {
+      rooms.computeIfAbsent(toUrlSafeIdIfNeeded(change.getRoomId()), roomId -> new ArrayList<>()).add(change);
+    }
+    final Run run = new Run(listener);
+    try {
+      this.executor.execute(() -> run.dispatch(rooms.values()));
+    } catch (RuntimeException e) {
+      run.result.completeExceptionally(e);
+    }
+    return run.result;
+  }
+
+  private final class Run {
+
+    private final AdaptiveTaskRunner<MembershipChangeResult> runner;
+    private final AtomicInteger applied = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final Queue<MembershipChangeResult> failures = new ConcurrentLinkedQueue<>();
+    private final CompletableFuture<MembershipChangeReport> result = new CompletableFuture<>();
+
+    Run(@Nullable Consumer<MembershipChangeResult> listener) {
+      this.runner = new AdaptiveTaskRunner<>(config.getInitialConcurrency(), config.getMaxConcurrency(), executor,
+          retryBuilder, listener, BulkMembershipUpdater::subjectOf, clock);
+    }
+
+    private void dispatch(Collection<List<MembershipChange>> rooms) {
+      try {
+        this.runner.runAll(rooms.iterator(), this::update);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        this.result.completeExceptionally(e);
+        return;
+      } catch (RuntimeException e) {
+        this.result.completeExceptionally(e);
+        return;
+      }
+      this.result.complete(new MembershipChangeReport(this.applied.get(), this.skipped.get(),
+          Collections.unmodifiableList(new ArrayList<>(this.failures)), this.runner.getMinConcurrency(),
+          this.runner.getMaxConcurrency()));
+    }
+
+    private void update(List<MembershipChange> changes) {
+      final String roomId = changes.get(0).getRoomId();
+      Map<Long, Boolean> members = null;
+      if (config.isSkipNoOps()) {
+        try {
+          members = this.listMembers(roomId);
+        } catch (RuntimeException e) {
+          log.debug("Unable to list the members of room {}", roomId, e);
+          changes.forEach(change -> this.fail(change, e));
+          return;
+        }
+      }
+
+      for (MembershipChange change : changes) {
+        if (members != null && isNoOp(change, members)) {
+          this.skipped.incrementAndGet();
+          this.runner.publish(new MembershipChangeResult(change, MembershipChangeResult.Status.SKIPPED, null));
+          continue;
+        }
+        try {
+          this.apply(change);
+        } catch (RuntimeException e) {
+          log.debug("Membership change {} of user {} in room {} failed", change.getOperation(), change.getUserId(),
+              roomId, e);
+          this.fail(change, e);
+          continue;
+        }
+        if (members != null) {
+          track(change, members);
+        }
+        this.applied.incrementAndGet();
+        this.runner.publish(new MembershipChangeResult(change, MembershipChangeResult.Status.APPLIED, null));
+      }
+    }
+
+    /**
+     * @return whether each member of the room is an owner.
+     */
+    private Map<Long, Boolean> listMembers(String roomId) {
+      final List<MemberInfo> members = this.runner.call("bulkListRoomMembers", () -> api.listMembers(roomId));
+      final Map<Long, Boolean> owners = new HashMap<>();
+      if (members != null) {
+        for (MemberInfo member : members) {
+          if (member.getId() != null) {
+            owners.put(member.getId(), Boolean.TRUE.equals(member.getOwner()));
+          }
+        }
+      }
+      return owners;
+    }
+
+    private void apply(MembershipChange change) {
+      final Long userId = change.getUserId();
+      final String roomId = change.getRoomId();
+      switch (change.getOperation()) {
+        case ADD:
+          this.runner.call("bulkAddMemberToRoom", () -> {
+            api.addMember(userId, roomId);
+            return null;
+          });
+          break;
+        case REMOVE:
+          this.runner.call("bulkRemoveMemberFromRoom", () -> {
+            api.removeMember(userId, roomId);
+            return null;
+          });
+          break;
+        case PROMOTE:
+          this.runner.call("bulkPromoteUserToOwner", () -> {
+            api.promoteOwner(userId, roomId);
+            return null;
+          });
+          break;
+        case DEMOTE:
+          this.runner.call("bulkDemoteUserToParticipant", () -> {
+            api.demoteOwner(userId, roomId);
+            return null;
+          });
+          break;
+        default:
+          throw new IllegalArgumentException("Unsupported operation " + change.getOperation());
+      }
+    }
+
+    private void fail(MembershipChange change, Throwable error) {
+      final MembershipChangeResult failure =
+          new MembershipChangeResult(change, MembershipChangeResult.Status.FAILED, error);
+      this.failures.add(failure);
+      this.runner.publish(failure);
+    }
+  }
+
+  private static String subjectOf(MembershipChangeResult changeResult) {
+    return "user " + changeResult.getChange().getUserId() + " in room " + changeResult.getChange().getRoomId();
+  }
+
+  private static boolean isNoOp(MembershipChange change, Map<Long, Boolean> members) {
+    switch (change.getOperation()) {
+      case ADD:
+        return members.containsKey(change.getUserId());
+      case REMOVE:
+        return !members.containsKey(change.getUserId());
+      case PROMOTE:
+        return Boolean.TRUE.equals(members.get(change.getUserId()));
+      case DEMOTE:
+        return !Boolean.TRUE.equals(members.get(change.getUserId()));
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Updates the members of the room after a change has been applied, for the next changes of the same users.
+   */
+  private static void track(MembershipChange change, Map<Long, Boolean> members) {
+    switch (change.getOperation()) {
+      case ADD:
+      case DEMOTE:
+        members.put(change.getUserId(), false);
+        break;
+      case REMOVE:
+        members.remove(change.getUserId());
+        break;
+      case PROMOTE:
+        members.put(change.getUserId(), true);
+        break;
+      default:
+        break;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package com.symphony.bdk.core.service.stream.membership;
+
+import org.apiguardian.api.API;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive longs, stored in an open addressing hash table with linear probing. It takes 8 to 16 bytes per
+ * value, instead of about 50 for a {@link java.util.HashSet} of boxed longs.
+ * <p>
+ * This class is not thread safe.
+ */
+@API(status = API.Status.INTERNAL)
+final class LongSet {
+
+  /** Marks an empty slot of the table, the value 0 itself is tracked separately */
+  private static final long FREE = 0L;
+  private static final int MIN_CAPACITY = 4;
+
+  private long[] table;
+  private int size;
+  private boolean containsFree;
+
+  LongSet() {
+    this(MIN_CAPACITY);
+  }
+
+  LongSet(int expectedSize) {
+    this.table = new long[capacityFor(expectedSize)];
+  }
+
+  int size() {
+    return this.containsFree ? this.size + 1 : this.size;
+  }
+
+  boolean contains(long value) {
+    if (value == FREE) {
+      return this.containsFree;
+    }
+    final int mask = this.table.length - 1;
+    for (int i = index(value, mask); ; i = (i + 1) & mask) {
+      final long current = this.table[i];
+      if (current == FREE) {
+        return false;
+      }
+      if (current == value) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * @return true if the value was not in the set.
+   */
+  boolean add(long value) {
+    if (value == FREE) {
+      final boolean added = !this.containsFree;
+      this.containsFree = true;
+      return added;
+    }
+    if ((this.size + 1) * 4L > this.table.length * 3L) {
+      this.rehash(this.table.length * 2);
+    }
+    final int mask = this.table.length - 1;
+    int i = index(value, mask);
+    while (this.table[i] != FREE) {
+      if (this.table[i] == value) {
+        return false;
+      }
+      i = (i + 1) & mask;
+    }
+    this.table[i] = value;
+    this.size++;
+    return true;
+  }
+
+  /**
+   * @return true if the value was in the set.
+   */
+  boolean remove(long value) {
+    if (value == FREE) {
+      final boolean removed = this.containsFree;
+      this.containsFree = false;
+      return removed;
+    }
+    final int mask = this.table.length - 1;
+    int i = index(value, mask);
+    while (this.table[i] != value) {
+      if (this.table[i] == FREE) {
+        return false;
+      }
+      i = (i + 1) & mask;
+    }
+    // shifts back the following values of the cluster that would not be found anymore
+    int j = i;
+    while (true) {
+      j = (j + 1) & mask;
+      final long current = this.table[j];
+      if (current == FREE) {
+        break;
+      }
+      final int ideal = index(current, mask);
+      if (i <= j ? (ideal <= i || ideal > j) : (ideal <= i && ideal > j)) {
+        this.table[i] = current;
+        i = j;
+      }
+    }
+    this.table[i] = FREE;
+    this.size--;
+    return true;
+  }
+
+  long[] toArray() {
+    final long[] values = new long[this.size()];
+    int n = 0;
+    for (long value : this.table) {
+      if (value != FREE) {
+        values[n++] = value;
+      }
+    }
+    if (this.containsFree) {
+      values[n] = FREE;
+    }
+    Arrays.sort(values);
+    return values;
+  }
+
+  private void rehash(int capacity) {
+    final long[] previous = this.table;
+    this.table = new long[capacity];
+    final int mask = capacity - 1;
+    for (long value : previous) {
+      if (value != FREE) {
+        int i = index(value, mask);
+        while (this.table[i] != FREE) {
+          i = (i + 1) & mask;
+        }
+        this.table[i] = value;
+      }
+    }
+  }
+
+  private static int index(long value, int mask) {
+    final long hash = value * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  private static int capacityFor(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity * 3L < expectedSize * 4L) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+}
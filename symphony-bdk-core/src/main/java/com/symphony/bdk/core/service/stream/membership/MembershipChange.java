@@ -0,0 +1,36 @@
+package com.symphony.bdk.core.service.stream.membership;
+
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Membership operation to apply on one user in one room, see {@link BulkMembershipUpdater}.
+ */
+@Getter
+@API(status = API.Status.EXPERIMENTAL)
+public class MembershipChange {
+
+  private final Long userId;
+
+  /**
+   * Id of the room, URL-safe or not.
+   */
+  private final String roomId;
+
+  private final MembershipOperation operation;
+
+  /**
+   * @param userId    the id of the user.
+   * @param roomId    the id of the room, URL-safe or not.
+   * @param operation the operation to apply.
+   */
+  public MembershipChange(@Nonnull Long userId, @Nonnull String roomId, @Nonnull MembershipOperation operation) {
+    this.userId = Objects.requireNonNull(userId);
+    this.roomId = Objects.requireNonNull(roomId);
+    this.operation = Objects.requireNonNull(operation);
+  }
+}
@@ -0,0 +1,55 @@
+package com.symphony.bdk.core.service.stream.membership;
+
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import java.util.List;
+
+/**
+ * Final outcome of a bulk membership update, once all the changes have been processed.
+ */
+@Getter
+@API(status = API.Status.EXPERIMENTAL)
+public class MembershipChangeReport {
+
+  /**
+   * Number of changes applied.
+   */
+  private final int applied;
+
+  /**
+   * Number of changes skipped because they were not needed.
+   */
+  private final int skipped;
+
+  /**
+   * Results of the changes that could not be applied, in completion order.
+   */
+  private final List<MembershipChangeResult> failures;
+
+  /**
+   * Lowest number of rooms updated at the same time, after the pod pushed back.
+   */
+  private final int minConcurrency;
+
+  /**
+   * Highest number of rooms updated at the same time.
+   */
+  private final int maxConcurrency;
+
+  MembershipChangeReport(int applied, int skipped, List<MembershipChangeResult> failures, int minConcurrency,
+      int maxConcurrency) {
+    this.applied = applied;
+    this.skipped = skipped;
+    this.failures = failures;
+    this.minConcurrency = minConcurrency;
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /**
+   * @return true if all the changes have been applied or skipped.
+   */
+  public boolean isSuccessful() {
+    return this.failures.isEmpty();
+  }
+}
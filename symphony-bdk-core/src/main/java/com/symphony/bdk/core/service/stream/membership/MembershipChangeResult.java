@@ -0,0 +1,43 @@
+package com.symphony.bdk.core.service.stream.membership;
+
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+
+/**
+ * Outcome of one {@link MembershipChange} applied by a {@link BulkMembershipUpdater}, notified as soon as it is done.
+ */
+@Getter
+@API(status = API.Status.EXPERIMENTAL)
+public class MembershipChangeResult {
+
+  /**
+   * Outcome of a membership change.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public enum Status {
+    /** The operation has been applied */
+    APPLIED,
+    /** The operation was not needed according to the current members of the room */
+    SKIPPED,
+    /** The operation, or the listing of the members of the room, failed after all its retries */
+    FAILED
+  }
+
+  private final MembershipChange change;
+
+  private final Status status;
+
+  /**
+   * Error raised by the operation, null unless the status is {@link Status#FAILED}.
+   */
+  @Nullable
+  private final Throwable error;
+
+  MembershipChangeResult(MembershipChange change, Status status, @Nullable Throwable error) {
+    this.change = change;
+    this.status = status;
+    this.error = error;
+  }
+}
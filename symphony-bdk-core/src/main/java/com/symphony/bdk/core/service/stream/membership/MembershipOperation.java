@@ -0,0 +1,22 @@
+package com.symphony.bdk.core.service.stream.membership;
+
+import org.apiguardian.api.API;
+
+/**
+ * Operation applied on the membership of a user in a room by a {@link BulkMembershipUpdater}.
+ */
+@API(status = API.Status.EXPERIMENTAL)
+public enum MembershipOperation {
+
+  /** Adds the user to the room, skipped if the user is already a member */
+  ADD,
+
+  /** Removes the user from the room, skipped if the user is not a member */
+  REMOVE,
+
+  /** Promotes the user to owner of the room, skipped if the user is already an owner */
+  PROMOTE,
+
+  /** Demotes an owner of the room to participant, skipped if the user is not an owner */
+  DEMOTE
+}
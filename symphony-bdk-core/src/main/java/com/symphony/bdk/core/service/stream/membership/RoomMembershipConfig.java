@@ -0,0 +1,27 @@
+package com.symphony.bdk.core.service.stream.membership;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apiguardian.api.API;
+
+/**
+ * Configuration of the {@link RoomMembershipIndex}.
+ */
+@Getter
+@Setter
+@API(status = API.Status.EXPERIMENTAL)
+public class RoomMembershipConfig {
+
+  public static final int DEFAULT_MAX_ROOMS = 10_000;
+  public static final int DEFAULT_MAX_MEMBERSHIPS = 1_000_000;
+  public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 60 * 60 * 1000L;
+
+  /** Maximum number of rooms indexed, the least recently used ones are evicted first */
+  private int maxRooms = DEFAULT_MAX_ROOMS;
+
+  /** Maximum number of members indexed in all the rooms, the least recently used rooms are evicted first */
+  private int maxMemberships = DEFAULT_MAX_MEMBERSHIPS;
+
+  /** Time after which the members of a room are retrieved again, in case some events were missed */
+  private long timeToLiveMillis = DEFAULT_TIME_TO_LIVE_MILLIS;
+}
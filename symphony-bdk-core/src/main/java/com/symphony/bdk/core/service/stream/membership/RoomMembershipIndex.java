@@ -0,0 +1,354 @@
+package com.symphony.bdk.core.service.stream.membership;
+
+import static com.symphony.bdk.core.util.IdUtil.toUrlSafeIdIfNeeded;
+
+import com.symphony.bdk.core.service.datafeed.RealTimeEventListener;
+import com.symphony.bdk.core.service.stream.StreamService;
+import com.symphony.bdk.gen.api.model.MemberInfo;
+import com.symphony.bdk.gen.api.model.V4Initiator;
+import com.symphony.bdk.gen.api.model.V4RoomMemberDemotedFromOwner;
+import com.symphony.bdk.gen.api.model.V4RoomMemberPromotedToOwner;
+import com.symphony.bdk.gen.api.model.V4Stream;
+import com.symphony.bdk.gen.api.model.V4User;
+import com.symphony.bdk.gen.api.model.V4UserJoinedRoom;
+import com.symphony.bdk.gen.api.model.V4UserLeftRoom;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * In-memory index of the members of rooms, answering whether a user is a member or an owner of a room without calling
+ * the pod.
+ * <p>
+ * The members of a room are retrieved with {@link StreamService#listRoomMembers(String)} the first time the room is
+ * looked up, concurrent lookups of the same room sharing a single call. Once subscribed to the datafeed, the index is
+ * then kept up to date from the users joining or leaving the room and the members promoted to or demoted from owner.
+ * The members of a room are retrieved again after {@link RoomMembershipConfig#getTimeToLiveMillis()}, in case some
+ * events were missed.
+ * <p>
+ * The members of each room are stored in sets of primitive longs, and a reverse index gives the indexed rooms of each
+ * user. Up to {@link RoomMembershipConfig#getMaxRooms()} rooms and {@link RoomMembershipConfig#getMaxMemberships()}
+ * members are indexed, the least recently used rooms being evicted first.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class RoomMembershipIndex implements RealTimeEventListener {
+
+  private final RoomMembershipConfig config;
+  private final Function<String, List<MemberInfo>> loader;
+  private final LongSupplier clock;
+  private final long timeToLiveNanos;
+  private final Map<String, Room> rooms = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Loading> loading = new HashMap<>();
+  /** Indexed rooms of each user */
+  private final Map<Long, Set<String>> userRooms = new HashMap<>();
+  private long memberships;
+
+  /**
+   * @param streamService the service retrieving the members of the rooms.
+   * @param config        the index configuration.
+   */
+  public RoomMembershipIndex(StreamService streamService, RoomMembershipConfig config) {
+    this(streamService::listRoomMembers, config, System::nanoTime);
+  }
+
+  RoomMembershipIndex(Function<String, List<MemberInfo>> loader, RoomMembershipConfig config, LongSupplier clock) {
+    this.config = config;
+    this.loader = loader;
+    this.clock = clock;
+    this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(config.getTimeToLiveMillis());
+  }
+
+  /**
+   * @param roomId the id of the room, URL-safe or not.
+   * @param userId the id of the user.
+   * @return true if the user is a member of the room.
+   */
+  public boolean isMember(String roomId, long userId) {
+    return this.read(roomId, room -> room.members.contains(userId));
+  }
+
+  /**
+   * @param roomId the id of the room, URL-safe or not.
+   * @param userId the id of the user.
+   * @return true if the user is an owner of the room.
+   */
+  public boolean isOwner(String roomId, long userId) {
+    return this.read(roomId, room -> room.owners.contains(userId));
+  }
+
+  /**
+   * @param roomId the id of the room, URL-safe or not.
+   * @return the ids of the members of the room, sorted.
+   */
+  public long[] getMembers(String roomId) {
+    return this.read(roomId, room -> room.members.toArray());
+  }
+
+  /**
+   * Returns the rooms of a user among the indexed rooms. Rooms that have not been looked up yet, or that have been
+   * evicted, are not returned.
+   *
+   * @param userId the id of the user.
+   * @return the URL-safe ids of the indexed rooms the user is a member of.
+   */
+  public synchronized Set<String> getIndexedRooms(long userId) {
+    final Set<String> rooms = this.userRooms.get(userId);
+    return rooms == null ? Collections.emptySet() : new HashSet<>(rooms);
+  }
+
+  /**
+   * Removes a room from the index, its members are retrieved again at the next lookup.
+   *
+   * @param roomId the id of the room, URL-safe or not.
+   */
+  public synchronized void invalidate(String roomId) {
+    final String key = toUrlSafeIdIfNeeded(roomId);
+    final Room room = this.rooms.remove(key);
+    if (room != null) {
+      this.unindex(key, room);
+    }
+    // the members being retrieved may be outdated, they are not indexed once retrieved
+    this.loading.remove(key);
+  }
+
+  /**
+   * @return the number of indexed rooms.
+   */
+  public synchronized int size() {
+    return this.rooms.size();
+  }
+
+  /**
+   * @return the number of members indexed in all the rooms.
+   */
+  public synchronized long getMemberships() {
+    return this.memberships;
+  }
+
+  @Override
+  public void onUserJoinedRoom(V4Initiator initiator, V4UserJoinedRoom event) {
+    this.onEvent(event.getStream(), event.getAffectedUser(), Change.Type.JOINED);
+  }
+
+  @Override
+  public void onUserLeftRoom(V4Initiator initiator, V4UserLeftRoom event) {
+    this.onEvent(event.getStream(), event.getAffectedUser(), Change.Type.LEFT);
+  }
+
+  @Override
+  public void onRoomMemberPromotedToOwner(V4Initiator initiator, V4RoomMemberPromotedToOwner event) {
+    this.onEvent(event.getStream(), event.getAffectedUser(), Change.Type.PROMOTED);
+  }
+
+  @Override
+  public void onRoomMemberDemotedFromOwner(V4Initiator initiator, V4RoomMemberDemotedFromOwner event) {
+    this.onEvent(event.getStream(), event.getAffectedUser(), Change.Type.DEMOTED);
+  }
+
+  private <T> T read(String roomId, Function<Room, T> reader) {
+    final String key = toUrlSafeIdIfNeeded(roomId);
+    final Loading awaited;
+    final Loading owned;
+    synchronized (this) {
+      final Room room = this.rooms.get(key);
+      if (room != null && room.loadedAt + this.timeToLiveNanos - this.clock.getAsLong() > 0) {
+        return reader.apply(room);
+      }
+      if (room != null) {
+        this.rooms.remove(key);
+        this.unindex(key, room);
+      }
+      awaited = this.loading.get(key);
+      if (awaited == null) {
+        owned = new Loading();
+        this.loading.put(key, owned);
+      } else {
+        owned = null;
+      }
+    }
+
+    final Room room = awaited != null ? join(awaited.future) : this.load(roomId, key, owned);
+    synchronized (this) {
+      return reader.apply(room);
+    }
+  }
+
+  private Room load(String roomId, String key, Loading owned) {
+    final List<MemberInfo> members;
+    try {
+      members = this.loader.apply(roomId);
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        this.loading.remove(key, owned);
+      }
+      owned.future.completeExceptionally(e);
+      throw e;
+    }
+
+    final Room room = new Room(members == null ? 0 : members.size(), this.clock.getAsLong());
+    synchronized (this) {
+      if (members != null) {
+        for (MemberInfo member : members) {
+          if (member.getId() != null) {
+            room.members.add(member.getId());
+            if (Boolean.TRUE.equals(member.getOwner())) {
+              room.owners.add(member.getId());
+            }
+          }
+        }
+      }
+      // the events received while the members were retrieved may or may not be part of them, replaying them gives
+      // the same result in both cases
+      owned.changes.forEach(change -> change.apply(room));
+
+      if (this.loading.remove(key, owned)) {
+        this.rooms.put(key, room);
+        this.index(key, room);
+        this.evict();
+      }
+    }
+    owned.future.complete(room);
+    return room;
+  }
+
+  private synchronized void onEvent(@Nullable V4Stream stream, @Nullable V4User user, Change.Type type) {
+    if (stream == null || stream.getStreamId() == null || user == null || user.getUserId() == null) {
+      return;
+    }
+    final String key = toUrlSafeIdIfNeeded(stream.getStreamId());
+    final Change change = new Change(type, user.getUserId());
+    final Loading pending = this.loading.get(key);
+    if (pending != null) {
+      pending.changes.add(change);
+    }
+    final Room room = this.rooms.get(key);
+    if (room == null) {
+      return;
+    }
+    final boolean wasMember = room.members.contains(change.userId);
+    change.apply(room);
+    final boolean isMember = room.members.contains(change.userId);
+    if (!wasMember && isMember) {
+      this.memberships++;
+      this.userRooms.computeIfAbsent(change.userId, id -> new HashSet<>()).add(key);
+      this.evict();
+    } else if (wasMember && !isMember) {
+      this.memberships--;
+      this.removeUserRoom(change.userId, key);
+    }
+  }
+
+  private void index(String key, Room room) {
+    for (long userId : room.members.toArray()) {
+      this.userRooms.computeIfAbsent(userId, id -> new HashSet<>()).add(key);
+    }
+    this.memberships += room.members.size();
+  }
+
+  private void unindex(String key, Room room) {
+    for (long userId : room.members.toArray()) {
+      this.removeUserRoom(userId, key);
+    }
+    this.memberships -= room.members.size();
+  }
+
+  private void removeUserRoom(long userId, String key) {
+    final Set<String> rooms = this.userRooms.get(userId);
+    if (rooms != null && rooms.remove(key) && rooms.isEmpty()) {
+      this.userRooms.remove(userId);
+    }
+  }
+
+  private void evict() {
+    final Iterator<Map.Entry<String, Room>> iterator = this.rooms.entrySet().iterator();
+    // the most recently used room is kept, even if it exceeds the limits alone
+    while (this.rooms.size() > 1
+        && (this.rooms.size() > this.config.getMaxRooms() || this.memberships > this.config.getMaxMemberships())) {
+      final Map.Entry<String, Room> eldest = iterator.next();
+      iterator.remove();
+      this.unindex(eldest.getKey(), eldest.getValue());
+      log.debug("Room {} evicted from the membership index", eldest.getKey());
+    }
+  }
+
+  private static Room join(CompletableFuture<Room> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
+  }
+
+  private static final class Room {
+
+    private final LongSet members;
+    private final LongSet owners = new LongSet();
+    private final long loadedAt;
+
+    private Room(int expectedMembers, long loadedAt) {
+      this.members = new LongSet(expectedMembers);
+      this.loadedAt = loadedAt;
+    }
+  }
+
+  private static final class Loading {
+
+    private final CompletableFuture<Room> future = new CompletableFuture<>();
+    /** Events received while the members are retrieved */
+    private final List<Change> changes = new ArrayList<>();
+  }
+
+  private static final class Change {
+
+    private enum Type {
+      JOINED, LEFT, PROMOTED, DEMOTED
+    }
+
+    private final Type type;
+    private final long userId;
+
+    private Change(Type type, long userId) {
+      this.type = type;
+      this.userId = userId;
+    }
+
+    private void apply(Room room) {
+      switch (this.type) {
+        case JOINED:
+          room.members.add(this.userId);
+          break;
+        case LEFT:
+          room.members.remove(this.userId);
+          room.owners.remove(this.userId);
+          break;
+        case PROMOTED:
+          room.members.add(this.userId);
+          room.owners.add(this.userId);
+          break;
+        case DEMOTED:
+          room.owners.remove(this.userId);
+          break;
+        default:
+          break;
+      }
+    }
+  }
+}
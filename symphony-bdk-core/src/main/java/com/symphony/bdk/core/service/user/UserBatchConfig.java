@@ -0,0 +1,27 @@
+package com.symphony.bdk.core.service.user;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apiguardian.api.API;
+
+/**
+ * Configuration of a {@link UserBatchLoader}.
+ */
+@Getter
+@Setter
+@API(status = API.Status.EXPERIMENTAL)
+public class UserBatchConfig {
+
+  public static final long DEFAULT_MAX_DELAY_MILLIS = 2L;
+  public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+  public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+  /** Maximum time a lookup waits for other lookups to be sent in the same batch */
+  private long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+
+  /** Number of distinct keys after which a batch is sent without waiting for the delay to elapse */
+  private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+  /** Maximum number of batches being retrieved at the same time */
+  private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+}
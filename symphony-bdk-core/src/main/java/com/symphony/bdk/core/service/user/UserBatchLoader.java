@@ -0,0 +1,239 @@
+package com.symphony.bdk.core.service.user;
+
+import com.symphony.bdk.gen.api.model.UserV2;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Batches the lookups of single users made by concurrent callers.
+ * <p>
+ * Lookups by id, email or username are collected for {@link UserBatchConfig#getMaxDelayMillis()}, or until
+ * {@link UserBatchConfig#getMaxBatchSize()} distinct keys have been collected, and are then retrieved with a single
+ * call to {@link OboUserService#listUsersByIds(List)}, {@link OboUserService#listUsersByEmails(List)} or
+ * {@link OboUserService#listUsersByUsernames(List)}. Each caller's future is completed from the combined response, on
+ * one of the loader threads.
+ * <p>
+ * The loader can be built on top of an OBO user service, and on top of a user service with its cache enabled, in which
+ * case only the users missing from the cache are requested to the pod.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class UserBatchLoader implements Closeable {
+
+  private final long maxDelayMillis;
+  private final int maxBatchSize;
+  private final ScheduledExecutorService scheduler;
+  private final ExecutorService loaders;
+  private final Batcher byIds;
+  private final Batcher byEmails;
+  private final Batcher byUsernames;
+  private volatile boolean closed;
+
+  /**
+   * Creates a batch loader and starts its threads.
+   *
+   * @param userService the service used to retrieve the users.
+   * @param config      the batching configuration.
+   */
+  public UserBatchLoader(@Nonnull OboUserService userService, @Nonnull UserBatchConfig config) {
+    this.maxDelayMillis = Math.max(0, config.getMaxDelayMillis());
+    this.maxBatchSize = Math.max(1, config.getMaxBatchSize());
+    this.byIds = new Batcher(ids -> userService.listUsersByIds(toLongs(ids)), user -> String.valueOf(user.getId()));
+    this.byEmails = new Batcher(userService::listUsersByEmails, UserV2::getEmailAddress);
+    this.byUsernames = new Batcher(userService::listUsersByUsernames, UserV2::getUsername);
+
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      final Thread thread = new Thread(r, "User-Batch-Scheduler-Thread");
+      thread.setDaemon(true);
+      return thread;
+    });
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.loaders = Executors.newFixedThreadPool(Math.max(1, config.getMaxConcurrency()), r -> {
+      final Thread thread = new Thread(r, "User-Batch-Thread-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Looks up a user by id.
+   *
+   * @param userId the id of the user.
+   * @return a future completed with the user, empty if not found, or exceptionally if the batch could not be retrieved.
+   */
+  public CompletableFuture<Optional<UserV2>> loadById(long userId) {
+    return this.byIds.load(String.valueOf(userId));
+  }
+
+  /**
+   * Looks up a user by email.
+   *
+   * @param email the email of the user.
+   * @return a future completed with the user, empty if not found, or exceptionally if the batch could not be retrieved.
+   */
+  public CompletableFuture<Optional<UserV2>> loadByEmail(@Nonnull String email) {
+    return this.byEmails.load(email);
+  }
+
+  /**
+   * Looks up a user by username.
+   *
+   * @param username the username of the user.
+   * @return a future completed with the user, empty if not found, or exceptionally if the batch could not be retrieved.
+   */
+  public CompletableFuture<Optional<UserV2>> loadByUsername(@Nonnull String username) {
+    return this.byUsernames.load(username);
+  }
+
+  /**
+   * Sends the pending batches right away and stops the loader threads once they have been retrieved. Lookups made
+   * after the loader has been closed fail with an {@link IllegalStateException}.
+   */
+  @Override
+  public void close() {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    this.byIds.flush();
+    this.byEmails.flush();
+    this.byUsernames.flush();
+    this.scheduler.shutdownNow();
+    this.loaders.shutdown();
+  }
+
+  private static List<Long> toLongs(List<String> ids) {
+    final List<Long> longs = new ArrayList<>(ids.size());
+    ids.forEach(id -> longs.add(Long.valueOf(id)));
+    return longs;
+  }
+
+  private static String normalize(String key) {
+    // emails and usernames are case insensitive
+    return key.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Collects the lookups of a given kind of key.
+   */
+  private final class Batcher {
+
+    private final Function<List<String>, List<UserV2>> loader;
+    private final Function<UserV2, String> keyOf;
+    /** Pending lookups, by normalized key */
+    private Map<String, Lookup> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> timer;
+
+    private Batcher(Function<List<String>, List<UserV2>> loader, Function<UserV2, String> keyOf) {
+      this.loader = loader;
+      this.keyOf = keyOf;
+    }
+
+    private CompletableFuture<Optional<UserV2>> load(String key) {
+      Map<String, Lookup> batch = null;
+      final Lookup lookup;
+      synchronized (this) {
+        if (closed) {
+          final CompletableFuture<Optional<UserV2>> future = new CompletableFuture<>();
+          future.completeExceptionally(new IllegalStateException("User batch loader is closed"));
+          return future;
+        }
+        final String normalizedKey = normalize(key);
+        final Lookup existing = this.pending.get(normalizedKey);
+        if (existing != null) {
+          return existing.future;
+        }
+        lookup = new Lookup(key);
+        this.pending.put(normalizedKey, lookup);
+        if (this.pending.size() >= maxBatchSize) {
+          batch = this.take();
+        } else if (this.pending.size() == 1) {
+          this.timer = scheduler.schedule(this::flush, maxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+      }
+      if (batch != null) {
+        this.dispatch(batch);
+      }
+      return lookup.future;
+    }
+
+    private void flush() {
+      final Map<String, Lookup> batch;
+      synchronized (this) {
+        batch = this.take();
+      }
+      if (!batch.isEmpty()) {
+        this.dispatch(batch);
+      }
+    }
+
+    private Map<String, Lookup> take() {
+      if (this.timer != null) {
+        this.timer.cancel(false);
+        this.timer = null;
+      }
+      final Map<String, Lookup> batch = this.pending;
+      this.pending = new LinkedHashMap<>();
+      return batch;
+    }
+
+    private void dispatch(Map<String, Lookup> batch) {
+      try {
+        loaders.execute(() -> this.retrieve(batch));
+      } catch (RejectedExecutionException e) {
+        batch.values().forEach(lookup -> lookup.future.completeExceptionally(e));
+      }
+    }
+
+    private void retrieve(Map<String, Lookup> batch) {
+      final List<String> keys = new ArrayList<>(batch.size());
+      batch.values().forEach(lookup -> keys.add(lookup.key));
+      final Map<String, UserV2> users = new HashMap<>();
+      try {
+        final List<UserV2> retrieved = this.loader.apply(keys);
+        if (retrieved != null) {
+          retrieved.stream()
+              .filter(user -> user != null && this.keyOf.apply(user) != null)
+              .forEach(user -> users.put(normalize(this.keyOf.apply(user)), user));
+        }
+      } catch (RuntimeException e) {
+        log.debug("Unable to retrieve a batch of {} users", keys.size(), e);
+        batch.values().forEach(lookup -> lookup.future.completeExceptionally(e));
+        return;
+      }
+      batch.forEach((normalizedKey, lookup) -> lookup.future.complete(Optional.ofNullable(users.get(normalizedKey))));
+    }
+  }
+
+  private static final class Lookup {
+
+    private final String key;
+    private final CompletableFuture<Optional<UserV2>> future = new CompletableFuture<>();
+
+    private Lookup(String key) {
+      this.key = Objects.requireNonNull(key);
+    }
+  }
+}
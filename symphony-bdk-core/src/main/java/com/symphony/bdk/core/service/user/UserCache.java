@@ -0,0 +1,192 @@
+package com.symphony.bdk.core.service.user;
+
+import com.symphony.bdk.core.auth.AuthSession;
+import com.symphony.bdk.core.service.datafeed.RealTimeEventListener;
+import com.symphony.bdk.core.util.KeyedCache;
+import com.symphony.bdk.core.util.KeyedCacheConfig;
+import com.symphony.bdk.gen.api.model.UserV2;
+import com.symphony.bdk.gen.api.model.V4ConnectionAccepted;
+import com.symphony.bdk.gen.api.model.V4ConnectionRequested;
+import com.symphony.bdk.gen.api.model.V4Initiator;
+import com.symphony.bdk.gen.api.model.V4MessageSent;
+import com.symphony.bdk.gen.api.model.V4User;
+import com.symphony.bdk.gen.api.model.V4UserJoinedRoom;
+import com.symphony.bdk.gen.api.model.V4UserLeftRoom;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+/**
+ * Read-through cache of the users retrieved by the {@link UserService}, enabled with
+ * {@link UserService#enableCache(KeyedCacheConfig)}.
+ * <p>
+ * Users are cached by id, email and username in a {@link KeyedCache}, tagged with their user id. Concurrent lookups of
+ * the same missing user share a single call to the pod. As the users visible to a session depend on the session, the
+ * users retrieved on behalf of a user are cached separately, for as long as the OBO session is referenced.
+ * <p>
+ * Once subscribed to the datafeed, the cache drops the users whose name or email changed, and the users whose
+ * connection status changed.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class UserCache extends KeyedCache<Object> implements RealTimeEventListener {
+
+  static final String BY_ID = "id";
+  static final String BY_EMAIL = "email";
+  static final String BY_USERNAME = "username";
+  static final String DETAIL = "detail";
+
+  public UserCache(KeyedCacheConfig config) {
+    this(config, System::nanoTime);
+  }
+
+  UserCache(KeyedCacheConfig config, LongSupplier clock) {
+    super(config, clock);
+  }
+
+  private UserCache(UserCache parent) {
+    super(parent);
+  }
+
+  /**
+   * Removes a user from the cache, including the caches of the OBO sessions.
+   *
+   * @param userId the id of the user to remove.
+   */
+  public void invalidate(long userId) {
+    this.invalidateTag(userId);
+  }
+
+  @Override
+  public void onMessageSent(V4Initiator initiator, V4MessageSent event) {
+    this.onInitiator(initiator);
+  }
+
+  @Override
+  public void onUserJoinedRoom(V4Initiator initiator, V4UserJoinedRoom event) {
+    this.onInitiator(initiator);
+    this.onUser(event.getAffectedUser());
+  }
+
+  @Override
+  public void onUserLeftRoom(V4Initiator initiator, V4UserLeftRoom event) {
+    this.onInitiator(initiator);
+    this.onUser(event.getAffectedUser());
+  }
+
+  @Override
+  public void onConnectionRequested(V4Initiator initiator, V4ConnectionRequested event) {
+    // the visibility of an external user depends on the connection status
+    if (event.getToUser() != null && event.getToUser().getUserId() != null) {
+      this.invalidate(event.getToUser().getUserId());
+    }
+  }
+
+  @Override
+  public void onConnectionAccepted(V4Initiator initiator, V4ConnectionAccepted event) {
+    if (event.getFromUser() != null && event.getFromUser().getUserId() != null) {
+      this.invalidate(event.getFromUser().getUserId());
+    }
+  }
+
+  /**
+   * Returns the cache of the users retrieved on behalf of a user, sharing the configuration and the metrics of this
+   * cache.
+   */
+  UserCache forSession(AuthSession oboSession) {
+    return (UserCache) this.child(oboSession);
+  }
+
+  @Override
+  protected UserCache newChild() {
+    return new UserCache(this);
+  }
+
+  /**
+   * Looks up values in the cache, loading the missing ones with a single call. Values being loaded by another thread
+   * are awaited rather than loaded again.
+   *
+   * @param type     the type of the looked up values, i.e. id, email, username or detail.
+   * @param query    the flags of the query, values loaded with different flags are cached separately.
+   * @param keys     the keys to look up.
+   * @param loader   loads the values of the given keys.
+   * @param keyOf    returns the key of a loaded value.
+   * @param userIdOf returns the user id of a loaded value.
+   * @param <T>      the type of the cached values.
+   * @return the values found, in the order of the keys.
+   */
+  <T> List<T> get(String type, String query, List<String> keys, Function<List<String>, List<T>> loader,
+      Function<T, String> keyOf, ToLongFunction<T> userIdOf) {
+    // the first of the keys differing only by case is the one loaded
+    final Map<String, String> keysByCacheKey = new LinkedHashMap<>();
+    keys.forEach(key -> keysByCacheKey.putIfAbsent(cacheKey(type, query, key), key));
+
+    final Map<String, T> found = this.getAll(keysByCacheKey.keySet(), missingKeys -> {
+      final List<T> values = loader.apply(missingKeys.stream().map(keysByCacheKey::get).collect(Collectors.toList()));
+      final Map<String, T> loaded = new HashMap<>();
+      if (values != null) {
+        values.stream().filter(Objects::nonNull)
+            .forEach(value -> loaded.put(cacheKey(type, query, keyOf.apply(value)), value));
+      }
+      return loaded;
+    }, userIdOf::applyAsLong);
+
+    final List<T> values = new ArrayList<>();
+    for (String key : keys) {
+      final T value = found.remove(cacheKey(type, query, key));
+      if (value != null) {
+        values.add(value);
+      }
+    }
+    return values;
+  }
+
+  private void onInitiator(@Nullable V4Initiator initiator) {
+    if (initiator != null) {
+      this.onUser(initiator.getUser());
+    }
+  }
+
+  /**
+   * Invalidates a user if the datafeed carries a name or an email that differs from the cached one.
+   */
+  private void onUser(@Nullable V4User user) {
+    if (user == null || user.getUserId() == null) {
+      return;
+    }
+    final long userId = user.getUserId();
+    final boolean changed = this.values(userId).stream()
+        .filter(UserV2.class::isInstance)
+        .map(UserV2.class::cast)
+        .anyMatch(cached -> differs(user.getDisplayName(), cached.getDisplayName())
+            || differs(user.getEmail(), cached.getEmailAddress())
+            || differs(user.getUsername(), cached.getUsername()));
+    if (changed) {
+      log.debug("User {} changed, removing it from the cache", userId);
+      this.invalidate(userId);
+    }
+  }
+
+  private static boolean differs(@Nullable String fromEvent, @Nullable String cached) {
+    return fromEvent != null && !fromEvent.equals(cached);
+  }
+
+  private static String cacheKey(String type, String query, @Nullable String key) {
+    // emails and usernames are case insensitive
+    return type + '|' + query + '|' + (key == null ? "" : key.toLowerCase(Locale.ROOT));
+  }
+}
@@ -14,8 +14,17 @@ import com.symphony.bdk.core.service.pagination.model.CursorPaginatedPayload;
 import com.symphony.bdk.core.service.pagination.model.CursorPaginationAttribute;
 import com.symphony.bdk.core.service.pagination.model.PaginationAttribute;
 import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
+import com.symphony.bdk.core.service.user.audit.AuditTrailShardConfig;
+import com.symphony.bdk.core.service.user.audit.ShardedAuditTrailReader;
 import com.symphony.bdk.core.service.user.constant.RoleId;
 import com.symphony.bdk.core.service.user.mapper.UserDetailMapper;
+import com.symphony.bdk.core.service.user.provisioning.ProvisioningConfig;
+import com.symphony.bdk.core.service.user.provisioning.ProvisioningReport;
+import com.symphony.bdk.core.service.user.provisioning.ProvisioningResult;
+import com.symphony.bdk.core.service.user.provisioning.UserProvisioner;
+import com.symphony.bdk.core.service.user.provisioning.UserProvisioningApi;
+import com.symphony.bdk.core.service.user.provisioning.UserProvisioningSpec;
+import com.symphony.bdk.core.util.KeyedCacheConfig;
 import com.symphony.bdk.gen.api.AuditTrailApi;
 import com.symphony.bdk.gen.api.UserApi;
 import com.symphony.bdk.gen.api.UsersApi;
@@ -54,6 +63,13 @@ import java.time.Instant;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -84,6 +100,7 @@ public class UserService implements OboUserService, OboService<OboUserService> {
   private final AuditTrailApi auditTrailApi;
   private final AuthSession authSession;
   private final RetryWithRecoveryBuilder<?> retryBuilder;
+  private UserCache cache;
 
   public UserService(UserApi userApi, UsersApi usersApi, AuditTrailApi auditTrailApi, AuthSession authSession,
       RetryWithRecoveryBuilder<?> retryBuilder) {
@@ -105,7 +122,32 @@ public class UserService implements OboUserService, OboService<OboUserService> {
 
   @Override
   public OboUserService obo(AuthSession oboSession) {
-    return new UserService(userApi, usersApi, auditTrailApi, oboSession, retryBuilder);
+    UserService oboUserService = new UserService(userApi, usersApi, auditTrailApi, oboSession, retryBuilder);
+    if (cache != null) {
+      oboUserService.cache = cache.forSession(oboSession);
+    }
+    return oboUserService;
+  }
+
+  /**
+   * Caches the users retrieved by ids, emails or usernames and the user details, including the ones retrieved on
+   * behalf of users. The cache should be subscribed to the datafeed so that modified users are retrieved again.
+   *
+   * @param config The cache configuration.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public void enableCache(KeyedCacheConfig config) {
+    this.cache = new UserCache(config);
+  }
+
+  /**
+   * Returns the user cache, giving access to its metrics.
+   *
+   * @return the {@link UserCache} if the cache has been enabled, empty otherwise.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public Optional<UserCache> getCache() {
+    return Optional.ofNullable(this.cache);
   }
 
   /**
@@ -113,10 +155,13 @@ public class UserService implements OboUserService, OboService<OboUserService> {
    */
   @Override
   public List<UserV2> listUsersByIds(@Nonnull List<Long> uidList, @Nullable Boolean local, @Nullable Boolean active) {
-    String uids = uidList.stream().map(String::valueOf).collect(Collectors.joining(","));
-    V2UserList v2UserList = executeAndRetry("searchUserByIds",
-        () -> usersApi.v3UsersGet(authSession.getSessionToken(), uids, null, null, local, active));
-    return this.getUsersOrEmpty(v2UserList);
+    List<String> uidStrings = uidList.stream().map(String::valueOf).collect(Collectors.toList());
+    return listUsers(UserCache.BY_ID, uidStrings, local, active, user -> String.valueOf(user.getId()), missing -> {
+      String uids = String.join(",", missing);
+      V2UserList v2UserList = executeAndRetry("searchUserByIds",
+          () -> usersApi.v3UsersGet(authSession.getSessionToken(), uids, null, null, local, active));
+      return this.getUsersOrEmpty(v2UserList);
+    });
   }
 
   /**
@@ -124,10 +169,7 @@ public class UserService implements OboUserService, OboService<OboUserService> {
    */
   @Override
   public List<UserV2> listUsersByIds(@Nonnull List<Long> uidList) {
-    String uids = uidList.stream().map(String::valueOf).collect(Collectors.joining(","));
-    V2UserList v2UserList = executeAndRetry("searchUserByIds",
-        () -> usersApi.v3UsersGet(authSession.getSessionToken(), uids, null, null, false, null));
-    return this.getUsersOrEmpty(v2UserList);
+    return listUsersByIds(uidList, false, null);
   }
 
   /**
@@ -136,10 +178,12 @@ public class UserService implements OboUserService, OboService<OboUserService> {
   @Override
   public List<UserV2> listUsersByEmails(@Nonnull List<String> emailList,
       @Nullable Boolean local, @Nullable Boolean active) {
-    String emails = String.join(",", emailList);
-    V2UserList v2UserList = executeAndRetry("searchUserByEmails",
-        () -> usersApi.v3UsersGet(authSession.getSessionToken(), null, emails, null, local, active));
-    return this.getUsersOrEmpty(v2UserList);
+    return listUsers(UserCache.BY_EMAIL, emailList, local, active, UserV2::getEmailAddress, missing -> {
+      String emails = String.join(",", missing);
+      V2UserList v2UserList = executeAndRetry("searchUserByEmails",
+          () -> usersApi.v3UsersGet(authSession.getSessionToken(), null, emails, null, local, active));
+      return this.getUsersOrEmpty(v2UserList);
+    });
   }
 
   /**
@@ -147,10 +191,7 @@ public class UserService implements OboUserService, OboService<OboUserService> {
    */
   @Override
   public List<UserV2> listUsersByEmails(@Nonnull List<String> emailList) {
-    String emails = String.join(",", emailList);
-    V2UserList v2UserList = executeAndRetry("searchUserByEmails",
-        () -> usersApi.v3UsersGet(authSession.getSessionToken(), null, emails, null, false, null));
-    return this.getUsersOrEmpty(v2UserList);
+    return listUsersByEmails(emailList, false, null);
   }
 
   /**
@@ -158,10 +199,12 @@ public class UserService implements OboUserService, OboService<OboUserService> {
    */
   @Override
   public List<UserV2> listUsersByUsernames(@Nonnull List<String> usernameList, @Nullable Boolean active) {
-    String usernames = String.join(",", usernameList);
-    V2UserList v2UserList = executeAndRetry("searchUserByUsernames",
-        () -> usersApi.v3UsersGet(authSession.getSessionToken(), null, null, usernames, true, active));
-    return this.getUsersOrEmpty(v2UserList);
+    return listUsers(UserCache.BY_USERNAME, usernameList, true, active, UserV2::getUsername, missing -> {
+      String usernames = String.join(",", missing);
+      V2UserList v2UserList = executeAndRetry("searchUserByUsernames",
+          () -> usersApi.v3UsersGet(authSession.getSessionToken(), null, null, usernames, true, active));
+      return this.getUsersOrEmpty(v2UserList);
+    });
   }
 
   /**
@@ -169,10 +212,15 @@ public class UserService implements OboUserService, OboService<OboUserService> {
    */
   @Override
   public List<UserV2> listUsersByUsernames(@Nonnull List<String> usernameList) {
-    String usernames = String.join(",", usernameList);
-    V2UserList v2UserList = executeAndRetry("searchUserByUsernames",
-        () -> usersApi.v3UsersGet(authSession.getSessionToken(), null, null, usernames, true, null));
-    return this.getUsersOrEmpty(v2UserList);
+    return listUsersByUsernames(usernameList, null);
+  }
+
+  private List<UserV2> listUsers(String type, List<String> keys, @Nullable Boolean local, @Nullable Boolean active,
+      Function<UserV2, String> keyOf, Function<List<String>, List<UserV2>> loader) {
+    if (cache == null) {
+      return loader.apply(keys);
+    }
+    return cache.get(type, local + "," + active, keys, loader, keyOf, UserV2::getId);
   }
 
   private List<UserV2> getUsersOrEmpty(V2UserList v2UserList) {
@@ -226,7 +274,7 @@ public class UserService implements OboUserService, OboService<OboUserService> {
       @Nonnull StreamPaginationAttribute pagination) {
     OffsetBasedPaginatedApi<UserV2> api =
         (offset, limit) -> searchUsers(query, local, new PaginationAttribute(offset, limit));
-    return new OffsetBasedPaginatedService<>(api, pagination.getChunkSize(), pagination.getTotalSize()).stream();
+    return new OffsetBasedPaginatedService<>(api, pagination).stream();
   }
 
   /**
@@ -257,8 +305,15 @@ public class UserService implements OboUserService, OboService<OboUserService> {
    * @see <a href="https://developers.symphony.com/restapi/reference/get-user-v2">Get User v2</a>
    */
   public V2UserDetail getUserDetail(@Nonnull Long userId) {
-    return executeAndRetry("getUserDetail",
-        () -> userApi.v2AdminUserUidGet(authSession.getSessionToken(), userId));
+    if (cache == null) {
+      return executeAndRetry("getUserDetail",
+          () -> userApi.v2AdminUserUidGet(authSession.getSessionToken(), userId));
+    }
+    List<V2UserDetail> details = cache.get(UserCache.DETAIL, "", Collections.singletonList(String.valueOf(userId)),
+        missing -> Collections.singletonList(executeAndRetry("getUserDetail",
+            () -> userApi.v2AdminUserUidGet(authSession.getSessionToken(), userId))),
+        detail -> String.valueOf(userId), detail -> userId);
+    return details.isEmpty() ? null : details.get(0);
   }
 
   /**
@@ -308,7 +363,7 @@ public class UserService implements OboUserService, OboService<OboUserService> {
   @API(status = API.Status.EXPERIMENTAL)
   public Stream<V2UserDetail> listAllUsersDetail(@Nonnull StreamPaginationAttribute pagination) {
     OffsetBasedPaginatedApi<V2UserDetail> api = (offset, limit) -> listUsersDetail(new PaginationAttribute(offset, limit));
-    return new OffsetBasedPaginatedService<>(api, pagination.getChunkSize(), pagination.getTotalSize()).stream();
+    return new OffsetBasedPaginatedService<>(api, pagination).stream();
   }
 
   /**
@@ -373,7 +428,7 @@ public class UserService implements OboUserService, OboService<OboUserService> {
   public Stream<V2UserDetail> listAllUsersDetail(@Nonnull UserFilter filter,
       @Nonnull StreamPaginationAttribute pagination) {
     OffsetBasedPaginatedApi<V2UserDetail> api = (offset, limit) -> listUsersDetail(filter, new PaginationAttribute(offset, limit));
-    return new OffsetBasedPaginatedService<>(api, pagination.getChunkSize(), pagination.getTotalSize()).stream();
+    return new OffsetBasedPaginatedService<>(api, pagination).stream();
   }
 
   /**
@@ -387,6 +442,7 @@ public class UserService implements OboUserService, OboService<OboUserService> {
     StringId stringId = new StringId().id(roleId.name());
     executeAndRetry("addRole",
         () -> userApi.v1AdminUserUidRolesAddPost(authSession.getSessionToken(), userId, stringId));
+    invalidate(userId);
   }
 
   /**
@@ -411,6 +467,7 @@ public class UserService implements OboUserService, OboService<OboUserService> {
     StringId stringId = new StringId().id(roleId.name());
     executeAndRetry("removeRole",
         () -> userApi.v1AdminUserUidRolesRemovePost(authSession.getSessionToken(), userId, stringId));
+    invalidate(userId);
   }
 
   /**
@@ -436,6 +493,7 @@ public class UserService implements OboUserService, OboService<OboUserService> {
     AvatarUpdate avatarUpdate = new AvatarUpdate().image(image);
     executeAndRetry("updateAvatar",
         () -> userApi.v1AdminUserUidAvatarUpdatePost(authSession.getSessionToken(), userId, avatarUpdate));
+    invalidate(userId);
   }
 
   /**
@@ -572,6 +630,7 @@ public class UserService implements OboUserService, OboService<OboUserService> {
   public void updateStatus(@Nonnull Long userId, @Nonnull UserStatus status) {
     executeAndRetry("updateStatus",
         () -> userApi.v1AdminUserUidStatusUpdatePost(authSession.getSessionToken(), userId, status));
+    invalidate(userId);
   }
 
   /**
@@ -622,7 +681,7 @@ public class UserService implements OboUserService, OboService<OboUserService> {
   public Stream<Long> listAllUserFollowers(@Nonnull Long userId, @Nonnull StreamPaginationAttribute pagination) {
     CursorBasedPaginatedApi<Long> api =
         (after, limit) -> new FollowerListResponseAdapter(listUserFollowers(userId, limit, null, after));
-    return new CursorBasedPaginatedService<>(api, pagination.getChunkSize(), pagination.getTotalSize()).stream();
+    return new CursorBasedPaginatedService<>(api, pagination).stream();
   }
 
   private FollowersListResponse listUserFollowers(@Nonnull Long userId, Integer limit, String before, String after) {
@@ -680,7 +739,7 @@ public class UserService implements OboUserService, OboService<OboUserService> {
   public Stream<Long> listAllUserFollowing(@Nonnull Long userId, @Nonnull StreamPaginationAttribute pagination) {
     CursorBasedPaginatedApi<Long> api =
         (after, limit) -> new FollowingListResponseAdapter(listUsersFollowing(userId, limit, null, after));
-    return new CursorBasedPaginatedService<>(api, pagination.getChunkSize(), pagination.getTotalSize()).stream();
+    return new CursorBasedPaginatedService<>(api, pagination).stream();
   }
 
   private FollowingListResponse listUsersFollowing(@Nonnull Long userId, Integer limit, String before, String after) {
@@ -709,8 +768,75 @@ public class UserService implements OboUserService, OboService<OboUserService> {
    * @see <a href="https://developers.symphony.com/restapi/reference#update-user-v2">Update User v2</a>
    */
   public V2UserDetail update(@Nonnull Long userId, @Nonnull V2UserAttributes payload) {
-    return executeAndRetry("update",
+    V2UserDetail userDetail = executeAndRetry("update",
         () -> userApi.v2AdminUserUidUpdatePost(authSession.getSessionToken(), userId, payload));
+    invalidate(userId);
+    return userDetail;
+  }
+
+  /**
+   * Provisions a large number of users. The operations of each user, i.e. its creation or update, the roles to add,
+   * its feature entitlements and its avatar, are run in order, while many users are provisioned at the same time. The
+   * number of users provisioned at the same time adapts to the 429 and 5xx errors returned by the pod.
+   * <p>
+   * The provisioning runs on a dedicated thread pool which is shut down once all the users have been processed.
+   *
+   * @param specs    the users to provision, with unique keys
+   * @param config   the provisioning configuration
+   * @param listener optional listener notified each time a user is done
+   * @return a future completed with the report of the provisioning once all the users have been processed
+   * @see UserProvisioner
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public CompletableFuture<ProvisioningReport> provision(@Nonnull Stream<UserProvisioningSpec> specs,
+      @Nonnull ProvisioningConfig config, @Nullable Consumer<ProvisioningResult> listener) {
+    checkAuthSession(authSession);
+    final AtomicInteger threadCount = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, config.getMaxConcurrency()) + 1, r -> {
+      final Thread thread = new Thread(r, "User-Provisioning-Thread-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    final UserProvisioner provisioner = new UserProvisioner(config, executor,
+        RetryWithRecoveryBuilder.from(retryBuilder).basePath(userApi.getApiClient().getBasePath()),
+        new UserProvisioningApi() {
+          @Override
+          public V2UserDetail create(V2UserCreate payload) throws ApiException {
+            return userApi.v2AdminUserCreatePost(authSession.getSessionToken(), payload);
+          }
+
+          @Override
+          public Long findByUsername(String username) throws ApiException {
+            final List<UserV2> users = getUsersOrEmpty(
+                usersApi.v3UsersGet(authSession.getSessionToken(), null, null, username, true, null));
+            return users.isEmpty() ? null : users.get(0).getId();
+          }
+
+          @Override
+          public void update(Long userId, V2UserAttributes attributes) throws ApiException {
+            userApi.v2AdminUserUidUpdatePost(authSession.getSessionToken(), userId, attributes);
+            invalidate(userId);
+          }
+
+          @Override
+          public void addRole(Long userId, RoleId roleId) throws ApiException {
+            userApi.v1AdminUserUidRolesAddPost(authSession.getSessionToken(), userId, new StringId().id(roleId.name()));
+            invalidate(userId);
+          }
+
+          @Override
+          public void updateFeatureEntitlements(Long userId, List<Feature> features) throws ApiException {
+            userApi.v1AdminUserUidFeaturesUpdatePost(authSession.getSessionToken(), userId, features);
+          }
+
+          @Override
+          public void updateAvatar(Long userId, String image) throws ApiException {
+            userApi.v1AdminUserUidAvatarUpdatePost(authSession.getSessionToken(), userId,
+                new AvatarUpdate().image(image));
+            invalidate(userId);
+          }
+        });
+    return provisioner.provision(specs, listener).whenComplete((report, error) -> executor.shutdown());
   }
 
   /**
@@ -753,6 +879,41 @@ public class UserService implements OboUserService, OboService<OboUserService> {
     return new CursorBasedPaginatedService<>(paginatedApi, chunkSize, maxItems).stream();
   }
 
+  /**
+   * Reads all audit trail of actions performed by a privileged user in a long period of time. The period is split into
+   * shards whose pages are retrieved at the same time, and the items are passed to the sink shard after shard from the
+   * calling thread.
+   *
+   * @param startTimestamp The start time of the period to retrieve the data, inclusive.
+   * @param endTimestamp   The end time of the period to retrieve the data, exclusive.
+   * @param initiatorId    Privileged user id to list audit trail for.
+   * @param role           Role to list audit trail for.
+   * @param config         The sharding configuration.
+   * @param sink           The consumer of the audit trail actions.
+   * @return the number of audit trail actions passed to the sink
+   * @throws InterruptedException if the calling thread is interrupted while waiting for a page
+   * @see ShardedAuditTrailReader
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public long readAuditTrail(@Nonnull Long startTimestamp, @Nonnull Long endTimestamp, Long initiatorId, String role,
+      @Nonnull AuditTrailShardConfig config, @Nonnull Consumer<V1AuditTrailInitiatorResponse> sink)
+      throws InterruptedException {
+    checkAuthSession(authSession);
+    final AtomicInteger threadCount = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, config.getParallelism()), r -> {
+      final Thread thread = new Thread(r, "AuditTrail-Thread-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      return new ShardedAuditTrailReader(config, executor, (start, end, after, limit) ->
+          new AuditTrailInitiatorListAdapter(listAuditTrail(start, end, null, after, limit, initiatorId, role)))
+          .read(startTimestamp, endTimestamp, sink);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   private V1AuditTrailInitiatorList listAuditTrail(@Nonnull Long startTimestamp, Long endTimestamp,
       String before, String after, Integer limit, Long initiatorId, String role) {
     return executeAndRetry("listAuditTrail",
@@ -776,6 +937,7 @@ public class UserService implements OboUserService, OboService<OboUserService> {
     userSuspension.setSuspendedUntil(until.toEpochMilli());
     executeAndRetry("suspendUser",
         () -> userApi.v1AdminUserUserIdSuspensionUpdatePut(authSession.getSessionToken(), userId, userSuspension));
+    invalidate(userId);
   }
 
   /**
@@ -790,6 +952,13 @@ public class UserService implements OboUserService, OboService<OboUserService> {
     userSuspension.setSuspended(false);
     executeAndRetry("suspendUser",
         () -> userApi.v1AdminUserUserIdSuspensionUpdatePut(authSession.getSessionToken(), userId, userSuspension));
+    invalidate(userId);
+  }
+
+  private void invalidate(Long userId) {
+    if (cache != null) {
+      cache.invalidate(userId);
+    }
   }
 
   private <T> T executeAndRetry(String name, SupplierWithApiException<T> supplier) {
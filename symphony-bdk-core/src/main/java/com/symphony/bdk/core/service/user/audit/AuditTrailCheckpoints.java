@@ -0,0 +1,128 @@
+package com.symphony.bdk.core.service.user.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Append log of the progress of a {@link ShardedAuditTrailReader}. Each line is a JSON record holding the interval of
+ * a shard and either the cursor of the next page to pass to the sink or the fact that the shard is done. The last
+ * record of a shard gives its progress.
+ */
+@Slf4j
+@API(status = API.Status.INTERNAL)
+class AuditTrailCheckpoints implements Closeable {
+
+  static final String START = "start";
+  static final String END = "end";
+  static final String AFTER = "after";
+  static final String DONE = "done";
+
+  private static final ObjectMapper MAPPER = new JsonMapper();
+
+  private final Path path;
+  private final Map<String, Checkpoint> checkpoints = new HashMap<>();
+  private final OutputStream out;
+
+  AuditTrailCheckpoints(Path path) throws IOException {
+    this.path = path;
+    if (Files.exists(path)) {
+      this.read();
+    }
+    this.out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    // a partially written last line must not be merged with the next record
+    this.out.write('\n');
+  }
+
+  /**
+   * @return the progress of the shard covering the given interval, null if none of its pages was passed to the sink.
+   */
+  @Nullable
+  synchronized Checkpoint get(long start, long end) {
+    return this.checkpoints.get(key(start, end));
+  }
+
+  synchronized void page(long start, long end, String after) throws IOException {
+    this.append(start, end, new Checkpoint(after, false), MAPPER.createObjectNode().put(AFTER, after));
+  }
+
+  synchronized void done(long start, long end) throws IOException {
+    this.append(start, end, new Checkpoint(null, true), MAPPER.createObjectNode().put(DONE, true));
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    this.out.close();
+  }
+
+  private void append(long start, long end, Checkpoint checkpoint, ObjectNode record) throws IOException {
+    this.checkpoints.put(key(start, end), checkpoint);
+    record.put(START, start);
+    record.put(END, end);
+    this.out.write((MAPPER.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8));
+    this.out.flush();
+  }
+
+  private void read() throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(this.path, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isEmpty()) {
+          continue;
+        }
+        final JsonNode record;
+        try {
+          record = MAPPER.readTree(line);
+        } catch (JsonProcessingException e) {
+          // most likely the last line, partially written when the process stopped
+          log.warn("Ignoring malformed record in audit trail checkpoints {}", this.path);
+          continue;
+        }
+        if (!record.hasNonNull(START) || !record.hasNonNull(END)) {
+          continue;
+        }
+        final String after = record.hasNonNull(AFTER) ? record.get(AFTER).asText() : null;
+        this.checkpoints.put(key(record.get(START).asLong(), record.get(END).asLong()),
+            new Checkpoint(after, record.path(DONE).asBoolean()));
+      }
+    }
+  }
+
+  private static String key(long start, long end) {
+    return start + "-" + end;
+  }
+
+  /**
+   * Progress of a shard.
+   */
+  @API(status = API.Status.INTERNAL)
+  static final class Checkpoint {
+
+    /** Cursor of the first page not passed to the sink yet */
+    @Nullable
+    final String after;
+    final boolean done;
+
+    Checkpoint(@Nullable String after, boolean done) {
+      this.after = after;
+      this.done = done;
+    }
+  }
+}
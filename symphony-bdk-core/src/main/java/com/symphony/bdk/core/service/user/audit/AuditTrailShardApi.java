@@ -0,0 +1,30 @@
+package com.symphony.bdk.core.service.user.audit;
+
+import com.symphony.bdk.core.service.pagination.model.CursorPaginatedPayload;
+import com.symphony.bdk.gen.api.model.V1AuditTrailInitiatorResponse;
+import com.symphony.bdk.http.api.ApiException;
+
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+
+/**
+ * Cursor-based paginated audit trail endpoint, restricted to a time interval.
+ */
+@FunctionalInterface
+@API(status = API.Status.INTERNAL)
+public interface AuditTrailShardApi {
+
+  /**
+   * Retrieves the next page of the audit trail of a time interval.
+   *
+   * @param startTimestamp the start of the interval, inclusive
+   * @param endTimestamp   the end of the interval, exclusive
+   * @param after          the reference to the page to retrieve, null for the first page
+   * @param limit          the max number of items to fetch
+   * @return the payload containing the reference to the next page and the items of the page
+   * @throws ApiException
+   */
+  CursorPaginatedPayload<V1AuditTrailInitiatorResponse> get(long startTimestamp, long endTimestamp,
+      @Nullable String after, int limit) throws ApiException;
+}
@@ -0,0 +1,39 @@
+package com.symphony.bdk.core.service.user.audit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apiguardian.api.API;
+
+import java.nio.file.Path;
+
+import javax.annotation.Nullable;
+
+/**
+ * Configuration of a sharded audit trail retrieval, see {@link ShardedAuditTrailReader}.
+ */
+@Getter
+@Setter
+@API(status = API.Status.EXPERIMENTAL)
+public class AuditTrailShardConfig {
+
+  public static final long DEFAULT_SHARD_DURATION_MILLIS = 24 * 60 * 60 * 1000L;
+  public static final int DEFAULT_PARALLELISM = 4;
+  public static final int DEFAULT_CHUNK_SIZE = 500;
+  public static final int DEFAULT_BUFFERED_PAGES = 2;
+
+  /** Duration of the time interval covered by a shard */
+  private long shardDurationMillis = DEFAULT_SHARD_DURATION_MILLIS;
+
+  /** Number of shards retrieved at the same time */
+  private int parallelism = DEFAULT_PARALLELISM;
+
+  /** Number of audit trail items retrieved in one call */
+  private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+  /** Number of pages of a shard fetched ahead of the ones passed to the sink */
+  private int bufferedPages = DEFAULT_BUFFERED_PAGES;
+
+  /** File recording the progress of each shard so that an interrupted retrieval can be resumed, null to disable it */
+  @Nullable
+  private Path checkpointFile;
+}
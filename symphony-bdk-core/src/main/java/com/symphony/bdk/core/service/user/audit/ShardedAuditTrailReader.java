@@ -0,0 +1,231 @@
+package com.symphony.bdk.core.service.user.audit;
+
+import com.symphony.bdk.core.service.pagination.model.CursorPaginatedPayload;
+import com.symphony.bdk.gen.api.model.V1AuditTrailInitiatorResponse;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Retrieves the audit trail of a long period of time by splitting it into shards, i.e. consecutive time intervals of
+ * {@link AuditTrailShardConfig#getShardDurationMillis()}, and walking the pages of several shards at the same time.
+ * <p>
+ * The items are passed to the sink from the calling thread, shard after shard. As the shards do not overlap, the
+ * items are passed in timestamp order as long as the pod returns the items of a shard in that order. At most
+ * {@link AuditTrailShardConfig#getParallelism()} shards are retrieved at the same time, each of them fetching at most
+ * {@link AuditTrailShardConfig#getBufferedPages()} pages ahead of the sink, so that the memory used does not depend on
+ * the length of the period.
+ * <p>
+ * When a {@link AuditTrailShardConfig#getCheckpointFile()} is configured, the progress of each shard is recorded each
+ * time a page has been passed to the sink. Reading the audit trail again with the same file, start timestamp and shard
+ * duration skips the shards already read and resumes the others after their last recorded page. The items of a page
+ * being passed to the sink when the reading stopped are passed again.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class ShardedAuditTrailReader {
+
+  private final AuditTrailShardConfig config;
+  private final ExecutorService executor;
+  private final AuditTrailShardApi api;
+
+  /**
+   * @param config   the sharding configuration.
+   * @param executor the executor retrieving the shards, it should be able to run
+   *                 {@link AuditTrailShardConfig#getParallelism()} tasks at the same time.
+   * @param api      the audit trail endpoint.
+   */
+  public ShardedAuditTrailReader(AuditTrailShardConfig config, ExecutorService executor, AuditTrailShardApi api) {
+    this.config = config;
+    this.executor = executor;
+    this.api = api;
+  }
+
+  /**
+   * Reads the audit trail of the given period of time.
+   *
+   * @param startTimestamp the start of the period, inclusive.
+   * @param endTimestamp   the end of the period, exclusive.
+   * @param sink           the consumer of the audit trail items, called from the calling thread.
+   * @return the number of items passed to the sink.
+   * @throws ApiRuntimeException  if a page cannot be retrieved, the shards being retrieved are then stopped.
+   * @throws UncheckedIOException if the checkpoint file cannot be opened.
+   * @throws InterruptedException if the calling thread is interrupted while waiting for a page.
+   */
+  public long read(long startTimestamp, long endTimestamp, Consumer<V1AuditTrailInitiatorResponse> sink)
+      throws InterruptedException {
+    final AuditTrailCheckpoints checkpoints = this.openCheckpoints();
+    final List<Shard> shards = this.shards(startTimestamp, endTimestamp, checkpoints);
+    final int parallelism = Math.max(1, this.config.getParallelism());
+    long count = 0;
+    int started = 0;
+    try {
+      for (; started < Math.min(parallelism, shards.size()); started++) {
+        shards.get(started).start();
+      }
+      for (Shard shard : shards) {
+        Page page;
+        do {
+          page = shard.pages.take();
+          if (page.error != null) {
+            throw page.error;
+          }
+          for (V1AuditTrailInitiatorResponse item : page.items) {
+            sink.accept(item);
+          }
+          count += page.items.size();
+          this.checkpoint(checkpoints, shard, page.next);
+        } while (page.next != null);
+        log.debug("Audit trail shard [{}, {}) read", shard.start, shard.end);
+
+        if (started < shards.size()) {
+          shards.get(started++).start();
+        }
+      }
+      return count;
+    } finally {
+      for (Shard shard : shards) {
+        shard.stop();
+      }
+      this.closeCheckpoints(checkpoints);
+    }
+  }
+
+  private List<Shard> shards(long startTimestamp, long endTimestamp, @Nullable AuditTrailCheckpoints checkpoints) {
+    final long duration = Math.max(1, this.config.getShardDurationMillis());
+    final List<Shard> shards = new ArrayList<>();
+    long start = startTimestamp;
+    while (start < endTimestamp) {
+      final long end = endTimestamp - start <= duration ? endTimestamp : start + duration;
+      final AuditTrailCheckpoints.Checkpoint checkpoint = checkpoints == null ? null : checkpoints.get(start, end);
+      if (checkpoint == null || !checkpoint.done) {
+        shards.add(new Shard(start, end, checkpoint == null ? null : checkpoint.after));
+      }
+      start = end;
+    }
+    return shards;
+  }
+
+  @Nullable
+  private AuditTrailCheckpoints openCheckpoints() {
+    if (this.config.getCheckpointFile() == null) {
+      return null;
+    }
+    try {
+      return new AuditTrailCheckpoints(this.config.getCheckpointFile());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void checkpoint(@Nullable AuditTrailCheckpoints checkpoints, Shard shard, @Nullable String next) {
+    if (checkpoints == null) {
+      return;
+    }
+    try {
+      if (next == null) {
+        checkpoints.done(shard.start, shard.end);
+      } else {
+        checkpoints.page(shard.start, shard.end, next);
+      }
+    } catch (IOException e) {
+      log.warn("Unable to record the progress of audit trail shard [{}, {})", shard.start, shard.end, e);
+    }
+  }
+
+  private void closeCheckpoints(@Nullable AuditTrailCheckpoints checkpoints) {
+    if (checkpoints == null) {
+      return;
+    }
+    try {
+      checkpoints.close();
+    } catch (IOException e) {
+      log.warn("Unable to close the audit trail checkpoint file {}", this.config.getCheckpointFile(), e);
+    }
+  }
+
+  private final class Shard {
+
+    private final long start;
+    private final long end;
+    @Nullable
+    private final String resumeAfter;
+    private final BlockingQueue<Page> pages;
+    private Future<?> future;
+
+    Shard(long start, long end, @Nullable String resumeAfter) {
+      this.start = start;
+      this.end = end;
+      this.resumeAfter = resumeAfter;
+      this.pages = new ArrayBlockingQueue<>(Math.max(1, config.getBufferedPages()));
+    }
+
+    private void start() {
+      this.future = executor.submit(this::fetch);
+    }
+
+    private void stop() {
+      if (this.future != null) {
+        this.future.cancel(true);
+      }
+    }
+
+    private void fetch() {
+      String after = this.resumeAfter;
+      try {
+        try {
+          while (true) {
+            final CursorPaginatedPayload<V1AuditTrailInitiatorResponse> payload =
+                api.get(this.start, this.end, after, config.getChunkSize());
+            final List<V1AuditTrailInitiatorResponse> items =
+                payload.getData() == null ? Collections.emptyList() : payload.getData();
+            final String next = items.isEmpty() ? null : payload.getNext();
+            this.pages.put(new Page(items, next, null));
+            if (next == null) {
+              return;
+            }
+            after = next;
+          }
+        } catch (ApiException e) {
+          this.pages.put(new Page(Collections.emptyList(), null, new ApiRuntimeException(e)));
+        } catch (RuntimeException e) {
+          this.pages.put(new Page(Collections.emptyList(), null, e));
+        }
+      } catch (InterruptedException e) {
+        // the reading stopped
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static final class Page {
+
+    private final List<V1AuditTrailInitiatorResponse> items;
+    /** Cursor of the next page, null if this page is the last one of its shard */
+    @Nullable
+    private final String next;
+    @Nullable
+    private final RuntimeException error;
+
+    Page(List<V1AuditTrailInitiatorResponse> items, @Nullable String next, @Nullable RuntimeException error) {
+      this.items = items;
+      this.next = next;
+      this.error = error;
+    }
+  }
+}
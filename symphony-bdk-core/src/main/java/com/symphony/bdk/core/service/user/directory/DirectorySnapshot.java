@@ -0,0 +1,277 @@
+package com.symphony.bdk.core.service.user.directory;
+
+import org.apiguardian.api.API;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable and compact copy of the users of the pod.
+ * <p>
+ * Users are stored by position in arrays sorted by id. Their strings are dictionary encoded: each distinct string is
+ * stored once, and each user only holds the codes of its strings. Lookups by email and username, and searches by
+ * display name prefix, are binary searches in arrays of positions sorted by the case insensitive value of the field.
+ */
+@API(status = API.Status.INTERNAL)
+final class DirectorySnapshot {
+
+  static final DirectorySnapshot EMPTY = new Builder().build(0L);
+
+  private static final int MAGIC = 0x42444b44;
+  private static final int VERSION = 1;
+  private static final int NONE = -1;
+
+  private static final int USERNAME = 0;
+  private static final int EMAIL_ADDRESS = 1;
+  private static final int DISPLAY_NAME = 2;
+  private static final int FIRST_NAME = 3;
+  private static final int LAST_NAME = 4;
+  private static final int COMPANY = 5;
+  private static final int DEPARTMENT = 6;
+  private static final int FIELDS = 7;
+
+  /** Time of the full synchronization the snapshot derives from, in epoch milliseconds */
+  private final long syncedAt;
+  /** User ids, sorted */
+  private final long[] ids;
+  /** Dictionary codes of the fields of each user, {@code FIELDS} codes per user */
+  private final int[] codes;
+  private final String[] dictionary;
+  private final BitSet inactive;
+  /** Positions of the users, sorted by field value */
+  private final int[] byEmailAddress;
+  private final int[] byUsername;
+  private final int[] byDisplayName;
+
+  private DirectorySnapshot(long syncedAt, long[] ids, int[] codes, String[] dictionary, BitSet inactive,
+      int[] byEmailAddress, int[] byUsername, int[] byDisplayName) {
+    this.syncedAt = syncedAt;
+    this.ids = ids;
+    this.codes = codes;
+    this.dictionary = dictionary;
+    this.inactive = inactive;
+    this.byEmailAddress = byEmailAddress;
+    this.byUsername = byUsername;
+    this.byDisplayName = byDisplayName;
+  }
+
+  long getSyncedAt() {
+    return this.syncedAt;
+  }
+
+  int size() {
+    return this.ids.length;
+  }
+
+  @Nullable
+  DirectoryUser findById(long userId) {
+    final int position = Arrays.binarySearch(this.ids, userId);
+    return position < 0 ? null : this.user(position);
+  }
+
+  @Nullable
+  DirectoryUser findByEmailAddress(String emailAddress) {
+    return this.find(this.byEmailAddress, EMAIL_ADDRESS, emailAddress);
+  }
+
+  @Nullable
+  DirectoryUser findByUsername(String username) {
+    return this.find(this.byUsername, USERNAME, username);
+  }
+
+  List<DirectoryUser> findByDisplayNamePrefix(String prefix, int limit) {
+    final List<DirectoryUser> users = new ArrayList<>();
+    for (int i = this.lowerBound(this.byDisplayName, DISPLAY_NAME, prefix);
+        i < this.byDisplayName.length && users.size() < limit; i++) {
+      final String displayName = this.value(this.byDisplayName[i], DISPLAY_NAME);
+      if (!displayName.regionMatches(true, 0, prefix, 0, prefix.length())) {
+        break;
+      }
+      users.add(this.user(this.byDisplayName[i]));
+    }
+    return users;
+  }
+
+  Builder toBuilder() {
+    final Builder builder = new Builder();
+    for (int i = 0; i < this.ids.length; i++) {
+      builder.put(this.user(i));
+    }
+    return builder;
+  }
+
+  void write(DataOutput out) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeLong(this.syncedAt);
+    out.writeInt(this.dictionary.length);
+    for (String value : this.dictionary) {
+      out.writeUTF(value);
+    }
+    out.writeInt(this.ids.length);
+    for (long id : this.ids) {
+      out.writeLong(id);
+    }
+    for (int code : this.codes) {
+      out.writeInt(code);
+    }
+    final byte[] inactiveBits = this.inactive.toByteArray();
+    out.writeInt(inactiveBits.length);
+    out.write(inactiveBits);
+    writePositions(out, this.byEmailAddress);
+    writePositions(out, this.byUsername);
+    writePositions(out, this.byDisplayName);
+  }
+
+  static DirectorySnapshot read(DataInput in) throws IOException {
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      throw new IOException("Unsupported user directory snapshot format");
+    }
+    final long syncedAt = in.readLong();
+    final String[] dictionary = new String[in.readInt()];
+    for (int i = 0; i < dictionary.length; i++) {
+      dictionary[i] = in.readUTF();
+    }
+    final long[] ids = new long[in.readInt()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = in.readLong();
+    }
+    final int[] codes = new int[ids.length * FIELDS];
+    for (int i = 0; i < codes.length; i++) {
+      codes[i] = in.readInt();
+      if (codes[i] < NONE || codes[i] >= dictionary.length) {
+        throw new IOException("Corrupted user directory snapshot");
+      }
+    }
+    final byte[] inactiveBits = new byte[in.readInt()];
+    in.readFully(inactiveBits);
+    return new DirectorySnapshot(syncedAt, ids, codes, dictionary, BitSet.valueOf(inactiveBits),
+        readPositions(in, ids.length), readPositions(in, ids.length), readPositions(in, ids.length));
+  }
+
+  @Nullable
+  private DirectoryUser find(int[] positions, int field, String value) {
+    final int i = this.lowerBound(positions, field, value);
+    return i < positions.length && this.value(positions[i], field).equalsIgnoreCase(value)
+        ? this.user(positions[i]) : null;
+  }
+
+  /**
+   * @return the index of the first position whose field value is not lower than the given value.
+   */
+  private int lowerBound(int[] positions, int field, String value) {
+    int low = 0;
+    int high = positions.length;
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (String.CASE_INSENSITIVE_ORDER.compare(this.value(positions[middle], field), value) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private DirectoryUser user(int position) {
+    return new DirectoryUser(this.ids[position], this.value(position, USERNAME), this.value(position, EMAIL_ADDRESS),
+        this.value(position, DISPLAY_NAME), this.value(position, FIRST_NAME), this.value(position, LAST_NAME),
+        this.value(position, COMPANY), this.value(position, DEPARTMENT), !this.inactive.get(position));
+  }
+
+  @Nullable
+  private String value(int position, int field) {
+    final int code = this.codes[position * FIELDS + field];
+    return code == NONE ? null : this.dictionary[code];
+  }
+
+  private static void writePositions(DataOutput out, int[] positions) throws IOException {
+    out.writeInt(positions.length);
+    for (int position : positions) {
+      out.writeInt(position);
+    }
+  }
+
+  private static int[] readPositions(DataInput in, int size) throws IOException {
+    final int[] positions = new int[in.readInt()];
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = in.readInt();
+      if (positions[i] < 0 || positions[i] >= size) {
+        throw new IOException("Corrupted user directory snapshot");
+      }
+    }
+    return positions;
+  }
+
+  /**
+   * Collects the users of a new snapshot, by id.
+   */
+  static final class Builder {
+
+    private final Map<Long, DirectoryUser> users = new HashMap<>();
+
+    @Nullable
+    DirectoryUser get(long userId) {
+      return this.users.get(userId);
+    }
+
+    void put(DirectoryUser user) {
+      this.users.put(user.getId(), user);
+    }
+
+    void remove(long userId) {
+      this.users.remove(userId);
+    }
+
+    DirectorySnapshot build(long syncedAt) {
+      final DirectoryUser[] sorted = this.users.values().toArray(new DirectoryUser[0]);
+      Arrays.sort(sorted, Comparator.comparingLong(DirectoryUser::getId));
+
+      final long[] ids = new long[sorted.length];
+      final int[] codes = new int[sorted.length * FIELDS];
+      final Map<String, Integer> dictionaryCodes = new HashMap<>();
+      final List<String> dictionary = new ArrayList<>();
+      final BitSet inactive = new BitSet(sorted.length);
+      for (int i = 0; i < sorted.length; i++) {
+        final DirectoryUser user = sorted[i];
+        ids[i] = user.getId();
+        final String[] values = {user.getUsername(), user.getEmailAddress(), user.getDisplayName(),
+            user.getFirstName(), user.getLastName(), user.getCompany(), user.getDepartment()};
+        for (int field = 0; field < FIELDS; field++) {
+          codes[i * FIELDS + field] = values[field] == null ? NONE
+              : dictionaryCodes.computeIfAbsent(values[field], value -> {
+                dictionary.add(value);
+                return dictionary.size() - 1;
+              });
+        }
+        inactive.set(i, !user.isActive());
+      }
+
+      final String[] strings = dictionary.toArray(new String[0]);
+      return new DirectorySnapshot(syncedAt, ids, codes, strings, inactive,
+          sortedPositions(codes, strings, EMAIL_ADDRESS), sortedPositions(codes, strings, USERNAME),
+          sortedPositions(codes, strings, DISPLAY_NAME));
+    }
+
+    private static int[] sortedPositions(int[] codes, String[] dictionary, int field) {
+      return IntStream.range(0, codes.length / FIELDS)
+          .filter(position -> codes[position * FIELDS + field] != NONE)
+          .boxed()
+          .sorted(Comparator.comparing(position -> dictionary[codes[position * FIELDS + field]],
+              String.CASE_INSENSITIVE_ORDER))
+          .mapToInt(Integer::intValue)
+          .toArray();
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.symphony.bdk.core.service.user.directory;
+
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+
+/**
+ * User of the pod, as stored by the {@link UserDirectory}. Fields other than the id are null when not set in the pod.
+ */
+@Getter
+@API(status = API.Status.EXPERIMENTAL)
+public class DirectoryUser {
+
+  private final long id;
+  private final String username;
+  private final String emailAddress;
+  private final String displayName;
+  private final String firstName;
+  private final String lastName;
+  private final String company;
+  private final String department;
+  /** False if the user has been deactivated */
+  private final boolean active;
+
+  DirectoryUser(long id, @Nullable String username, @Nullable String emailAddress, @Nullable String displayName,
+      @Nullable String firstName, @Nullable String lastName, @Nullable String company, @Nullable String department,
+      boolean active) {
+    this.id = id;
+    this.username = username;
+    this.emailAddress = emailAddress;
+    this.displayName = displayName;
+    this.firstName = firstName;
+    this.lastName = lastName;
+    this.company = company;
+    this.department = department;
+    this.active = active;
+  }
+
+  @Override
+  public String toString() {
+    return "DirectoryUser{id=" + this.id + ", username=" + this.username + ", displayName=" + this.displayName + "}";
+  }
+}
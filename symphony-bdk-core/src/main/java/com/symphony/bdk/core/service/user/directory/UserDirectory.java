@@ -0,0 +1,366 @@
+package com.symphony.bdk.core.service.user.directory;
+
+import com.symphony.bdk.core.service.datafeed.RealTimeEventListener;
+import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
+import com.symphony.bdk.core.service.user.UserService;
+import com.symphony.bdk.gen.api.model.UserSystemInfo;
+import com.symphony.bdk.gen.api.model.UserV2;
+import com.symphony.bdk.gen.api.model.V2UserAttributes;
+import com.symphony.bdk.gen.api.model.V2UserDetail;
+import com.symphony.bdk.gen.api.model.V4Initiator;
+import com.symphony.bdk.gen.api.model.V4MessageSent;
+import com.symphony.bdk.gen.api.model.V4User;
+import com.symphony.bdk.gen.api.model.V4UserJoinedRoom;
+import com.symphony.bdk.gen.api.model.V4UserLeftRoom;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * In-memory directory of the users of the pod, resolving users by id, email, username or display name prefix without
+ * calling the pod.
+ * <p>
+ * The directory is filled by a full synchronization, retrieving all the users of the pod with
+ * {@link UserService#listAllUsersDetail(StreamPaginationAttribute)} and fetching several pages at the same time. As the
+ * pod cannot list the users changed since a given time, the directory is then kept up to date by:
+ * <ul>
+ *   <li>refreshing, every {@link UserDirectoryConfig#getRefreshIntervalMillis()}, the users whose name or email
+ *   changed according to the datafeed, once the directory is subscribed to it, and the users marked as changed with
+ *   {@link #markChanged(long)};</li>
+ *   <li>running a full synchronization every {@link UserDirectoryConfig#getFullSyncIntervalMillis()}, to catch the
+ *   other changes.</li>
+ * </ul>
+ * If a snapshot file is configured, the directory is saved after each synchronization or refresh, and loaded on start
+ * when it is more recent than the full synchronization interval, so that a restart does not need a full
+ * synchronization.
+ * <p>
+ * Lookups are served from an immutable snapshot replaced at each synchronization or refresh, and never block.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class UserDirectory implements RealTimeEventListener, Closeable {
+
+  /** Maximum number of users retrieved in one call during a refresh */
+  private static final int REFRESH_BATCH_SIZE = 100;
+
+  private final UserService userService;
+  private final UserDirectoryConfig config;
+  private final LongSupplier clock;
+  private final ScheduledExecutorService scheduler;
+  /** Users to retrieve at the next refresh */
+  private final Set<Long> changedUsers = ConcurrentHashMap.newKeySet();
+  /** Users seen in the datafeed but not found in the pod, i.e. external users, until the next full synchronization */
+  private final Set<Long> unknownUsers = ConcurrentHashMap.newKeySet();
+  private volatile DirectorySnapshot snapshot = DirectorySnapshot.EMPTY;
+
+  /**
+   * Creates an empty directory, filled once started.
+   *
+   * @param userService the service used to retrieve the users.
+   * @param config      the directory configuration.
+   */
+  public UserDirectory(@Nonnull UserService userService, @Nonnull UserDirectoryConfig config) {
+    this(userService, config, System::currentTimeMillis);
+  }
+
+  UserDirectory(UserService userService, UserDirectoryConfig config, LongSupplier clock) {
+    this.userService = userService;
+    this.config = config;
+    this.clock = clock;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      final Thread thread = new Thread(r, "User-Directory-Thread");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Loads the snapshot file if it is recent enough, runs a full synchronization otherwise, and schedules the refreshes
+   * and the next full synchronizations.
+   */
+  public void start() {
+    final Path snapshotFile = this.config.getSnapshotFile();
+    final DirectorySnapshot saved = snapshotFile == null ? null : readSnapshot(snapshotFile);
+    final long fullSyncInterval = this.config.getFullSyncIntervalMillis();
+    if (saved != null && (fullSyncInterval <= 0 || this.clock.getAsLong() - saved.getSyncedAt() < fullSyncInterval)) {
+      log.info("Loaded {} users from {}", saved.size(), snapshotFile);
+      this.snapshot = saved;
+    } else {
+      this.sync();
+    }
+
+    final long refreshInterval = this.config.getRefreshIntervalMillis();
+    if (refreshInterval > 0) {
+      this.scheduler.scheduleWithFixedDelay(this::scheduledRefresh, refreshInterval, refreshInterval,
+          TimeUnit.MILLISECONDS);
+    }
+    if (fullSyncInterval > 0) {
+      final long delay = Math.max(0, this.snapshot.getSyncedAt() + fullSyncInterval - this.clock.getAsLong());
+      this.scheduler.scheduleWithFixedDelay(this::scheduledSync, delay, fullSyncInterval, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Retrieves all the users of the pod and replaces the content of the directory.
+   */
+  public synchronized void sync() {
+    final long startedAt = this.clock.getAsLong();
+    final StreamPaginationAttribute pagination =
+        new StreamPaginationAttribute(this.config.getChunkSize(), Integer.MAX_VALUE, 0, this.config.getParallelism());
+    final DirectorySnapshot.Builder builder = new DirectorySnapshot.Builder();
+    try (Stream<V2UserDetail> users = this.userService.listAllUsersDetail(pagination)) {
+      users.map(UserDirectory::toDirectoryUser).filter(Objects::nonNull).forEach(builder::put);
+    }
+    this.snapshot = builder.build(startedAt);
+    this.unknownUsers.clear();
+    log.info("Synchronized {} users in {} ms", this.snapshot.size(), this.clock.getAsLong() - startedAt);
+    this.save();
+  }
+
+  /**
+   * Retrieves the users changed since the last refresh and updates them in the directory. Users that can no longer be
+   * retrieved are removed.
+   */
+  public synchronized void refresh() {
+    if (this.changedUsers.isEmpty()) {
+      return;
+    }
+    final List<Long> userIds = new ArrayList<>(this.changedUsers);
+    this.changedUsers.removeAll(userIds);
+    final DirectorySnapshot current = this.snapshot;
+    final DirectorySnapshot.Builder builder = current.toBuilder();
+    try {
+      for (int from = 0; from < userIds.size(); from += REFRESH_BATCH_SIZE) {
+        final List<Long> batch = userIds.subList(from, Math.min(userIds.size(), from + REFRESH_BATCH_SIZE));
+        // the users must not be served by the user cache, if enabled
+        this.userService.getCache().ifPresent(cache -> batch.forEach(cache::invalidate));
+        final Set<Long> found = new HashSet<>();
+        for (UserV2 user : this.userService.listUsersByIds(batch, true, null)) {
+          final DirectoryUser previous = builder.get(user.getId());
+          builder.put(toDirectoryUser(user, previous == null || previous.isActive()));
+          found.add(user.getId());
+        }
+        for (Long userId : batch) {
+          if (!found.contains(userId)) {
+            builder.remove(userId);
+            this.unknownUsers.add(userId);
+          }
+        }
+      }
+    } catch (RuntimeException e) {
+      // retried at the next refresh
+      this.changedUsers.addAll(userIds);
+      throw e;
+    }
+    this.snapshot = builder.build(current.getSyncedAt());
+    log.debug("Refreshed {} users", userIds.size());
+    this.save();
+  }
+
+  /**
+   * Marks a user as changed, so that it is retrieved again at the next refresh.
+   *
+   * @param userId the id of the user.
+   */
+  public void markChanged(long userId) {
+    this.unknownUsers.remove(userId);
+    this.changedUsers.add(userId);
+  }
+
+  /**
+   * @param userId the id of the user.
+   * @return the user with the given id, if any.
+   */
+  public Optional<DirectoryUser> findById(long userId) {
+    return Optional.ofNullable(this.snapshot.findById(userId));
+  }
+
+  /**
+   * @param emailAddress the email address of the user, case insensitive.
+   * @return the user with the given email address, if any.
+   */
+  public Optional<DirectoryUser> findByEmailAddress(@Nonnull String emailAddress) {
+    return Optional.ofNullable(this.snapshot.findByEmailAddress(emailAddress));
+  }
+
+  /**
+   * @param username the username of the user, case insensitive.
+   * @return the user with the given username, if any.
+   */
+  public Optional<DirectoryUser> findByUsername(@Nonnull String username) {
+    return Optional.ofNullable(this.snapshot.findByUsername(username));
+  }
+
+  /**
+   * @param prefix the beginning of the display names, case insensitive.
+   * @param limit  the maximum number of users to return.
+   * @return the users whose display name starts with the given prefix, ordered by display name.
+   */
+  public List<DirectoryUser> findByDisplayNamePrefix(@Nonnull String prefix, int limit) {
+    return this.snapshot.findByDisplayNamePrefix(prefix, limit);
+  }
+
+  /**
+   * @return the number of users in the directory.
+   */
+  public int size() {
+    return this.snapshot.size();
+  }
+
+  /**
+   * @return the time of the last full synchronization, the epoch if the directory has not been synchronized.
+   */
+  public Instant getLastSync() {
+    return Instant.ofEpochMilli(this.snapshot.getSyncedAt());
+  }
+
+  @Override
+  public void onMessageSent(V4Initiator initiator, V4MessageSent event) {
+    this.onInitiator(initiator);
+  }
+
+  @Override
+  public void onUserJoinedRoom(V4Initiator initiator, V4UserJoinedRoom event) {
+    this.onInitiator(initiator);
+    this.onUser(event.getAffectedUser());
+  }
+
+  @Override
+  public void onUserLeftRoom(V4Initiator initiator, V4UserLeftRoom event) {
+    this.onInitiator(initiator);
+    this.onUser(event.getAffectedUser());
+  }
+
+  /**
+   * Stops the scheduled refreshes and synchronizations.
+   */
+  @Override
+  public void close() {
+    this.scheduler.shutdownNow();
+  }
+
+  private void onInitiator(@Nullable V4Initiator initiator) {
+    if (initiator != null) {
+      this.onUser(initiator.getUser());
+    }
+  }
+
+  /**
+   * Marks a user as changed if it is not in the directory or if the datafeed carries a name or an email that differs
+   * from the stored one.
+   */
+  private void onUser(@Nullable V4User user) {
+    if (user == null || user.getUserId() == null || this.unknownUsers.contains(user.getUserId())) {
+      return;
+    }
+    final DirectoryUser known = this.snapshot.findById(user.getUserId());
+    if (known == null
+        || differs(user.getDisplayName(), known.getDisplayName())
+        || differs(user.getEmail(), known.getEmailAddress())
+        || differs(user.getUsername(), known.getUsername())) {
+      this.changedUsers.add(user.getUserId());
+    }
+  }
+
+  private void scheduledRefresh() {
+    try {
+      this.refresh();
+    } catch (RuntimeException e) {
+      log.warn("Unable to refresh the user directory", e);
+    }
+  }
+
+  private void scheduledSync() {
+    try {
+      this.sync();
+    } catch (RuntimeException e) {
+      log.warn("Unable to synchronize the user directory", e);
+    }
+  }
+
+  private void save() {
+    final Path snapshotFile = this.config.getSnapshotFile();
+    if (snapshotFile == null) {
+      return;
+    }
+    try {
+      writeSnapshot(snapshotFile, this.snapshot);
+    } catch (IOException e) {
+      log.warn("Unable to save the user directory to {}", snapshotFile, e);
+    }
+  }
+
+  @Nullable
+  private static DirectorySnapshot readSnapshot(Path snapshotFile) {
+    if (!Files.exists(snapshotFile)) {
+      return null;
+    }
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new GZIPInputStream(Files.newInputStream(snapshotFile))))) {
+      return DirectorySnapshot.read(in);
+    } catch (IOException e) {
+      log.warn("Unable to read the user directory from {}, starting a full synchronization", snapshotFile, e);
+      return null;
+    }
+  }
+
+  private static void writeSnapshot(Path snapshotFile, DirectorySnapshot snapshot) throws IOException {
+    final Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporaryFile))))) {
+      snapshot.write(out);
+    }
+    Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  @Nullable
+  private static DirectoryUser toDirectoryUser(V2UserDetail detail) {
+    final UserSystemInfo systemInfo = detail.getUserSystemInfo();
+    if (systemInfo == null || systemInfo.getId() == null) {
+      return null;
+    }
+    final V2UserAttributes attributes = detail.getUserAttributes() == null
+        ? new V2UserAttributes() : detail.getUserAttributes();
+    return new DirectoryUser(systemInfo.getId(), attributes.getUserName(), attributes.getEmailAddress(),
+        attributes.getDisplayName(), attributes.getFirstName(), attributes.getLastName(), attributes.getCompanyName(),
+        attributes.getDepartment(), systemInfo.getStatus() != UserSystemInfo.StatusEnum.DISABLED);
+  }
+
+  private static DirectoryUser toDirectoryUser(UserV2 user, boolean active) {
+    // the status is not part of the user, it is only updated by the full synchronizations
+    return new DirectoryUser(user.getId(), user.getUsername(), user.getEmailAddress(), user.getDisplayName(),
+        user.getFirstName(), user.getLastName(), user.getCompany(), user.getDepartment(), active);
+  }
+
+  private static boolean differs(@Nullable String fromEvent, @Nullable String stored) {
+    return fromEvent != null && !fromEvent.equals(stored);
+  }
+}
@@ -0,0 +1,39 @@
+package com.symphony.bdk.core.service.user.directory;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apiguardian.api.API;
+
+import java.nio.file.Path;
+
+import javax.annotation.Nullable;
+
+/**
+ * Configuration of the {@link UserDirectory}.
+ */
+@Getter
+@Setter
+@API(status = API.Status.EXPERIMENTAL)
+public class UserDirectoryConfig {
+
+  public static final long DEFAULT_REFRESH_INTERVAL_MILLIS = 60 * 1000L;
+  public static final long DEFAULT_FULL_SYNC_INTERVAL_MILLIS = 24 * 60 * 60 * 1000L;
+  public static final int DEFAULT_CHUNK_SIZE = 1000;
+  public static final int DEFAULT_PARALLELISM = 4;
+
+  /** Interval between two refreshes of the users changed since the last refresh, 0 to disable scheduled refreshes */
+  private long refreshIntervalMillis = DEFAULT_REFRESH_INTERVAL_MILLIS;
+
+  /** Interval between two full synchronizations of the directory, 0 to disable scheduled synchronizations */
+  private long fullSyncIntervalMillis = DEFAULT_FULL_SYNC_INTERVAL_MILLIS;
+
+  /** Number of users retrieved in one call during a full synchronization */
+  private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+  /** Number of chunks retrieved at the same time during a full synchronization */
+  private int parallelism = DEFAULT_PARALLELISM;
+
+  /** File the directory is saved to after each synchronization and loaded from on start, null to keep it in memory */
+  @Nullable
+  private Path snapshotFile;
+}
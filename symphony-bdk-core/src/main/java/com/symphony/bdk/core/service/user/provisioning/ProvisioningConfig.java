@@ -0,0 +1,31 @@
+package com.symphony.bdk.core.service.user.provisioning;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apiguardian.api.API;
+
+import java.nio.file.Path;
+
+import javax.annotation.Nullable;
+
+/**
+ * Configuration of a bulk user provisioning, see {@link UserProvisioner}.
+ */
+@Getter
+@Setter
+@API(status = API.Status.EXPERIMENTAL)
+public class ProvisioningConfig {
+
+  public static final int DEFAULT_INITIAL_CONCURRENCY = 4;
+  public static final int DEFAULT_MAX_CONCURRENCY = 32;
+
+  /** Number of users provisioned at the same time when the provisioning starts */
+  private int initialConcurrency = DEFAULT_INITIAL_CONCURRENCY;
+
+  /** Maximum number of users provisioned at the same time, reached while the pod does not push back */
+  private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+  /** File recording the progress of each user, so that an interrupted provisioning can be resumed, null to disable */
+  @Nullable
+  private Path progressFile;
+}
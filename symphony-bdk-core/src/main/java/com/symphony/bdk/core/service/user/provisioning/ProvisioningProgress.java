@@ -0,0 +1,130 @@
+package com.symphony.bdk.core.service.user.provisioning;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Append log of the progress of a {@link UserProvisioner}. Each line is a JSON record holding the key of a user, its
+ * id once known, and either the last operation that succeeded or the fact that the user is done. The last record of
+ * a user gives its progress.
+ */
+@Slf4j
+@API(status = API.Status.INTERNAL)
+class ProvisioningProgress implements Closeable {
+
+  static final String KEY = "key";
+  static final String USER_ID = "userId";
+  static final String STEP = "step";
+  static final String DONE = "done";
+
+  private static final ObjectMapper MAPPER = new JsonMapper();
+
+  private final Path path;
+  private final Map<String, Entry> entries = new HashMap<>();
+  private final OutputStream out;
+
+  ProvisioningProgress(Path path) throws IOException {
+    this.path = path;
+    if (Files.exists(path)) {
+      this.read();
+    }
+    this.out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    // a partially written last line must not be merged with the next record
+    this.out.write('\n');
+  }
+
+  /**
+   * @return the progress of the user with the given key, null if none of its operations succeeded yet.
+   */
+  @Nullable
+  synchronized Entry get(String key) {
+    return this.entries.get(key);
+  }
+
+  synchronized void completed(String key, @Nullable Long userId, ProvisioningStep step) throws IOException {
+    this.append(key, new Entry(userId, step, false), MAPPER.createObjectNode().put(STEP, step.name()));
+  }
+
+  synchronized void done(String key, @Nullable Long userId) throws IOException {
+    this.append(key, new Entry(userId, null, true), MAPPER.createObjectNode().put(DONE, true));
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    this.out.close();
+  }
+
+  private void append(String key, Entry entry, ObjectNode record) throws IOException {
+    this.entries.put(key, entry);
+    record.put(KEY, key);
+    if (entry.userId != null) {
+      record.put(USER_ID, entry.userId);
+    }
+    this.out.write((MAPPER.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8));
+    this.out.flush();
+  }
+
+  private void read() throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(this.path, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isEmpty()) {
+          continue;
+        }
+        final JsonNode record;
+        try {
+          record = MAPPER.readTree(line);
+        } catch (JsonProcessingException e) {
+          // most likely the last line, partially written when the process stopped
+          log.warn("Ignoring malformed record in provisioning progress {}", this.path);
+          continue;
+        }
+        if (!record.hasNonNull(KEY)) {
+          continue;
+        }
+        final Long userId = record.hasNonNull(USER_ID) ? record.get(USER_ID).asLong() : null;
+        final ProvisioningStep step =
+            record.hasNonNull(STEP) ? ProvisioningStep.valueOf(record.get(STEP).asText()) : null;
+        this.entries.put(record.get(KEY).asText(), new Entry(userId, step, record.path(DONE).asBoolean()));
+      }
+    }
+  }
+
+  /**
+   * Progress of a user.
+   */
+  @API(status = API.Status.INTERNAL)
+  static final class Entry {
+
+    @Nullable
+    final Long userId;
+    /** Last operation that succeeded */
+    @Nullable
+    final ProvisioningStep step;
+    final boolean done;
+
+    Entry(@Nullable Long userId, @Nullable ProvisioningStep step, boolean done) {
+      this.userId = userId;
+      this.step = step;
+      this.done = done;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.symphony.bdk.core.service.user.provisioning;
+
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import java.util.List;
+
+/**
+ * Final outcome of a bulk user provisioning, once all the users have been processed.
+ */
+@Getter
+@API(status = API.Status.EXPERIMENTAL)
+public class ProvisioningReport {
+
+  /**
+   * Number of users successfully provisioned.
+   */
+  private final int provisioned;
+
+  /**
+   * Number of users skipped because they had already been provisioned.
+   */
+  private final int skipped;
+
+  /**
+   * Results of the users that could not be provisioned, in completion order.
+   */
+  private final List<ProvisioningResult> failures;
+
+  /**
+   * Lowest number of users provisioned at the same time, after the pod pushed back.
+   */
+  private final int minConcurrency;
+
+  /**
+   * Highest number of users provisioned at the same time.
+   */
+  private final int maxConcurrency;
+
+  ProvisioningReport(int provisioned, int skipped, List<ProvisioningResult> failures, int minConcurrency,
+      int maxConcurrency) {
+    this.provisioned = provisioned;
+    this.skipped = skipped;
+    this.failures = failures;
+    this.minConcurrency = minConcurrency;
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /**
+   * @return true if all the users have been provisioned.
+   */
+  public boolean isSuccessful() {
+    return this.failures.isEmpty();
+  }
+}
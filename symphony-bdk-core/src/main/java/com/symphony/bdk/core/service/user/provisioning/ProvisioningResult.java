@@ -0,0 +1,61 @@
+package com.symphony.bdk.core.service.user.provisioning;
+
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+
+/**
+ * Outcome of the provisioning of one user by a {@link UserProvisioner}, notified as soon as the user is done.
+ */
+@Getter
+@API(status = API.Status.EXPERIMENTAL)
+public class ProvisioningResult {
+
+  /**
+   * Outcome of the provisioning of a user.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public enum Status {
+    /** All the operations of the user succeeded */
+    PROVISIONED,
+    /** The user had already been provisioned according to the progress file */
+    SKIPPED,
+    /** One of the operations of the user failed after all its retries, the next operations were not run */
+    FAILED
+  }
+
+  /**
+   * Key of the user, as given in its {@link UserProvisioningSpec}.
+   */
+  private final String key;
+
+  /**
+   * Id of the user, null if its creation failed.
+   */
+  @Nullable
+  private final Long userId;
+
+  private final Status status;
+
+  /**
+   * Operation that failed, null unless the status is {@link Status#FAILED}.
+   */
+  @Nullable
+  private final ProvisioningStep failedStep;
+
+  /**
+   * Error raised by the failed operation, null unless the status is {@link Status#FAILED}.
+   */
+  @Nullable
+  private final Throwable error;
+
+  ProvisioningResult(String key, @Nullable Long userId, Status status, @Nullable ProvisioningStep failedStep,
+      @Nullable Throwable error) {
+    this.key = key;
+    this.userId = userId;
+    this.status = status;
+    this.failedStep = failedStep;
+    this.error = error;
+  }
+}
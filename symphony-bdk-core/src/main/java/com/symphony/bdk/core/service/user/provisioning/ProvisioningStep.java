@@ -0,0 +1,16 @@
+package com.symphony.bdk.core.service.user.provisioning;
+
+import org.apiguardian.api.API;
+
+/**
+ * Operations run by a {@link UserProvisioner} for each user, in this order. Operations that are not part of a
+ * {@link UserProvisioningSpec} are skipped.
+ */
+@API(status = API.Status.EXPERIMENTAL)
+public enum ProvisioningStep {
+  CREATE,
+  UPDATE,
+  ROLES,
+  FEATURE_ENTITLEMENTS,
+  AVATAR
+}
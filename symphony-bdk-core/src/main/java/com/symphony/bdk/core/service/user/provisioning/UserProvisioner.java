@@ -0,0 +1,275 @@
+package com.symphony.bdk.core.service.user.provisioning;
+
+import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
+import com.symphony.bdk.core.service.user.constant.RoleId;
+import com.symphony.bdk.core.util.AdaptiveTaskRunner;
+import com.symphony.bdk.gen.api.model.V2UserCreate;
+import com.symphony.bdk.gen.api.model.V2UserDetail;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+/**
+ * Bulk user provisioning pipeline. The operations of a given user, see {@link ProvisioningStep}, are run one after the
+ * other, while many users are provisioned at the same time.
+ * <p>
+ * The number of users provisioned at the same time starts at {@link ProvisioningConfig#getInitialConcurrency()} and
+ * grows up to {@link ProvisioningConfig#getMaxConcurrency()} while the calls succeed. It is halved each time the pod
+ * responds with a 429 or a 5xx error. Each call is retried with the retry configuration and recovery strategies of the
+ * user service. A failed creation may still have created the user, so before creating it again the user is looked up by
+ * username and adopted if it exists. When all the retries of an operation fail, the next operations of the user are not
+ * run, and the other users are not affected.
+ * <p>
+ * When a {@link ProvisioningConfig#getProgressFile()} is configured, the progress of each user is recorded after each
+ * operation. Running the provisioning again with the same file skips the users already provisioned, and resumes the
+ * others after their last successful operation, so that a created user is not created twice.
+ */
+@Slf4j
+@API(status = API.Status.EXPERIMENTAL)
+public class UserProvisioner {
+
+  private final ProvisioningConfig config;
+  private final Executor executor;
+  private final RetryWithRecoveryBuilder<?> retryBuilder;
+  private final UserProvisioningApi api;
+  private final LongSupplier clock;
+
+  /**
+   * @param config       the provisioning configuration.
+   * @param executor     the executor running the provisioning, it must be able to run
+   *                     {@link ProvisioningConfig#getMaxConcurrency()} + 1 tasks at the same time.
+   * @param retryBuilder the retry configuration of each call.
+   * @param api          makes the calls to the pod.
+   */
+  public UserProvisioner(ProvisioningConfig config, Executor executor, RetryWithRecoveryBuilder<?> retryBuilder,
+      UserProvisioningApi api) {
+    this(config, executor, retryBuilder, api, System::nanoTime);
+  }
+
+  UserProvisioner(ProvisioningConfig config, Executor executor, RetryWithRecoveryBuilder<?> retryBuilder,
+      UserProvisioningApi api, LongSupplier clock) {
+    this.config = config;
+    this.executor = executor;
+    this.retryBuilder = retryBuilder;
+    this.api = api;
+    this.clock = clock;
+  }
+
+  /**
+   * Provisions the given users. The stream is consumed as users are provisioned and closed once consumed.
+   *
+   * @param specs    the users to provision, with unique keys.
+   * @param listener optional listener notified, from the provisioning threads, each time a user is done.
+   * @return a future completed once all the users have been processed.
+   */
+  public CompletableFuture<ProvisioningReport> provision(Stream<UserProvisioningSpec> specs,
+      @Nullable Consumer<ProvisioningResult> listener) {
+    final Run run;
+    try {
+      run = new Run(listener);
+    } catch (IOException e) {
+      final CompletableFuture<ProvisioningReport> result = new CompletableFuture<>();
+      result.completeExceptionally(e);
+      return result;
+    }
+    try {
+      this.executor.execute(() -> run.dispatch(specs));
+    } catch (RuntimeException e) {
+      run.closeProgress();
+      run.result.completeExceptionally(e);
+    }
+    return run.result;
+  }
+
+  private final class Run {
+
+    private final AdaptiveTaskRunner<ProvisioningResult> runner;
+    @Nullable
+    private final ProvisioningProgress progress;
+    private final AtomicInteger provisioned = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final Queue<ProvisioningResult> failures = new ConcurrentLinkedQueue<>();
+    private final CompletableFuture<ProvisioningReport> result = new CompletableFuture<>();
+
+    Run(@Nullable Consumer<ProvisioningResult> listener) throws IOException {
+      this.runner = new AdaptiveTaskRunner<>(config.getInitialConcurrency(), config.getMaxConcurrency(), executor,
+          retryBuilder, listener, provisioningResult -> "user " + provisioningResult.getKey(), clock);
+      this.progress = config.getProgressFile() == null ? null : new ProvisioningProgress(config.getProgressFile());
+    }
+
+    private void dispatch(Stream<UserProvisioningSpec> specs) {
+      Throwable error = null;
+      try (Stream<UserProvisioningSpec> stream = specs) {
+        // the users being provisioned keep recording their progress even if the stream fails
+        this.runner.runAll(stream.filter(this::pending).iterator(), this::provision);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        error = e;
+      } catch (RuntimeException e) {
+        error = e;
+      }
+      this.closeProgress();
+      if (error == null) {
+        this.result.complete(new ProvisioningReport(this.provisioned.get(), this.skipped.get(),
+            Collections.unmodifiableList(new ArrayList<>(this.failures)), this.runner.getMinConcurrency(),
+            this.runner.getMaxConcurrency()));
+      } else {
+        this.result.completeExceptionally(error);
+      }
+    }
+
+    /**
+     * @return whether the user remains to be provisioned, the users already provisioned are reported as skipped.
+     */
+    private boolean pending(UserProvisioningSpec spec) {
+      final ProvisioningProgress.Entry entry = this.entryOf(spec);
+      if (entry == null || !entry.done) {
+        return true;
+      }
+      this.skipped.incrementAndGet();
+      this.runner.publish(new ProvisioningResult(spec.getKey(), entry.userId, ProvisioningResult.Status.SKIPPED, null,
+          null));
+      return false;
+    }
+
+    private void provision(UserProvisioningSpec spec) {
+      final ProvisioningProgress.Entry entry = this.entryOf(spec);
+      Long userId = entry != null && entry.userId != null ? entry.userId : spec.getUserId();
+      ProvisioningStep current = null;
+      try {
+        for (ProvisioningStep step : ProvisioningStep.values()) {
+          if (!spec.includes(step) || (entry != null && entry.step != null && step.compareTo(entry.step) <= 0)) {
+            continue;
+          }
+          current = step;
+          userId = this.run(step, spec, userId);
+          this.record(spec.getKey(), userId, step);
+        }
+        this.record(spec.getKey(), userId, null);
+        this.provisioned.incrementAndGet();
+        this.runner.publish(new ProvisioningResult(spec.getKey(), userId, ProvisioningResult.Status.PROVISIONED, null,
+            null));
+      } catch (RuntimeException e) {
+        log.debug("Provisioning of user {} failed at step {}", spec.getKey(), current, e);
+        final ProvisioningResult failure =
+            new ProvisioningResult(spec.getKey(), userId, ProvisioningResult.Status.FAILED, current, e);
+        this.failures.add(failure);
+        this.runner.publish(failure);
+      }
+    }
+
+    private Long run(ProvisioningStep step, UserProvisioningSpec spec, Long userId) {
+      switch (step) {
+        case CREATE:
+          return this.create(spec.getCreation());
+        case UPDATE:
+          this.runner.call("provisionUpdate", () -> {
+            api.update(userId, spec.getAttributes());
+            return null;
+          });
+          return userId;
+        case ROLES:
+          for (RoleId roleId : spec.getRoles()) {
+            this.runner.call("provisionAddRole", () -> {
+              api.addRole(userId, roleId);
+              return null;
+            });
+          }
+          return userId;
+        case FEATURE_ENTITLEMENTS:
+          this.runner.call("provisionUpdateFeatureEntitlements", () -> {
+            api.updateFeatureEntitlements(userId, spec.getFeatureEntitlements());
+            return null;
+          });
+          return userId;
+        case AVATAR:
+          this.runner.call("provisionUpdateAvatar", () -> {
+            api.updateAvatar(userId, spec.getAvatar());
+            return null;
+          });
+          return userId;
+        default:
+          return userId;
+      }
+    }
+
+    private Long create(V2UserCreate creation) {
+      final String username = creation.getUserAttributes() == null ? null : creation.getUserAttributes().getUserName();
+      final AtomicReference<Exception> failure = new AtomicReference<>();
+      return this.runner.call("provisionCreate", () -> {
+        final Exception previous = failure.get();
+        if (previous != null) {
+          // the failed attempt, e.g. timed out, may have reached the pod and created the user, it is adopted instead
+          // of created twice
+          if (username == null) {
+            throw previous instanceof ApiException ? new ApiRuntimeException((ApiException) previous)
+                : (RuntimeException) previous;
+          }
+          final Long existing = api.findByUsername(username);
+          if (existing != null) {
+            return existing;
+          }
+        }
+        final V2UserDetail created;
+        try {
+          created = api.create(creation);
+        } catch (ApiException | RuntimeException e) {
+          failure.set(e);
+          throw e;
+        }
+        if (created == null || created.getUserSystemInfo() == null || created.getUserSystemInfo().getId() == null) {
+          throw new IllegalStateException("The created user has no id");
+        }
+        return created.getUserSystemInfo().getId();
+      });
+    }
+
+    private void record(String key, @Nullable Long userId, @Nullable ProvisioningStep step) {
+      if (this.progress == null) {
+        return;
+      }
+      try {
+        if (step == null) {
+          this.progress.done(key, userId);
+        } else {
+          this.progress.completed(key, userId, step);
+        }
+      } catch (IOException e) {
+        log.warn("Unable to record the progress of user {}", key, e);
+      }
+    }
+
+    @Nullable
+    private ProvisioningProgress.Entry entryOf(UserProvisioningSpec spec) {
+      return this.progress == null ? null : this.progress.get(spec.getKey());
+    }
+
+    private void closeProgress() {
+      if (this.progress == null) {
+        return;
+      }
+      try {
+        this.progress.close();
+      } catch (IOException e) {
+        log.warn("Unable to close the provisioning progress file {}", config.getProgressFile(), e);
+      }
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.symphony.bdk.core.service.user.provisioning;
+
+import com.symphony.bdk.core.service.user.constant.RoleId;
+import com.symphony.bdk.gen.api.model.Feature;
+import com.symphony.bdk.gen.api.model.V2UserAttributes;
+import com.symphony.bdk.gen.api.model.V2UserCreate;
+import com.symphony.bdk.gen.api.model.V2UserDetail;
+import com.symphony.bdk.http.api.ApiException;
+
+import org.apiguardian.api.API;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * Calls made by a {@link UserProvisioner}. Each method makes a single call to the pod, without retrying it: the
+ * provisioner retries the calls itself, to adapt its concurrency to the errors.
+ */
+@API(status = API.Status.INTERNAL)
+public interface UserProvisioningApi {
+
+  V2UserDetail create(V2UserCreate payload) throws ApiException;
+
+  /**
+   * @return the id of the user with the given username, null if there is none.
+   */
+  @Nullable
+  Long findByUsername(String username) throws ApiException;
+
+  void update(Long userId, V2UserAttributes attributes) throws ApiException;
+
+  void addRole(Long userId, RoleId roleId) throws ApiException;
+
+  void updateFeatureEntitlements(Long userId, List<Feature> features) throws ApiException;
+
+  void updateAvatar(Long userId, String image) throws ApiException;
+}
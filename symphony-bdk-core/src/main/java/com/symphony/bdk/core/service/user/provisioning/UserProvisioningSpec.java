@@ -0,0 +1,143 @@
+package com.symphony.bdk.core.service.user.provisioning;
+
+import com.symphony.bdk.core.service.user.constant.RoleId;
+import com.symphony.bdk.gen.api.model.Feature;
+import com.symphony.bdk.gen.api.model.V2UserAttributes;
+import com.symphony.bdk.gen.api.model.V2UserCreate;
+
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Operations to run on one user by a {@link UserProvisioner}: the creation of a new user or the update of the
+ * attributes of an existing one, then the roles to add, the feature entitlements and the avatar to set.
+ */
+@Getter
+@API(status = API.Status.EXPERIMENTAL)
+public class UserProvisioningSpec {
+
+  /**
+   * Unique key of the user within a provisioning, e.g. its username, used to record its progress.
+   */
+  private final String key;
+
+  /**
+   * Id of the existing user to provision, null if the user is created.
+   */
+  @Nullable
+  private final Long userId;
+
+  /**
+   * Payload of the user to create, null if the user already exists.
+   */
+  @Nullable
+  private final V2UserCreate creation;
+
+  /**
+   * Attributes to update, null to leave the attributes of an existing user unchanged.
+   */
+  @Nullable
+  private V2UserAttributes attributes;
+
+  /**
+   * Roles to add to the user.
+   */
+  private List<RoleId> roles = Collections.emptyList();
+
+  /**
+   * Feature entitlements to update, null to leave them unchanged.
+   */
+  @Nullable
+  private List<Feature> featureEntitlements;
+
+  /**
+   * Base64 encoded avatar image, null to leave the avatar unchanged.
+   */
+  @Nullable
+  private String avatar;
+
+  private UserProvisioningSpec(String key, @Nullable Long userId, @Nullable V2UserCreate creation) {
+    this.key = Objects.requireNonNull(key);
+    this.userId = userId;
+    this.creation = creation;
+  }
+
+  /**
+   * @param key     the unique key of the user within the provisioning.
+   * @param payload the details of the user to create.
+   * @return the spec of a new user.
+   */
+  public static UserProvisioningSpec newUser(@Nonnull String key, @Nonnull V2UserCreate payload) {
+    return new UserProvisioningSpec(key, null, Objects.requireNonNull(payload));
+  }
+
+  /**
+   * @param key    the unique key of the user within the provisioning.
+   * @param userId the id of the existing user.
+   * @return the spec of an existing user.
+   */
+  public static UserProvisioningSpec existingUser(@Nonnull String key, long userId) {
+    return new UserProvisioningSpec(key, userId, null);
+  }
+
+  /**
+   * @param attributes the attributes to update once the user is created or, for an existing user, first.
+   * @return this spec.
+   */
+  public UserProvisioningSpec attributes(@Nonnull V2UserAttributes attributes) {
+    this.attributes = attributes;
+    return this;
+  }
+
+  /**
+   * @param roles the roles to add to the user.
+   * @return this spec.
+   */
+  public UserProvisioningSpec roles(@Nonnull List<RoleId> roles) {
+    this.roles = new ArrayList<>(roles);
+    return this;
+  }
+
+  /**
+   * @param featureEntitlements the feature entitlements of the user.
+   * @return this spec.
+   */
+  public UserProvisioningSpec featureEntitlements(@Nonnull List<Feature> featureEntitlements) {
+    this.featureEntitlements = new ArrayList<>(featureEntitlements);
+    return this;
+  }
+
+  /**
+   * @param avatar the base64 encoded avatar image of the user.
+   * @return this spec.
+   */
+  public UserProvisioningSpec avatar(@Nonnull String avatar) {
+    this.avatar = avatar;
+    return this;
+  }
+
+  boolean includes(ProvisioningStep step) {
+    switch (step) {
+      case CREATE:
+        return this.creation != null;
+      case UPDATE:
+        return this.attributes != null;
+      case ROLES:
+        return !this.roles.isEmpty();
+      case FEATURE_ENTITLEMENTS:
+        return this.featureEntitlements != null;
+      case AVATAR:
+        return this.avatar != null;
+      default:
+        return false;
+    }
+  }
+}
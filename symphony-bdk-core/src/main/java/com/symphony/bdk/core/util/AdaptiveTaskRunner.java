@@ -0,0 +1,156 @@
+package com.symphony.bdk.core.util;
+
+import com.symphony.bdk.core.retry.RetryWithRecovery;
+import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
+import com.symphony.bdk.core.retry.function.SupplierWithApiException;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * Runs a large number of tasks making calls to the pod, as many at the same time as allowed by a
+ * {@link ConcurrencyLimit}. Each call is retried with the given retry configuration and recovery strategies, its
+ * outcome adjusting the limit: successful calls increase it, 429 and 5xx errors decrease it.
+ *
+ * @param <R> the type of the results the listener is notified of.
+ */
+@Slf4j
+@API(status = API.Status.INTERNAL)
+public final class AdaptiveTaskRunner<R> {
+
+  private final ConcurrencyLimit limit;
+  private final Executor executor;
+  private final RetryWithRecoveryBuilder<?> retryBuilder;
+  @Nullable
+  private final Consumer<R> listener;
+  private final Function<? super R, ?> subjectOf;
+
+  /**
+   * @param initialConcurrency the number of tasks run at the same time at first.
+   * @param maxConcurrency     the maximum number of tasks run at the same time.
+   * @param executor           the executor running the tasks.
+   * @param retryBuilder       the retry configuration of each call.
+   * @param listener           optional listener notified of the results.
+   * @param subjectOf          describes the subject of a result when the listener fails on it.
+   * @param clock              the clock of the limit, in nanoseconds.
+   */
+  public AdaptiveTaskRunner(int initialConcurrency, int maxConcurrency, Executor executor,
+      RetryWithRecoveryBuilder<?> retryBuilder, @Nullable Consumer<R> listener, Function<? super R, ?> subjectOf,
+      LongSupplier clock) {
+    this.limit = new ConcurrencyLimit(initialConcurrency, maxConcurrency, clock);
+    this.executor = executor;
+    this.retryBuilder = retryBuilder;
+    this.listener = listener;
+    this.subjectOf = subjectOf;
+  }
+
+  /**
+   * Runs a task for each item, waiting for a slot before each task is submitted, then waits for all the tasks to be
+   * done. The tasks already running are awaited even if the items cannot be iterated or a task cannot be submitted.
+   *
+   * @param items the items to process.
+   * @param task  processes an item.
+   * @param <I>   the type of the items.
+   * @throws InterruptedException if interrupted while waiting for a slot or for the tasks to be done.
+   */
+  public <I> void runAll(Iterator<I> items, Consumer<I> task) throws InterruptedException {
+    try {
+      while (items.hasNext()) {
+        final I item = items.next();
+        this.limit.acquire();
+        try {
+          this.executor.execute(() -> {
+            try {
+              task.accept(item);
+            } finally {
+              this.limit.release();
+            }
+          });
+        } catch (RuntimeException e) {
+          this.limit.release();
+          throw e;
+        }
+      }
+    } catch (RuntimeException e) {
+      this.limit.awaitIdle();
+      throw e;
+    }
+    this.limit.awaitIdle();
+  }
+
+  /**
+   * Makes a call with retries, adjusting the concurrency limit after each attempt.
+   *
+   * @param name     the name of the call.
+   * @param supplier makes the call.
+   * @param <T>      the type of the value returned by the call.
+   * @return the value returned by the call.
+   * @throws ApiRuntimeException if all the retries failed with an {@link ApiException}.
+   */
+  public <T> T call(String name, SupplierWithApiException<T> supplier) {
+    final RetryWithRecovery<T> retry = RetryWithRecoveryBuilder.<T>from(this.retryBuilder)
+        .name(name)
+        .supplier(() -> {
+          try {
+            final T value = supplier.get();
+            this.limit.onSuccess();
+            return value;
+          } catch (ApiException e) {
+            if (e.isTooManyRequestsError() || e.isServerError()) {
+              this.limit.onOverload();
+            }
+            throw e;
+          }
+        })
+        .build();
+    try {
+      return retry.execute();
+    } catch (ApiException e) {
+      throw new ApiRuntimeException(e);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new RuntimeException(t);
+    }
+  }
+
+  /**
+   * Notifies the listener of a result, a failing listener does not prevent the next tasks from being run.
+   *
+   * @param result the result.
+   */
+  public void publish(R result) {
+    if (this.listener == null) {
+      return;
+    }
+    try {
+      this.listener.accept(result);
+    } catch (RuntimeException e) {
+      log.warn("Listener failed on {}", this.subjectOf.apply(result), e);
+    }
+  }
+
+  /**
+   * @return the lowest concurrency limit reached so far.
+   */
+  public int getMinConcurrency() {
+    return this.limit.getMinReached();
+  }
+
+  /**
+   * @return the highest concurrency limit reached so far.
+   */
+  public int getMaxConcurrency() {
+    return this.limit.getMaxReached();
+  }
+}
@@ -0,0 +1,88 @@
+package com.symphony.bdk.core.util;
+
+import org.apiguardian.api.API;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Additive increase, multiplicative decrease limit of the number of tasks running at the same time.
+ * <p>
+ * The limit grows by one each time as many calls as the current limit succeeded, and is halved when the pod responds
+ * with a 429 or a 5xx error. Errors received shortly after a decrease are most likely caused by calls started before
+ * it, they do not decrease the limit again.
+ */
+@API(status = API.Status.INTERNAL)
+public final class ConcurrencyLimit {
+
+  public static final long DECREASE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final int maxLimit;
+  private final LongSupplier clock;
+  private int limit;
+  private int inFlight;
+  private int successes;
+  private long lastDecrease;
+  private boolean decreased;
+  private int minReached;
+  private int maxReached;
+
+  public ConcurrencyLimit(int initialLimit, int maxLimit, LongSupplier clock) {
+    this.maxLimit = Math.max(1, maxLimit);
+    this.clock = clock;
+    this.limit = Math.max(1, Math.min(initialLimit, this.maxLimit));
+    this.minReached = this.limit;
+    this.maxReached = this.limit;
+  }
+
+  public synchronized void acquire() throws InterruptedException {
+    while (this.inFlight >= this.limit) {
+      this.wait();
+    }
+    this.inFlight++;
+  }
+
+  public synchronized void release() {
+    this.inFlight--;
+    this.notifyAll();
+  }
+
+  public synchronized void awaitIdle() throws InterruptedException {
+    while (this.inFlight > 0) {
+      this.wait();
+    }
+  }
+
+  public synchronized void onSuccess() {
+    if (++this.successes >= this.limit && this.limit < this.maxLimit) {
+      this.successes = 0;
+      this.limit++;
+      this.maxReached = Math.max(this.maxReached, this.limit);
+      this.notifyAll();
+    }
+  }
+
+  public synchronized void onOverload() {
+    final long now = this.clock.getAsLong();
+    if (this.decreased && now - this.lastDecrease < DECREASE_INTERVAL_NANOS) {
+      return;
+    }
+    this.decreased = true;
+    this.lastDecrease = now;
+    this.successes = 0;
+    this.limit = Math.max(1, this.limit / 2);
+    this.minReached = Math.min(this.minReached, this.limit);
+  }
+
+  public synchronized int getLimit() {
+    return this.limit;
+  }
+
+  public synchronized int getMinReached() {
+    return this.minReached;
+  }
+
+  public synchronized int getMaxReached() {
+    return this.maxReached;
+  }
+}
@@ -2,10 +2,9 @@ package com.symphony.bdk.core.util;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.apiguardian.api.API;
 
-import java.util.Base64;
+import java.util.Arrays;
 
 /**
  * Helper class providing Base64 id conversion. Useful for stream or message ids.
@@ -14,24 +13,28 @@ import java.util.Base64;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class IdUtil {
 
-  private static final char[] NOT_URL_SAFE_BASE_64_CHARS = new char[] {'+', '/', '='};
-
   /**
    * Convert the Base64 id to its URL-safe Base64 version if it contains non URL-safe characters.
    *
    * @param base64Id Base64 id.
-   * @return Base64 URL-safe id.
+   * @return Base64 URL-safe id, the given id itself if it is already URL-safe.
    */
   public static String toUrlSafeIdIfNeeded(String base64Id) {
-    if (StringUtils.containsAny(base64Id, NOT_URL_SAFE_BASE_64_CHARS)) {
-      return toUrlSafeId(base64Id);
-    } else {
-      return base64Id;
+    if (base64Id == null) {
+      return null;
+    }
+    for (int i = 0; i < base64Id.length(); i++) {
+      final char c = base64Id.charAt(i);
+      if (c == '+' || c == '/' || c == '=') {
+        return toUrlSafeId(base64Id, i);
+      }
     }
+    return base64Id;
   }
 
   /**
    * Convert the stream id to the corresponding URL-safe encoded stream id.
+   * The characters are mapped one by one, the id is not decoded.
    *
    * <p>Example of usage:
    * <pre>{@code
@@ -39,12 +42,12 @@ public class IdUtil {
    * }</pre></p>
    */
   public static String toUrlSafeId(String base64Id) {
-    byte[] decodedURLBytes = Base64.getDecoder().decode(base64Id);
-    return Base64.getUrlEncoder().withoutPadding().encodeToString(decodedURLBytes);
+    return toUrlSafeId(base64Id, 0);
   }
 
   /**
    * Convert the URL-safe encoded stream id to the corresponding original stream id.
+   * The characters are mapped one by one and the padding is added back, the id is not decoded.
    *
    * <p>Example of usage:
    * <pre>{@code
@@ -52,7 +55,41 @@ public class IdUtil {
    * }</pre></p>
    */
   public static String fromUrlSafeId(String urlSafeBase64Id) {
-    byte[] decodedURLBytes = Base64.getUrlDecoder().decode(urlSafeBase64Id);
-    return Base64.getEncoder().encodeToString(decodedURLBytes);
+    final int length = urlSafeBase64Id.length();
+    final int padding = (4 - length % 4) % 4;
+    if (padding == 3) {
+      throw new IllegalArgumentException("Invalid Base64 id length: " + length);
+    }
+    final char[] chars = new char[length + padding];
+    urlSafeBase64Id.getChars(0, length, chars, 0);
+    for (int i = 0; i < length; i++) {
+      if (chars[i] == '-') {
+        chars[i] = '+';
+      } else if (chars[i] == '_') {
+        chars[i] = '/';
+      }
+    }
+    Arrays.fill(chars, length, chars.length, '=');
+    return new String(chars);
+  }
+
+  /**
+   * @param from index of the first character that may not be URL-safe.
+   */
+  private static String toUrlSafeId(String base64Id, int from) {
+    int length = base64Id.length();
+    while (length > from && base64Id.charAt(length - 1) == '=') {
+      length--;
+    }
+    final char[] chars = new char[length];
+    base64Id.getChars(0, length, chars, 0);
+    for (int i = from; i < length; i++) {
+      if (chars[i] == '+') {
+        chars[i] = '-';
+      } else if (chars[i] == '/') {
+        chars[i] = '_';
+      }
+    }
+    return new String(chars);
   }
 }
@@ -0,0 +1,338 @@
+package com.symphony.bdk.core.util;
+
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * Read-through cache of values looked up by key, for a bounded time and up to a maximum number of entries, the least
+ * recently used entries being evicted first. Concurrent lookups of the same missing key share a single load.
+ * <p>
+ * Each entry is tagged when loaded, e.g. with the id of the user or of the stream it describes, so that all the entries
+ * of a tag can be invalidated at once. The values retrieved on behalf of an owner, e.g. an OBO session, are cached
+ * separately by a child cache sharing the configuration and the metrics of this cache, for as long as the owner is
+ * referenced.
+ *
+ * @param <V> the type of the cached values.
+ */
+@API(status = API.Status.INTERNAL)
+public class KeyedCache<V> {
+
+  private final int maxSize;
+  private final long timeToLiveNanos;
+  private final LongSupplier clock;
+  @Getter private final KeyedCacheMetrics metrics;
+  private final Map<String, Entry<V>> entries;
+  private final Map<String, Load<V>> loading = new HashMap<>();
+  private final Map<Object, KeyedCache<V>> children = new WeakHashMap<>();
+
+  public KeyedCache(KeyedCacheConfig config, LongSupplier clock) {
+    this(config.getMaxSize(), TimeUnit.MILLISECONDS.toNanos(config.getTimeToLiveMillis()), clock,
+        new KeyedCacheMetrics());
+  }
+
+  /**
+   * Creates an empty cache sharing the configuration and the metrics of the given cache.
+   */
+  protected KeyedCache(KeyedCache<V> parent) {
+    this(parent.maxSize, parent.timeToLiveNanos, parent.clock, parent.metrics);
+  }
+
+  private KeyedCache(int maxSize, long timeToLiveNanos, LongSupplier clock, KeyedCacheMetrics metrics) {
+    this.maxSize = maxSize;
+    this.timeToLiveNanos = timeToLiveNanos;
+    this.clock = clock;
+    this.metrics = metrics;
+    this.entries = new LinkedHashMap<String, Entry<V>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+        final boolean evict = size() > KeyedCache.this.maxSize;
+        if (evict) {
+          KeyedCache.this.metrics.onEviction();
+        }
+        return evict;
+      }
+    };
+  }
+
+  /**
+   * Looks up a value in the cache, loading it if missing. A value being loaded by another thread is awaited rather
+   * than loaded again.
+   *
+   * @param key    the key of the value.
+   * @param loader loads the value, null values are not cached.
+   * @param tagOf  returns the tag of a loaded value.
+   * @param <T>    the type of the value.
+   * @return the value.
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends V> T get(String key, Supplier<T> loader, Function<? super T, ?> tagOf) {
+    while (true) {
+      final Load<V> load;
+      final int awaitedFrom;
+      synchronized (this) {
+        final Entry<V> entry = this.lookup(key);
+        if (entry != null) {
+          this.metrics.onHit();
+          return (T) entry.value;
+        }
+        final Load<V> awaited = this.loading.get(key);
+        this.metrics.onMiss(awaited != null);
+        if (awaited == null) {
+          load = new Load<>();
+          this.loading.put(key, load);
+          awaitedFrom = -1;
+        } else {
+          load = awaited;
+          awaitedFrom = awaited.invalidatedTags.size();
+        }
+      }
+      if (awaitedFrom < 0) {
+        return this.load(Collections.singletonMap(key, load), () -> Collections.singletonMap(key, loader.get()), tagOf)
+            .get(key);
+      }
+      final T value = (T) join(load.future);
+      // a value invalidated while awaited is looked up again
+      if (value == null || !this.isInvalidatedSince(load, awaitedFrom, tagOf.apply(value))) {
+        return value;
+      }
+    }
+  }
+
+  /**
+   * Looks up values in the cache, loading the missing ones with a single call. Values being loaded by another thread
+   * are awaited rather than loaded again.
+   *
+   * @param keys   the keys to look up.
+   * @param loader loads the values of the given keys, indexed by key.
+   * @param tagOf  returns the tag of a loaded value.
+   * @param <T>    the type of the values.
+   * @return the values found, indexed by key.
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends V> Map<String, T> getAll(Collection<String> keys, Function<List<String>, Map<String, T>> loader,
+      Function<? super T, ?> tagOf) {
+    final Map<String, T> found = new HashMap<>();
+    final Map<String, Load<V>> awaited = new LinkedHashMap<>();
+    final Map<String, Integer> awaitedFrom = new HashMap<>();
+    final Map<String, Load<V>> owned = new LinkedHashMap<>();
+    synchronized (this) {
+      for (String key : keys) {
+        if (found.containsKey(key) || awaited.containsKey(key) || owned.containsKey(key)) {
+          continue;
+        }
+        final Entry<V> entry = this.lookup(key);
+        if (entry != null) {
+          this.metrics.onHit();
+          found.put(key, (T) entry.value);
+          continue;
+        }
+        Load<V> load = this.loading.get(key);
+        this.metrics.onMiss(load != null);
+        if (load != null) {
+          awaited.put(key, load);
+          awaitedFrom.put(key, load.invalidatedTags.size());
+        } else {
+          load = new Load<>();
+          this.loading.put(key, load);
+          owned.put(key, load);
+        }
+      }
+    }
+
+    if (!owned.isEmpty()) {
+      final List<String> missingKeys = new ArrayList<>(owned.keySet());
+      found.putAll(this.load(owned, () -> loader.apply(missingKeys), tagOf));
+    }
+    final List<String> invalidatedKeys = new ArrayList<>();
+    awaited.forEach((key, load) -> {
+      final T value = (T) join(load.future);
+      if (value == null) {
+        return;
+      }
+      if (this.isInvalidatedSince(load, awaitedFrom.get(key), tagOf.apply(value))) {
+        invalidatedKeys.add(key);
+      } else {
+        found.put(key, value);
+      }
+    });
+    if (!invalidatedKeys.isEmpty()) {
+      // the values invalidated while awaited are looked up again
+      found.putAll(this.getAll(invalidatedKeys, loader, tagOf));
+    }
+    return found;
+  }
+
+  /**
+   * Removes the entries of a tag, including from the children caches. The values of the tag being loaded are not
+   * cached, while the loads of the other tags are not affected.
+   *
+   * @param tag the tag of the entries to remove.
+   */
+  public void invalidateTag(Object tag) {
+    final int removed;
+    synchronized (this) {
+      // the tag of a value being loaded is only known once loaded, it is checked then
+      this.loading.values().forEach(load -> load.invalidatedTags.add(tag));
+      final int size = this.entries.size();
+      this.entries.values().removeIf(entry -> tag.equals(entry.tag));
+      removed = size - this.entries.size();
+    }
+    this.metrics.onInvalidation(removed);
+    this.children().forEach(child -> child.invalidateTag(tag));
+  }
+
+  /**
+   * Removes all the entries, including from the children caches.
+   */
+  public void invalidateAll() {
+    final int removed;
+    synchronized (this) {
+      // the values being loaded may be outdated, the next lookups load them again
+      this.loading.clear();
+      removed = this.entries.size();
+      this.entries.clear();
+    }
+    this.metrics.onInvalidation(removed);
+    this.children().forEach(KeyedCache::invalidateAll);
+  }
+
+  /**
+   * @return the number of entries of this cache, without the children caches.
+   */
+  public synchronized int size() {
+    return this.entries.size();
+  }
+
+  /**
+   * @return the values of a tag currently cached, expired or not.
+   */
+  protected synchronized List<V> values(Object tag) {
+    final List<V> values = new ArrayList<>();
+    this.entries.values().forEach(entry -> {
+      if (tag.equals(entry.tag)) {
+        values.add(entry.value);
+      }
+    });
+    return values;
+  }
+
+  /**
+   * Returns the cache of the values retrieved on behalf of an owner, created with {@link #newChild()} the first time.
+   *
+   * @param owner the owner of the values, only weakly referenced.
+   * @return the child cache.
+   */
+  protected KeyedCache<V> child(Object owner) {
+    synchronized (this.children) {
+      return this.children.computeIfAbsent(owner, o -> this.newChild());
+    }
+  }
+
+  /**
+   * @return an empty cache sharing the configuration and the metrics of this cache.
+   */
+  protected KeyedCache<V> newChild() {
+    return new KeyedCache<>(this);
+  }
+
+  private <T extends V> Map<String, T> load(Map<String, Load<V>> owned, Supplier<Map<String, T>> loader,
+      Function<? super T, ?> tagOf) {
+    final Map<String, T> loaded;
+    try {
+      this.metrics.onLoad();
+      final Map<String, T> values = loader.get();
+      loaded = values == null ? Collections.emptyMap() : values;
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        owned.forEach(this.loading::remove);
+      }
+      owned.values().forEach(load -> load.future.completeExceptionally(e));
+      throw e;
+    }
+
+    synchronized (this) {
+      final long expiresAt = this.clock.getAsLong() + this.timeToLiveNanos;
+      owned.forEach((key, load) -> {
+        final T value = loaded.get(key);
+        // the entry may have been invalidated while being loaded
+        if (this.loading.remove(key, load) && value != null) {
+          final Object tag = tagOf.apply(value);
+          if (!load.invalidatedTags.contains(tag)) {
+            this.entries.put(key, new Entry<>(value, tag, expiresAt));
+          }
+        }
+      });
+    }
+    owned.forEach((key, load) -> load.future.complete(loaded.get(key)));
+    return loaded;
+  }
+
+  /**
+   * @return whether the tag of a loaded value has been invalidated since a lookup started awaiting it.
+   */
+  private synchronized boolean isInvalidatedSince(Load<V> load, int awaitedFrom, Object tag) {
+    return load.invalidatedTags.subList(awaitedFrom, load.invalidatedTags.size()).contains(tag);
+  }
+
+  @Nullable
+  private Entry<V> lookup(String key) {
+    final Entry<V> entry = this.entries.get(key);
+    if (entry != null && entry.expiresAt - this.clock.getAsLong() <= 0) {
+      this.entries.remove(key);
+      this.metrics.onExpiration();
+      return null;
+    }
+    return entry;
+  }
+
+  private List<KeyedCache<V>> children() {
+    synchronized (this.children) {
+      return this.children.isEmpty() ? Collections.emptyList() : new ArrayList<>(this.children.values());
+    }
+  }
+
+  private static <V> V join(CompletableFuture<V> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
+  }
+
+  private static final class Load<V> {
+
+    private final CompletableFuture<V> future = new CompletableFuture<>();
+    /** Tags invalidated while loading, in order */
+    private final List<Object> invalidatedTags = new ArrayList<>();
+  }
+
+  private static final class Entry<V> {
+
+    private final V value;
+    private final Object tag;
+    private final long expiresAt;
+
+    private Entry(V value, Object tag, long expiresAt) {
+      this.value = value;
+      this.tag = tag;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.symphony.bdk.core.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apiguardian.api.API;
+
+/**
+ * Configuration of a {@link KeyedCache}, such as the user and stream caches.
+ */
+@Getter
+@Setter
+@API(status = API.Status.EXPERIMENTAL)
+public class KeyedCacheConfig {
+
+  public static final int DEFAULT_MAX_SIZE = 10_000;
+  public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 10 * 60 * 1000L;
+
+  /** Maximum number of entries kept by the cache of a session, the least recently used ones are evicted first */
+  private int maxSize = DEFAULT_MAX_SIZE;
+
+  /** Time after which a cached entry is retrieved again from the pod */
+  private long timeToLiveMillis = DEFAULT_TIME_TO_LIVE_MILLIS;
+}
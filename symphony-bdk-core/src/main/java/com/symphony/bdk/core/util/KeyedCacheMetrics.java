@@ -0,0 +1,96 @@
+package com.symphony.bdk.core.util;
+
+import org.apiguardian.api.API;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters exposed by a {@link KeyedCache}, shared with the caches of its owners.
+ */
+@API(status = API.Status.EXPERIMENTAL)
+public class KeyedCacheMetrics {
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  /**
+   * @return number of lookups served from the cache.
+   */
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  /**
+   * @return number of lookups not found in the cache.
+   */
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  /**
+   * @return number of misses served by a call already in flight for the same key.
+   */
+  public long getCoalesced() {
+    return this.coalesced.sum();
+  }
+
+  /**
+   * @return number of calls made to load missing entries.
+   */
+  public long getLoads() {
+    return this.loads.sum();
+  }
+
+  /**
+   * @return number of entries evicted because the cache was full.
+   */
+  public long getEvictions() {
+    return this.evictions.sum();
+  }
+
+  /**
+   * @return number of entries removed because their time to live had elapsed.
+   */
+  public long getExpirations() {
+    return this.expirations.sum();
+  }
+
+  /**
+   * @return number of entries removed by invalidations.
+   */
+  public long getInvalidations() {
+    return this.invalidations.sum();
+  }
+
+  void onHit() {
+    this.hits.increment();
+  }
+
+  void onMiss(boolean coalesced) {
+    this.misses.increment();
+    if (coalesced) {
+      this.coalesced.increment();
+    }
+  }
+
+  void onLoad() {
+    this.loads.increment();
+  }
+
+  void onEviction() {
+    this.evictions.increment();
+  }
+
+  void onExpiration() {
+    this.expirations.increment();
+  }
+
+  void onInvalidation(int count) {
+    this.invalidations.add(count);
+  }
+}
@@ -0,0 +1,105 @@
+package com.symphony.bdk.core.util;
+
+import org.apiguardian.api.API;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Compact key of a stream, holding the raw bytes of its id. Two keys of the same stream are equal whether they were
+ * created from the standard or the URL-safe Base64 form of its id, so that maps and caches keyed by stream do not have
+ * to store both forms.
+ * <p>
+ * The standard and URL-safe forms of the id are computed once, when first requested.
+ */
+@API(status = API.Status.EXPERIMENTAL)
+public final class StreamKey {
+
+  private final byte[] bytes;
+  private final int hash;
+  private String id;
+  private String urlSafeId;
+
+  private StreamKey(byte[] bytes) {
+    this.bytes = bytes;
+    this.hash = Arrays.hashCode(bytes);
+  }
+
+  /**
+   * @param streamId the Base64 id of the stream, URL-safe or not.
+   * @return the key of the stream.
+   * @throws IllegalArgumentException if the id is not valid Base64.
+   */
+  public static StreamKey of(@Nonnull String streamId) {
+    final String urlSafeId = IdUtil.toUrlSafeIdIfNeeded(streamId);
+    final StreamKey key = new StreamKey(Base64.getUrlDecoder().decode(urlSafeId));
+    key.urlSafeId = urlSafeId;
+    return key;
+  }
+
+  /**
+   * @param bytes the raw bytes of the id of the stream.
+   * @return the key of the stream.
+   */
+  public static StreamKey of(@Nonnull byte[] bytes) {
+    return new StreamKey(bytes.clone());
+  }
+
+  /**
+   * @return the standard Base64 id of the stream, e.g. as received in datafeed events.
+   */
+  public String getId() {
+    String value = this.id;
+    if (value == null) {
+      value = Base64.getEncoder().encodeToString(this.bytes);
+      this.id = value;
+    }
+    return value;
+  }
+
+  /**
+   * @return the URL-safe Base64 id of the stream, as used in API paths.
+   */
+  public String getUrlSafeId() {
+    String value = this.urlSafeId;
+    if (value == null) {
+      value = Base64.getUrlEncoder().withoutPadding().encodeToString(this.bytes);
+      this.urlSafeId = value;
+    }
+    return value;
+  }
+
+  /**
+   * @return a copy of the raw bytes of the id of the stream.
+   */
+  public byte[] toBytes() {
+    return this.bytes.clone();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof StreamKey)) {
+      return false;
+    }
+    final StreamKey other = (StreamKey) o;
+    return this.hash == other.hash && Arrays.equals(this.bytes, other.bytes);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.hash;
+  }
+
+  /**
+   * @return the URL-safe Base64 id of the stream.
+   */
+  @Override
+  public String toString() {
+    return this.getUrlSafeId();
+  }
+}
@@ -1,18 +1,24 @@
 package com.symphony.bdk.core.activity;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.symphony.bdk.core.activity.form.TestFormReplyActivity;
+import com.symphony.bdk.core.activity.throttling.ActivityThrottler;
+import com.symphony.bdk.core.activity.throttling.ActivityThrottlingConfig;
 import com.symphony.bdk.core.service.datafeed.EventException;
 import com.symphony.bdk.core.service.datafeed.EventPayload;
 import com.symphony.bdk.gen.api.model.V4Initiator;
 import com.symphony.bdk.gen.api.model.V4Stream;
 import com.symphony.bdk.gen.api.model.V4SymphonyElementsAction;
+import com.symphony.bdk.gen.api.model.V4User;
 
 import lombok.experimental.Delegate;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Test class for the {@link AbstractActivity}.
@@ -91,6 +97,25 @@ class AbstractActivityTest {
         () -> act.processEvent(new V4Initiator(), new V4SymphonyElementsActionEvent(new V4SymphonyElementsAction())));
   }
 
+  @Test
+  void shouldDropThrottledActivityExecution() {
+
+    final TestFormReplyActivity act = new TestFormReplyActivity();
+    final AtomicInteger executions = new AtomicInteger();
+    act.setOnActivity(c -> executions.incrementAndGet());
+
+    final ActivityThrottlingConfig config = new ActivityThrottlingConfig();
+    config.setUserBurst(1);
+    act.setThrottler(new ActivityThrottler(config, Executors.newSingleThreadExecutor(),
+        Executors.newSingleThreadScheduledExecutor()));
+
+    final V4Initiator initiator = new V4Initiator().user(new V4User().userId(1234L));
+    act.processEvent(initiator, new V4SymphonyElementsAction().stream(new V4Stream().streamId("stream")));
+    act.processEvent(initiator, new V4SymphonyElementsAction().stream(new V4Stream().streamId("stream")));
+
+    assertEquals(1, executions.get());
+  }
+
   static class V4SymphonyElementsActionEvent extends V4SymphonyElementsAction implements EventPayload {
     @Delegate
     V4SymphonyElementsAction elementsAction;
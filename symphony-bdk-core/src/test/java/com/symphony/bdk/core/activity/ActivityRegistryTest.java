@@ -12,6 +12,7 @@ import com.symphony.bdk.core.activity.command.CommandActivity;
 import com.symphony.bdk.core.activity.command.CommandContext;
 import com.symphony.bdk.core.activity.command.HelpCommand;
 import com.symphony.bdk.core.activity.command.SlashCommand;
+import com.symphony.bdk.core.activity.throttling.ActivityThrottlingConfig;
 import com.symphony.bdk.core.service.datafeed.DatafeedLoop;
 import com.symphony.bdk.core.service.datafeed.RealTimeEventListener;
 import com.symphony.bdk.core.service.message.MessageService;
@@ -149,4 +150,14 @@ class ActivityRegistryTest {
     assertEquals(1, this.registry.getActivityList().size(), "Only one activities must have been registered");
   }
 
+  @Test
+  void shouldEnableThrottling() {
+    this.registry.register(new TestCommandActivity("test"));
+    assertTrue(this.registry.getThrottler().isEmpty(), "Throttling must be disabled by default");
+
+    this.registry.enableThrottling(new ActivityThrottlingConfig());
+
+    assertTrue(this.registry.getThrottler().isPresent(), "Throttling must be enabled");
+    assertEquals(0, this.registry.getThrottler().get().getMetrics().getAdmitted());
+  }
 }
@@ -0,0 +1,191 @@
+package com.symphony.bdk.core.activity.throttling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test class for the {@link ActivityThrottler}.
+ */
+class ActivityThrottlerTest {
+
+  private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final AtomicLong clock = new AtomicLong(ONE_SECOND);
+  private ExecutorService executor;
+  private ScheduledExecutorService delayExecutor;
+
+  @BeforeEach
+  void setUp() {
+    this.executor = Executors.newSingleThreadExecutor();
+    this.delayExecutor = mock(ScheduledExecutorService.class);
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void shouldDropWhenUserBucketIsEmpty() {
+    final ActivityThrottler throttler = this.throttler(config(1, 2, 0, 0, ThrottlingPolicy.DROP));
+    final AtomicInteger executions = new AtomicInteger();
+
+    assertTrue(throttler.execute(1L, "stream", false, executions::incrementAndGet));
+    assertTrue(throttler.execute(1L, "stream", false, executions::incrementAndGet));
+    assertFalse(throttler.execute(1L, "stream", false, executions::incrementAndGet));
+    // another user is not impacted
+    assertTrue(throttler.execute(2L, "stream", false, executions::incrementAndGet));
+
+    assertEquals(3, executions.get());
+    assertEquals(3, throttler.getMetrics().getAdmitted());
+    assertEquals(1, throttler.getMetrics().getDropped());
+    assertEquals(1, throttler.getMetrics().getThrottledByUser());
+    assertEquals(0, throttler.getMetrics().getThrottledByStream());
+
+    // bucket is refilled after one second
+    this.clock.addAndGet(ONE_SECOND);
+    assertTrue(throttler.execute(1L, "stream", false, executions::incrementAndGet));
+  }
+
+  @Test
+  void shouldDropWhenStreamBucketIsEmpty() {
+    final ActivityThrottler throttler = this.throttler(config(0, 0, 1, 1, ThrottlingPolicy.DROP));
+
+    assertTrue(throttler.execute(1L, "stream", false, () -> {}));
+    assertFalse(throttler.execute(2L, "stream", false, () -> {}));
+    assertTrue(throttler.execute(2L, "other-stream", false, () -> {}));
+    assertTrue(throttler.execute(3L, null, false, () -> {}));
+
+    assertEquals(1, throttler.getMetrics().getThrottledByStream());
+    assertEquals(1, throttler.getMetrics().getDropped());
+  }
+
+  @Test
+  void shouldDelayAsynchronousExecution() {
+    final ActivityThrottler throttler = this.throttler(config(2, 1, 0, 0, ThrottlingPolicy.DELAY));
+
+    assertTrue(throttler.execute(1L, "stream", true, () -> {}));
+    assertTrue(throttler.execute(1L, "stream", true, () -> {}));
+
+    verify(this.delayExecutor).schedule(any(Runnable.class), eq(ONE_SECOND / 2), eq(TimeUnit.NANOSECONDS));
+    assertEquals(1, throttler.getMetrics().getDelayed());
+  }
+
+  @Test
+  void shouldDropWhenDelayExceedsMaximum() {
+    final ActivityThrottlingConfig config = config(1, 1, 0, 0, ThrottlingPolicy.DELAY);
+    config.setMaxDelayMillis(100);
+    final ActivityThrottler throttler = this.throttler(config);
+
+    assertTrue(throttler.execute(1L, "stream", false, () -> {}));
+    assertFalse(throttler.execute(1L, "stream", false, () -> {}));
+    assertEquals(1, throttler.getMetrics().getDropped());
+  }
+
+  @Test
+  void shouldNotDelaySynchronousExecutionOnCallingThread() {
+    final ActivityThrottler throttler = this.throttler(config(2, 1, 0, 0, ThrottlingPolicy.DELAY));
+    final AtomicInteger executions = new AtomicInteger();
+
+    assertTrue(throttler.execute(1L, "stream", false, executions::incrementAndGet));
+    assertTrue(throttler.execute(1L, "stream", false, executions::incrementAndGet));
+
+    // only the execution which was not delayed ran on the calling thread
+    assertEquals(1, executions.get());
+    verify(this.delayExecutor).schedule(any(Runnable.class), eq(ONE_SECOND / 2), eq(TimeUnit.NANOSECONDS));
+    assertEquals(1, throttler.getMetrics().getDelayed());
+  }
+
+  @Test
+  void shouldDispatchRoundRobinAcrossUsers() throws InterruptedException {
+    final ActivityThrottlingConfig config = config(0, 0, 0, 0, ThrottlingPolicy.DROP);
+    config.setMaxConcurrency(1);
+    final ActivityThrottler throttler = this.throttler(config);
+    final CountDownLatch blocker = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(5);
+    final List<Long> executions = new ArrayList<>();
+
+    throttler.execute(0L, null, true, () -> {
+      awaitQuietly(blocker);
+      done.countDown();
+    });
+    for (int i = 0; i < 3; i++) {
+      throttler.execute(1L, null, true, () -> {
+        executions.add(1L);
+        done.countDown();
+      });
+    }
+    throttler.execute(2L, null, true, () -> {
+      executions.add(2L);
+      done.countDown();
+    });
+    assertEquals(4, throttler.getPendingTasks());
+
+    blocker.countDown();
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    assertEquals(List.of(1L, 2L, 1L, 1L), executions);
+    assertEquals(0, throttler.getPendingTasks());
+  }
+
+  @Test
+  void shouldExpireIdleBuckets() {
+    final TokenBuckets buckets = new TokenBuckets(1, 1, 1000);
+    for (long key = 0; key < 100; key++) {
+      assertEquals(0, buckets.waitNanos(key, ONE_SECOND));
+      buckets.consume(key);
+    }
+    assertEquals(100, buckets.size());
+    assertEquals(ONE_SECOND, buckets.waitNanos(0, ONE_SECOND));
+
+    assertEquals(0, buckets.waitNanos(1000, 3 * ONE_SECOND));
+    assertEquals(1, buckets.size());
+  }
+
+  @Test
+  void shouldHashStreamIds() {
+    assertEquals(ActivityThrottler.streamKey("stream"), ActivityThrottler.streamKey("stream"));
+    assertTrue(ActivityThrottler.streamKey("stream") != ActivityThrottler.streamKey("other-stream"));
+  }
+
+  private ActivityThrottler throttler(ActivityThrottlingConfig config) {
+    return new ActivityThrottler(config, this.executor, this.delayExecutor, this.clock::get);
+  }
+
+  private static ActivityThrottlingConfig config(double userRate, int userBurst, double streamRate, int streamBurst,
+      ThrottlingPolicy policy) {
+    final ActivityThrottlingConfig config = new ActivityThrottlingConfig();
+    config.setUserPermitsPerSecond(userRate);
+    config.setUserBurst(userBurst);
+    config.setStreamPermitsPerSecond(streamRate);
+    config.setStreamBurst(streamBurst);
+    config.setPolicy(policy);
+    return config;
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
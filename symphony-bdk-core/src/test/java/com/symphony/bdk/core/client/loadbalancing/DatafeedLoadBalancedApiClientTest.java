@@ -16,6 +16,7 @@ import com.symphony.bdk.core.config.model.BdkServerConfig;
 import com.symphony.bdk.http.api.ApiClient;
 import com.symphony.bdk.http.api.ApiException;
 import com.symphony.bdk.http.api.Pair;
+import com.symphony.bdk.http.api.ResponseBodyHandler;
 import com.symphony.bdk.http.api.util.TypeReference;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -80,6 +81,24 @@ class DatafeedLoadBalancedApiClientTest {
     verify(loadBalancedApiClient, times(0)).rotate();
   }
 
+  @Test
+  public void testInvokeStreamingApiIsDelegated() throws ApiException {
+    DatafeedLoadBalancedApiClient loadBalancedApiClient =
+        spy(new DatafeedLoadBalancedApiClient(config, apiClientFactory));
+
+    final List<Pair> queryParams = Collections.singletonList(new Pair("param", "value"));
+    final Map<String, String> headerParams = Collections.singletonMap("header", "value");
+    final String[] authNames = {"authNames"};
+    final ResponseBodyHandler<String> bodyHandler = body -> "content";
+
+    loadBalancedApiClient.invokeStreamingAPI("path", "GET", queryParams, headerParams, "accept", authNames,
+        bodyHandler);
+
+    verify(apiClient).invokeStreamingAPI(eq("path"), eq("GET"), eq(queryParams), eq(headerParams), eq("accept"),
+        eq(authNames), eq(bodyHandler));
+    verify(loadBalancedApiClient, times(0)).rotate();
+  }
+
   @Test
   public void testParameterToStringIsDelegated() {
     DatafeedLoadBalancedApiClient loadBalancedApiClient = new DatafeedLoadBalancedApiClient(config, apiClientFactory);
@@ -20,6 +20,7 @@ import com.symphony.bdk.core.config.model.BdkServerConfig;
 import com.symphony.bdk.http.api.ApiClient;
 import com.symphony.bdk.http.api.ApiException;
 import com.symphony.bdk.http.api.Pair;
+import com.symphony.bdk.http.api.ResponseBodyHandler;
 import com.symphony.bdk.http.api.util.TypeReference;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -140,6 +141,20 @@ class RegularLoadBalancedApiClientTest {
     verify(loadBalancedApiClient, times(1)).rotate();
   }
 
+  @Test
+  public void testInvokeStreamingApiIsDelegatedAndRotateCalledWhenNonSticky() throws ApiException {
+    config.getAgent().getLoadBalancing().setStickiness(false);
+    RegularLoadBalancedApiClient loadBalancedApiClient =
+        spy(new RegularLoadBalancedApiClient(config, apiClientFactory));
+    final ResponseBodyHandler<String> bodyHandler = body -> "content";
+
+    loadBalancedApiClient.invokeStreamingAPI(path, "GET", queryParams, headerParams, accept, authNames, bodyHandler);
+
+    verify(apiClient).invokeStreamingAPI(eq(path), eq("GET"), eq(queryParams), eq(headerParams), eq(accept),
+        eq(authNames), eq(bodyHandler));
+    verify(loadBalancedApiClient, times(1)).rotate();
+  }
+
   @Test
   public void testGetBasePath(){
     when(apiClient.getBasePath()).thenReturn("/pod");
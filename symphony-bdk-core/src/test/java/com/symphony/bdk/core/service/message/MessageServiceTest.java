@@ -1,23 +1,35 @@
 package com.symphony.bdk.core.service.message;
 
+import static com.symphony.bdk.core.test.BdkRetryConfigTestHelper.ofMinimalInterval;
 import static com.symphony.bdk.core.util.IdUtil.fromUrlSafeId;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.symphony.bdk.core.auth.AuthSession;
 import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
+import com.symphony.bdk.core.service.message.blast.BlastChunkResult;
+import com.symphony.bdk.core.service.message.blast.BlastConfig;
+import com.symphony.bdk.core.service.message.blast.BlastReport;
 import com.symphony.bdk.core.service.message.exception.MessageCreationException;
+import com.symphony.bdk.core.service.message.export.ExportConfig;
+import com.symphony.bdk.core.service.message.export.ExportReport;
 import com.symphony.bdk.core.service.message.model.Message;
 import com.symphony.bdk.core.service.pagination.model.PaginationAttribute;
 import com.symphony.bdk.core.service.stream.constant.AttachmentSort;
@@ -46,7 +58,10 @@ import com.symphony.bdk.gen.api.model.V4Stream;
 import com.symphony.bdk.http.api.ApiClient;
 import com.symphony.bdk.http.api.ApiClientBodyPart;
 import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiResponse;
 import com.symphony.bdk.http.api.ApiRuntimeException;
+import com.symphony.bdk.http.api.Pair;
+import com.symphony.bdk.http.api.ResponseBodyHandler;
 import com.symphony.bdk.template.api.TemplateEngine;
 
 import org.apache.commons.io.IOUtils;
@@ -56,18 +71,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.SocketException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -170,6 +196,30 @@ class MessageServiceTest {
     verify(service).listMessages(STREAM_ID, now, pagination);
   }
 
+  @Test
+  void testExportMessages() {
+    final MessageService service = spy(messageService);
+    doAnswer(invocation -> {
+      final Instant since = invocation.getArgument(1);
+      final PaginationAttribute pagination = invocation.getArgument(2);
+      if (pagination.getSkip() > 0) {
+        return Collections.emptyList();
+      }
+      return Collections.singletonList(new V4Message().messageId("msg" + since.toEpochMilli())
+          .timestamp(since.toEpochMilli() + 1));
+    }).when(service).listMessages(eq(STREAM_ID), any(Instant.class), any(PaginationAttribute.class));
+
+    final ExportConfig config = new ExportConfig();
+    config.setShardDuration(Duration.ofMillis(10));
+    final List<V4Message> exported = new ArrayList<>();
+    final ExportReport report = service.exportMessages(STREAM_ID, Instant.ofEpochMilli(1000),
+        Instant.ofEpochMilli(1030), config, exported::add, null);
+
+    assertEquals(3, report.getShardCount());
+    assertEquals(Arrays.asList("msg999", "msg1009", "msg1019"),
+        exported.stream().map(V4Message::getMessageId).collect(Collectors.toList()));
+  }
+
   @Test
   void testGetMessages() throws IOException {
     final String streamId = "streamid";
@@ -378,6 +428,114 @@ class MessageServiceTest {
     assertThrows(ApiRuntimeException.class, () -> messageService.getAttachment(STREAM_ID, MESSAGE_ID, "attachmentId"));
   }
 
+  @Test
+  void testDownloadAttachment() throws ApiException {
+    final ApiClient agentClient = this.mockStreamingAttachment("Attached file".getBytes(StandardCharsets.UTF_8));
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final List<Long> progress = new ArrayList<>();
+
+    final long size = messageService.downloadAttachment(STREAM_ID, MESSAGE_ID, "attachmentId", output, progress::add);
+
+    assertEquals(13, size);
+    assertEquals("Attached file", output.toString(StandardCharsets.UTF_8));
+    assertEquals(13L, progress.get(progress.size() - 1));
+    verify(agentClient).invokeStreamingAPI(eq("/v1/stream/streamId/attachment"), eq("GET"),
+        eq(Arrays.asList(new Pair("file", "attachmentId"), new Pair("messageId", MESSAGE_ID))), any(), any(), any(),
+        any());
+  }
+
+  @Test
+  void testDownloadAttachmentToFile(@TempDir Path tempDir) throws IOException, ApiException {
+    final byte[] content = new byte[100 * 1024];
+    new Random(42).nextBytes(content);
+    this.mockStreamingAttachment(content);
+    final Path target = tempDir.resolve("attachment.bin");
+    Files.write(target, new byte[200 * 1024]);
+    final AtomicLong lastProgress = new AtomicLong();
+
+    final long size = messageService.downloadAttachment(STREAM_ID, MESSAGE_ID, "attachmentId", target,
+        lastProgress::set);
+
+    assertEquals(content.length, size);
+    assertEquals(content.length, lastProgress.get());
+    assertArrayEquals(content, Files.readAllBytes(target));
+  }
+
+  @Test
+  void testDownloadAttachmentThrowingApiException() throws ApiException {
+    final ApiClient agentClient = spy(mockApiClient.getApiClient("/agent"));
+    doReturn(agentClient).when(attachmentsApi).getApiClient();
+    doThrow(new ApiException(400, "error")).when(agentClient)
+        .invokeStreamingAPI(any(), any(), any(), any(), any(), any(), any());
+
+    assertThrows(ApiRuntimeException.class, () -> messageService.downloadAttachment(STREAM_ID, MESSAGE_ID,
+        "attachmentId", new ByteArrayOutputStream(), null));
+  }
+
+  @Test
+  void testDownloadAttachmentNotRetriedOnceWritten() throws ApiException {
+    messageService = new MessageService(messagesApi, messageApi, messageSuppressionApi, streamsApi, podApi,
+        attachmentsApi, defaultApi, authSession, templateEngine,
+        new RetryWithRecoveryBuilder<>().retryConfig(ofMinimalInterval(3)));
+    final byte[] content = new byte[57 * 4];
+    new Random(42).nextBytes(content);
+    // MIME lines of 76 characters and a line separator hold 57 bytes each
+    final byte[] firstLines = Arrays.copyOf(Base64.getMimeEncoder().encode(content), 78 * 2);
+    final ApiClient agentClient = spy(mockApiClient.getApiClient("/agent"));
+    doReturn(agentClient).when(attachmentsApi).getApiClient();
+    doAnswer(invocation -> {
+      final ResponseBodyHandler<?> bodyHandler = invocation.getArgument(6);
+      bodyHandler.handle(new ByteArrayInputStream(firstLines));
+      // the connection reset in the middle of the body, as reported by the WebClient once the body has been read
+      throw new RuntimeException(new SocketException("Connection reset"));
+    }).when(agentClient).invokeStreamingAPI(any(), any(), any(), any(), any(), any(), any());
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    assertThrows(RuntimeException.class,
+        () -> messageService.downloadAttachment(STREAM_ID, MESSAGE_ID, "attachmentId", output, null));
+
+    assertArrayEquals(Arrays.copyOf(content, 57 * 2), output.toByteArray());
+    verify(agentClient, times(1)).invokeStreamingAPI(any(), any(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void testDownloadAttachmentRetriedIfNothingWritten() throws ApiException {
+    messageService = new MessageService(messagesApi, messageApi, messageSuppressionApi, streamsApi, podApi,
+        attachmentsApi, defaultApi, authSession, templateEngine,
+        new RetryWithRecoveryBuilder<>().retryConfig(ofMinimalInterval(3)));
+    final byte[] content = "Attached file".getBytes(StandardCharsets.UTF_8);
+    final ApiClient agentClient = spy(mockApiClient.getApiClient("/agent"));
+    doReturn(agentClient).when(attachmentsApi).getApiClient();
+    final AtomicInteger calls = new AtomicInteger();
+    doAnswer(invocation -> {
+      if (calls.incrementAndGet() == 1) {
+        throw new RuntimeException(new SocketException("Connection reset"));
+      }
+      final ResponseBodyHandler<?> bodyHandler = invocation.getArgument(6);
+      return new ApiResponse<>(200, Collections.emptyMap(),
+          bodyHandler.handle(new ByteArrayInputStream(Base64.getMimeEncoder().encode(content))));
+    }).when(agentClient).invokeStreamingAPI(any(), any(), any(), any(), any(), any(), any());
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    assertEquals(content.length,
+        messageService.downloadAttachment(STREAM_ID, MESSAGE_ID, "attachmentId", output, null));
+
+    assertArrayEquals(content, output.toByteArray());
+    assertEquals(2, calls.get());
+  }
+
+  private ApiClient mockStreamingAttachment(byte[] content) throws ApiException {
+    // attachments are returned encoded in base 64, split in lines
+    final byte[] encoded = Base64.getMimeEncoder().encode(content);
+    final ApiClient agentClient = spy(mockApiClient.getApiClient("/agent"));
+    doReturn(agentClient).when(attachmentsApi).getApiClient();
+    doAnswer(invocation -> {
+      final ResponseBodyHandler<?> bodyHandler = invocation.getArgument(6);
+      return new ApiResponse<>(200, Collections.emptyMap(), bodyHandler.handle(new ByteArrayInputStream(encoded)));
+    }).when(agentClient).invokeStreamingAPI(any(), any(), any(), any(), any(), any(), any());
+    return agentClient;
+  }
+
   @Test
   void testImportMessage() throws IOException {
     mockApiClient.onPost(V4_MESSAGE_IMPORT, JsonHelper.readFromClasspath("/message/import_message.json"));
@@ -610,6 +768,113 @@ class MessageServiceTest {
     assertEquals(Collections.singletonList("preview-file.txt"), previewFileNames);
   }
 
+  @Test
+  @ExtendWith(BdkMockServerExtension.class)
+  void testSendBlastInChunks(final BdkMockServer mockServer) throws Exception {
+    final Message message = Message.builder()
+        .content("<MessageML>Hello world</MessageML>")
+        .addAttachment(IOUtils.toInputStream("Attached file", StandardCharsets.UTF_8), "file.txt")
+        .build();
+
+    ApiClient agentClient = spy(mockServer.newApiClient("/agent"));
+    messageService = new MessageService(new MessagesApi(agentClient), null, null, null, null, null, null, authSession,
+        templateEngine, new RetryWithRecoveryBuilder<>());
+
+    final String response = JsonHelper.readFromClasspath("/message/blast_message.json");
+    mockServer.onPost(V4_BLAST_MESSAGE, res -> res.withBody(response));
+
+    final BlastConfig config = new BlastConfig();
+    config.setChunkSize(2);
+    config.setMaxConcurrency(1);
+    config.setChunksPerSecond(0);
+    final List<BlastChunkResult> chunks = Collections.synchronizedList(new ArrayList<>());
+
+    final BlastReport report = messageService.send(Arrays.asList("sid1", "sid2", "sid3"), message, config, chunks::add)
+        .get(10, TimeUnit.SECONDS);
+
+    assertTrue(report.isSuccessful());
+    assertEquals(3, report.getStreamCount());
+    assertEquals(4, report.getMessages().size());
+    assertEquals(2, chunks.size());
+
+    final ArgumentCaptor<Map<String, Object>> captor = ArgumentCaptor.forClass(Map.class);
+    verify(agentClient, times(2)).invokeAPI(eq("/v4/message/blast"), eq("POST"), any(), any(), any(), any(),
+        captor.capture(), any(), any(), any(), any());
+
+    final List<Map<String, Object>> forms = captor.getAllValues();
+    assertEquals(Arrays.asList("sid1,sid2", "sid3"),
+        forms.stream().map(f -> f.get("sids")).sorted().collect(Collectors.toList()));
+    for (Map<String, Object> form : forms) {
+      assertEquals(message.getContent(), form.get("message"));
+      final ApiClientBodyPart[] attachments = (ApiClientBodyPart[]) form.get("attachment");
+      assertEquals(1, attachments.length);
+      assertEquals("file.txt", attachments[0].getFilename());
+    }
+  }
+
+  @Test
+  @ExtendWith(BdkMockServerExtension.class)
+  void testSendBlastRetryWithFreshAttachments(final BdkMockServer mockServer) throws Exception {
+    final Message message = Message.builder()
+        .content("<MessageML>Hello world</MessageML>")
+        .addAttachment(IOUtils.toInputStream("Attached file", StandardCharsets.UTF_8), "file.txt")
+        .build();
+
+    ApiClient agentClient = spy(mockServer.newApiClient("/agent"));
+    messageService = new MessageService(new MessagesApi(agentClient), null, null, null, null, null, null, authSession,
+        templateEngine, new RetryWithRecoveryBuilder<>().retryConfig(ofMinimalInterval(2)));
+
+    final String response = JsonHelper.readFromClasspath("/message/blast_message.json");
+    mockServer.onPost(V4_BLAST_MESSAGE, res -> res.withBody(response));
+    doThrow(new ApiException(503, "unavailable")).doCallRealMethod().when(agentClient)
+        .invokeAPI(eq("/v4/message/blast"), eq("POST"), any(), any(), any(), any(), any(), any(), any(), any(), any());
+
+    final BlastConfig config = new BlastConfig();
+    config.setChunksPerSecond(0);
+
+    final BlastReport report = messageService.send(Collections.singletonList("sid1"), message, config, null)
+        .get(10, TimeUnit.SECONDS);
+
+    assertTrue(report.isSuccessful());
+    final ArgumentCaptor<Map<String, Object>> captor = ArgumentCaptor.forClass(Map.class);
+    verify(agentClient, times(2)).invokeAPI(eq("/v4/message/blast"), eq("POST"), any(), any(), any(), any(),
+        captor.capture(), any(), any(), any(), any());
+    final List<Map<String, Object>> forms = captor.getAllValues();
+    // the retry must not reuse the attachment streams of the failed attempt
+    assertNotSame(forms.get(0).get("attachment"), forms.get(1).get("attachment"));
+  }
+
+  @Test
+  @ExtendWith(BdkMockServerExtension.class)
+  void testSendBlastWithReopenableAttachment(final BdkMockServer mockServer, @TempDir Path tempDir) throws Exception {
+    final Path file = tempDir.resolve("file.txt");
+    IOUtils.write("Attached file", new FileOutputStream(file.toFile()), StandardCharsets.UTF_8);
+    final AtomicInteger opened = new AtomicInteger();
+    final Message message = Message.builder()
+        .content("<MessageML>Hello world</MessageML>")
+        .addAttachment(file)
+        .addAttachment(() -> {
+          opened.incrementAndGet();
+          return IOUtils.toInputStream("Supplied file", StandardCharsets.UTF_8);
+        }, "supplied.txt")
+        .build();
+
+    messageService = new MessageService(new MessagesApi(mockServer.newApiClient("/agent")), null, null, null, null,
+        null, null, authSession, templateEngine, new RetryWithRecoveryBuilder<>());
+    final String response = JsonHelper.readFromClasspath("/message/blast_message.json");
+    mockServer.onPost(V4_BLAST_MESSAGE, res -> res.withBody(response));
+
+    final BlastConfig config = new BlastConfig();
+    config.setChunkSize(1);
+    config.setChunksPerSecond(0);
+
+    final BlastReport report = messageService.send(Arrays.asList("sid1", "sid2", "sid3"), message, config, null)
+        .get(10, TimeUnit.SECONDS);
+
+    assertTrue(report.isSuccessful());
+    assertEquals(3, opened.get());
+  }
+
   private void assertInvokeApiCalledWithCorrectParams(final BdkMockServer mockServer, Message message,
       List<String> expectedAttachmentFilenames, List<String> expectedPreviewFilenames)
       throws IOException, ApiException {
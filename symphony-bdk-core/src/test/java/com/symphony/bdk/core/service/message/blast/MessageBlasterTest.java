@@ -0,0 +1,194 @@
+package com.symphony.bdk.core.service.message.blast;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.symphony.bdk.gen.api.model.V4Message;
+import com.symphony.bdk.gen.api.model.V4MessageBlastResponse;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Test class for the {@link MessageBlaster}.
+ */
+class MessageBlasterTest {
+
+  private ExecutorService executor;
+  private List<List<String>> calls;
+  private List<BlastChunkResult> results;
+
+  @BeforeEach
+  void setUp() {
+    this.executor = Executors.newFixedThreadPool(4);
+    this.calls = Collections.synchronizedList(new ArrayList<>());
+    this.results = Collections.synchronizedList(new ArrayList<>());
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void shouldSendChunks() throws Exception {
+    final MessageBlaster blaster = this.blaster(config(2, 0, 3), this::success);
+
+    final BlastReport report = blaster.blast(Arrays.asList("s1", "s2", "s3", "s4", "s5"), this.results::add)
+        .get(5, TimeUnit.SECONDS);
+
+    assertTrue(report.isSuccessful());
+    assertEquals(5, report.getStreamCount());
+    assertEquals(5, report.getMessages().size());
+    assertEquals(3, this.calls.size());
+    assertEquals(3, this.results.size());
+    assertTrue(this.calls.contains(Arrays.asList("s1", "s2")));
+    assertTrue(this.calls.contains(Arrays.asList("s3", "s4")));
+    assertTrue(this.calls.contains(Collections.singletonList("s5")));
+    assertTrue(this.results.stream().allMatch(r -> r.getAttempt() == 1 && r.getFailedStreamIds().isEmpty()));
+  }
+
+  @Test
+  void shouldIgnoreDuplicatedStreams() throws Exception {
+    final MessageBlaster blaster = this.blaster(config(10, 0, 3), this::success);
+
+    final BlastReport report = blaster.blast(Arrays.asList("s1", "s2", "s1"), null).get(5, TimeUnit.SECONDS);
+
+    assertEquals(2, report.getStreamCount());
+    assertEquals(Collections.singletonList(Arrays.asList("s1", "s2")), this.calls);
+  }
+
+  @Test
+  void shouldCompleteImmediatelyWithoutStreams() throws Exception {
+    final MessageBlaster blaster = this.blaster(config(10, 0, 3), this::success);
+
+    final BlastReport report = blaster.blast(Collections.emptyList(), this.results::add).get(1, TimeUnit.SECONDS);
+
+    assertTrue(report.isSuccessful());
+    assertEquals(0, report.getStreamCount());
+    assertTrue(this.calls.isEmpty());
+  }
+
+  @Test
+  void shouldRetryFailedStreamsOnly() throws Exception {
+    final MessageBlaster blaster = this.blaster(config(3, 0, 3), streamIds -> {
+      if (this.calls.size() == 1) {
+        return this.response(streamIds.subList(0, 1), streamIds.subList(1, 3));
+      }
+      return this.success(streamIds);
+    });
+
+    final BlastReport report = blaster.blast(Arrays.asList("s1", "s2", "s3"), this.results::add)
+        .get(5, TimeUnit.SECONDS);
+
+    assertTrue(report.isSuccessful());
+    assertEquals(3, report.getMessages().size());
+    assertEquals(Arrays.asList(Arrays.asList("s1", "s2", "s3"), Arrays.asList("s2", "s3")), this.calls);
+
+    final BlastChunkResult first = this.results.get(0);
+    assertEquals(1, first.getAttempt());
+    assertEquals(Arrays.asList("s2", "s3"), first.getFailedStreamIds());
+    assertTrue(first.isRetried());
+    assertNull(first.getError());
+
+    final BlastChunkResult second = this.results.get(1);
+    assertEquals(2, second.getAttempt());
+    assertEquals(0, second.getChunkIndex());
+    assertTrue(second.getFailedStreamIds().isEmpty());
+    assertFalse(second.isRetried());
+  }
+
+  @Test
+  void shouldMatchErrorsOnUrlSafeStreamIds() throws Exception {
+    final List<String> errors = Collections.singletonList("XlU3OH9eVMzq+yss7M/xyn///oxwgbtGbQ==");
+    final MessageBlaster blaster = this.blaster(config(10, 0, 1),
+        streamIds -> this.response(Collections.emptyList(), errors));
+
+    final BlastReport report = blaster.blast(Collections.singletonList("XlU3OH9eVMzq-yss7M_xyn___oxwgbtGbQ"), null)
+        .get(5, TimeUnit.SECONDS);
+
+    assertEquals(Collections.singletonList("XlU3OH9eVMzq-yss7M_xyn___oxwgbtGbQ"), report.getFailedStreamIds());
+  }
+
+  @Test
+  void shouldGiveUpAfterMaxAttempts() throws Exception {
+    final MessageBlaster blaster = this.blaster(config(2, 0, 2), streamIds -> {
+      throw new ApiRuntimeException(new ApiException(500, "error"));
+    });
+
+    final BlastReport report = blaster.blast(Arrays.asList("s1", "s2", "s3"), r -> {
+      this.results.add(r);
+      throw new IllegalStateException("listener failures are ignored");
+    }).get(5, TimeUnit.SECONDS);
+
+    assertFalse(report.isSuccessful());
+    assertTrue(report.getMessages().isEmpty());
+    assertEquals(Arrays.asList("s1", "s2", "s3"), report.getFailedStreamIds().stream().sorted()
+        .collect(Collectors.toList()));
+    assertEquals(4, this.calls.size());
+    assertEquals(4, this.results.size());
+    assertTrue(this.results.stream().allMatch(r -> r.getError() instanceof ApiRuntimeException));
+    assertEquals(2, this.results.stream().filter(BlastChunkResult::isRetried).count());
+  }
+
+  @Test
+  void shouldLimitCallRate() throws Exception {
+    final BlastConfig config = config(1, 50, 1);
+    config.setMaxConcurrency(1);
+    final MessageBlaster blaster = this.blaster(config, this::success);
+
+    final long start = System.nanoTime();
+    final BlastReport report = blaster.blast(Arrays.asList("s1", "s2", "s3"), null).get(5, TimeUnit.SECONDS);
+
+    assertNotNull(report);
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40));
+  }
+
+  private MessageBlaster blaster(BlastConfig config, Function<List<String>, V4MessageBlastResponse> sender) {
+    return new MessageBlaster(config, this.executor, streamIds -> {
+      this.calls.add(streamIds);
+      return sender.apply(streamIds);
+    });
+  }
+
+  private V4MessageBlastResponse success(List<String> streamIds) {
+    return this.response(streamIds, Collections.emptyList());
+  }
+
+  private V4MessageBlastResponse response(List<String> sent, List<String> failed) {
+    final V4MessageBlastResponse response = mock(V4MessageBlastResponse.class);
+    doReturn(sent.stream().map(id -> new V4Message().messageId(id)).collect(Collectors.toList()))
+        .when(response).getMessages();
+    final Map<String, Object> errors = failed.stream().collect(Collectors.toMap(id -> id, id -> "error"));
+    doReturn(errors).when(response).getErrors();
+    return response;
+  }
+
+  private static BlastConfig config(int chunkSize, double chunksPerSecond, int maxAttempts) {
+    final BlastConfig config = new BlastConfig();
+    config.setChunkSize(chunkSize);
+    config.setChunksPerSecond(chunksPerSecond);
+    config.setMaxAttempts(maxAttempts);
+    config.setRetryIntervalMillis(10);
+    return config;
+  }
+}
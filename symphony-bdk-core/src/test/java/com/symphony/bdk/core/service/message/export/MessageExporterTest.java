@@ -0,0 +1,175 @@
+package com.symphony.bdk.core.service.message.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.symphony.bdk.core.service.pagination.model.PaginationAttribute;
+import com.symphony.bdk.gen.api.model.V4Message;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Test class for the {@link MessageExporter}.
+ */
+class MessageExporterTest {
+
+  private ExecutorService executor;
+  private List<V4Message> history;
+
+  @BeforeEach
+  void setUp() {
+    this.executor = Executors.newFixedThreadPool(3);
+    this.history = new ArrayList<>();
+    // several messages per millisecond, some of them exactly at shard boundaries
+    for (int i = 0; i < 500; i++) {
+      this.history.add(new V4Message().messageId("m" + i).timestamp(1000L + i / 3));
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void shouldExportInTimestampOrder() {
+    final List<V4Message> exported = new ArrayList<>();
+    final List<Instant> checkpoints = new ArrayList<>();
+
+    final ExportReport report = this.exporter(this::readExclusive)
+        .export(Instant.ofEpochMilli(1000), Instant.ofEpochMilli(2000), exported::add, checkpoints::add);
+
+    assertEquals(this.history, exported);
+    assertEquals(500, report.getMessageCount());
+    assertEquals(0, report.getDuplicateCount());
+    assertEquals(20, report.getShardCount());
+    assertEquals(20, checkpoints.size());
+    assertEquals(Instant.ofEpochMilli(1050), checkpoints.get(0));
+    assertEquals(Instant.ofEpochMilli(2000), checkpoints.get(19));
+  }
+
+  @Test
+  void shouldExportSubRange() {
+    final List<V4Message> exported = new ArrayList<>();
+
+    this.exporter(this::readInclusive).export(Instant.ofEpochMilli(1030), Instant.ofEpochMilli(1100), exported::add,
+        null);
+
+    assertEquals(this.history.stream()
+        .filter(m -> m.getTimestamp() >= 1030 && m.getTimestamp() < 1100)
+        .collect(Collectors.toList()), exported);
+  }
+
+  @Test
+  void shouldSkipDuplicates() {
+    final List<V4Message> exported = new ArrayList<>();
+    // every page also returns the last message of the previous page, as if a message had been deleted meanwhile
+    final ExportReport report = this.exporter((since, pagination) -> this.readExclusive(since,
+            new PaginationAttribute(Math.max(0, pagination.getSkip() - 1), pagination.getLimit())))
+        .export(Instant.ofEpochMilli(1000), Instant.ofEpochMilli(2000), exported::add, null);
+
+    assertEquals(this.history, exported);
+    assertTrue(report.getDuplicateCount() > 0);
+  }
+
+  @Test
+  void shouldFailWhenShardCannotBeFetched() {
+    final ApiRuntimeException error = new ApiRuntimeException(new ApiException(500, "error"));
+    final List<V4Message> exported = new ArrayList<>();
+
+    final ApiRuntimeException thrown = assertThrows(ApiRuntimeException.class,
+        () -> this.exporter((since, pagination) -> {
+          if (since.toEpochMilli() >= 1099) {
+            throw error;
+          }
+          return this.readExclusive(since, pagination);
+        }).export(Instant.ofEpochMilli(1000), Instant.ofEpochMilli(2000), exported::add, null));
+
+    assertSame(error, thrown);
+    assertEquals(this.history.stream().filter(m -> m.getTimestamp() < 1100).collect(Collectors.toList()), exported);
+  }
+
+  @Test
+  void shouldResumeFileExport(@TempDir Path tempDir) throws IOException {
+    final Path file = tempDir.resolve("export.ndjson");
+    final Path checkpoint = tempDir.resolve("export.ndjson.checkpoint");
+
+    assertThrows(ApiRuntimeException.class, () -> this.exporter((since, pagination) -> {
+      if (since.toEpochMilli() >= 1099) {
+        throw new ApiRuntimeException(new ApiException(500, "error"));
+      }
+      return this.readExclusive(since, pagination);
+    }).export(Instant.ofEpochMilli(1000), Instant.ofEpochMilli(2000), file));
+    assertTrue(Files.exists(checkpoint));
+
+    final ExportReport report =
+        this.exporter(this::readExclusive).export(Instant.ofEpochMilli(1000), Instant.ofEpochMilli(2000), file);
+
+    assertEquals(Instant.ofEpochMilli(1100), report.getSince());
+    assertEquals(500 - 300, report.getMessageCount());
+    assertFalse(Files.exists(checkpoint));
+    final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    assertEquals(500, lines.size());
+    assertTrue(lines.get(0).contains("\"messageId\":\"m0\""));
+    assertTrue(lines.get(499).contains("\"messageId\":\"m499\""));
+  }
+
+  @Test
+  void shouldOverwriteFileWithoutCheckpoint(@TempDir Path tempDir) throws IOException {
+    final Path file = tempDir.resolve("export.ndjson");
+    Files.write(file, Arrays.asList("previous", "export"));
+
+    final ExportReport report =
+        this.exporter(this::readExclusive).export(Instant.ofEpochMilli(1000), Instant.ofEpochMilli(1010), file);
+
+    assertEquals(30, report.getMessageCount());
+    assertEquals(30, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+  }
+
+  private MessageExporter exporter(BiFunction<Instant, PaginationAttribute, List<V4Message>> reader) {
+    final ExportConfig config = new ExportConfig();
+    config.setShardDuration(Duration.ofMillis(50));
+    config.setMaxConcurrency(3);
+    config.setPageSize(10);
+    config.setMaxBufferedPages(2);
+    return new MessageExporter(config, this.executor, reader);
+  }
+
+  private List<V4Message> readExclusive(Instant since, PaginationAttribute pagination) {
+    return this.read(since.toEpochMilli() + 1, pagination);
+  }
+
+  private List<V4Message> readInclusive(Instant since, PaginationAttribute pagination) {
+    return this.read(since.toEpochMilli(), pagination);
+  }
+
+  private List<V4Message> read(long since, PaginationAttribute pagination) {
+    return this.history.stream()
+        .filter(m -> m.getTimestamp() >= since)
+        .skip(pagination.getSkip())
+        .limit(pagination.getLimit())
+        .collect(Collectors.toList());
+  }
+}
@@ -1,11 +1,26 @@
 package com.symphony.bdk.core.service.message.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.symphony.bdk.core.service.message.exception.MessageCreationException;
+import com.symphony.bdk.template.api.Template;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
 
 class MessageTest {
 
@@ -19,6 +34,28 @@ class MessageTest {
     assertEquals("2.0", Message.builder().content("foobar").build().getVersion());
   }
 
+  @Test
+  void checkTemplateRenderedWithMessageML() {
+    final Template template = parameters -> "<messageML>" + parameters + "</messageML>";
+
+    assertEquals("<messageML>{name=hello}</messageML>",
+        Message.builder().template(template, Collections.singletonMap("name", "hello")).build().getContent());
+  }
+
+  @Test
+  void checkMessageMLAppendedToTemplateContentIfNotSet() {
+    final Template template = parameters -> "hello";
+
+    assertEquals("<messageML>hello</messageML>", Message.builder().template(template).build().getContent());
+  }
+
+  @Test
+  void cannotCreateMessageWithEmptyTemplateContent() {
+    final Template template = parameters -> "";
+
+    assertThrows(MessageCreationException.class, Message.builder().template(template)::build);
+  }
+
   @Test
   void checkMessageMLAppendedToContentIfNotSet() {
     assertEquals("<messageML>hello</messageML>", Message.builder().content("hello").build().getContent());
@@ -38,4 +75,34 @@ class MessageTest {
   void checkMessageSilentDefaultValue() {
     assertEquals(Boolean.TRUE, Message.builder().content("<messageML>hello</messageML>").build().getSilent());
   }
+
+  @Test
+  void checkFileAttachmentIsReopenable(@TempDir Path tempDir) throws IOException {
+    final Path file = Files.write(tempDir.resolve("report.csv"), "a,b".getBytes(StandardCharsets.UTF_8));
+    final Attachment attachment = Message.builder().content("hello").addAttachment(file).build()
+        .getAttachments().get(0);
+
+    assertTrue(attachment.isReopenable());
+    assertEquals("report.csv", attachment.getFilename());
+    try (InputStream first = attachment.getContent(); InputStream second = attachment.getContent()) {
+      assertNotSame(first, second);
+      assertEquals("a,b", IOUtils.toString(first, StandardCharsets.UTF_8));
+      assertEquals("a,b", IOUtils.toString(second, StandardCharsets.UTF_8));
+    }
+
+    Files.delete(file);
+    assertThrows(UncheckedIOException.class, attachment::getContent);
+  }
+
+  @Test
+  void checkSupplierAttachmentIsReopenable() {
+    final Message message = Message.builder().content("hello")
+        .addAttachment(() -> new ByteArrayInputStream(new byte[1]), "file.bin")
+        .addAttachment(new ByteArrayInputStream(new byte[1]), "other.bin")
+        .build();
+
+    assertTrue(message.getAttachments().get(0).isReopenable());
+    assertFalse(message.getAttachments().get(1).isReopenable());
+    assertThrows(MessageCreationException.class, () -> new Attachment(() -> null, "noextension"));
+  }
 }
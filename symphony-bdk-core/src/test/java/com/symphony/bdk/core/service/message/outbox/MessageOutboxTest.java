@@ -0,0 +1,316 @@
+package com.symphony.bdk.core.service.message.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.symphony.bdk.core.service.message.MessageService;
+import com.symphony.bdk.core.service.message.model.Message;
+import com.symphony.bdk.gen.api.model.V4Message;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for the {@link MessageOutbox}.
+ */
+class MessageOutboxTest {
+
+  private MessageService messageService;
+  private List<String> calls;
+  private CountDownLatch gate;
+  private MessageOutbox outbox;
+
+  @BeforeEach
+  void setUp() {
+    this.messageService = mock(MessageService.class);
+    this.calls = Collections.synchronizedList(new ArrayList<>());
+    this.gate = new CountDownLatch(0);
+
+    doAnswer(invocation -> {
+      this.gate.await(5, TimeUnit.SECONDS);
+      final Message message = invocation.getArgument(1);
+      this.calls.add(invocation.getArgument(0) + ":" + message.getContent());
+      return new V4Message().messageId(message.getContent());
+    }).when(this.messageService).send(anyString(), any(Message.class));
+
+    doAnswer(invocation -> {
+      this.gate.await(5, TimeUnit.SECONDS);
+      final Message message = invocation.getArgument(2);
+      this.calls.add(invocation.getArgument(0) + ":" + invocation.getArgument(1) + ":" + message.getContent());
+      return new V4Message().messageId(invocation.getArgument(1));
+    }).when(this.messageService).update(anyString(), anyString(), any(Message.class));
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (this.outbox != null) {
+      this.outbox.close();
+    }
+  }
+
+  @Test
+  void shouldSendMessagesInOrderPerStream() throws Exception {
+    this.outbox = new MessageOutbox(this.messageService, config(0));
+
+    final List<CompletableFuture<V4Message>> futures = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      futures.add(this.outbox.send("s1", message("a" + i)));
+      futures.add(this.outbox.send("s2", message("b" + i)));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+    assertEquals(Arrays.asList("<messageML>a0</messageML>", "<messageML>a1</messageML>", "<messageML>a2</messageML>",
+        "<messageML>a3</messageML>", "<messageML>a4</messageML>"), this.callsTo("s1"));
+    assertEquals(5, this.callsTo("s2").size());
+    assertEquals("<messageML>a0</messageML>", futures.get(0).get().getMessageId());
+    assertEquals(0, this.outbox.getPendingCount());
+  }
+
+  @Test
+  void shouldCoalesceConsecutiveUpdates() throws Exception {
+    this.gate = new CountDownLatch(1);
+    this.outbox = new MessageOutbox(this.messageService, config(0));
+
+    final CompletableFuture<V4Message> sent = this.outbox.send("s1", message("first"));
+    final CompletableFuture<V4Message> update1 = this.outbox.update("s1", "m1", message("update1"));
+    final CompletableFuture<V4Message> update2 = this.outbox.update("s1", "m1", message("update2"));
+    final CompletableFuture<V4Message> update3 = this.outbox.update("s1", "m2", message("update3"));
+    assertEquals(3, this.outbox.getPendingCount());
+    this.gate.countDown();
+
+    CompletableFuture.allOf(sent, update1, update2, update3).get(5, TimeUnit.SECONDS);
+    assertEquals(Arrays.asList("s1:<messageML>first</messageML>", "s1:m1:<messageML>update2</messageML>",
+        "s1:m2:<messageML>update3</messageML>"), this.calls);
+    assertSame(update1.get(), update2.get());
+  }
+
+  @Test
+  void shouldNotCoalesceUpdatesWhenDisabled() throws Exception {
+    this.gate = new CountDownLatch(1);
+    final OutboxConfig config = config(0);
+    config.setCoalesceUpdates(false);
+    this.outbox = new MessageOutbox(this.messageService, config);
+
+    this.outbox.send("s1", message("first"));
+    final CompletableFuture<V4Message> update1 = this.outbox.update("s1", "m1", message("update1"));
+    final CompletableFuture<V4Message> update2 = this.outbox.update("s1", "m1", message("update2"));
+    this.gate.countDown();
+
+    CompletableFuture.allOf(update1, update2).get(5, TimeUnit.SECONDS);
+    assertEquals(3, this.calls.size());
+  }
+
+  @Test
+  void shouldRetryFailedMessages() throws Exception {
+    final AtomicInteger attempts = new AtomicInteger();
+    doAnswer(invocation -> {
+      if (attempts.incrementAndGet() < 3) {
+        throw new ApiRuntimeException(new ApiException(429, "Too many requests"));
+      }
+      return new V4Message().messageId("m1");
+    }).when(this.messageService).send(anyString(), any(Message.class));
+    this.outbox = new MessageOutbox(this.messageService, config(3));
+
+    assertEquals("m1", this.outbox.send("s1", message("hello")).get(5, TimeUnit.SECONDS).getMessageId());
+    assertEquals(3, attempts.get());
+  }
+
+  @Test
+  void shouldFailAfterMaxAttempts() {
+    doAnswer(invocation -> {
+      throw new ApiRuntimeException(new ApiException(503, "Service unavailable"));
+    }).when(this.messageService).send(anyString(), any(Message.class));
+    this.outbox = new MessageOutbox(this.messageService, config(2));
+
+    final ExecutionException exception = assertThrows(ExecutionException.class,
+        () -> this.outbox.send("s1", message("hello")).get(5, TimeUnit.SECONDS));
+    assertTrue(exception.getCause() instanceof ApiRuntimeException);
+    verify(this.messageService, times(2)).send(anyString(), any(Message.class));
+  }
+
+  @Test
+  void shouldNotRetryClientErrors() {
+    doAnswer(invocation -> {
+      throw new ApiRuntimeException(new ApiException(400, "Bad request"));
+    }).when(this.messageService).send(anyString(), any(Message.class));
+    this.outbox = new MessageOutbox(this.messageService, config(3));
+
+    final ExecutionException exception = assertThrows(ExecutionException.class,
+        () -> this.outbox.send("s1", message("hello")).get(5, TimeUnit.SECONDS));
+    assertTrue(exception.getCause() instanceof ApiRuntimeException);
+    verify(this.messageService, times(1)).send(anyString(), any(Message.class));
+  }
+
+  @Test
+  void shouldPersistAndRecoverPendingMessages(@TempDir Path tempDir) throws Exception {
+    final Path journal = tempDir.resolve("outbox.log");
+    final OutboxConfig config = config(0);
+    config.setJournal(journal);
+    this.gate = new CountDownLatch(1);
+    this.outbox = new MessageOutbox(this.messageService, config);
+
+    this.outbox.send("s1", message("first"));
+    this.outbox.send("s1", Message.builder().content("second")
+        .data(Collections.singletonMap("key", "value")).silent(false).build());
+    this.outbox.update("s2", "m1", message("update"));
+    this.outbox.close();
+    this.gate.countDown();
+    // simulates a record partially written when the process stopped
+    Files.write(journal, "{\"id\":99,\"stre".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+    this.outbox = new MessageOutbox(this.messageService, config);
+    assertEquals(3, this.outbox.getRecoveredCount());
+    this.awaitIdle();
+
+    assertEquals(Arrays.asList("<messageML>first</messageML>", "<messageML>second</messageML>"), this.callsTo("s1"));
+    assertEquals(Collections.singletonList("m1:<messageML>update</messageML>"), this.callsTo("s2"));
+    verify(this.messageService, times(1)).send(eq("s1"), argThat(m -> "{\"key\":\"value\"}".equals(m.getData())
+        && Boolean.FALSE.equals(m.getSilent())));
+    assertEquals(0, Files.size(journal));
+  }
+
+  @Test
+  void shouldKeepRecoveredMessagesInJournalUntilSent(@TempDir Path tempDir) throws Exception {
+    final Path journal = tempDir.resolve("outbox.log");
+    final OutboxConfig config = config(0);
+    config.setJournal(journal);
+    this.gate = new CountDownLatch(1);
+    this.outbox = new MessageOutbox(this.messageService, config);
+
+    this.outbox.send("s1", message("first"));
+    this.outbox.send("s1", message("second"));
+    this.outbox.close();
+    Files.write(journal, "{\"id\":99,\"stre".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+    this.outbox = new MessageOutbox(this.messageService, config);
+    // the journal is compacted to the recovered messages, which stay there while they are being sent
+    assertEquals(2, Files.readAllLines(journal).size());
+    assertFalse(Files.exists(tempDir.resolve("outbox.log.tmp")));
+
+    this.gate.countDown();
+    this.awaitIdle();
+    assertEquals(0, Files.size(journal));
+  }
+
+  @Test
+  void shouldTruncateJournalOnceIdle(@TempDir Path tempDir) throws Exception {
+    final Path journal = tempDir.resolve("outbox.log");
+    final OutboxConfig config = config(0);
+    config.setJournal(journal);
+    this.outbox = new MessageOutbox(this.messageService, config);
+
+    this.outbox.send("s1", message("hello")).get(5, TimeUnit.SECONDS);
+    this.outbox.update("s1", "m1", message("hello")).get(5, TimeUnit.SECONDS);
+    this.awaitIdle();
+
+    assertEquals(0, Files.size(journal));
+  }
+
+  @Test
+  void shouldNotPersistMessagesWithAttachments(@TempDir Path tempDir) throws Exception {
+    final Path journal = tempDir.resolve("outbox.log");
+    final OutboxConfig config = config(0);
+    config.setJournal(journal);
+    this.gate = new CountDownLatch(1);
+    this.outbox = new MessageOutbox(this.messageService, config);
+
+    this.outbox.send("s1", Message.builder().content("hello")
+        .addAttachment(new ByteArrayInputStream(new byte[0]), "file.txt").build());
+
+    assertEquals(0, Files.size(journal));
+    this.gate.countDown();
+  }
+
+  @Test
+  void shouldRejectMessagesOnceClosed() {
+    this.outbox = new MessageOutbox(this.messageService, config(0));
+    this.outbox.close();
+
+    final CompletableFuture<V4Message> future = this.outbox.send("s1", message("hello"));
+
+    assertTrue(future.isCompletedExceptionally());
+    verify(this.messageService, never()).send(anyString(), any(Message.class));
+  }
+
+  @Test
+  void shouldCancelPendingMessagesOnClose() {
+    this.gate = new CountDownLatch(1);
+    final OutboxConfig config = config(0);
+    config.setMaxConcurrency(1);
+    this.outbox = new MessageOutbox(this.messageService, config);
+
+    this.outbox.send("s1", message("first"));
+    final CompletableFuture<V4Message> pending = this.outbox.send("s1", message("second"));
+    this.outbox.close();
+    this.gate.countDown();
+
+    final ExecutionException exception =
+        assertThrows(ExecutionException.class, () -> pending.get(5, TimeUnit.SECONDS));
+    assertTrue(exception.getCause() instanceof CancellationException);
+  }
+
+  private void awaitIdle() throws InterruptedException {
+    for (int i = 0; i < 500 && this.outbox.getPendingCount() > 0; i++) {
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+    assertEquals(0, this.outbox.getPendingCount());
+  }
+
+  private List<String> callsTo(String streamId) {
+    final List<String> contents = new ArrayList<>();
+    synchronized (this.calls) {
+      for (String call : this.calls) {
+        if (call.startsWith(streamId + ":")) {
+          contents.add(call.substring(streamId.length() + 1));
+        }
+      }
+    }
+    return contents;
+  }
+
+  private static Message message(String content) {
+    return Message.builder().content(content).build();
+  }
+
+  private static OutboxConfig config(int maxAttempts) {
+    final OutboxConfig config = new OutboxConfig();
+    config.setPermitsPerSecond(0);
+    config.setRetryIntervalMillis(10);
+    if (maxAttempts > 0) {
+      config.setMaxAttempts(maxAttempts);
+    }
+    return config;
+  }
+}
@@ -81,6 +81,52 @@ public class MessageParserTest {
     assertTrue(MessageParser.getEmojis(message).isEmpty());
   }
 
+  @Test
+  public void testGetEntities() throws MessageParserException {
+    ParsedEntities entities = MessageParser.getEntities(message);
+    assertArrayEquals(new long[] {13056700580915L, 1305690252351L}, entities.getMentionIds());
+    assertTrue(entities.isMentioned(1305690252351L));
+    assertFalse(entities.isMentioned(1L));
+    assertEquals(List.of("bot"), entities.getHashtags());
+    assertEquals(List.of("hello"), entities.getCashtags());
+    assertEquals(Map.of("grinning", "\uD83D\uDE00"), entities.getEmojis());
+
+    assertTrue(entities.hasEntity("2"));
+    assertFalse(entities.hasEntity("5"));
+    assertEquals("org.symphonyoss.fin.security", entities.getEntityType("2"));
+    assertEquals("hello", entities.getEntityIdValue("2", "org.symphonyoss.fin.security.id.ticker"));
+    assertNull(entities.getEntityIdValue("2", "com.symphony.user.userId"));
+    assertNull(entities.getEntityIdValue("5", "com.symphony.user.userId"));
+    assertNull(entities.getEntityType("5"));
+  }
+
+  @Test
+  public void testGetEntitiesIsMemoized() throws MessageParserException {
+    ParsedEntities entities = MessageParser.getEntities(message);
+    assertSame(entities, MessageParser.getEntities(message));
+
+    // data has been replaced, message is parsed again
+    when(message.getData()).thenReturn("{\"0\": {\"id\": [{\"type\": \"org.symphonyoss.taxonomy.hashtag\", "
+        + "\"value\": \"other\"}], \"type\": \"org.symphonyoss.taxonomy\"}}");
+    assertEquals(List.of("other"), MessageParser.getEntities(message).getHashtags());
+  }
+
+  @Test
+  public void testGetEntitiesFromArray() throws MessageParserException {
+    when(message.getData()).thenReturn(
+        "[{\"type\": \"com.symphony.user.mention\", \"id\": [{\"value\": \"12\"}]}, 1]");
+    ParsedEntities entities = MessageParser.getEntities(message);
+    assertArrayEquals(new long[] {12L}, entities.getMentionIds());
+    assertFalse(entities.hasEntity("0"));
+  }
+
+  @Test
+  public void testGetMentionsWithInvalidUserId() {
+    when(message.getData()).thenReturn(
+        "{\"0\": {\"id\": [{\"value\": \"abc\"}], \"type\": \"com.symphony.user.mention\"}}");
+    assertThrows(MessageParserException.class, () -> MessageParser.getMentions(message));
+  }
+
   @Test
   public void testJsonProcessingException() {
     when(message.getData()).thenReturn("Unparsable json");
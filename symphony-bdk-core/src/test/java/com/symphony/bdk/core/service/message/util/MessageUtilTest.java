@@ -1,9 +1,12 @@
 package com.symphony.bdk.core.service.message.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+
 public class MessageUtilTest {
 
   @Test
@@ -30,6 +33,30 @@ public class MessageUtilTest {
   @Test
   public void testEscapeSpecialCharsNoChange() {
     String text = "  This text will remain the same  ";
-    assertEquals(text, MessageUtil.escapeSpecialChars(text));
+    assertSame(text, MessageUtil.escapeSpecialChars(text));
+  }
+
+  @Test
+  public void testEscapeAllSpecialChars() {
+    String text = "&<>'\"#$%()*.;=[\\]`{}";
+    String expectedText = "&amp;&lt;&gt;&apos;&quot;&#35;&#36;&#37;&#40;&#41;&#42;&#46;&#59;&#61;&#91;&#92;&#93;&#96;"
+        + "&#123;&#125;";
+    assertEquals(expectedText, MessageUtil.escapeSpecialChars(text));
+  }
+
+  @Test
+  public void testEscapeSpecialCharsNonAscii() {
+    String text = "caf\u00e9 \ud83d\ude00 ${x}";
+    String expectedText = "caf\u00e9 \ud83d\ude00 &#36;&#123;x&#125;";
+    assertEquals(expectedText, MessageUtil.escapeSpecialChars(text));
+  }
+
+  @Test
+  public void testEscapeSpecialCharsToAppendable() throws IOException {
+    StringBuilder content = new StringBuilder("<b>");
+    MessageUtil.escapeSpecialChars("1 < 2.", content);
+    content.append("</b>");
+    MessageUtil.escapeSpecialChars("no change", content);
+    assertEquals("<b>1 &lt; 2&#46;</b>no change", content.toString());
   }
 }
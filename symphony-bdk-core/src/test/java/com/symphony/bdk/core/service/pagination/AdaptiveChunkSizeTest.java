@@ -0,0 +1,90 @@
+package com.symphony.bdk.core.service.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+class AdaptiveChunkSizeTest {
+
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long SLOW = TimeUnit.SECONDS.toNanos(10);
+
+  @Test
+  void testInvalidBounds() {
+    assertThrows(IllegalArgumentException.class, () -> new AdaptiveChunkSize(0, 10));
+    assertThrows(IllegalArgumentException.class, () -> new AdaptiveChunkSize(10, 5));
+    assertThrows(IllegalArgumentException.class, () -> new AdaptiveChunkSize(1, 10, Duration.ZERO));
+  }
+
+  @Test
+  void testInitialChunkSizeIsBounded() {
+    assertEquals(PaginatedService.DEFAULT_PAGINATION_CHUNK_SIZE, new AdaptiveChunkSize(1, 1000).getChunkSize());
+    assertEquals(500, new AdaptiveChunkSize(500, 1000).getChunkSize());
+    assertEquals(50, new AdaptiveChunkSize(1, 50).getChunkSize());
+  }
+
+  @Test
+  void testChunkSizeGrowsUpToMaxWhenCallsAreFast() {
+    final AdaptiveChunkSize chunkSize = new AdaptiveChunkSize(10, 1000, Duration.ofMillis(100));
+
+    chunkSize.onChunk(100, 100, FAST);
+    assertEquals(200, chunkSize.getChunkSize());
+    chunkSize.onChunk(200, 200, FAST);
+    chunkSize.onChunk(400, 400, FAST);
+    chunkSize.onChunk(800, 800, FAST);
+    assertEquals(1000, chunkSize.getChunkSize());
+  }
+
+  @Test
+  void testChunkSizeShrinksDownToMinWhenCallsAreSlow() {
+    final AdaptiveChunkSize chunkSize = new AdaptiveChunkSize(30, 1000, Duration.ofMillis(100));
+
+    chunkSize.onChunk(100, 100, SLOW);
+    assertEquals(50, chunkSize.getChunkSize());
+    chunkSize.onChunk(50, 50, SLOW);
+    assertEquals(30, chunkSize.getChunkSize());
+  }
+
+  @Test
+  void testChunkSizeConvergesToTargetLatency() {
+    final AdaptiveChunkSize chunkSize = new AdaptiveChunkSize(10, 1000, Duration.ofMillis(100));
+    // 1 ms per element
+    for (int i = 0; i < 10; i++) {
+      final int requested = chunkSize.getChunkSize();
+      chunkSize.onChunk(requested, requested, TimeUnit.MILLISECONDS.toNanos(requested));
+    }
+    assertEquals(100, chunkSize.getChunkSize());
+  }
+
+  @Test
+  void testFastLastChunkIsIgnored() {
+    final AdaptiveChunkSize chunkSize = new AdaptiveChunkSize(10, 1000, Duration.ofMillis(100));
+
+    chunkSize.onChunk(100, 3, FAST);
+    chunkSize.onChunk(100, 0, FAST);
+
+    assertEquals(100, chunkSize.getChunkSize());
+    assertEquals(2, chunkSize.getMetrics().getChunks());
+  }
+
+  @Test
+  void testMetrics() {
+    final AdaptiveChunkSize chunkSize = new AdaptiveChunkSize(10, 1000, Duration.ofMillis(100));
+
+    chunkSize.onChunk(100, 100, FAST);
+    chunkSize.onChunk(200, 200, SLOW);
+
+    final ChunkSizeMetrics metrics = chunkSize.getMetrics();
+    assertEquals(2, metrics.getChunks());
+    assertEquals(300, metrics.getElements());
+    assertEquals(2, metrics.getResizes());
+    assertEquals(100, metrics.getChunkSize());
+    assertEquals(100, metrics.getMinChosenChunkSize());
+    assertEquals(200, metrics.getMaxChosenChunkSize());
+    assertEquals(Duration.ofNanos((FAST + SLOW) / 2), metrics.getAverageLatency());
+  }
+}
@@ -9,6 +9,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
 import com.symphony.bdk.http.api.ApiException;
 
 import com.symphony.bdk.http.api.ApiRuntimeException;
@@ -208,6 +209,50 @@ class CursorBasedPaginatedServiceTest {
   }
 
 
+  @Test
+  void testPrefetchCallsSeveralChunks() throws ApiException {
+    final String next = "next";
+    when(paginatedApi.get(any(), anyInt()))
+        .thenReturn(new TestCursorPaginatedPayload(next, Arrays.asList("a", "b")))
+        .thenReturn(new TestCursorPaginatedPayload(null, Arrays.asList("c", "d")));
+
+    final int chunkSize = 2;
+    final List<String> result = new CursorBasedPaginatedService<>(paginatedApi, chunkSize, 5, 2)
+        .stream()
+        .collect(Collectors.toList());
+
+    assertEquals(Arrays.asList("a", "b", "c", "d"), result);
+    verify(paginatedApi, times(1)).get(null, chunkSize);
+    verify(paginatedApi, times(1)).get(next, chunkSize);
+    verifyNoMoreInteractions(paginatedApi);
+  }
+
+  @Test
+  void testPrefetchPropagatesApiException() throws ApiException {
+    when(paginatedApi.get(any(), anyInt())).thenThrow(new ApiException(500, "error"));
+
+    final CursorBasedPaginatedService<String> service = new CursorBasedPaginatedService<>(paginatedApi, 2, 5, 1);
+    assertThrows(ApiRuntimeException.class, () -> service.stream().collect(Collectors.toList()));
+  }
+
+  @Test
+  void testAdaptiveChunkSize() throws ApiException {
+    final String next = "next";
+    when(paginatedApi.get(any(), anyInt()))
+        .thenReturn(new TestCursorPaginatedPayload(next, Collections.nCopies(100, "a")))
+        .thenReturn(new TestCursorPaginatedPayload(null, Arrays.asList("b", "c")));
+
+    final List<String> result = new CursorBasedPaginatedService<>(paginatedApi,
+        new StreamPaginationAttribute(new AdaptiveChunkSize(10, 150), 1000, 0))
+        .stream()
+        .collect(Collectors.toList());
+
+    assertEquals(102, result.size());
+    verify(paginatedApi, times(1)).get(null, 100);
+    verify(paginatedApi, times(1)).get(next, 150);
+    verifyNoMoreInteractions(paginatedApi);
+  }
+
   private List<String> getAllItems(int chunkSize, int maxSize) {
     return new CursorBasedPaginatedService<>(paginatedApi, chunkSize, maxSize)
         .stream()
@@ -2,12 +2,16 @@ package com.symphony.bdk.core.service.pagination;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
 import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,10 +20,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class)
@@ -202,6 +212,199 @@ class OffsetBasedPaginatedServiceTest {
     verifyNoMoreInteractions(paginatedApi);
   }
 
+  @Test
+  void testNegativePrefetch() {
+    assertThrows(IllegalArgumentException.class, () -> new OffsetBasedPaginatedService<>(paginatedApi, 1, 1, -1));
+  }
+
+  @Test
+  void testPrefetchProducesSameElements() throws ApiException {
+    when(paginatedApi.get(anyInt(), anyInt()))
+        .thenReturn(Arrays.asList("a", "b"))
+        .thenReturn(Arrays.asList("c", "d"))
+        .thenReturn(Arrays.asList("e"));
+
+    final List<String> list = getList(new OffsetBasedPaginatedService<>(paginatedApi, 2, 10, 2));
+
+    assertEquals(Arrays.asList("a", "b", "c", "d", "e"), list);
+    verify(paginatedApi).get(0, 2);
+    verify(paginatedApi).get(2, 2);
+    verify(paginatedApi).get(4, 2);
+    verifyNoMoreInteractions(paginatedApi);
+  }
+
+  @Test
+  void testPrefetchStopsAtMaxSize() throws ApiException {
+    when(paginatedApi.get(anyInt(), anyInt())).thenReturn(Arrays.asList("a", "b"));
+
+    final List<String> list = getList(new OffsetBasedPaginatedService<>(paginatedApi, 2, 3, 5));
+
+    assertEquals(Arrays.asList("a", "b", "a"), list);
+    verify(paginatedApi).get(0, 2);
+    verify(paginatedApi).get(2, 2);
+    verifyNoMoreInteractions(paginatedApi);
+  }
+
+  @Test
+  void testPrefetchStopsWhenStreamIsClosed() throws Exception {
+    final CountDownLatch secondChunkRequested = new CountDownLatch(1);
+    final AtomicInteger calls = new AtomicInteger();
+    final OffsetBasedPaginatedApi<String> api = (offset, limit) -> {
+      if (calls.incrementAndGet() == 2) {
+        secondChunkRequested.countDown();
+      }
+      return Collections.singletonList("item" + offset);
+    };
+
+    try (Stream<String> stream = new OffsetBasedPaginatedService<>(api, 1, 1000, 1).stream()) {
+      assertEquals("item0", stream.findFirst().orElse(null));
+      // the next chunk is fetched in the background before being consumed
+      assertTrue(secondChunkRequested.await(5, TimeUnit.SECONDS));
+    }
+    final int callsOnClose = calls.get();
+    Thread.sleep(300);
+
+    assertTrue(calls.get() <= callsOnClose + 1);
+  }
+
+  @Test
+  void testPrefetchStopsWhenStreamIsAbandoned() throws Exception {
+    final CountDownLatch fetching = new CountDownLatch(1);
+    final CountDownLatch interrupted = new CountDownLatch(1);
+    final OffsetBasedPaginatedApi<String> api = (offset, limit) -> {
+      if (offset > 0) {
+        fetching.countDown();
+        try {
+          Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+        } catch (InterruptedException e) {
+          interrupted.countDown();
+        }
+      }
+      return Collections.singletonList("item" + offset);
+    };
+
+    assertEquals("item0", findFirstWithoutClosing(new OffsetBasedPaginatedService<>(api, 1, 1000, 1)));
+    assertTrue(fetching.await(5, TimeUnit.SECONDS));
+
+    // the stream is not closed, the fetching stops once it has been garbage collected
+    for (int i = 0; i < 50 && interrupted.getCount() > 0; i++) {
+      System.gc();
+      interrupted.await(100, TimeUnit.MILLISECONDS);
+    }
+    assertEquals(0, interrupted.getCount());
+  }
+
+  private static String findFirstWithoutClosing(OffsetBasedPaginatedService<String> paginatedService) {
+    return paginatedService.stream().findFirst().orElse(null);
+  }
+
+  @Test
+  void testPrefetchPropagatesApiException() throws ApiException {
+    when(paginatedApi.get(anyInt(), anyInt()))
+        .thenReturn(Arrays.asList("a", "b"))
+        .thenThrow(new ApiException(500, "error"));
+
+    final Iterator<String> iterator = new OffsetBasedPaginatedService<>(paginatedApi, 2, 10, 2).stream().iterator();
+
+    assertEquals("a", iterator.next());
+    assertEquals("b", iterator.next());
+    assertThrows(ApiRuntimeException.class, iterator::hasNext);
+  }
+
+  @Test
+  void testNegativeParallelism() {
+    assertThrows(IllegalArgumentException.class, () -> new OffsetBasedPaginatedService<>(paginatedApi, 1, 1, 0, 0));
+  }
+
+  @Test
+  void testParallelFetchProducesSameElementsInOrder() {
+    final List<String> expected = IntStream.range(0, 25).mapToObj(i -> "item" + i).collect(Collectors.toList());
+
+    final List<String> list =
+        new OffsetBasedPaginatedService<>(this.listApi(expected), 4, 1000, 0, 3).stream().collect(Collectors.toList());
+
+    assertEquals(expected, list);
+  }
+
+  @Test
+  void testParallelFetchStopsAtFirstShortChunk() throws ApiException {
+    when(paginatedApi.get(0, 2)).thenReturn(Arrays.asList("a", "b"));
+    when(paginatedApi.get(2, 2)).thenReturn(Collections.singletonList("c"));
+    when(paginatedApi.get(4, 2)).thenReturn(Collections.emptyList());
+    when(paginatedApi.get(6, 2)).thenReturn(Collections.emptyList());
+
+    final List<String> list =
+        new OffsetBasedPaginatedService<>(paginatedApi, 2, 1000, 0, 4).stream().collect(Collectors.toList());
+
+    assertEquals(Arrays.asList("a", "b", "c"), list);
+    verify(paginatedApi, never()).get(8, 2);
+  }
+
+  @Test
+  void testParallelFetchStopsAtMaxSize() {
+    final List<String> elements = IntStream.range(0, 25).mapToObj(i -> "item" + i).collect(Collectors.toList());
+
+    final List<String> list =
+        new OffsetBasedPaginatedService<>(this.listApi(elements), 4, 10, 0, 3).stream().collect(Collectors.toList());
+
+    assertEquals(elements.subList(0, 10), list);
+  }
+
+  @Test
+  void testUnorderedParallelFetchProducesAllElements() {
+    final List<String> expected = IntStream.range(0, 25).mapToObj(i -> "item" + i).collect(Collectors.toList());
+
+    final List<String> list = new OffsetBasedPaginatedService<>(this.listApi(expected), 4, 1000, 0, 3).stream(false)
+        .collect(Collectors.toList());
+
+    assertEquals(expected.size(), list.size());
+    assertTrue(list.containsAll(expected));
+  }
+
+  @Test
+  void testParallelStreamProducesSameElements() {
+    final List<String> expected = IntStream.range(0, 103).mapToObj(i -> "item" + i).collect(Collectors.toList());
+
+    final List<String> list = new OffsetBasedPaginatedService<>(this.listApi(expected), 10, 1000).stream(true)
+        .parallel()
+        .collect(Collectors.toList());
+
+    assertEquals(expected, list);
+  }
+
+  @Test
+  void testParallelFetchPropagatesApiException() throws ApiException {
+    when(paginatedApi.get(anyInt(), anyInt())).thenThrow(new ApiException(500, "error"));
+
+    final Stream<String> stream = new OffsetBasedPaginatedService<>(paginatedApi, 2, 10, 0, 2).stream();
+
+    assertThrows(ApiRuntimeException.class, () -> stream.collect(Collectors.toList()));
+  }
+
+  @Test
+  void testAdaptiveChunkSizeGrowsWithFastCalls() {
+    final List<String> elements = IntStream.range(0, 1000).mapToObj(i -> "item" + i).collect(Collectors.toList());
+    final List<Integer> requestedSizes = new ArrayList<>();
+    final OffsetBasedPaginatedApi<String> api = (offset, limit) -> {
+      requestedSizes.add(limit);
+      return this.listApi(elements).get(offset, limit);
+    };
+    final AdaptiveChunkSize chunkSize = new AdaptiveChunkSize(10, 400);
+
+    final List<String> list = new OffsetBasedPaginatedService<>(api, new StreamPaginationAttribute(chunkSize, 5000, 0))
+        .stream()
+        .collect(Collectors.toList());
+
+    assertEquals(elements, list);
+    assertEquals(Arrays.asList(100, 200, 400, 400), requestedSizes);
+    assertEquals(400, chunkSize.getMetrics().getMaxChosenChunkSize());
+  }
+
+  private OffsetBasedPaginatedApi<String> listApi(List<String> elements) {
+    return (offset, limit) -> elements.subList(Math.min(offset, elements.size()),
+        Math.min(offset + limit, elements.size()));
+  }
+
   private void assertServiceProducesList(int chunkSize, int maxSize, List<String> expected) {
     final List<String> list = getList(new OffsetBasedPaginatedService<>(paginatedApi, chunkSize, maxSize));
 
@@ -0,0 +1,121 @@
+package com.symphony.bdk.core.service.presence;
+
+import static com.symphony.bdk.core.test.BdkRetryConfigTestHelper.ofMinimalInterval;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.symphony.bdk.core.auth.AuthSession;
+import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
+import com.symphony.bdk.gen.api.PresenceApi;
+import com.symphony.bdk.gen.api.model.StringId;
+import com.symphony.bdk.gen.api.model.V2Presence;
+import com.symphony.bdk.http.api.ApiClient;
+import com.symphony.bdk.http.api.ApiException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class PresenceLoopTest {
+
+  private static final String TOKEN = "1234";
+
+  private PresenceApi presenceApi;
+  private PresenceLoop loop;
+  private final List<V2Presence> received = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() throws ApiException {
+    final AuthSession authSession = mock(AuthSession.class);
+    when(authSession.getSessionToken()).thenReturn(TOKEN);
+    final ApiClient podClient = mock(ApiClient.class);
+    when(podClient.getBasePath()).thenReturn("/pod");
+    this.presenceApi = mock(PresenceApi.class);
+    when(this.presenceApi.getApiClient()).thenReturn(podClient);
+    when(this.presenceApi.v1PresenceFeedCreatePost(TOKEN)).thenReturn(new StringId().id("feed1"),
+        new StringId().id("feed2"));
+
+    final PresenceLoopConfig config = new PresenceLoopConfig();
+    config.setReadIntervalMillis(1);
+    this.loop = new PresenceLoop(this.presenceApi, authSession,
+        new RetryWithRecoveryBuilder<>().retryConfig(ofMinimalInterval(2)), config);
+    this.loop.subscribe(presence -> {
+      this.received.add(presence);
+      if ("OFFLINE".equals(presence.getCategory())) {
+        this.loop.stop();
+      }
+    });
+  }
+
+  @Test
+  void shouldApplyPresencesUntilStopped() throws Exception {
+    when(this.presenceApi.v1PresenceFeedFeedIdReadGet(TOKEN, "feed1")).thenReturn(
+        Arrays.asList(presence(1L, "AVAILABLE", 1000L), presence(2L, "BUSY", 1000L)),
+        Collections.emptyList(),
+        Arrays.asList(presence(1L, "AVAILABLE", 1000L), presence(1L, "OFFLINE", 2000L)));
+
+    this.loop.start();
+
+    assertEquals("OFFLINE", this.loop.getPresence(1L).get().getCategory());
+    assertEquals("BUSY", this.loop.getPresence(2L).get().getCategory());
+    assertFalse(this.loop.getPresence(3L).isPresent());
+    // the unchanged presence of user 1 is not notified again
+    assertEquals(3, this.received.size());
+    verify(this.presenceApi, times(3)).v1PresenceFeedFeedIdReadGet(TOKEN, "feed1");
+    verify(this.presenceApi).v1PresenceFeedFeedIdDeletePost(TOKEN, "feed1");
+  }
+
+  @Test
+  void shouldRecreateStaleFeed() throws Exception {
+    when(this.presenceApi.v1PresenceFeedFeedIdReadGet(TOKEN, "feed1")).thenThrow(new ApiException(400, "stale"));
+    when(this.presenceApi.v1PresenceFeedFeedIdReadGet(TOKEN, "feed2"))
+        .thenReturn(Collections.singletonList(presence(1L, "OFFLINE", 1000L)));
+
+    this.loop.start();
+
+    assertEquals("OFFLINE", this.loop.getPresence(1L).get().getCategory());
+    verify(this.presenceApi, times(2)).v1PresenceFeedCreatePost(TOKEN);
+    verify(this.presenceApi).v1PresenceFeedFeedIdDeletePost(TOKEN, "feed1");
+    verify(this.presenceApi).v1PresenceFeedFeedIdDeletePost(TOKEN, "feed2");
+  }
+
+  @Test
+  void shouldFailWhenFeedCannotBeRead() throws Exception {
+    when(this.presenceApi.v1PresenceFeedFeedIdReadGet(TOKEN, "feed1")).thenThrow(new ApiException(500, "error"));
+
+    assertThrows(ApiException.class, () -> this.loop.start());
+    verify(this.presenceApi).v1PresenceFeedFeedIdDeletePost(TOKEN, "feed1");
+  }
+
+  @Test
+  void shouldNotStartTwice() throws Exception {
+    when(this.presenceApi.v1PresenceFeedFeedIdReadGet(TOKEN, "feed1")).thenAnswer(invocation -> {
+      assertThrows(IllegalStateException.class, () -> this.loop.start());
+      return Collections.singletonList(presence(1L, "OFFLINE", 1000L));
+    });
+
+    this.loop.start();
+
+    verify(this.presenceApi, times(1)).v1PresenceFeedCreatePost(TOKEN);
+  }
+
+  @Test
+  void shouldRegisterInterest() throws Exception {
+    this.loop.registerInterest(Arrays.asList(1L, 2L));
+
+    verify(this.presenceApi).v1UserPresenceRegisterPost(TOKEN, Arrays.asList(1L, 2L));
+  }
+
+  private static V2Presence presence(long userId, String category, long timestamp) {
+    return new V2Presence().userId(userId).category(category).timestamp(timestamp);
+  }
+}
@@ -2,13 +2,18 @@ package com.symphony.bdk.core.service.presence;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.symphony.bdk.core.auth.AuthSession;
 import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
+import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
 import com.symphony.bdk.core.service.presence.constant.PresenceStatus;
 import com.symphony.bdk.core.test.MockApiClient;
 import com.symphony.bdk.gen.api.PresenceApi;
@@ -20,8 +25,10 @@ import com.symphony.bdk.http.api.ApiRuntimeException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class PresenceServiceTest {
 
@@ -129,6 +136,23 @@ public class PresenceServiceTest {
     assertThrows(ApiRuntimeException.class, () -> this.service.listPresences(1234L, 5000));
   }
 
+  @Test
+  void listAllPresencesTest() throws ApiException {
+    doReturn(Arrays.asList(presence(1L), presence(2L))).when(this.spiedPresenceApi)
+        .v2UsersPresenceGet("1234", null, 2);
+    doReturn(Arrays.asList(presence(2L), presence(3L), presence(4L))).when(this.spiedPresenceApi)
+        .v2UsersPresenceGet("1234", 2L, 2);
+    doReturn(Collections.singletonList(presence(5L))).when(this.spiedPresenceApi)
+        .v2UsersPresenceGet("1234", 4L, 2);
+
+    final List<Long> userIds = this.service.listAllPresences(new StreamPaginationAttribute(2, 100))
+        .map(V2Presence::getUserId)
+        .collect(Collectors.toList());
+
+    assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), userIds);
+    verify(this.spiedPresenceApi, times(3)).v2UsersPresenceGet(eq("1234"), any(), eq(2));
+  }
+
   @Test
   void getUserPresenceTest() {
     this.mockApiClient.onGet(V2_GET_USER_PRESENCE.replace("{uid}", "12345"),
@@ -274,4 +298,8 @@ public class PresenceServiceTest {
     assertEquals(presence.getUserId(), 349871117483L);
     assertEquals(presence.getCategory(), "BUSY");
   }
+
+  private static V2Presence presence(long userId) {
+    return new V2Presence().userId(userId).category("AVAILABLE").timestamp(1000L);
+  }
 }
@@ -0,0 +1,136 @@
+package com.symphony.bdk.core.service.presence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
+import com.symphony.bdk.gen.api.model.V2Presence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class PresenceSnapshotTest {
+
+  private PresenceService presenceService;
+  private PresenceSnapshotConfig config;
+  private AtomicLong now;
+
+  @BeforeEach
+  void setUp() {
+    this.presenceService = mock(PresenceService.class);
+    this.config = new PresenceSnapshotConfig();
+    this.config.setTtlMillis(1000L);
+    this.now = new AtomicLong(10_000L);
+  }
+
+  @Test
+  void shouldLoadOnFirstRead() {
+    when(this.presenceService.listAllPresences(any(StreamPaginationAttribute.class)))
+        .thenAnswer(invocation -> Arrays.asList(presence(1L, "AVAILABLE", 1L), presence(2L, "BUSY", 1L)).stream());
+    final PresenceSnapshot snapshot = this.snapshot();
+
+    final Map<Long, V2Presence> presences = snapshot.getPresences(Arrays.asList(1L, 2L, 3L));
+
+    assertEquals(2, presences.size());
+    assertEquals("BUSY", presences.get(2L).getCategory());
+    assertFalse(snapshot.getPresence(3L).isPresent());
+    assertEquals(10_000L, snapshot.getLastLoad().toEpochMilli());
+    verify(this.presenceService, times(1)).listAllPresences(any(StreamPaginationAttribute.class));
+  }
+
+  @Test
+  void shouldReloadOnceExpired() {
+    when(this.presenceService.listAllPresences(any(StreamPaginationAttribute.class)))
+        .thenAnswer(invocation -> Arrays.asList(presence(1L, "AVAILABLE", 1L)).stream())
+        .thenAnswer(invocation -> Arrays.asList(presence(1L, "AWAY", 2L)).stream());
+    final PresenceSnapshot snapshot = this.snapshot();
+
+    assertEquals("AVAILABLE", snapshot.getPresence(1L).get().getCategory());
+    this.now.addAndGet(999L);
+    assertEquals("AVAILABLE", snapshot.getPresence(1L).get().getCategory());
+    this.now.addAndGet(1L);
+    assertEquals("AWAY", snapshot.getPresence(1L).get().getCategory());
+    verify(this.presenceService, times(2)).listAllPresences(any(StreamPaginationAttribute.class));
+  }
+
+  @Test
+  void shouldKeepMoreRecentPresencesFromFeedOnReload() {
+    when(this.presenceService.listAllPresences(any(StreamPaginationAttribute.class)))
+        .thenAnswer(invocation -> Arrays.asList(presence(1L, "AVAILABLE", 1L), presence(2L, "AVAILABLE", 1L)).stream());
+    final PresenceSnapshot snapshot = this.snapshot();
+    snapshot.load();
+
+    snapshot.onPresenceUpdated(presence(1L, "OFFLINE", 5L));
+    this.now.addAndGet(1000L);
+
+    assertEquals("OFFLINE", snapshot.getPresence(1L).get().getCategory());
+    assertEquals("AVAILABLE", snapshot.getPresence(2L).get().getCategory());
+    verify(this.presenceService, times(2)).listAllPresences(any(StreamPaginationAttribute.class));
+  }
+
+  @Test
+  void shouldRemoveUsersNotReturnedAnymoreOnReload() {
+    when(this.presenceService.listAllPresences(any(StreamPaginationAttribute.class)))
+        .thenAnswer(invocation -> Arrays.asList(presence(1L, "AVAILABLE", 1L), presence(2L, "BUSY", 1L)).stream())
+        .thenAnswer(invocation -> Arrays.asList(presence(1L, "AVAILABLE", 1L)).stream());
+    final PresenceSnapshot snapshot = this.snapshot();
+    snapshot.load();
+
+    snapshot.onPresenceUpdated(presence(3L, "AWAY", 2L));
+    snapshot.load();
+
+    assertTrue(snapshot.getPresence(1L).isPresent());
+    assertFalse(snapshot.getPresence(2L).isPresent());
+    assertFalse(snapshot.getPresence(3L).isPresent());
+    assertEquals(1, snapshot.getTable().size());
+  }
+
+  @Test
+  void shouldServeCurrentPresencesWhileReloading() throws Exception {
+    final CountDownLatch reloadStarted = new CountDownLatch(1);
+    final CountDownLatch reloadReleased = new CountDownLatch(1);
+    when(this.presenceService.listAllPresences(any(StreamPaginationAttribute.class)))
+        .thenAnswer(invocation -> Arrays.asList(presence(1L, "AVAILABLE", 1L)).stream())
+        .thenAnswer(invocation -> {
+          reloadStarted.countDown();
+          reloadReleased.await();
+          return Arrays.asList(presence(1L, "AWAY", 2L)).stream();
+        });
+    final PresenceSnapshot snapshot = this.snapshot();
+    snapshot.load();
+    this.now.addAndGet(1000L);
+
+    final CompletableFuture<V2Presence> reloading =
+        CompletableFuture.supplyAsync(() -> snapshot.getPresence(1L).get());
+    assertTrue(reloadStarted.await(5, TimeUnit.SECONDS));
+
+    assertTimeoutPreemptively(Duration.ofSeconds(5),
+        () -> assertEquals("AVAILABLE", snapshot.getPresence(1L).get().getCategory()));
+    reloadReleased.countDown();
+    assertEquals("AWAY", reloading.get(5, TimeUnit.SECONDS).getCategory());
+    verify(this.presenceService, times(2)).listAllPresences(any(StreamPaginationAttribute.class));
+  }
+
+  private PresenceSnapshot snapshot() {
+    return new PresenceSnapshot(this.presenceService, this.config, this.now::get);
+  }
+
+  private static V2Presence presence(long userId, String category, long timestamp) {
+    return new V2Presence().userId(userId).category(category).timestamp(timestamp);
+  }
+}
@@ -0,0 +1,88 @@
+package com.symphony.bdk.core.service.presence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.symphony.bdk.gen.api.model.V2Presence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class PresenceTableTest {
+
+  private final PresenceTable table = new PresenceTable();
+
+  @Test
+  void shouldKeepMostRecentPresence() {
+    assertTrue(this.table.update(presence(12987981103233L, "AVAILABLE", 1000L)));
+    assertFalse(this.table.update(presence(12987981103233L, "AVAILABLE", 1000L)));
+    assertFalse(this.table.update(presence(12987981103233L, "BUSY", 999L)));
+    assertTrue(this.table.update(presence(12987981103233L, "AWAY", 1001L)));
+
+    final V2Presence presence = this.table.get(12987981103233L).get();
+    assertEquals(12987981103233L, presence.getUserId());
+    assertEquals("AWAY", presence.getCategory());
+    assertEquals(1001L, presence.getTimestamp());
+    assertEquals(1, this.table.size());
+  }
+
+  @Test
+  void shouldIgnoreIncompletePresences() {
+    assertFalse(this.table.update(new V2Presence().category("AVAILABLE")));
+    assertFalse(this.table.update(new V2Presence().userId(0L).category("AVAILABLE")));
+    assertFalse(this.table.update(new V2Presence().userId(1L)));
+    assertFalse(this.table.get(1L).isPresent());
+    assertFalse(this.table.get(0L).isPresent());
+    assertEquals(0, this.table.size());
+  }
+
+  @Test
+  void shouldStoreManyUsersConcurrently() throws Exception {
+    final List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      final int offset = t;
+      threads.add(new Thread(() -> {
+        for (long userId = 1 + offset; userId <= 20_000; userId += 4) {
+          this.table.update(presence(userId, userId % 2 == 0 ? "AVAILABLE" : "OFFLINE", userId));
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(20_000, this.table.size());
+    for (long userId = 1; userId <= 20_000; userId++) {
+      assertEquals(userId % 2 == 0 ? "AVAILABLE" : "OFFLINE", this.table.get(userId).get().getCategory());
+    }
+    this.table.clear();
+    assertEquals(0, this.table.size());
+  }
+
+  @Test
+  void shouldRemoveUsersNotSeenSinceGeneration() {
+    for (long userId = 1; userId <= 1000; userId++) {
+      this.table.update(presence(userId, "AVAILABLE", 1000L));
+    }
+
+    final int generation = this.table.newGeneration();
+    for (long userId = 2; userId <= 1000; userId += 2) {
+      // seen again even if not more recent
+      assertFalse(this.table.update(presence(userId, "AVAILABLE", 1000L)));
+    }
+
+    assertEquals(500, this.table.removeUnseenSince(generation));
+    assertEquals(500, this.table.size());
+    for (long userId = 1; userId <= 1000; userId++) {
+      assertEquals(userId % 2 == 0, this.table.get(userId).isPresent());
+    }
+  }
+
+  private static V2Presence presence(long userId, String category, long timestamp) {
+    return new V2Presence().userId(userId).category(category).timestamp(timestamp);
+  }
+}
@@ -0,0 +1,201 @@
+package com.symphony.bdk.core.service.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import com.symphony.bdk.core.auth.AuthSession;
+import com.symphony.bdk.core.util.KeyedCacheConfig;
+import com.symphony.bdk.gen.api.model.V4Initiator;
+import com.symphony.bdk.gen.api.model.V4RoomUpdated;
+import com.symphony.bdk.gen.api.model.V4Stream;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class StreamCacheTest {
+
+  private static final String STREAM_ID = "XlU3OH9eVMzq+yss7M/xyn///oxwgbtGbQ==";
+  private static final String URL_SAFE_STREAM_ID = "XlU3OH9eVMzq-yss7M_xyn___oxwgbtGbQ";
+
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicInteger loads = new AtomicInteger();
+  private StreamCache cache;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    final KeyedCacheConfig config = new KeyedCacheConfig();
+    config.setMaxSize(2);
+    config.setTimeToLiveMillis(1000);
+    this.cache = new StreamCache(config, this.clock::get);
+    this.executor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void shouldCacheByTypeAndStreamId() {
+    final String stream = this.get(StreamCache.STREAM, STREAM_ID);
+
+    assertSame(stream, this.get(StreamCache.STREAM, URL_SAFE_STREAM_ID));
+    assertNotSame(stream, this.get(StreamCache.ROOM, STREAM_ID));
+    assertEquals(2, this.loads.get());
+    assertEquals(1, this.cache.getMetrics().getHits());
+    assertEquals(2, this.cache.getMetrics().getMisses());
+  }
+
+  @Test
+  void shouldExpireEntries() {
+    this.get(StreamCache.STREAM, STREAM_ID);
+    this.clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+    this.get(StreamCache.STREAM, STREAM_ID);
+
+    assertEquals(2, this.loads.get());
+    assertEquals(1, this.cache.getMetrics().getExpirations());
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedEntries() {
+    this.get(StreamCache.STREAM, "a");
+    this.get(StreamCache.STREAM, "b");
+    this.get(StreamCache.STREAM, "a");
+    this.get(StreamCache.STREAM, "c");
+
+    assertEquals(2, this.cache.size());
+    assertEquals(1, this.cache.getMetrics().getEvictions());
+    this.get(StreamCache.STREAM, "a");
+    assertEquals(3, this.loads.get());
+  }
+
+  @Test
+  void shouldLoadConcurrentMissesOnce() throws Exception {
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final Future<String> first = this.executor.submit(() -> this.cache.get(StreamCache.ROOM, STREAM_ID, () -> {
+      loading.countDown();
+      await(release);
+      return "room";
+    }));
+    loading.await(5, TimeUnit.SECONDS);
+
+    final List<Future<String>> others = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      others.add(this.executor.submit(() -> this.get(StreamCache.ROOM, URL_SAFE_STREAM_ID)));
+    }
+    while (this.cache.getMetrics().getCoalesced() < 3) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+
+    assertEquals("room", first.get(5, TimeUnit.SECONDS));
+    for (Future<String> other : others) {
+      assertEquals("room", other.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(0, this.loads.get());
+    assertEquals(1, this.cache.getMetrics().getLoads());
+  }
+
+  @Test
+  void shouldInvalidateUpdatedRooms() {
+    this.get(StreamCache.STREAM, STREAM_ID);
+    this.get(StreamCache.ROOM, STREAM_ID);
+
+    this.cache.onRoomUpdated(new V4Initiator(),
+        new V4RoomUpdated().stream(new V4Stream().streamId(URL_SAFE_STREAM_ID)));
+
+    assertEquals(0, this.cache.size());
+    assertEquals(2, this.cache.getMetrics().getInvalidations());
+  }
+
+  @Test
+  void shouldNotCacheStreamInvalidatedWhileLoading() {
+    final String room = this.cache.get(StreamCache.ROOM, STREAM_ID, () -> {
+      this.cache.invalidate(STREAM_ID);
+      return "outdated";
+    });
+
+    assertEquals("outdated", room);
+    assertEquals(0, this.cache.size());
+  }
+
+  @Test
+  void shouldKeepLoadingOtherStreamsWhenInvalidatingStream() throws Exception {
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final Future<String> first = this.executor.submit(() -> this.cache.get(StreamCache.ROOM, STREAM_ID, () -> {
+      loading.countDown();
+      await(release);
+      return "room";
+    }));
+    loading.await(5, TimeUnit.SECONDS);
+
+    this.cache.invalidate("otherStreamId");
+    final Future<String> second = this.executor.submit(() -> this.get(StreamCache.ROOM, STREAM_ID));
+    while (this.cache.getMetrics().getCoalesced() < 1) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+
+    assertEquals("room", first.get(5, TimeUnit.SECONDS));
+    assertEquals("room", second.get(5, TimeUnit.SECONDS));
+    assertEquals("room", this.get(StreamCache.ROOM, STREAM_ID));
+    assertEquals(0, this.loads.get());
+    assertEquals(1, this.cache.getMetrics().getLoads());
+  }
+
+  @Test
+  void shouldNotCacheFailures() {
+    assertThrows(ApiRuntimeException.class, () -> this.cache.get(StreamCache.IM, STREAM_ID, () -> {
+      throw new ApiRuntimeException(new ApiException(500, "error"));
+    }));
+
+    this.get(StreamCache.IM, STREAM_ID);
+    assertEquals(1, this.loads.get());
+  }
+
+  @Test
+  void shouldCacheOboStreamsSeparately() {
+    final StreamCache oboCache = this.cache.forSession(mock(AuthSession.class));
+    oboCache.get(StreamCache.ROOM, STREAM_ID, this::load);
+    this.get(StreamCache.ROOM, STREAM_ID);
+
+    assertEquals(2, this.loads.get());
+    this.cache.invalidate(STREAM_ID);
+    assertEquals(0, oboCache.size());
+  }
+
+  private String get(String type, String streamId) {
+    return this.cache.get(type, streamId, this::load);
+  }
+
+  private String load() {
+    return "value-" + this.loads.incrementAndGet();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -17,8 +18,13 @@ import com.symphony.bdk.core.auth.AuthSession;
 import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
 import com.symphony.bdk.core.service.pagination.model.PaginationAttribute;
 import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
+import com.symphony.bdk.core.service.stream.membership.BulkMembershipConfig;
+import com.symphony.bdk.core.service.stream.membership.MembershipChange;
+import com.symphony.bdk.core.service.stream.membership.MembershipChangeReport;
+import com.symphony.bdk.core.service.stream.membership.MembershipOperation;
 import com.symphony.bdk.core.test.JsonHelper;
 import com.symphony.bdk.core.test.MockApiClient;
+import com.symphony.bdk.core.util.KeyedCacheConfig;
 import com.symphony.bdk.gen.api.RoomMembershipApi;
 import com.symphony.bdk.gen.api.ShareApi;
 import com.symphony.bdk.gen.api.StreamsApi;
@@ -54,6 +60,7 @@ import org.mockito.ArgumentCaptor;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class StreamServiceTest {
@@ -326,6 +333,26 @@ public class StreamServiceTest {
     assertEquals("API room", roomDetail.getRoomAttributes().getName());
   }
 
+  @Test
+  void getRoomInfoCachedTest() throws Exception {
+    this.mockApiClient.onGet(V3_ROOM_INFO.replace("{id}", "bjHSiY4iz3ar4iIh6-VzCX___peoM7cPdA"),
+        JsonHelper.readFromClasspath("/stream/v3_room_detail.json"));
+    this.mockApiClient.onPost(V3_ROOM_UPDATE.replace("{id}", "bjHSiY4iz3ar4iIh6-VzCX___peoM7cPdA"),
+        JsonHelper.readFromClasspath("/stream/v3_room_detail.json"));
+    this.service.enableCache(new KeyedCacheConfig());
+
+    this.service.getRoomInfo("bjHSiY4iz3ar4iIh6-VzCX___peoM7cPdA");
+    V3RoomDetail roomDetail = this.service.getRoomInfo(fromUrlSafeId("bjHSiY4iz3ar4iIh6-VzCX___peoM7cPdA"));
+
+    assertEquals("API room", roomDetail.getRoomAttributes().getName());
+    verify(this.streamsApi, times(1)).v3RoomIdInfoGet("bjHSiY4iz3ar4iIh6-VzCX___peoM7cPdA", "1234");
+
+    this.service.updateRoom("bjHSiY4iz3ar4iIh6-VzCX___peoM7cPdA", new V3RoomAttributes());
+    this.service.getRoomInfo("bjHSiY4iz3ar4iIh6-VzCX___peoM7cPdA");
+
+    verify(this.streamsApi, times(2)).v3RoomIdInfoGet("bjHSiY4iz3ar4iIh6-VzCX___peoM7cPdA", "1234");
+  }
+
   @Test
   void getRoomInfoTestFailed() {
     this.mockApiClient.onGet(400, V3_ROOM_INFO.replace("{id}", "bjHSiY4iz3ar4iIh6-VzCX___peoM7cPdA"), "{}");
@@ -779,6 +806,28 @@ public class StreamServiceTest {
     assertThrows(ApiRuntimeException.class, () -> this.service.removeMemberFromRoom(12345L, "1234"));
   }
 
+  @Test
+  void updateMembershipsTest() throws Exception {
+    this.mockApiClient.onGet(V2_ROOM_MEMBERS.replace("{id}", "1234"), "[{\"id\": 12345, \"owner\": false}]");
+    this.mockApiClient.onPost(V1_ADD_MEMBER_TO_ROOM.replace("{id}", "1234"), "{}");
+    this.mockApiClient.onPost(V1_PROMOTE_MEMBER.replace("{id}", "1234"), "{}");
+
+    MembershipChangeReport report = this.service.updateMemberships(Arrays.asList(
+            new MembershipChange(12345L, "1234", MembershipOperation.ADD),
+            new MembershipChange(12346L, "1234", MembershipOperation.ADD),
+            new MembershipChange(12346L, "1234", MembershipOperation.PROMOTE)),
+        new BulkMembershipConfig(), null).get(5, TimeUnit.SECONDS);
+
+    assertEquals(2, report.getApplied());
+    assertEquals(1, report.getSkipped());
+    assertTrue(report.isSuccessful());
+    verify(this.spyRoomMembershipApi, never()).v1RoomIdMembershipAddPost(eq("1234"), eq("1234"),
+        eq(new UserId().id(12345L)));
+    verify(this.spyRoomMembershipApi).v1RoomIdMembershipAddPost(eq("1234"), eq("1234"), eq(new UserId().id(12346L)));
+    verify(this.spyRoomMembershipApi).v1RoomIdMembershipPromoteOwnerPost(eq("1234"), eq("1234"),
+        eq(new UserId().id(12346L)));
+  }
+
   @Test
   void shareTest() throws IOException {
     this.mockApiClient.onPost(V3_SHARE.replace("{sid}", "1234"), JsonHelper.readFromClasspath("/stream/v3_share.json"));
@@ -0,0 +1,197 @@
+package com.symphony.bdk.core.service.stream.membership;
+
+import static com.symphony.bdk.core.test.BdkRetryConfigTestHelper.ofMinimalInterval;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
+import com.symphony.bdk.gen.api.model.MemberInfo;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class BulkMembershipUpdaterTest {
+
+  private BulkMembershipApi api;
+  private BulkMembershipConfig config;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() throws ApiException {
+    this.api = mock(BulkMembershipApi.class);
+    when(this.api.listMembers(anyString())).thenReturn(Collections.emptyList());
+    when(this.api.listMembers("room1")).thenReturn(Arrays.asList(member(1L, true), member(2L, false)));
+    this.config = new BulkMembershipConfig();
+    this.executor = Executors.newFixedThreadPool(this.config.getMaxConcurrency() + 1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void shouldSkipChangesNotModifyingTheRoom() throws Exception {
+    final MembershipChangeReport report = this.update(Arrays.asList(
+        change(1L, "room1", MembershipOperation.ADD),
+        change(3L, "room1", MembershipOperation.ADD),
+        change(2L, "room1", MembershipOperation.DEMOTE),
+        change(3L, "room1", MembershipOperation.PROMOTE),
+        change(4L, "room1", MembershipOperation.REMOVE),
+        change(1L, "room1", MembershipOperation.PROMOTE),
+        change(1L, "room1", MembershipOperation.DEMOTE)));
+
+    assertEquals(3, report.getApplied());
+    assertEquals(4, report.getSkipped());
+    assertTrue(report.isSuccessful());
+    final InOrder inOrder = inOrder(this.api);
+    inOrder.verify(this.api).listMembers("room1");
+    inOrder.verify(this.api).addMember(3L, "room1");
+    inOrder.verify(this.api).promoteOwner(3L, "room1");
+    inOrder.verify(this.api).demoteOwner(1L, "room1");
+    verify(this.api, never()).addMember(1L, "room1");
+    verify(this.api, never()).removeMember(anyLong(), anyString());
+  }
+
+  @Test
+  void shouldListMembersOncePerRoom() throws Exception {
+    final MembershipChangeReport report = this.update(Arrays.asList(
+        change(3L, "room1", MembershipOperation.ADD),
+        change(3L, "room2", MembershipOperation.ADD),
+        change(4L, "room1", MembershipOperation.ADD),
+        change(3L, "room1", MembershipOperation.REMOVE)));
+
+    assertEquals(4, report.getApplied());
+    verify(this.api, times(1)).listMembers("room1");
+    verify(this.api, times(1)).listMembers("room2");
+    final InOrder inOrder = inOrder(this.api);
+    inOrder.verify(this.api).addMember(3L, "room1");
+    inOrder.verify(this.api).removeMember(3L, "room1");
+  }
+
+  @Test
+  void shouldApplyAllChangesWhenNoOpsAreNotSkipped() throws Exception {
+    this.config.setSkipNoOps(false);
+
+    final MembershipChangeReport report = this.update(Collections.singletonList(
+        change(1L, "room1", MembershipOperation.ADD)));
+
+    assertEquals(1, report.getApplied());
+    verify(this.api, never()).listMembers(anyString());
+    verify(this.api).addMember(1L, "room1");
+  }
+
+  @Test
+  void shouldReportFailedChangesAndContinue() throws Exception {
+    doThrow(new ApiException(400, "bad request")).when(this.api).addMember(3L, "room1");
+    final List<MembershipChangeResult> results = Collections.synchronizedList(new ArrayList<>());
+    final MembershipChange failing = change(3L, "room1", MembershipOperation.ADD);
+
+    final MembershipChangeReport report = new BulkMembershipUpdater(this.config, this.executor, this.retryBuilder(),
+        this.api)
+        .update(Arrays.asList(failing, change(2L, "room1", MembershipOperation.REMOVE)), results::add)
+        .get(5, TimeUnit.SECONDS);
+
+    assertEquals(1, report.getApplied());
+    assertEquals(1, report.getFailures().size());
+    final MembershipChangeResult failure = report.getFailures().get(0);
+    assertSame(failing, failure.getChange());
+    assertEquals(MembershipChangeResult.Status.FAILED, failure.getStatus());
+    assertEquals(400, ((ApiRuntimeException) failure.getError()).getCode());
+    assertEquals(2, results.size());
+    // client errors are not retried
+    verify(this.api, times(1)).addMember(3L, "room1");
+    verify(this.api).removeMember(2L, "room1");
+  }
+
+  @Test
+  void shouldFailChangesOfRoomWhenMembersCannotBeListed() throws Exception {
+    when(this.api.listMembers("room2")).thenThrow(new ApiException(403, "forbidden"));
+
+    final MembershipChangeReport report = this.update(Arrays.asList(
+        change(3L, "room1", MembershipOperation.ADD),
+        change(3L, "room2", MembershipOperation.ADD),
+        change(4L, "room2", MembershipOperation.ADD)));
+
+    assertEquals(1, report.getApplied());
+    assertEquals(2, report.getFailures().size());
+    verify(this.api, never()).addMember(anyLong(), eq("room2"));
+  }
+
+  @Test
+  void shouldRetryFailedCalls() throws Exception {
+    doThrow(new ApiException(503, "unavailable")).doNothing().when(this.api).addMember(3L, "room1");
+
+    final MembershipChangeReport report =
+        this.update(Collections.singletonList(change(3L, "room1", MembershipOperation.ADD)));
+
+    assertTrue(report.isSuccessful());
+    verify(this.api, times(2)).addMember(3L, "room1");
+  }
+
+  @Test
+  void shouldDecreaseConcurrencyOnTooManyRequests() throws Exception {
+    this.config.setInitialConcurrency(8);
+    this.config.setSkipNoOps(false);
+    final AtomicInteger calls = new AtomicInteger();
+    doAnswer(invocation -> {
+      if (calls.incrementAndGet() == 5) {
+        throw new ApiException(429, "too many requests");
+      }
+      return null;
+    }).when(this.api).addMember(anyLong(), anyString());
+
+    final MembershipChangeReport report = this.update(IntStream.rangeClosed(1, 20)
+        .mapToObj(i -> change(1L, "room" + i, MembershipOperation.ADD))
+        .collect(Collectors.toList()));
+
+    assertEquals(20, report.getApplied());
+    assertEquals(4, report.getMinConcurrency());
+  }
+
+  private MembershipChangeReport update(Collection<MembershipChange> changes) throws Exception {
+    return new BulkMembershipUpdater(this.config, this.executor, this.retryBuilder(), this.api)
+        .update(changes, null)
+        .get(5, TimeUnit.SECONDS);
+  }
+
+  private RetryWithRecoveryBuilder<?> retryBuilder() {
+    return new RetryWithRecoveryBuilder<>().retryConfig(ofMinimalInterval(3));
+  }
+
+  private static MembershipChange change(long userId, String roomId, MembershipOperation operation) {
+    return new MembershipChange(userId, roomId, operation);
+  }
+
+  private static MemberInfo member(long userId, boolean owner) {
+    return new MemberInfo().id(userId).owner(owner);
+  }
+}
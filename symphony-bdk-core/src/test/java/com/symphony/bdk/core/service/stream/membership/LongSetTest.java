@@ -0,0 +1,54 @@
+package com.symphony.bdk.core.service.stream.membership;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+class LongSetTest {
+
+  @Test
+  void shouldAddAndRemoveValues() {
+    final LongSet set = new LongSet();
+
+    assertTrue(set.add(12987981103233L));
+    assertTrue(set.add(0L));
+    assertFalse(set.add(12987981103233L));
+    assertEquals(2, set.size());
+    assertTrue(set.contains(0L));
+    assertTrue(set.remove(0L));
+    assertFalse(set.remove(0L));
+    assertFalse(set.contains(0L));
+    assertTrue(set.remove(12987981103233L));
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  void shouldBehaveLikeASet() {
+    final Random random = new Random(42);
+    final LongSet set = new LongSet();
+    final Set<Long> expected = new TreeSet<>();
+
+    for (int i = 0; i < 100_000; i++) {
+      // a small range of values gives long clusters of collisions
+      final long value = 13056700579000L + random.nextInt(2000);
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(value), set.remove(value));
+      } else {
+        assertEquals(expected.add(value), set.add(value));
+      }
+    }
+
+    assertEquals(expected.size(), set.size());
+    assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), set.toArray());
+    for (long value = 13056700579000L; value < 13056700581000L; value++) {
+      assertEquals(expected.contains(value), set.contains(value));
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package com.symphony.bdk.core.service.stream.membership;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.symphony.bdk.gen.api.model.MemberInfo;
+import com.symphony.bdk.gen.api.model.V4Initiator;
+import com.symphony.bdk.gen.api.model.V4RoomMemberDemotedFromOwner;
+import com.symphony.bdk.gen.api.model.V4RoomMemberPromotedToOwner;
+import com.symphony.bdk.gen.api.model.V4Stream;
+import com.symphony.bdk.gen.api.model.V4User;
+import com.symphony.bdk.gen.api.model.V4UserJoinedRoom;
+import com.symphony.bdk.gen.api.model.V4UserLeftRoom;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class RoomMembershipIndexTest {
+
+  private static final String ROOM_ID = "XlU3OH9eVMzq+yss7M/xyn///oxwgbtGbQ==";
+  private static final String URL_SAFE_ROOM_ID = "XlU3OH9eVMzq-yss7M_xyn___oxwgbtGbQ";
+
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicInteger loads = new AtomicInteger();
+  private final Map<String, List<MemberInfo>> members = new HashMap<>();
+  private RoomMembershipConfig config;
+  private RoomMembershipIndex index;
+
+  @BeforeEach
+  void setUp() {
+    this.config = new RoomMembershipConfig();
+    this.config.setTimeToLiveMillis(1000);
+    this.members.put(ROOM_ID, Arrays.asList(member(1L, true), member(2L, false)));
+    this.members.put("room2", Arrays.asList(member(2L, false), member(3L, false)));
+    this.members.put("room3", Collections.singletonList(member(4L, true)));
+    this.index = this.newIndex();
+  }
+
+  @Test
+  void shouldLoadRoomOnce() {
+    assertTrue(this.index.isMember(ROOM_ID, 1L));
+    assertTrue(this.index.isOwner(URL_SAFE_ROOM_ID, 1L));
+    assertFalse(this.index.isOwner(ROOM_ID, 2L));
+    assertFalse(this.index.isMember(ROOM_ID, 3L));
+    assertArrayEquals(new long[] {1L, 2L}, this.index.getMembers(ROOM_ID));
+
+    assertEquals(1, this.loads.get());
+    assertEquals(1, this.index.size());
+    assertEquals(2, this.index.getMemberships());
+  }
+
+  @Test
+  void shouldApplyMembershipEvents() {
+    this.index.isMember(ROOM_ID, 1L);
+
+    this.index.onUserJoinedRoom(new V4Initiator(), new V4UserJoinedRoom().stream(stream()).affectedUser(user(3L)));
+    this.index.onRoomMemberPromotedToOwner(new V4Initiator(),
+        new V4RoomMemberPromotedToOwner().stream(stream()).affectedUser(user(3L)));
+    this.index.onRoomMemberDemotedFromOwner(new V4Initiator(),
+        new V4RoomMemberDemotedFromOwner().stream(stream()).affectedUser(user(1L)));
+    this.index.onUserLeftRoom(new V4Initiator(), new V4UserLeftRoom().stream(stream()).affectedUser(user(2L)));
+
+    assertArrayEquals(new long[] {1L, 3L}, this.index.getMembers(ROOM_ID));
+    assertTrue(this.index.isOwner(ROOM_ID, 3L));
+    assertFalse(this.index.isOwner(ROOM_ID, 1L));
+    assertEquals(2, this.index.getMemberships());
+    assertEquals(Collections.singleton(URL_SAFE_ROOM_ID), this.index.getIndexedRooms(3L));
+    assertTrue(this.index.getIndexedRooms(2L).isEmpty());
+    assertEquals(1, this.loads.get());
+  }
+
+  @Test
+  void shouldIgnoreEventsOfRoomsNotIndexed() {
+    this.index.onUserJoinedRoom(new V4Initiator(), new V4UserJoinedRoom().stream(stream()).affectedUser(user(3L)));
+
+    assertEquals(0, this.index.size());
+    assertTrue(this.index.getIndexedRooms(3L).isEmpty());
+  }
+
+  @Test
+  void shouldReplayEventsReceivedWhileLoading() {
+    this.index = new RoomMembershipIndex(roomId -> {
+      this.index.onUserJoinedRoom(new V4Initiator(), new V4UserJoinedRoom().stream(stream()).affectedUser(user(3L)));
+      this.index.onUserLeftRoom(new V4Initiator(), new V4UserLeftRoom().stream(stream()).affectedUser(user(1L)));
+      return this.members.get(roomId);
+    }, this.config, this.clock::get);
+
+    assertArrayEquals(new long[] {2L, 3L}, this.index.getMembers(ROOM_ID));
+  }
+
+  @Test
+  void shouldIndexRoomsOfUsers() {
+    this.index.isMember(ROOM_ID, 1L);
+    this.index.isMember("room2", 1L);
+
+    assertEquals(2, this.index.getIndexedRooms(2L).size());
+    assertEquals(Collections.singleton("room2"), this.index.getIndexedRooms(3L));
+
+    this.index.invalidate("room2");
+    assertEquals(Collections.singleton(URL_SAFE_ROOM_ID), this.index.getIndexedRooms(2L));
+    assertEquals(2, this.index.getMemberships());
+  }
+
+  @Test
+  void shouldReloadExpiredRooms() {
+    this.index.isMember(ROOM_ID, 1L);
+    this.clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+    this.index.isMember(ROOM_ID, 1L);
+
+    assertEquals(2, this.loads.get());
+    assertEquals(2, this.index.getMemberships());
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedRooms() {
+    this.config.setMaxMemberships(4);
+    this.index = this.newIndex();
+
+    this.index.isMember(ROOM_ID, 1L);
+    this.index.isMember("room2", 1L);
+    this.index.isMember(ROOM_ID, 1L);
+    this.index.isMember("room3", 1L);
+
+    assertEquals(2, this.index.size());
+    assertEquals(3, this.index.getMemberships());
+    assertTrue(this.index.getIndexedRooms(3L).isEmpty());
+    this.index.isMember(ROOM_ID, 1L);
+    assertEquals(3, this.loads.get());
+  }
+
+  @Test
+  void shouldNotIndexFailedLoads() {
+    this.index = new RoomMembershipIndex(roomId -> {
+      this.loads.incrementAndGet();
+      throw new ApiRuntimeException(new ApiException(500, "error"));
+    }, this.config, this.clock::get);
+
+    assertThrows(ApiRuntimeException.class, () -> this.index.isMember(ROOM_ID, 1L));
+    assertThrows(ApiRuntimeException.class, () -> this.index.isMember(ROOM_ID, 1L));
+    assertEquals(2, this.loads.get());
+    assertEquals(0, this.index.size());
+  }
+
+  private RoomMembershipIndex newIndex() {
+    return new RoomMembershipIndex(roomId -> {
+      this.loads.incrementAndGet();
+      return this.members.get(roomId);
+    }, this.config, this.clock::get);
+  }
+
+  private static MemberInfo member(long userId, boolean owner) {
+    return new MemberInfo().id(userId).owner(owner);
+  }
+
+  private static V4Stream stream() {
+    return new V4Stream().streamId(URL_SAFE_ROOM_ID);
+  }
+
+  private static V4User user(long userId) {
+    return new V4User().userId(userId);
+  }
+}
@@ -0,0 +1,132 @@
+package com.symphony.bdk.core.service.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.symphony.bdk.gen.api.model.UserV2;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+class UserBatchLoaderTest {
+
+  private OboUserService userService;
+  private UserBatchLoader loader;
+
+  @BeforeEach
+  void setUp() {
+    this.userService = mock(OboUserService.class);
+    when(this.userService.listUsersByIds(anyList())).thenAnswer(invocation -> {
+      final List<Long> ids = invocation.getArgument(0);
+      return ids.stream()
+          .filter(id -> id != 404L)
+          .map(id -> new UserV2().id(id).emailAddress("user" + id + "@symphony.com"))
+          .collect(Collectors.toList());
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (this.loader != null) {
+      this.loader.close();
+    }
+  }
+
+  @Test
+  void shouldBatchLookupsMadeWithinDelay() throws Exception {
+    this.loader = this.loader(50, 100);
+
+    final CompletableFuture<Optional<UserV2>> user1 = this.loader.loadById(1L);
+    final CompletableFuture<Optional<UserV2>> user2 = this.loader.loadById(2L);
+    final CompletableFuture<Optional<UserV2>> missing = this.loader.loadById(404L);
+
+    assertEquals(1L, user1.get(5, TimeUnit.SECONDS).get().getId());
+    assertEquals(2L, user2.get(5, TimeUnit.SECONDS).get().getId());
+    assertFalse(missing.get(5, TimeUnit.SECONDS).isPresent());
+    verify(this.userService, times(1)).listUsersByIds(Arrays.asList(1L, 2L, 404L));
+  }
+
+  @Test
+  void shouldSendFullBatchWithoutWaiting() throws Exception {
+    this.loader = this.loader(TimeUnit.MINUTES.toMillis(1), 2);
+
+    final CompletableFuture<Optional<UserV2>> user1 = this.loader.loadById(1L);
+    final CompletableFuture<Optional<UserV2>> user2 = this.loader.loadById(2L);
+    final CompletableFuture<Optional<UserV2>> user3 = this.loader.loadById(3L);
+
+    assertTrue(user1.get(5, TimeUnit.SECONDS).isPresent());
+    assertTrue(user2.get(5, TimeUnit.SECONDS).isPresent());
+    assertFalse(user3.isDone());
+    verify(this.userService, times(1)).listUsersByIds(Arrays.asList(1L, 2L));
+  }
+
+  @Test
+  void shouldShareLookupsOfSameKey() throws Exception {
+    this.loader = this.loader(50, 100);
+    when(this.userService.listUsersByEmails(anyList()))
+        .thenReturn(Collections.singletonList(new UserV2().id(1L).emailAddress("john@symphony.com")));
+
+    final CompletableFuture<Optional<UserV2>> user1 = this.loader.loadByEmail("john@symphony.com");
+    final CompletableFuture<Optional<UserV2>> user2 = this.loader.loadByEmail("John@Symphony.com");
+
+    assertSame(user1, user2);
+    assertEquals(1L, user1.get(5, TimeUnit.SECONDS).get().getId());
+    verify(this.userService, times(1)).listUsersByEmails(Collections.singletonList("john@symphony.com"));
+  }
+
+  @Test
+  void shouldFailAllLookupsOfFailedBatch() {
+    this.loader = this.loader(50, 100);
+    final ApiRuntimeException error = new ApiRuntimeException(new ApiException(500, "error"));
+    when(this.userService.listUsersByUsernames(anyList())).thenThrow(error);
+
+    final CompletableFuture<Optional<UserV2>> user1 = this.loader.loadByUsername("john");
+    final CompletableFuture<Optional<UserV2>> user2 = this.loader.loadByUsername("jane");
+
+    final ExecutionException thrown = assertThrows(ExecutionException.class, () -> user1.get(5, TimeUnit.SECONDS));
+    assertSame(error, thrown.getCause());
+    assertThrows(ExecutionException.class, () -> user2.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldSendPendingLookupsOnClose() throws Exception {
+    this.loader = this.loader(TimeUnit.MINUTES.toMillis(1), 100);
+
+    final CompletableFuture<Optional<UserV2>> user = this.loader.loadById(1L);
+    this.loader.close();
+
+    assertTrue(user.get(5, TimeUnit.SECONDS).isPresent());
+    final ExecutionException thrown =
+        assertThrows(ExecutionException.class, () -> this.loader.loadById(2L).get(5, TimeUnit.SECONDS));
+    assertTrue(thrown.getCause() instanceof IllegalStateException);
+    verify(this.userService, never()).listUsersByIds(Collections.singletonList(2L));
+  }
+
+  private UserBatchLoader loader(long maxDelayMillis, int maxBatchSize) {
+    final UserBatchConfig config = new UserBatchConfig();
+    config.setMaxDelayMillis(maxDelayMillis);
+    config.setMaxBatchSize(maxBatchSize);
+    return new UserBatchLoader(this.userService, config);
+  }
+}
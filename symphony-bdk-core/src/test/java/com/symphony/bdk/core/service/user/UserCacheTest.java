@@ -0,0 +1,219 @@
+package com.symphony.bdk.core.service.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.symphony.bdk.core.auth.AuthSession;
+import com.symphony.bdk.core.util.KeyedCacheConfig;
+import com.symphony.bdk.gen.api.model.UserV2;
+import com.symphony.bdk.gen.api.model.V4ConnectionAccepted;
+import com.symphony.bdk.gen.api.model.V4Initiator;
+import com.symphony.bdk.gen.api.model.V4MessageSent;
+import com.symphony.bdk.gen.api.model.V4User;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+class UserCacheTest {
+
+  private final AtomicLong clock = new AtomicLong();
+  private final List<List<String>> calls = Collections.synchronizedList(new ArrayList<>());
+  private UserCache cache;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    final KeyedCacheConfig config = new KeyedCacheConfig();
+    config.setMaxSize(3);
+    config.setTimeToLiveMillis(1000);
+    this.cache = new UserCache(config, this.clock::get);
+    this.executor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void shouldLoadOnlyMissingUsers() {
+    assertEquals(Arrays.asList(1L, 2L), this.ids(this.getByIds(this.cache, "1", "2")));
+    assertEquals(Arrays.asList(2L, 3L), this.ids(this.getByIds(this.cache, "2", "3", "404")));
+
+    assertEquals(Arrays.asList(Arrays.asList("1", "2"), Arrays.asList("3", "404")), this.calls);
+    assertEquals(1, this.cache.getMetrics().getHits());
+    assertEquals(4, this.cache.getMetrics().getMisses());
+    assertEquals(2, this.cache.getMetrics().getLoads());
+  }
+
+  @Test
+  void shouldCacheQueriesSeparately() {
+    final List<String> ids = Collections.singletonList("1");
+    this.cache.get(UserCache.BY_ID, "true,null", ids, this::load, this::idOf, UserV2::getId);
+    this.cache.get(UserCache.BY_ID, "false,null", ids, this::load, this::idOf, UserV2::getId);
+
+    assertEquals(2, this.calls.size());
+  }
+
+  @Test
+  void shouldIgnoreCaseOfEmails() {
+    final Function<List<String>, List<UserV2>> loader = emails -> emails.stream()
+        .map(email -> new UserV2().id(1L).emailAddress(email.toLowerCase()))
+        .collect(Collectors.toList());
+
+    this.cache.get(UserCache.BY_EMAIL, "", Collections.singletonList("John@Symphony.com"), loader,
+        UserV2::getEmailAddress, UserV2::getId);
+    final List<UserV2> users = this.cache.get(UserCache.BY_EMAIL, "", Collections.singletonList("john@symphony.com"),
+        loader, UserV2::getEmailAddress, UserV2::getId);
+
+    assertEquals(1, users.size());
+    assertEquals(1, this.cache.getMetrics().getHits());
+  }
+
+  @Test
+  void shouldExpireUsers() {
+    this.getByIds(this.cache, "1");
+    this.clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1001));
+    this.getByIds(this.cache, "1");
+
+    assertEquals(2, this.calls.size());
+    assertEquals(1, this.cache.getMetrics().getExpirations());
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedUsers() {
+    this.getByIds(this.cache, "1", "2", "3");
+    this.getByIds(this.cache, "1");
+    this.getByIds(this.cache, "4");
+
+    assertEquals(3, this.cache.size());
+    assertEquals(1, this.cache.getMetrics().getEvictions());
+    this.getByIds(this.cache, "1");
+    assertEquals(2, this.calls.size());
+    this.getByIds(this.cache, "2");
+    assertEquals(3, this.calls.size());
+  }
+
+  @Test
+  void shouldCoalesceConcurrentMisses() throws Exception {
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger loads = new AtomicInteger();
+    final Function<List<String>, List<UserV2>> loader = ids -> {
+      loads.incrementAndGet();
+      loading.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return this.load(ids);
+    };
+
+    final List<Future<List<UserV2>>> results = new ArrayList<>();
+    results.add(this.executor.submit(() -> this.cache.get(UserCache.BY_ID, "", Collections.singletonList("7"),
+        loader, this::idOf, UserV2::getId)));
+    assertTrue(loading.await(5, TimeUnit.SECONDS));
+    for (int i = 0; i < 3; i++) {
+      results.add(this.executor.submit(() -> this.cache.get(UserCache.BY_ID, "", Collections.singletonList("7"),
+          loader, this::idOf, UserV2::getId)));
+    }
+    while (this.cache.getMetrics().getCoalesced() < 3) {
+      Thread.sleep(10);
+    }
+    release.countDown();
+
+    for (Future<List<UserV2>> result : results) {
+      assertEquals(7L, result.get(5, TimeUnit.SECONDS).get(0).getId());
+    }
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void shouldNotCacheFailures() {
+    final ApiRuntimeException error = new ApiRuntimeException(new ApiException(500, "error"));
+
+    assertThrows(ApiRuntimeException.class, () -> this.cache.get(UserCache.BY_ID, "",
+        Collections.singletonList("1"), ids -> {
+          throw error;
+        }, this::idOf, UserV2::getId));
+    this.getByIds(this.cache, "1");
+
+    assertEquals(1, this.calls.size());
+  }
+
+  @Test
+  void shouldInvalidateChangedUserFromDatafeed() throws Exception {
+    this.getByIds(this.cache, "1", "2");
+
+    this.cache.onMessageSent(new V4Initiator().user(new V4User().userId(1L).displayName("user1")),
+        new V4MessageSent());
+    assertEquals(2, this.cache.size());
+
+    this.cache.onMessageSent(new V4Initiator().user(new V4User().userId(1L).displayName("renamed")),
+        new V4MessageSent());
+    assertEquals(1, this.cache.size());
+
+    this.cache.onConnectionAccepted(new V4Initiator(), new V4ConnectionAccepted().fromUser(new V4User().userId(2L)));
+    assertEquals(0, this.cache.size());
+    assertEquals(2, this.cache.getMetrics().getInvalidations());
+  }
+
+  @Test
+  void shouldCacheOboSessionsSeparately() {
+    final AuthSession oboSession = mock(AuthSession.class);
+    final UserCache oboCache = this.cache.forSession(oboSession);
+
+    assertSame(oboCache, this.cache.forSession(oboSession));
+    assertNotSame(oboCache, this.cache.forSession(mock(AuthSession.class)));
+
+    this.getByIds(this.cache, "1");
+    this.getByIds(oboCache, "1");
+    this.getByIds(oboCache, "1");
+    assertEquals(2, this.calls.size());
+
+    this.cache.invalidate(1L);
+    assertEquals(0, oboCache.size());
+  }
+
+  private List<UserV2> getByIds(UserCache userCache, String... ids) {
+    return userCache.get(UserCache.BY_ID, "", Arrays.asList(ids), this::load, this::idOf, UserV2::getId);
+  }
+
+  private List<UserV2> load(List<String> ids) {
+    this.calls.add(ids);
+    return ids.stream()
+        .filter(id -> !"404".equals(id))
+        .map(id -> new UserV2().id(Long.valueOf(id)).displayName("user" + id))
+        .collect(Collectors.toList());
+  }
+
+  private String idOf(UserV2 user) {
+    return String.valueOf(user.getId());
+  }
+
+  private List<Long> ids(List<UserV2> users) {
+    return users.stream().map(UserV2::getId).collect(Collectors.toList());
+  }
+}
@@ -13,11 +13,16 @@ import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
 import com.symphony.bdk.core.service.pagination.model.CursorPaginationAttribute;
 import com.symphony.bdk.core.service.pagination.model.PaginationAttribute;
 import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
+import com.symphony.bdk.core.service.user.audit.AuditTrailShardConfig;
 import com.symphony.bdk.core.service.user.constant.RoleId;
 import com.symphony.bdk.core.service.user.constant.UserFeature;
 import com.symphony.bdk.core.service.user.mapper.UserDetailMapper;
+import com.symphony.bdk.core.service.user.provisioning.ProvisioningConfig;
+import com.symphony.bdk.core.service.user.provisioning.ProvisioningReport;
+import com.symphony.bdk.core.service.user.provisioning.UserProvisioningSpec;
 import com.symphony.bdk.core.test.JsonHelper;
 import com.symphony.bdk.core.test.MockApiClient;
+import com.symphony.bdk.core.util.KeyedCacheConfig;
 import com.symphony.bdk.gen.api.AuditTrailApi;
 import com.symphony.bdk.gen.api.UserApi;
 import com.symphony.bdk.gen.api.UsersApi;
@@ -56,11 +61,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 class UserServiceTest {
   private static final String V2_USER_DETAIL_BY_ID = "/pod/v2/admin/user/{uid}";
@@ -561,6 +569,55 @@ class UserServiceTest {
         new UserStatus().status(UserStatus.StatusEnum.ENABLED)));
   }
 
+  @Test
+  void listUsersWithCacheTest() throws IOException, ApiException {
+    String response = JsonHelper.readFromClasspath("/user/users.json");
+    this.mockApiClient.onGet(SEARCH_USERS_V3, response);
+    this.service.enableCache(new KeyedCacheConfig());
+
+    List<UserV2> users1 = this.service.listUsersByIds(Collections.singletonList(1234L));
+    List<UserV2> users2 = this.service.listUsersByIds(Collections.singletonList(1234L));
+    List<UserV2> users3 = this.service.listUsersByEmails(Collections.singletonList("TIBOT@symphony.com"));
+    List<UserV2> users4 = this.service.listUsersByEmails(Collections.singletonList("tibot@symphony.com"));
+
+    assertEquals(users1, users2);
+    assertEquals(users3, users4);
+    assertEquals(users4.get(0).getId(), 1234L);
+    verify(spiedUsersApi, times(1)).v3UsersGet("1234", "1234", null, null, false, null);
+    verify(spiedUsersApi, times(1)).v3UsersGet("1234", null, "TIBOT@symphony.com", null, false, null);
+    assertEquals(2, this.service.getCache().get().getMetrics().getHits());
+  }
+
+  @Test
+  void listUsersWithCacheOboModeTest() throws IOException, ApiException {
+    String response = JsonHelper.readFromClasspath("/user/users.json");
+    this.mockApiClient.onGet(SEARCH_USERS_V3, response);
+    this.service.enableCache(new KeyedCacheConfig());
+    AuthSession oboSession = mock(AuthSession.class);
+    when(oboSession.getSessionToken()).thenReturn("1234");
+
+    this.service.listUsersByIds(Collections.singletonList(1234L));
+    this.service.obo(oboSession).listUsersByIds(Collections.singletonList(1234L));
+    this.service.obo(oboSession).listUsersByIds(Collections.singletonList(1234L));
+
+    verify(spiedUsersApi, times(2)).v3UsersGet("1234", "1234", null, null, false, null);
+  }
+
+  @Test
+  void updateUserInvalidatesCacheTest() throws IOException, ApiException {
+    String response = JsonHelper.readFromClasspath("/user/user_detail.json");
+    this.mockApiClient.onGet(V2_USER_DETAIL_BY_ID.replace("{uid}", "1234"), response);
+    this.mockApiClient.onPost(V2_USER_UPDATE.replace("{uid}", "1234"), response);
+    this.service.enableCache(new KeyedCacheConfig());
+
+    this.service.getUserDetail(1234L);
+    this.service.getUserDetail(1234L);
+    this.service.update(1234L, new V2UserAttributes());
+    this.service.getUserDetail(1234L);
+
+    verify(spiedUserApi, times(2)).v2AdminUserUidGet("1234", 1234L);
+  }
+
   @Test
   void searchUserV3Test() throws IOException {
     String response = JsonHelper.readFromClasspath("/user/users.json");
@@ -1012,6 +1069,28 @@ class UserServiceTest {
         String.format(MISSING_REQUIRED_PARAMETER_EXCEPTION_MESSAGE, "payload", "v2AdminUserCreatePost")));
   }
 
+  @Test
+  void provisionUsers() throws Exception {
+    String responseV2 = JsonHelper.readFromClasspath("/user/user_detail.json");
+    Long userId = 7215545078461L;
+    this.mockApiClient.onPost(V2_USER_CREATE, responseV2);
+    this.mockApiClient.onPost(ADD_ROLE_TO_USER.replace("{uid}", userId + ""),
+        "{\"format\": \"TEXT\", \"message\": \"Role added\"}");
+    this.mockApiClient.onPost(UPDATE_AVATAR_OF_USER.replace("{uid}", userId + ""),
+        "{\"format\": \"TEXT\", \"message\": \"OK\"}");
+
+    ProvisioningReport report = this.service.provision(
+        Stream.of(UserProvisioningSpec.newUser("johndoe", new V2UserCreate())
+            .roles(Collections.singletonList(RoleId.INDIVIDUAL))
+            .avatar("image")),
+        new ProvisioningConfig(), null).get(5, TimeUnit.SECONDS);
+
+    assertEquals(1, report.getProvisioned());
+    assertTrue(report.isSuccessful());
+    verify(spiedUserApi).v1AdminUserUidRolesAddPost(eq("1234"), eq(userId), eq(new StringId().id("INDIVIDUAL")));
+    verify(spiedUserApi).v1AdminUserUidAvatarUpdatePost(eq("1234"), eq(userId), eq(new AvatarUpdate().image("image")));
+  }
+
   @Test
   void updateUser() throws IOException {
     String responseV2 = JsonHelper.readFromClasspath("/user/user_detail.json");
@@ -1078,6 +1157,22 @@ class UserServiceTest {
     assertEquals(auditTrails.size(), 2);
   }
 
+  @Test
+  void readAuditTrail() throws Exception {
+    String response = JsonHelper.readFromClasspath("/audit_trail/audit_trail_initiator_list_v1.json");
+    this.mockApiClient.onGet(V1_AUDIT_TRAIL_PRIVILEGED_USER, response);
+    final AuditTrailShardConfig config = new AuditTrailShardConfig();
+    config.setShardDurationMillis(TimeUnit.DAYS.toMillis(1));
+    final List<V1AuditTrailInitiatorResponse> auditTrails = new ArrayList<>();
+
+    final long count = this.service.readAuditTrail(1551888601279L, 1551888601279L + TimeUnit.DAYS.toMillis(3),
+        1353716993L, "SUPER_ADMINISTRATOR", config, auditTrails::add);
+
+    // one page of 2 items per day
+    assertEquals(6, count);
+    assertEquals(6, auditTrails.size());
+  }
+
   @Test
   void listAuditTrailOnlyRequiredParams() throws IOException {
     String response = JsonHelper.readFromClasspath("/audit_trail/audit_trail_initiator_list_v1.json");
@@ -0,0 +1,156 @@
+package com.symphony.bdk.core.service.user.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.symphony.bdk.core.service.pagination.model.CursorPaginatedPayload;
+import com.symphony.bdk.gen.api.model.V1AuditTrailInitiatorResponse;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+class ShardedAuditTrailReaderTest {
+
+  private static final long DAY = 24 * 60 * 60 * 1000L;
+  private static final int ITEMS_PER_PAGE = 2;
+  private static final int PAGES_PER_SHARD = 3;
+
+  @TempDir
+  Path tempDir;
+
+  private AuditTrailShardConfig config;
+  private ExecutorService executor;
+  private Set<String> calls;
+
+  @BeforeEach
+  void setUp() {
+    this.config = new AuditTrailShardConfig();
+    this.config.setParallelism(2);
+    this.config.setChunkSize(ITEMS_PER_PAGE);
+    this.executor = Executors.newFixedThreadPool(2);
+    this.calls = ConcurrentHashMap.newKeySet();
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void shouldReadShardsInTimestampOrder() throws Exception {
+    final List<Long> dates = new ArrayList<>();
+
+    final long count = this.reader(this.api(-1)).read(0, 4 * DAY, item -> dates.add(item.getDate()));
+
+    assertEquals(4 * PAGES_PER_SHARD * ITEMS_PER_PAGE, count);
+    assertEquals(LongStream.range(0, count).boxed().collect(Collectors.toList()), dates);
+    assertTrue(this.calls.contains("0-86400000-null"));
+    assertTrue(this.calls.contains("259200000-345600000-2"));
+  }
+
+  @Test
+  void shouldCutLastShardAtEndTimestamp() throws Exception {
+    final List<Long> dates = new ArrayList<>();
+
+    this.reader(this.api(-1)).read(0, DAY + 1, item -> dates.add(item.getDate()));
+
+    assertEquals(2 * PAGES_PER_SHARD * ITEMS_PER_PAGE, dates.size());
+    assertTrue(this.calls.contains("86400000-86400001-null"));
+  }
+
+  @Test
+  void shouldNotFetchShardsAheadOfParallelism() throws Exception {
+    final Set<Long> startedShards = ConcurrentHashMap.newKeySet();
+    final AuditTrailShardApi api = this.api(-1);
+
+    this.reader((start, end, after, limit) -> {
+      startedShards.add(start);
+      return api.get(start, end, after, limit);
+    }).read(0, 5 * DAY, item -> {
+      if (item.getDate() < ITEMS_PER_PAGE * PAGES_PER_SHARD) {
+        assertTrue(startedShards.size() <= this.config.getParallelism());
+      }
+    });
+
+    assertEquals(5, startedShards.size());
+  }
+
+  @Test
+  void shouldStopOnFailedShard() {
+    assertThrows(ApiRuntimeException.class, () -> this.reader(this.api(2)).read(0, 4 * DAY, item -> {}));
+  }
+
+  @Test
+  void shouldResumeFromCheckpoints() throws Exception {
+    this.config.setCheckpointFile(this.tempDir.resolve("checkpoints.jsonl"));
+    final List<Long> dates = new ArrayList<>();
+
+    assertThrows(ApiRuntimeException.class,
+        () -> this.reader(this.api(1)).read(0, 3 * DAY, item -> dates.add(item.getDate())));
+    // the first shard and the first page of the second one
+    assertEquals((PAGES_PER_SHARD + 1) * ITEMS_PER_PAGE, dates.size());
+    this.calls.clear();
+
+    this.reader(this.api(-1)).read(0, 3 * DAY, item -> dates.add(item.getDate()));
+
+    // the first shard is not read again, nor the pages of the second one already passed to the sink
+    assertTrue(this.calls.stream().noneMatch(call -> call.startsWith("0-")));
+    assertTrue(this.calls.stream().noneMatch(call -> call.equals("86400000-172800000-null")));
+    assertEquals(LongStream.range(0, 3 * PAGES_PER_SHARD * ITEMS_PER_PAGE).boxed().collect(Collectors.toList()), dates);
+  }
+
+  private ShardedAuditTrailReader reader(AuditTrailShardApi api) {
+    return new ShardedAuditTrailReader(this.config, this.executor, api);
+  }
+
+  /**
+   * Each shard of one day has {@link #PAGES_PER_SHARD} pages, the cursor being the index of the next page.
+   *
+   * @param failingPage index of the page of the second shard failing, -1 if none
+   */
+  private AuditTrailShardApi api(int failingPage) {
+    return (start, end, after, limit) -> {
+      this.calls.add(start + "-" + end + "-" + after);
+      final int page = after == null ? 0 : Integer.parseInt(after);
+      if (start == DAY && page == failingPage) {
+        throw new ApiException(500, "error");
+      }
+      final long shard = start / DAY;
+      final List<V1AuditTrailInitiatorResponse> items = new ArrayList<>();
+      for (int i = 0; i < limit; i++) {
+        items.add(new V1AuditTrailInitiatorResponse().date((shard * PAGES_PER_SHARD + page) * limit + i));
+      }
+      return payload(page + 1 < PAGES_PER_SHARD ? String.valueOf(page + 1) : null, items);
+    };
+  }
+
+  private static CursorPaginatedPayload<V1AuditTrailInitiatorResponse> payload(String next,
+      List<V1AuditTrailInitiatorResponse> items) {
+    return new CursorPaginatedPayload<V1AuditTrailInitiatorResponse>() {
+      @Override
+      public String getNext() {
+        return next;
+      }
+
+      @Override
+      public List<V1AuditTrailInitiatorResponse> getData() {
+        return items;
+      }
+    };
+  }
+}
@@ -0,0 +1,221 @@
+package com.symphony.bdk.core.service.user.directory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
+import com.symphony.bdk.core.service.user.UserService;
+import com.symphony.bdk.gen.api.model.UserSystemInfo;
+import com.symphony.bdk.gen.api.model.UserV2;
+import com.symphony.bdk.gen.api.model.V2UserAttributes;
+import com.symphony.bdk.gen.api.model.V2UserDetail;
+import com.symphony.bdk.gen.api.model.V4Initiator;
+import com.symphony.bdk.gen.api.model.V4MessageSent;
+import com.symphony.bdk.gen.api.model.V4User;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class UserDirectoryTest {
+
+  @TempDir
+  Path tempDir;
+
+  private UserService userService;
+  private UserDirectoryConfig config;
+  private AtomicLong clock;
+  private UserDirectory directory;
+
+  @BeforeEach
+  void setUp() {
+    this.userService = mock(UserService.class);
+    when(this.userService.getCache()).thenReturn(Optional.empty());
+    when(this.userService.listAllUsersDetail(any(StreamPaginationAttribute.class))).thenAnswer(invocation -> Stream.of(
+        detail(3L, "jdoe", "john.doe@symphony.com", "John Doe", true),
+        detail(1L, "jsmith", "jane.smith@symphony.com", "Jane Smith", true),
+        detail(2L, "jdupont", "jean.dupont@symphony.com", "Jean Dupont", false),
+        detail(4L, "bwayne", "bruce.wayne@symphony.com", "Bruce Wayne", true)));
+
+    this.config = new UserDirectoryConfig();
+    this.config.setRefreshIntervalMillis(0);
+    this.config.setFullSyncIntervalMillis(0);
+    this.clock = new AtomicLong(TimeUnit.DAYS.toMillis(1000));
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (this.directory != null) {
+      this.directory.close();
+    }
+  }
+
+  @Test
+  void shouldFindUsersAfterFullSync() {
+    this.directory = this.start();
+
+    assertEquals(4, this.directory.size());
+    assertEquals("jdoe", this.directory.findById(3L).get().getUsername());
+    assertEquals("Symphony", this.directory.findById(3L).get().getCompany());
+    assertFalse(this.directory.findById(2L).get().isActive());
+    assertFalse(this.directory.findById(5L).isPresent());
+    assertEquals(1L, this.directory.findByEmailAddress("Jane.Smith@symphony.com").get().getId());
+    assertEquals(4L, this.directory.findByUsername("BWAYNE").get().getId());
+    assertFalse(this.directory.findByEmailAddress("jane@symphony.com").isPresent());
+    assertEquals(this.clock.get(), this.directory.getLastSync().toEpochMilli());
+  }
+
+  @Test
+  void shouldFindUsersByDisplayNamePrefix() {
+    this.directory = this.start();
+
+    assertEquals(Arrays.asList(1L, 2L, 3L), ids(this.directory.findByDisplayNamePrefix("j", 10)));
+    assertEquals(Arrays.asList(1L, 2L), ids(this.directory.findByDisplayNamePrefix("J", 2)));
+    assertEquals(Collections.singletonList(1L), ids(this.directory.findByDisplayNamePrefix("ja", 10)));
+    assertEquals(Collections.singletonList(2L), ids(this.directory.findByDisplayNamePrefix("JEAN D", 10)));
+    assertTrue(this.directory.findByDisplayNamePrefix("z", 10).isEmpty());
+  }
+
+  @Test
+  void shouldRefreshUsersChangedInDatafeed() {
+    when(this.userService.listUsersByIds(anyList(), eq(true), isNull())).thenReturn(
+        Collections.singletonList(new UserV2().id(3L).username("jdoe").emailAddress("john.doe@symphony.com")
+            .displayName("Johnny Doe")));
+    this.directory = this.start();
+
+    this.directory.onMessageSent(initiator(1L, "Jane Smith"), new V4MessageSent());
+    this.directory.refresh();
+    verify(this.userService, never()).listUsersByIds(anyList(), eq(true), isNull());
+
+    this.directory.onMessageSent(initiator(3L, "Johnny Doe"), new V4MessageSent());
+    this.directory.refresh();
+    verify(this.userService, times(1)).listUsersByIds(Collections.singletonList(3L), true, null);
+    assertEquals("Johnny Doe", this.directory.findById(3L).get().getDisplayName());
+    assertEquals(3L, this.directory.findByDisplayNamePrefix("johnny", 10).get(0).getId());
+    assertTrue(this.directory.findByDisplayNamePrefix("john doe", 10).isEmpty());
+  }
+
+  @Test
+  void shouldRemoveUsersNoLongerFound() {
+    when(this.userService.listUsersByIds(anyList(), eq(true), isNull())).thenReturn(Collections.emptyList());
+    this.directory = this.start();
+
+    this.directory.markChanged(4L);
+    this.directory.refresh();
+
+    assertEquals(3, this.directory.size());
+    assertFalse(this.directory.findByUsername("bwayne").isPresent());
+
+    // unknown users seen in the datafeed are not retrieved again until the next full sync
+    this.directory.onMessageSent(initiator(4L, "Bruce Wayne"), new V4MessageSent());
+    this.directory.refresh();
+    verify(this.userService, times(1)).listUsersByIds(anyList(), eq(true), isNull());
+  }
+
+  @Test
+  void shouldRetryRefreshOnFailure() {
+    when(this.userService.listUsersByIds(anyList(), eq(true), isNull()))
+        .thenThrow(new ApiRuntimeException(new ApiException(500, "error")))
+        .thenReturn(Collections.singletonList(new UserV2().id(4L).username("batman")));
+    this.directory = this.start();
+
+    this.directory.markChanged(4L);
+    assertThrows(ApiRuntimeException.class, () -> this.directory.refresh());
+    this.directory.refresh();
+
+    assertEquals(4L, this.directory.findByUsername("batman").get().getId());
+  }
+
+  @Test
+  void shouldLoadSnapshotOnStart() throws Exception {
+    final Path snapshotFile = this.tempDir.resolve("users.bin");
+    this.config.setSnapshotFile(snapshotFile);
+    this.config.setFullSyncIntervalMillis(TimeUnit.DAYS.toMillis(1));
+    this.start().close();
+    assertTrue(Files.exists(snapshotFile));
+
+    this.clock.addAndGet(TimeUnit.HOURS.toMillis(1));
+    this.directory = this.start();
+
+    verify(this.userService, times(1)).listAllUsersDetail(any(StreamPaginationAttribute.class));
+    assertEquals(4, this.directory.size());
+    assertEquals(2L, this.directory.findByEmailAddress("jean.dupont@symphony.com").get().getId());
+    assertFalse(this.directory.findById(2L).get().isActive());
+    assertEquals(Collections.singletonList(4L), ids(this.directory.findByDisplayNamePrefix("bruce", 10)));
+  }
+
+  @Test
+  void shouldSyncWhenSnapshotIsStale() {
+    this.config.setSnapshotFile(this.tempDir.resolve("users.bin"));
+    this.config.setFullSyncIntervalMillis(TimeUnit.DAYS.toMillis(1));
+    this.start().close();
+
+    this.clock.addAndGet(TimeUnit.DAYS.toMillis(2));
+    this.directory = this.start();
+
+    verify(this.userService, times(2)).listAllUsersDetail(any(StreamPaginationAttribute.class));
+    assertEquals(this.clock.get(), this.directory.getLastSync().toEpochMilli());
+  }
+
+  @Test
+  void shouldSyncWhenSnapshotIsCorrupted() throws Exception {
+    final Path snapshotFile = this.tempDir.resolve("users.bin");
+    Files.write(snapshotFile, new byte[] {1, 2, 3});
+    this.config.setSnapshotFile(snapshotFile);
+    this.directory = this.start();
+
+    verify(this.userService, times(1)).listAllUsersDetail(any(StreamPaginationAttribute.class));
+    assertEquals(4, this.directory.size());
+  }
+
+  private UserDirectory start() {
+    final UserDirectory userDirectory = new UserDirectory(this.userService, this.config, this.clock::get);
+    userDirectory.start();
+    return userDirectory;
+  }
+
+  private static List<Long> ids(List<DirectoryUser> users) {
+    return users.stream().map(DirectoryUser::getId).collect(Collectors.toList());
+  }
+
+  private static V4Initiator initiator(long userId, String displayName) {
+    return new V4Initiator().user(new V4User().userId(userId).displayName(displayName));
+  }
+
+  private static V2UserDetail detail(long id, String username, String email, String displayName, boolean enabled) {
+    return new V2UserDetail()
+        .userAttributes(new V2UserAttributes()
+            .userName(username)
+            .emailAddress(email)
+            .displayName(displayName)
+            .companyName("Symphony"))
+        .userSystemInfo(new UserSystemInfo()
+            .id(id)
+            .status(enabled ? UserSystemInfo.StatusEnum.ENABLED : UserSystemInfo.StatusEnum.DISABLED));
+  }
+}
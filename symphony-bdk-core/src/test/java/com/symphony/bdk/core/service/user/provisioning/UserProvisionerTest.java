@@ -0,0 +1,254 @@
+package com.symphony.bdk.core.service.user.provisioning;
+
+import static com.symphony.bdk.core.test.BdkRetryConfigTestHelper.ofMinimalInterval;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
+import com.symphony.bdk.core.service.user.constant.RoleId;
+import com.symphony.bdk.gen.api.model.Feature;
+import com.symphony.bdk.gen.api.model.UserSystemInfo;
+import com.symphony.bdk.gen.api.model.V2UserAttributes;
+import com.symphony.bdk.gen.api.model.V2UserCreate;
+import com.symphony.bdk.gen.api.model.V2UserDetail;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import jakarta.ws.rs.ProcessingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class UserProvisionerTest {
+
+  @TempDir
+  Path tempDir;
+
+  private UserProvisioningApi api;
+  private ProvisioningConfig config;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() throws ApiException {
+    this.api = mock(UserProvisioningApi.class);
+    when(this.api.create(any())).thenAnswer(invocation -> {
+      final V2UserCreate payload = invocation.getArgument(0);
+      final long userId = Long.parseLong(payload.getUserAttributes().getUserName().substring("user".length()));
+      return new V2UserDetail().userSystemInfo(new UserSystemInfo().id(userId));
+    });
+    this.config = new ProvisioningConfig();
+    this.executor = Executors.newFixedThreadPool(this.config.getMaxConcurrency() + 1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void shouldRunOperationsInOrder() throws Exception {
+    final ProvisioningReport report = this.provision(Stream.of(newUser(1)
+        .attributes(new V2UserAttributes().department("Sales"))
+        .roles(Arrays.asList(RoleId.INDIVIDUAL, RoleId.L1_SUPPORT))
+        .featureEntitlements(Collections.singletonList(new Feature().entitlment("canCreatePublicRoom")))
+        .avatar("image")));
+
+    assertEquals(1, report.getProvisioned());
+    assertTrue(report.isSuccessful());
+    verify(this.api).update(eq(1L), eq(new V2UserAttributes().department("Sales")));
+    verify(this.api).addRole(1L, RoleId.INDIVIDUAL);
+    verify(this.api).addRole(1L, RoleId.L1_SUPPORT);
+    verify(this.api).updateFeatureEntitlements(eq(1L), any());
+    verify(this.api).updateAvatar(1L, "image");
+  }
+
+  @Test
+  void shouldProvisionExistingUser() throws Exception {
+    final ProvisioningReport report =
+        this.provision(Stream.of(UserProvisioningSpec.existingUser("jdoe", 42L).avatar("image")));
+
+    assertEquals(1, report.getProvisioned());
+    verify(this.api, never()).create(any());
+    verify(this.api).updateAvatar(42L, "image");
+  }
+
+  @Test
+  void shouldRetryFailedCalls() throws Exception {
+    doThrow(new ApiException(503, "unavailable")).doNothing().when(this.api).addRole(1L, RoleId.INDIVIDUAL);
+
+    final ProvisioningReport report =
+        this.provision(Stream.of(newUser(1).roles(Collections.singletonList(RoleId.INDIVIDUAL))));
+
+    assertTrue(report.isSuccessful());
+    verify(this.api, times(2)).addRole(1L, RoleId.INDIVIDUAL);
+  }
+
+  @Test
+  void shouldAdoptUserCreatedByFailedAttempt() throws Exception {
+    doThrow(new ApiException(503, "unavailable")).when(this.api).create(any());
+    when(this.api.findByUsername("user1")).thenReturn(1L);
+
+    final ProvisioningReport report = this.provision(Stream.of(newUser(1).avatar("image")));
+
+    assertTrue(report.isSuccessful());
+    verify(this.api, times(1)).create(any());
+    verify(this.api).updateAvatar(1L, "image");
+  }
+
+  @Test
+  void shouldAdoptUserCreatedByTimedOutAttempt() throws Exception {
+    doThrow(new ProcessingException(new SocketTimeoutException())).when(this.api).create(any());
+    when(this.api.findByUsername("user1")).thenReturn(1L);
+
+    final ProvisioningReport report = this.provision(Stream.of(newUser(1).avatar("image")));
+
+    assertTrue(report.isSuccessful());
+    verify(this.api, times(1)).create(any());
+    verify(this.api).updateAvatar(1L, "image");
+  }
+
+  @Test
+  void shouldCreateUserAgainIfFailedAttemptDidNotCreateIt() throws Exception {
+    doThrow(new ApiException(503, "unavailable"))
+        .doReturn(new V2UserDetail().userSystemInfo(new UserSystemInfo().id(1L)))
+        .when(this.api).create(any());
+    when(this.api.findByUsername("user1")).thenReturn(null);
+
+    final ProvisioningReport report = this.provision(Stream.of(newUser(1).avatar("image")));
+
+    assertTrue(report.isSuccessful());
+    verify(this.api).findByUsername("user1");
+    verify(this.api, times(2)).create(any());
+    verify(this.api).updateAvatar(1L, "image");
+  }
+
+  @Test
+  void shouldStopUserAtFailedOperation() throws Exception {
+    doThrow(new ApiException(400, "bad image")).when(this.api).updateAvatar(eq(2L), anyString());
+    final List<ProvisioningResult> results = Collections.synchronizedList(new ArrayList<>());
+
+    final ProvisioningReport report = new UserProvisioner(this.config, this.executor, this.retryBuilder(), this.api)
+        .provision(Stream.of(newUser(1).avatar("image").roles(Collections.singletonList(RoleId.INDIVIDUAL)),
+            newUser(2).avatar("image").roles(Collections.singletonList(RoleId.INDIVIDUAL))), results::add)
+        .get(5, TimeUnit.SECONDS);
+
+    assertEquals(1, report.getProvisioned());
+    assertEquals(1, report.getFailures().size());
+    final ProvisioningResult failure = report.getFailures().get(0);
+    assertEquals("user2", failure.getKey());
+    assertEquals(2L, failure.getUserId());
+    assertEquals(ProvisioningResult.Status.FAILED, failure.getStatus());
+    assertEquals(ProvisioningStep.AVATAR, failure.getFailedStep());
+    assertEquals(400, ((ApiRuntimeException) failure.getError()).getCode());
+    assertEquals(2, results.size());
+    // client errors are not retried
+    verify(this.api, times(1)).updateAvatar(2L, "image");
+  }
+
+  @Test
+  void shouldDecreaseConcurrencyOnTooManyRequests() throws Exception {
+    this.config.setInitialConcurrency(8);
+    final AtomicInteger calls = new AtomicInteger();
+    doAnswer(invocation -> {
+      if (calls.incrementAndGet() == 5) {
+        throw new ApiException(429, "too many requests");
+      }
+      return null;
+    }).when(this.api).updateAvatar(anyLong(), anyString());
+
+    final ProvisioningReport report = this.provision(
+        IntStream.rangeClosed(1, 20).mapToObj(i -> UserProvisioningSpec.existingUser("user" + i, i).avatar("image")));
+
+    assertEquals(20, report.getProvisioned());
+    assertEquals(4, report.getMinConcurrency());
+  }
+
+  @Test
+  void shouldResumeFromProgressFile() throws Exception {
+    final Path progressFile = this.tempDir.resolve("progress.jsonl");
+    this.config.setProgressFile(progressFile);
+    doThrow(new ApiException(400, "bad image")).doNothing().when(this.api).updateAvatar(eq(2L), anyString());
+
+    ProvisioningReport report = this.provision(users());
+    assertEquals(1, report.getProvisioned());
+    assertEquals(1, report.getFailures().size());
+    assertTrue(Files.exists(progressFile));
+
+    report = this.provision(users());
+
+    assertEquals(1, report.getProvisioned());
+    assertEquals(1, report.getSkipped());
+    assertTrue(report.isSuccessful());
+    // the user is neither created again nor given its roles again
+    verify(this.api, times(2)).create(any());
+    verify(this.api, times(1)).addRole(2L, RoleId.INDIVIDUAL);
+    verify(this.api, times(2)).updateAvatar(2L, "image");
+    verify(this.api, times(1)).updateAvatar(1L, "image");
+  }
+
+  @Test
+  void shouldIgnoreMalformedProgressRecords() throws Exception {
+    final Path progressFile = this.tempDir.resolve("progress.jsonl");
+    Files.write(progressFile, Arrays.asList("{\"key\":\"user1\",\"done\":true,\"userId\":1}", "{\"key\":\"us"));
+    this.config.setProgressFile(progressFile);
+
+    final ProvisioningReport report = this.provision(users());
+
+    assertEquals(1, report.getSkipped());
+    assertEquals(1, report.getProvisioned());
+    verify(this.api, never()).updateAvatar(eq(1L), anyString());
+    assertTrue(report.isSuccessful());
+    final List<String> lines = Files.readAllLines(progressFile).stream()
+        .filter(line -> line.contains("\"user2\""))
+        .collect(Collectors.toList());
+    assertFalse(lines.isEmpty());
+  }
+
+  private ProvisioningReport provision(Stream<UserProvisioningSpec> specs) throws Exception {
+    return new UserProvisioner(this.config, this.executor, this.retryBuilder(), this.api)
+        .provision(specs, null)
+        .get(5, TimeUnit.SECONDS);
+  }
+
+  private RetryWithRecoveryBuilder<?> retryBuilder() {
+    return new RetryWithRecoveryBuilder<>().retryConfig(ofMinimalInterval(3));
+  }
+
+  private static Stream<UserProvisioningSpec> users() {
+    return Stream.of(newUser(1).avatar("image").roles(Collections.singletonList(RoleId.INDIVIDUAL)),
+        newUser(2).avatar("image").roles(Collections.singletonList(RoleId.INDIVIDUAL)));
+  }
+
+  private static UserProvisioningSpec newUser(int id) {
+    return UserProvisioningSpec.newUser("user" + id,
+        new V2UserCreate().userAttributes(new V2UserAttributes().userName("user" + id)));
+  }
+}
@@ -0,0 +1,125 @@
+package com.symphony.bdk.core.util;
+
+import static com.symphony.bdk.core.test.BdkRetryConfigTestHelper.ofMinimalInterval;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
+import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiRuntimeException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class AdaptiveTaskRunnerTest {
+
+  private final AtomicLong clock = new AtomicLong();
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final List<String> results = Collections.synchronizedList(new ArrayList<>());
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void shouldAwaitAllTasks() throws InterruptedException {
+    final AdaptiveTaskRunner<String> runner = this.runner(2);
+    final AtomicInteger done = new AtomicInteger();
+
+    runner.runAll(Arrays.asList(1, 2, 3, 4, 5).iterator(), item -> done.incrementAndGet());
+
+    assertEquals(5, done.get());
+  }
+
+  @Test
+  void shouldAwaitRunningTasksWhenItemsFail() {
+    final AdaptiveTaskRunner<String> runner = this.runner(2);
+    final AtomicInteger done = new AtomicInteger();
+    final Iterator<Integer> items = new Iterator<Integer>() {
+      private int next;
+
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+
+      @Override
+      public Integer next() {
+        if (this.next == 2) {
+          throw new IllegalStateException("broken");
+        }
+        return this.next++;
+      }
+    };
+
+    assertThrows(IllegalStateException.class, () -> runner.runAll(items, item -> {
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      done.incrementAndGet();
+    }));
+    assertEquals(2, done.get());
+  }
+
+  @Test
+  void shouldDecreaseConcurrencyOnOverload() {
+    final AdaptiveTaskRunner<String> runner = this.runner(8);
+    final AtomicInteger attempts = new AtomicInteger();
+
+    final String value = runner.call("test", () -> {
+      if (attempts.incrementAndGet() == 1) {
+        throw new ApiException(429, "too many requests");
+      }
+      return "value";
+    });
+
+    assertEquals("value", value);
+    assertEquals(4, runner.getMinConcurrency());
+  }
+
+  @Test
+  void shouldNotRetryClientErrors() {
+    final AdaptiveTaskRunner<String> runner = this.runner(8);
+    final AtomicInteger attempts = new AtomicInteger();
+
+    assertThrows(ApiRuntimeException.class, () -> runner.call("test", () -> {
+      attempts.incrementAndGet();
+      throw new ApiException(400, "bad request");
+    }));
+    assertEquals(1, attempts.get());
+    assertEquals(8, runner.getMinConcurrency());
+  }
+
+  @Test
+  void shouldIgnoreListenerFailures() {
+    final AdaptiveTaskRunner<String> runner = new AdaptiveTaskRunner<>(1, 1, this.executor,
+        new RetryWithRecoveryBuilder<>().retryConfig(ofMinimalInterval(3)), result -> {
+          this.results.add(result);
+          throw new IllegalStateException("listener");
+        }, result -> result, this.clock::get);
+
+    runner.publish("first");
+    runner.publish("second");
+
+    assertEquals(Arrays.asList("first", "second"), this.results);
+  }
+
+  private AdaptiveTaskRunner<String> runner(int initialConcurrency) {
+    return new AdaptiveTaskRunner<>(initialConcurrency, 16, this.executor,
+        new RetryWithRecoveryBuilder<>().retryConfig(ofMinimalInterval(3)), this.results::add, result -> result,
+        this.clock::get);
+  }
+}
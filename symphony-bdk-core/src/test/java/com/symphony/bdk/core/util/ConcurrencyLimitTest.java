@@ -0,0 +1,76 @@
+package com.symphony.bdk.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ConcurrencyLimitTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  void shouldIncreaseAfterAsManySuccessesAsTheLimit() {
+    final ConcurrencyLimit limit = new ConcurrencyLimit(2, 3, this.clock::get);
+
+    limit.onSuccess();
+    assertEquals(2, limit.getLimit());
+    limit.onSuccess();
+    assertEquals(3, limit.getLimit());
+
+    for (int i = 0; i < 10; i++) {
+      limit.onSuccess();
+    }
+    assertEquals(3, limit.getLimit());
+    assertEquals(3, limit.getMaxReached());
+  }
+
+  @Test
+  void shouldHalveOnOverloadOncePerInterval() {
+    final ConcurrencyLimit limit = new ConcurrencyLimit(16, 32, this.clock::get);
+
+    limit.onOverload();
+    limit.onOverload();
+    assertEquals(8, limit.getLimit());
+
+    this.clock.addAndGet(ConcurrencyLimit.DECREASE_INTERVAL_NANOS);
+    limit.onOverload();
+    assertEquals(4, limit.getLimit());
+
+    this.clock.addAndGet(ConcurrencyLimit.DECREASE_INTERVAL_NANOS);
+    limit.onOverload();
+    this.clock.addAndGet(ConcurrencyLimit.DECREASE_INTERVAL_NANOS);
+    limit.onOverload();
+    this.clock.addAndGet(ConcurrencyLimit.DECREASE_INTERVAL_NANOS);
+    limit.onOverload();
+    assertEquals(1, limit.getLimit());
+    assertEquals(1, limit.getMinReached());
+  }
+
+  @Test
+  void shouldBlockAcquireAboveLimit() throws Exception {
+    final ConcurrencyLimit limit = new ConcurrencyLimit(1, 1, this.clock::get);
+    limit.acquire();
+
+    final CountDownLatch acquired = new CountDownLatch(1);
+    final Thread thread = new Thread(() -> {
+      try {
+        limit.acquire();
+        acquired.countDown();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    thread.start();
+
+    assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+    limit.release();
+    assertTrue(acquired.await(5, TimeUnit.SECONDS));
+    thread.join();
+  }
+}
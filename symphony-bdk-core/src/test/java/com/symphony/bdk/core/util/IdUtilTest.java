@@ -1,10 +1,16 @@
 package com.symphony.bdk.core.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.Base64;
+import java.util.Random;
+
 class IdUtilTest {
 
   @Test
@@ -31,4 +37,34 @@ class IdUtilTest {
     assertEquals("alreadybase64",
         IdUtil.toUrlSafeIdIfNeeded(IdUtil.toUrlSafeIdIfNeeded("alreadybase64")));
   }
+
+  @Test
+  void testToUrlSafeIdIfNeededReturnsSameInstance() {
+    String streamId = "XlU3OH9eVMzq-yss7M_xyn___oxwgbtGbQ";
+    assertSame(streamId, IdUtil.toUrlSafeIdIfNeeded(streamId));
+    assertNull(IdUtil.toUrlSafeIdIfNeeded(null));
+  }
+
+  @Test
+  void testFromUrlSafeIdPadding() {
+    assertEquals("YWI=", IdUtil.fromUrlSafeId("YWI"));
+    assertEquals("YWJj", IdUtil.fromUrlSafeId("YWJj"));
+    assertEquals("YQ==", IdUtil.fromUrlSafeId("YQ=="));
+    assertThrows(IllegalArgumentException.class, () -> IdUtil.fromUrlSafeId("YWJjZ"));
+  }
+
+  @Test
+  void testConversionsMatchBase64() {
+    Random random = new Random(42);
+    for (int length = 0; length < 64; length++) {
+      byte[] bytes = new byte[length];
+      random.nextBytes(bytes);
+      String id = Base64.getEncoder().encodeToString(bytes);
+      String urlSafeId = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+      assertEquals(urlSafeId, IdUtil.toUrlSafeId(id));
+      assertEquals(urlSafeId, IdUtil.toUrlSafeIdIfNeeded(id));
+      assertEquals(id, IdUtil.fromUrlSafeId(urlSafeId));
+    }
+  }
 }
@@ -0,0 +1,130 @@
+package com.symphony.bdk.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class KeyedCacheTest {
+
+  private final AtomicLong clock = new AtomicLong();
+  private final List<List<String>> calls = new ArrayList<>();
+  private KeyedCache<String> cache;
+
+  @BeforeEach
+  void setUp() {
+    final KeyedCacheConfig config = new KeyedCacheConfig();
+    config.setMaxSize(10);
+    config.setTimeToLiveMillis(1000);
+    this.cache = new KeyedCache<>(config, this.clock::get);
+  }
+
+  @Test
+  void shouldLoadOnlyMissingKeys() {
+    this.cache.getAll(Arrays.asList("a1", "b1"), this::load, this::tagOf);
+    final Map<String, String> values = this.cache.getAll(Arrays.asList("b1", "c1", "b1"), this::load, this::tagOf);
+
+    assertEquals(2, values.size());
+    assertEquals(Arrays.asList(Arrays.asList("a1", "b1"), Collections.singletonList("c1")), this.calls);
+    assertEquals(1, this.cache.getMetrics().getHits());
+    assertEquals(3, this.cache.getMetrics().getMisses());
+  }
+
+  @Test
+  void shouldNotCacheMissingValues() {
+    assertNull(this.cache.get("a1", () -> null, value -> "a"));
+    assertEquals("value", this.cache.get("a1", () -> "value", value -> "a"));
+
+    assertEquals(2, this.cache.getMetrics().getLoads());
+  }
+
+  @Test
+  void shouldInvalidateEntriesOfTag() {
+    this.cache.getAll(Arrays.asList("a1", "a2", "b1"), this::load, this::tagOf);
+
+    this.cache.invalidateTag("a");
+
+    assertEquals(1, this.cache.size());
+    assertEquals(2, this.cache.getMetrics().getInvalidations());
+  }
+
+  @Test
+  void shouldLoadAgainValueInvalidatedWhileAwaited() throws Exception {
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<String> first = executor.submit(() -> this.cache.get("a1", () -> {
+        loading.countDown();
+        await(release);
+        return "outdated";
+      }, value -> "a"));
+      assertTrue(loading.await(5, TimeUnit.SECONDS));
+      final Future<String> second = executor.submit(() -> this.cache.get("a1", () -> "value", value -> "a"));
+      while (this.cache.getMetrics().getCoalesced() < 1) {
+        Thread.sleep(1);
+      }
+
+      this.cache.invalidateTag("a");
+      release.countDown();
+
+      assertEquals("outdated", first.get(5, TimeUnit.SECONDS));
+      assertEquals("value", second.get(5, TimeUnit.SECONDS));
+      assertEquals("value", this.cache.get("a1", () -> "other", value -> "a"));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldShareMetricsAndInvalidationsWithChildren() {
+    final Object owner = new Object();
+    final KeyedCache<String> child = this.cache.child(owner);
+
+    assertSame(child, this.cache.child(owner));
+    assertNotSame(child, this.cache.child(new Object()));
+
+    child.get("a1", () -> "value", value -> "a");
+    this.cache.get("a1", () -> "value", value -> "a");
+    assertEquals(2, this.cache.getMetrics().getLoads());
+
+    this.cache.invalidateAll();
+    assertEquals(0, child.size());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Map<String, String> load(List<String> keys) {
+    this.calls.add(keys);
+    final Map<String, String> values = new HashMap<>();
+    keys.forEach(key -> values.put(key, "value-" + key));
+    return values;
+  }
+
+  private String tagOf(String value) {
+    return value.substring("value-".length(), "value-".length() + 1);
+  }
+}
@@ -13,6 +13,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.IOException;
 import java.util.stream.Stream;
 
 class PresentationMLParserTest {
@@ -25,7 +26,47 @@ class PresentationMLParserTest {
             "This is a link to Symphony's Website"),
         arguments("<div data-format=\"PresentationML\" data-version=\"2.0\"> <p>/test &lt;/messageML&gt;</p> </div>",
             "/test </messageML>"),
-        arguments("<div data-format=\"PresentationML\" data-version=\"2.0\">Hello&#xA0;World</div>", "Hello World"));
+        arguments("<div data-format=\"PresentationML\" data-version=\"2.0\">Hello&#xA0;World</div>", "Hello World"),
+        arguments("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<div>a<!-- b --><?pi c?></div>", "a"),
+        arguments("<div><![CDATA[<b>bold</b> & co]]> &amp;lt;tag&amp;gt; &#65;&#x42;&quot;&apos;</div>",
+            "<b>bold</b> & co <tag> AB\"'"),
+        arguments("<div>\r\n<p class=\"a\" id='b'>line\rbreak</p><br/><br /></div>", "line\nbreak"),
+        arguments("<!-- first node is a comment --><div>text</div>", "first node is a comment"),
+        arguments("<div>smiley &#x1F600; \uD83D\uDE00</div>", "smiley \uD83D\uDE00 \uD83D\uDE00"));
+  }
+
+  static Stream<String> invalidPresentationMLs() {
+    return Stream.of(
+        "text",
+        "<div>text</div>trailing",
+        "<div></div><div></div>",
+        "<!DOCTYPE div><div></div>",
+        "<div><!DOCTYPE div></div>",
+        "<div>]]></div>",
+        "<div><!-- a -- b --></div>",
+        "<div><?xml data?></div>",
+        "<div><?pi?data?></div>",
+        "<div a='1' a='2'></div>",
+        "<div a='1'b='2'></div>",
+        "<div a=1></div>",
+        "<div a='<'></div>",
+        "<div a='&nbsp;'></div>",
+        "<div a='1'",
+        "<div/ >",
+        "<1div></1div>",
+        "<div>&#;</div>",
+        "<div>&#x;</div>",
+        "<div>&#X41;</div>",
+        "<div>&#xZZ;</div>",
+        "<div>&#0;</div>",
+        "<div>&#x110000000;</div>",
+        "<div>\u0001</div>",
+        "<div>\uFFFE</div>",
+        "<div>&lt</div>",
+        "<div><![CDATA[unterminated</div>",
+        "<?xml encoding='UTF-8'?><div></div>",
+        "<?xml version='2.0'?><div></div>",
+        "<div></span>");
   }
 
 
@@ -36,6 +77,47 @@ class PresentationMLParserTest {
     assertEquals(expectedContent, PresentationMLParser.getTextContent(presentationML));
   }
 
+  @ParameterizedTest
+  @MethodSource("invalidPresentationMLs")
+  void getMessageFromMalformedPresentationMLFailed(String presentationML) {
+    assertThrows(PresentationMLParserException.class, () -> PresentationMLParser.getTextContent(presentationML));
+  }
+
+  @Test
+  void appendTextContentTest() throws PresentationMLParserException, IOException {
+    final StringBuilder sink = new StringBuilder("content: ");
+
+    PresentationMLParser.appendTextContent("<div> <p>Hello &amp;lt;World&amp;gt;</p> </div>", sink, true);
+    assertEquals("content: Hello <World>", sink.toString());
+
+    sink.setLength(0);
+    PresentationMLParser.appendTextContent("<div> <p>Hello World</p> </div>", sink, true);
+    assertEquals("Hello World", sink.toString());
+
+    sink.setLength(0);
+    PresentationMLParser.appendTextContent("<div> <p>Hello World</p> </div>", sink, false);
+    assertEquals(" Hello World ", sink.toString());
+
+    sink.setLength(0);
+    PresentationMLParser.appendTextContent("<div> &amp;amp; </div>", sink, false);
+    assertEquals(" & ", sink.toString());
+  }
+
+  @Test
+  void getTextContentFromLargePresentationMLTest() throws PresentationMLParserException {
+    final StringBuilder presentationML = new StringBuilder("<div>");
+    final StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 10_000; i++) {
+      presentationML.append("<p><span>row ").append(i).append("</span></p>");
+      expected.append("row ").append(i);
+    }
+    presentationML.append("</div>");
+
+    assertEquals(expected.toString(), PresentationMLParser.getTextContent(presentationML.toString()));
+    // the buffer of the thread is released, next parsing works as usual
+    assertEquals("small", PresentationMLParser.getTextContent("<div>small</div>"));
+  }
+
   @Test
   void unsupportedEntitiesParsingTest() {
     assertThrows(PresentationMLParserException.class,
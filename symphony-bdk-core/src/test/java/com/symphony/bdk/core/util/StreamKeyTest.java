@@ -0,0 +1,62 @@
+package com.symphony.bdk.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+
+class StreamKeyTest {
+
+  private static final String STREAM_ID = "XlU3OH9eVMzq+yss7M/xyn///oxwgbtGbQ==";
+  private static final String URL_SAFE_STREAM_ID = "XlU3OH9eVMzq-yss7M_xyn___oxwgbtGbQ";
+
+  @Test
+  void shouldBeEqualForBothForms() {
+    final StreamKey key = StreamKey.of(STREAM_ID);
+    final StreamKey urlSafeKey = StreamKey.of(URL_SAFE_STREAM_ID);
+
+    assertEquals(key, urlSafeKey);
+    assertEquals(key.hashCode(), urlSafeKey.hashCode());
+    assertEquals(key, StreamKey.of(Base64.getDecoder().decode(STREAM_ID)));
+    assertNotEquals(key, StreamKey.of("bjHSiY4iz3ar4iIh6-VzCX___peoM7cPdA"));
+
+    final Set<StreamKey> keys = new HashSet<>();
+    keys.add(key);
+    keys.add(urlSafeKey);
+    assertEquals(1, keys.size());
+  }
+
+  @Test
+  void shouldConvertToBothForms() {
+    final StreamKey key = StreamKey.of(STREAM_ID);
+    assertEquals(STREAM_ID, key.getId());
+    assertEquals(URL_SAFE_STREAM_ID, key.getUrlSafeId());
+    assertEquals(URL_SAFE_STREAM_ID, key.toString());
+
+    final StreamKey urlSafeKey = StreamKey.of(URL_SAFE_STREAM_ID);
+    assertEquals(STREAM_ID, urlSafeKey.getId());
+    assertEquals(URL_SAFE_STREAM_ID, urlSafeKey.getUrlSafeId());
+  }
+
+  @Test
+  void shouldCopyBytes() {
+    final byte[] bytes = Base64.getDecoder().decode(STREAM_ID);
+    final StreamKey key = StreamKey.of(bytes);
+    bytes[0]++;
+
+    assertArrayEquals(Base64.getDecoder().decode(STREAM_ID), key.toBytes());
+    key.toBytes()[0]++;
+    assertEquals(STREAM_ID, key.getId());
+  }
+
+  @Test
+  void shouldRejectInvalidIds() {
+    assertThrows(IllegalArgumentException.class, () -> StreamKey.of("not a stream id"));
+  }
+}
@@ -8,6 +8,7 @@ import com.symphony.bdk.core.retry.function.SupplierWithApiException;
 import com.symphony.bdk.core.service.pagination.CursorBasedPaginatedApi;
 import com.symphony.bdk.core.service.pagination.CursorBasedPaginatedService;
 import com.symphony.bdk.core.service.pagination.model.CursorPaginatedPayload;
+import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
 import com.symphony.bdk.core.util.UserIdUtil;
 import com.symphony.bdk.ext.group.auth.OAuth;
 import com.symphony.bdk.ext.group.auth.OAuthSession;
@@ -152,6 +153,25 @@ public class SymphonyGroupService implements BdkExtensionService {
     return new CursorBasedPaginatedService<>(paginatedApi, chunkSize, maxItems).stream();
   }
 
+  /**
+   * List all the groups of type "SDL" with automatic pagination, the next pages being optionally fetched in the
+   * background while the current one is consumed
+   * @see <a href="https://developers.symphony.com/restapi/reference/listgroups">List all groups of specified type</a>
+   *
+   * @param status filter by status, active or deleted. If not specified, both are returned
+   * @param sortOrder sorting direction of items (ordered by creation date)
+   * @param pagination chunk size, total size and prefetch depth of the pagination
+   * @return a stream of {@link ReadGroup} with lazy fetching, to be closed if not fully consumed when prefetching
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public Stream<ReadGroup> listAllGroups(@Nullable Status status, @Nullable SortOrder sortOrder,
+      @Nonnull StreamPaginationAttribute pagination) {
+    final CursorBasedPaginatedApi<ReadGroup> paginatedApi =
+        (after, limit) -> new PayloadAdapter(listGroups(status, null, after, limit, sortOrder));
+
+    return new CursorBasedPaginatedService<>(paginatedApi, pagination).stream();
+  }
+
   /**
    * Add a new user to an existing group.
    * @see <a href="https://developers.symphony.com/restapi/reference/addmembertogroup">Add a new user to a an existing group</a>
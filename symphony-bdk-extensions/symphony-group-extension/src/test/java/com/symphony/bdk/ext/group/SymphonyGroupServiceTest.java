@@ -16,6 +16,7 @@ import com.symphony.bdk.core.auth.AuthSession;
 import com.symphony.bdk.core.client.ApiClientFactory;
 import com.symphony.bdk.core.config.model.BdkRetryConfig;
 import com.symphony.bdk.core.retry.RetryWithRecoveryBuilder;
+import com.symphony.bdk.core.service.pagination.model.StreamPaginationAttribute;
 import com.symphony.bdk.ext.group.auth.OAuthSession;
 import com.symphony.bdk.ext.group.gen.api.model.AddMember;
 import com.symphony.bdk.ext.group.gen.api.model.CreateGroup;
@@ -45,6 +46,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 class SymphonyGroupServiceTest {
 
@@ -197,6 +199,24 @@ class SymphonyGroupServiceTest {
         Arrays.asList(new Pair("status", status.getValue()), new Pair("after", nextPage), new Pair("limit", Integer.toString(chunkSize)), new Pair("sortOrder", sortOrder.getValue())));
   }
 
+  @Test
+  void testListAllGroupsWithPrefetch() throws ApiException {
+    final ReadGroup firstReadGroup = new ReadGroup().id("firstGroup");
+    final ReadGroup secondReadGroup = new ReadGroup().id("secondGroup");
+
+    when(profileManagerClient.invokeAPI(startsWith("/v1/groups/type/"), eq("GET"), any(), any(), any(), any(), any(), any(),
+        any(), any(), any()))
+        .thenReturn(new ApiResponse<>(200, Collections.emptyMap(),
+            new GroupList().addDataItem(firstReadGroup).pagination(new Pagination().cursors(new PaginationCursors().after("nextPage")))))
+        .thenReturn(new ApiResponse<>(200, Collections.emptyMap(),
+            new GroupList().addDataItem(secondReadGroup).pagination(new Pagination())));
+
+    try (Stream<ReadGroup> groups = groupService.listAllGroups(Status.ACTIVE, SortOrder.ASC,
+        new StreamPaginationAttribute(1, 10, 2))) {
+      assertEquals(Arrays.asList(firstReadGroup, secondReadGroup), groups.collect(Collectors.toList()));
+    }
+  }
+
   @Test
   void testAddMemberToGroup() throws ApiException {
     final ReadGroup groupToReturn = new ReadGroup();
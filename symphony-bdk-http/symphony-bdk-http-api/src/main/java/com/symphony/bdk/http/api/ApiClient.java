@@ -5,6 +5,10 @@ import com.symphony.bdk.http.api.util.TypeReference;
 
 import org.apiguardian.api.API;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -46,6 +50,46 @@ public interface ApiClient {
       TypeReference<T> returnType
   ) throws ApiException;
 
+  /**
+   * Invoke API by sending HTTP request with the given options, the body of the response being streamed to the given
+   * handler instead of being deserialized in memory. Meant for large payloads such as attachments.
+   * <p>
+   * The default implementation reads the whole response body in memory through
+   * {@link #invokeAPI(String, String, List, Object, Map, Map, Map, String, String, String[], TypeReference)}, clients
+   * able to stream responses should override it.
+   *
+   * @param <T> Type
+   * @param path The sub-path of the HTTP URL
+   * @param method The request method, one of "GET", "POST", "PUT", "HEAD" and "DELETE"
+   * @param queryParams The query parameters
+   * @param headerParams The header parameters
+   * @param accept The request's Accept header
+   * @param authNames The authentications to apply
+   * @param bodyHandler The handler reading the body of a successful response
+   * @return The value returned by the body handler
+   * @throws ApiException API exception, or if the response body cannot be read
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  default <T> ApiResponse<T> invokeStreamingAPI(
+      String path,
+      String method,
+      List<Pair> queryParams,
+      Map<String, String> headerParams,
+      String accept,
+      String[] authNames,
+      ResponseBodyHandler<T> bodyHandler
+  ) throws ApiException {
+    // clients that cannot stream responses read the whole body in memory, then hand it to the handler
+    final ApiResponse<byte[]> response = invokeAPI(path, method, queryParams, null, headerParams,
+        new HashMap<>(), new HashMap<>(), accept, selectHeaderContentType(), authNames, new TypeReference<byte[]>() {});
+    final byte[] content = response.getData() == null ? new byte[0] : response.getData();
+    try (InputStream body = new ByteArrayInputStream(content)) {
+      return new ApiResponse<>(response.getStatusCode(), response.getHeaders(), bodyHandler.handle(body));
+    } catch (IOException e) {
+      throw new ApiException("Unable to read response body", e);
+    }
+  }
+
   /**
    * Returns the API base path
    *
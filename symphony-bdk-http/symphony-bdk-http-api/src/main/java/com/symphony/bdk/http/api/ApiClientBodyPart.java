@@ -1,19 +1,44 @@
 package com.symphony.bdk.http.api;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.apiguardian.api.API;
 
 import java.io.InputStream;
+import java.util.function.Supplier;
 
 /**
- *
+ * File part of a multipart/form-data request.
+ * <p>
+ * A part built from a {@link Supplier} is reopenable: each call to {@link #getContent()} opens a new stream, so the
+ * request can be sent again (e.g. on retry) without having to hold the whole content in memory. Such parts are
+ * streamed with chunked transfer encoding by the {@link ApiClient} implementations.
  */
 @Getter
-@AllArgsConstructor
 @API(status = API.Status.INTERNAL)
 public class ApiClientBodyPart {
 
-  private final InputStream content;
+  @Getter(AccessLevel.NONE)
+  private final Supplier<InputStream> contentSupplier;
   private final String filename;
+  private final boolean reopenable;
+
+  public ApiClientBodyPart(InputStream content, String filename) {
+    this.contentSupplier = () -> content;
+    this.filename = filename;
+    this.reopenable = false;
+  }
+
+  public ApiClientBodyPart(Supplier<InputStream> contentSupplier, String filename) {
+    this.contentSupplier = contentSupplier;
+    this.filename = filename;
+    this.reopenable = true;
+  }
+
+  /**
+   * @return the content of the part, a newly opened stream if the part is reopenable.
+   */
+  public InputStream getContent() {
+    return this.contentSupplier.get();
+  }
 }
@@ -0,0 +1,25 @@
+package com.symphony.bdk.http.api;
+
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Consumes the body of a successful response as a stream, see {@link ApiClient#invokeStreamingAPI}.
+ *
+ * @param <T> the type of the value computed out of the response body.
+ */
+@FunctionalInterface
+@API(status = API.Status.EXPERIMENTAL)
+public interface ResponseBodyHandler<T> {
+
+  /**
+   * Reads the response body.
+   *
+   * @param body the response body, closed by the {@link ApiClient} once this method returns.
+   * @return the value computed out of the response body.
+   * @throws IOException if the response body cannot be read or processed.
+   */
+  T handle(InputStream body) throws IOException;
+}
@@ -0,0 +1,34 @@
+package com.symphony.bdk.http.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+class ApiClientBodyPartTest {
+
+  @Test
+  void streamPartReturnsSameContent() {
+    final InputStream content = new ByteArrayInputStream(new byte[0]);
+    final ApiClientBodyPart part = new ApiClientBodyPart(content, "file.txt");
+
+    assertFalse(part.isReopenable());
+    assertEquals("file.txt", part.getFilename());
+    assertSame(content, part.getContent());
+    assertSame(content, part.getContent());
+  }
+
+  @Test
+  void supplierPartOpensNewContent() {
+    final ApiClientBodyPart part = new ApiClientBodyPart(() -> new ByteArrayInputStream(new byte[0]), "file.txt");
+
+    assertTrue(part.isReopenable());
+    assertNotSame(part.getContent(), part.getContent());
+  }
+}
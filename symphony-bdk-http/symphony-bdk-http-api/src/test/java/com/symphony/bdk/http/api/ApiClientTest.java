@@ -0,0 +1,55 @@
+package com.symphony.bdk.http.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.symphony.bdk.http.api.util.TypeReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+class ApiClientTest {
+
+  private ApiClient apiClient;
+
+  @BeforeEach
+  void setUp() {
+    this.apiClient = mock(ApiClient.class);
+  }
+
+  @Test
+  void invokeStreamingApiShouldBufferResponseByDefault() throws ApiException {
+    when(this.apiClient.invokeAPI(eq("/path"), eq("GET"), any(), isNull(), any(), any(), any(), eq("accept"), any(),
+        any(), any(TypeReference.class)))
+        .thenReturn(new ApiResponse<>(200, Collections.emptyMap(), "content".getBytes(StandardCharsets.UTF_8)));
+    when(this.apiClient.invokeStreamingAPI(any(), any(), any(), any(), any(), any(), any())).thenCallRealMethod();
+
+    final ApiResponse<String> response = this.apiClient.invokeStreamingAPI("/path", "GET", Collections.emptyList(),
+        Collections.emptyMap(), "accept", new String[0],
+        body -> new String(body.readAllBytes(), StandardCharsets.UTF_8));
+
+    assertEquals(200, response.getStatusCode());
+    assertEquals("content", response.getData());
+  }
+
+  @Test
+  void invokeStreamingApiShouldFailWhenHandlerFails() throws ApiException {
+    when(this.apiClient.invokeAPI(any(), any(), any(), any(), any(), any(), any(), any(), any(), any(),
+        any(TypeReference.class))).thenReturn(new ApiResponse<>(204, Collections.emptyMap()));
+    when(this.apiClient.invokeStreamingAPI(any(), any(), any(), any(), any(), any(), any())).thenCallRealMethod();
+
+    assertThrows(ApiException.class, () -> this.apiClient.invokeStreamingAPI("/path", "GET", Collections.emptyList(),
+        Collections.emptyMap(), "accept", new String[0], body -> {
+          throw new IOException("unreadable");
+        }));
+  }
+}
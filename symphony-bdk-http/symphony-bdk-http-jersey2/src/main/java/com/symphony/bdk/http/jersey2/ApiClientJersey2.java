@@ -5,6 +5,7 @@ import com.symphony.bdk.http.api.ApiClientBodyPart;
 import com.symphony.bdk.http.api.ApiException;
 import com.symphony.bdk.http.api.ApiResponse;
 import com.symphony.bdk.http.api.Pair;
+import com.symphony.bdk.http.api.ResponseBodyHandler;
 import com.symphony.bdk.http.api.auth.Authentication;
 import com.symphony.bdk.http.api.tracing.DistributedTracingContext;
 import com.symphony.bdk.http.api.util.TypeReference;
@@ -21,6 +22,8 @@ import jakarta.ws.rs.core.Response;
 import org.apache.http.NoHttpResponseException;
 import org.apache.http.conn.ConnectTimeoutException;
 import org.apiguardian.api.API;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
 import org.glassfish.jersey.media.multipart.FormDataBodyPart;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 import org.glassfish.jersey.media.multipart.FormDataMultiPart;
@@ -39,6 +42,7 @@ import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -91,21 +95,74 @@ public class ApiClientJersey2 implements ApiClient {
       final TypeReference<T> returnType
   ) throws ApiException {
 
-    // Not using `.target(this.basePath).path(path)` below,
-    // to support (constant) query string in `path`, e.g. "/posts?draft=1"
-    WebTarget target = httpClient.target(this.basePath + path);
+    Invocation.Builder invocationBuilder =
+        this.buildInvocation(path, queryParams, headerParams, cookieParams, accept, authNames);
+    boolean clearTraceId = false;
 
-    this.updateParamsForAuth(authNames, headerParams);
+    if (!DistributedTracingContext.hasTraceId()) {
+      DistributedTracingContext.setTraceId();
+      clearTraceId = true;
+    }
 
-    if (queryParams != null) {
-      for (Pair queryParam : queryParams) {
-        if (queryParam.getValue() != null) {
-          target = target.queryParam(queryParam.getName(), escapeString(queryParam.getValue()));
+    invocationBuilder =
+        invocationBuilder.header(DistributedTracingContext.TRACE_ID, DistributedTracingContext.getTraceId());
+
+    // https://eclipse-ee4j.github.io/jersey.github.io/documentation/latest/client.html#connectors.warning
+    // by setting this header now instead of org.glassfish.jersey.media.multipart.internal.MultiPartWriter
+    // we avoid the warning
+    if (contentType.startsWith(MediaType.MULTIPART_FORM_DATA)) {
+      invocationBuilder.header("MIME-Version", "1.0");
+      // attachments are streamed, the whole multipart entity must not be buffered to compute its length
+      invocationBuilder.property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED);
+    }
+
+    Entity<?> entity =
+        (body == null && formParams == null) ? Entity.json("") : this.serialize(body, formParams, contentType);
+
+    try (Response response = getResponse(invocationBuilder, method, entity)) {
+
+      int statusCode = response.getStatusInfo().getStatusCode();
+      Map<String, List<String>> responseHeaders = buildResponseHeaders(response);
+
+      GenericType<T> genericReturnType = null;
+      if (returnType != null) {
+        genericReturnType = new GenericType<>(returnType.getType());
+      }
+
+      if (response.getStatus() == Response.Status.NO_CONTENT.getStatusCode()) {
+        return new ApiResponse<>(statusCode, responseHeaders);
+      } else if (response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL) {
+        if (genericReturnType == null) {
+          return new ApiResponse<>(statusCode, responseHeaders);
+        } else {
+          return new ApiResponse<>(statusCode, responseHeaders, deserialize(response, genericReturnType));
         }
+      } else {
+        throw this.buildApiException(response);
+      }
+    } finally {
+      if (clearTraceId) {
+        DistributedTracingContext.clear();
       }
     }
+  }
 
-    Invocation.Builder invocationBuilder = target.request().accept(accept);
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public <T> ApiResponse<T> invokeStreamingAPI(
+      final String path,
+      final String method,
+      final List<Pair> queryParams,
+      final Map<String, String> headerParams,
+      final String accept,
+      final String[] authNames,
+      final ResponseBodyHandler<T> bodyHandler
+  ) throws ApiException {
+
+    Invocation.Builder invocationBuilder =
+        this.buildInvocation(path, queryParams, headerParams, Collections.emptyMap(), accept, authNames);
     boolean clearTraceId = false;
 
     if (!DistributedTracingContext.hasTraceId()) {
@@ -116,6 +173,44 @@ public class ApiClientJersey2 implements ApiClient {
     invocationBuilder =
         invocationBuilder.header(DistributedTracingContext.TRACE_ID, DistributedTracingContext.getTraceId());
 
+    try (Response response = getResponse(invocationBuilder, method, null)) {
+      if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+        throw this.buildApiException(response);
+      }
+      // the entity stream is read directly from the connection, the response is never buffered
+      try (InputStream body = response.hasEntity()
+          ? response.readEntity(InputStream.class)
+          : InputStream.nullInputStream()) {
+        final T data = bodyHandler.handle(body);
+        return new ApiResponse<>(response.getStatusInfo().getStatusCode(), buildResponseHeaders(response), data);
+      } catch (IOException e) {
+        throw new ApiException("Unable to read response body", e);
+      }
+    } finally {
+      if (clearTraceId) {
+        DistributedTracingContext.clear();
+      }
+    }
+  }
+
+  private Invocation.Builder buildInvocation(String path, List<Pair> queryParams, Map<String, String> headerParams,
+      Map<String, String> cookieParams, String accept, String[] authNames) throws ApiException {
+    // Not using `.target(this.basePath).path(path)` below,
+    // to support (constant) query string in `path`, e.g. "/posts?draft=1"
+    WebTarget target = httpClient.target(this.basePath + path);
+
+    this.updateParamsForAuth(authNames, headerParams);
+
+    if (queryParams != null) {
+      for (Pair queryParam : queryParams) {
+        if (queryParam.getValue() != null) {
+          target = target.queryParam(queryParam.getName(), escapeString(queryParam.getValue()));
+        }
+      }
+    }
+
+    Invocation.Builder invocationBuilder = target.request().accept(accept);
+
     if (headerParams != null) {
       for (Entry<String, String> entry : headerParams.entrySet()) {
         String value = entry.getValue();
@@ -145,56 +240,25 @@ public class ApiClientJersey2 implements ApiClient {
       }
     }
 
-    // https://eclipse-ee4j.github.io/jersey.github.io/documentation/latest/client.html#connectors.warning
-    // by setting this header now instead of org.glassfish.jersey.media.multipart.internal.MultiPartWriter
-    // we avoid the warning
-    if (contentType.startsWith(MediaType.MULTIPART_FORM_DATA)) {
-      invocationBuilder.header("MIME-Version", "1.0");
-    }
-
-    Entity<?> entity =
-        (body == null && formParams == null) ? Entity.json("") : this.serialize(body, formParams, contentType);
-
-    try (Response response = getResponse(invocationBuilder, method, entity)) {
-
-      int statusCode = response.getStatusInfo().getStatusCode();
-      Map<String, List<String>> responseHeaders = buildResponseHeaders(response);
-
-      GenericType<T> genericReturnType = null;
-      if (returnType != null) {
-        genericReturnType = new GenericType<>(returnType.getType());
-      }
+    return invocationBuilder;
+  }
 
-      if (response.getStatus() == Response.Status.NO_CONTENT.getStatusCode()) {
-        return new ApiResponse<>(statusCode, responseHeaders);
-      } else if (response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL) {
-        if (genericReturnType == null) {
-          return new ApiResponse<>(statusCode, responseHeaders);
-        } else {
-          return new ApiResponse<>(statusCode, responseHeaders, deserialize(response, genericReturnType));
-        }
-      } else {
-        String message = "error";
-        String respBody = null;
-        if (response.hasEntity()) {
-          try {
-            respBody = String.valueOf(response.readEntity(String.class));
-            message = respBody;
-          } catch (RuntimeException e) {
-            // ignored if we cannot read the response body
-          }
-        }
-        throw new ApiException(
-            response.getStatus(),
-            message,
-            buildResponseHeaders(response),
-            respBody);
-      }
-    } finally {
-      if (clearTraceId) {
-        DistributedTracingContext.clear();
+  private ApiException buildApiException(Response response) {
+    String message = "error";
+    String respBody = null;
+    if (response.hasEntity()) {
+      try {
+        respBody = String.valueOf(response.readEntity(String.class));
+        message = respBody;
+      } catch (RuntimeException e) {
+        // ignored if we cannot read the response body
       }
     }
+    return new ApiException(
+        response.getStatus(),
+        message,
+        buildResponseHeaders(response),
+        respBody);
   }
 
   private Response getResponse(Invocation.Builder invocationBuilder, String method, Entity<?> entity)
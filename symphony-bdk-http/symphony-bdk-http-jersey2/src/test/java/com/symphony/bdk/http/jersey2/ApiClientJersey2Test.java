@@ -1,6 +1,7 @@
 package com.symphony.bdk.http.jersey2;
 
 import com.symphony.bdk.http.api.ApiException;
+import com.symphony.bdk.http.api.ApiResponse;
 import com.symphony.bdk.http.api.tracing.DistributedTracingContext;
 import com.symphony.bdk.http.api.util.TypeReference;
 import jakarta.ws.rs.HttpMethod;
@@ -16,20 +17,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class ApiClientJersey2Test {
 
   private ApiClientJersey2 apiClient;
+  private Response response;
+  private Response.StatusType statusInfo;
 
   @BeforeEach
   void init(
@@ -43,11 +52,14 @@ class ApiClientJersey2Test {
     when(target.request()).thenReturn(builder);
     when(builder.accept(anyString())).thenReturn(builder);
     when(builder.header(anyString(), any())).thenReturn(builder);
-    when(builder.post(any(Entity.class))).thenReturn(response);
+    lenient().when(builder.post(any(Entity.class))).thenReturn(response);
+    lenient().when(builder.get()).thenReturn(response);
     when(response.getStatusInfo()).thenReturn(statusInfo);
-    when(statusInfo.getStatusCode()).thenReturn(200);
+    lenient().when(statusInfo.getStatusCode()).thenReturn(200);
     when(statusInfo.getFamily()).thenReturn(Response.Status.Family.SUCCESSFUL);
     when(response.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+    this.response = response;
+    this.statusInfo = statusInfo;
     this.apiClient = new ApiClientJersey2(client, "", Collections.emptyMap(), "");
     this.apiClient.getAuthentications().put("testAuth", headerParams -> headerParams.put("Authorization", "test"));
   }
@@ -67,6 +79,29 @@ class ApiClientJersey2Test {
     assertEquals(traceId, DistributedTracingContext.getTraceId());
   }
 
+  @Test
+  void shouldStreamResponseBody() throws ApiException {
+    final InputStream body = new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8));
+    when(this.response.hasEntity()).thenReturn(true);
+    when(this.response.readEntity(InputStream.class)).thenReturn(body);
+
+    final ApiResponse<String> apiResponse = this.doInvokeStreamingAPI();
+
+    assertEquals(200, apiResponse.getStatusCode());
+    assertEquals("content", apiResponse.getData());
+    verify(this.response).close();
+  }
+
+  @Test
+  void shouldNotStreamErrorResponseBody() {
+    when(this.statusInfo.getFamily()).thenReturn(Response.Status.Family.CLIENT_ERROR);
+    when(this.response.getStatus()).thenReturn(404);
+
+    final ApiException exception = assertThrows(ApiException.class, this::doInvokeStreamingAPI);
+
+    assertEquals(404, exception.getCode());
+  }
+
   private void doInvokeAPI() throws ApiException {
     this.apiClient.invokeAPI(
         "/hello",
@@ -82,4 +117,16 @@ class ApiClientJersey2Test {
         new TypeReference<String>() {}
     );
   }
+
+  private ApiResponse<String> doInvokeStreamingAPI() throws ApiException {
+    return this.apiClient.invokeStreamingAPI(
+        "/hello",
+        HttpMethod.GET,
+        Collections.emptyList(),
+        new HashMap<>(),
+        "application/octet-stream",
+        new String[] { "testAuth" },
+        body -> new String(body.readAllBytes(), StandardCharsets.UTF_8)
+    );
+  }
 }
@@ -5,12 +5,16 @@ import com.symphony.bdk.http.api.ApiClientBodyPart;
 import com.symphony.bdk.http.api.ApiException;
 import com.symphony.bdk.http.api.ApiResponse;
 import com.symphony.bdk.http.api.Pair;
+import com.symphony.bdk.http.api.ResponseBodyHandler;
 import com.symphony.bdk.http.api.auth.Authentication;
 import com.symphony.bdk.http.api.tracing.DistributedTracingContext;
 import com.symphony.bdk.http.api.util.TypeReference;
 import io.netty.channel.ConnectTimeoutException;
 import org.apiguardian.api.API;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpMethod;
@@ -24,16 +28,26 @@ import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
 import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -45,6 +59,9 @@ import static com.symphony.bdk.http.api.util.ApiUtils.isCollectionOfFiles;
 @API(status = API.Status.EXPERIMENTAL)
 public class ApiClientWebClient implements ApiClient {
 
+  private static final int BODY_PART_BUFFER_SIZE = 8192;
+  private static final int STREAMING_BUFFER_SIZE = 64 * 1024;
+
   protected final WebClient webClient;
   protected final String basePath;
   protected final Map<String, String> defaultHeaderMap;
@@ -77,15 +94,163 @@ public class ApiClientWebClient implements ApiClient {
       final TypeReference<T> returnType
   ) throws ApiException {
 
+    HttpMethod httpMethod = this.toHttpMethod(method);
+    this.updateParamsForAuth(authNames, headerParams);
+
+    WebClient.RequestBodySpec requestBodySpec =
+        this.buildRequest(httpMethod, path, queryParams, headerParams, cookieParams, accept)
+            .contentType(MediaType.parseMediaType(contentType));
+
+    boolean clearTraceId = false;
+
+    if (!DistributedTracingContext.hasTraceId()) {
+      DistributedTracingContext.setTraceId();
+      clearTraceId = true;
+    }
+
+    requestBodySpec =
+        requestBodySpec.header(DistributedTracingContext.TRACE_ID, DistributedTracingContext.getTraceId());
+
+    if (formParams != null) {
+      if (contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+        requestBodySpec.body(BodyInserters.fromMultipartData(serializeMultiPartData(formParams)));
+      } else if (contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)) {
+        MultiValueMap<String, String> formValueMap = new LinkedMultiValueMap<>();
+        for (Map.Entry<String, Object> param : formParams.entrySet()) {
+          formValueMap.add(param.getKey(), parameterToString(param.getValue()));
+        }
+        requestBodySpec.bodyValue(formValueMap);
+      }
+    }
+    if (body != null) {
+      requestBodySpec.body(BodyInserters.fromValue(body));
+    }
+
+    try {
+      return requestBodySpec.exchangeToMono(response -> toApiResponse(returnType, response))
+          .block();
+    } catch (Exception e) {
+      Throwable unwrap = Exceptions.unwrap(e);
+      if (unwrap instanceof ApiException) {
+        throw (ApiException) unwrap;
+      }
+      if (e instanceof WebClientRequestException && e.getCause() instanceof ConnectTimeoutException) {
+        WebClientRequestException exception = (WebClientRequestException) e;
+        throw new WebClientRequestException(new SocketTimeoutException(e.getMessage()), exception.getMethod(),
+            exception.getUri(), exception.getHeaders());
+      } else {
+        throw e;
+      }
+    } finally {
+      if (clearTraceId) {
+        DistributedTracingContext.clear();
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public <T> ApiResponse<T> invokeStreamingAPI(
+      final String path,
+      final String method,
+      final List<Pair> queryParams,
+      final Map<String, String> headerParams,
+      final String accept,
+      final String[] authNames,
+      final ResponseBodyHandler<T> bodyHandler
+  ) throws ApiException {
+
+    HttpMethod httpMethod = this.toHttpMethod(method);
+    this.updateParamsForAuth(authNames, headerParams);
+
+    WebClient.RequestBodySpec requestBodySpec =
+        this.buildRequest(httpMethod, path, queryParams, headerParams, Collections.emptyMap(), accept);
+
+    boolean clearTraceId = false;
+
+    if (!DistributedTracingContext.hasTraceId()) {
+      DistributedTracingContext.setTraceId();
+      clearTraceId = true;
+    }
+
+    requestBodySpec =
+        requestBodySpec.header(DistributedTracingContext.TRACE_ID, DistributedTracingContext.getTraceId());
+
+    final CompletableFuture<Integer> statusCode = new CompletableFuture<>();
+    final AtomicReference<Map<String, List<String>>> responseHeaders = new AtomicReference<>();
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    final Flux<DataBuffer> content = requestBodySpec.exchangeToFlux(response -> {
+      if (!response.statusCode().is2xxSuccessful()) {
+        // an empty error body would otherwise complete the flux without ever failing it
+        return this.toApiResponse(null, response)
+            .switchIfEmpty(Mono.error(new ApiException(response.statusCode().value(), "error",
+                toResponseHeaders(response), null)))
+            .thenMany(Flux.empty());
+      }
+      responseHeaders.set(toResponseHeaders(response));
+      statusCode.complete(response.statusCode().value());
+      return response.bodyToFlux(DataBuffer.class);
+    });
+
+    // the body is written to a pipe by a worker thread while the handler reads it from the calling thread
+    try (PipedInputStream body = new PipedInputStream(STREAMING_BUFFER_SIZE)) {
+      final PipedOutputStream sink = new PipedOutputStream(body);
+      DataBufferUtils.write(content.publishOn(Schedulers.boundedElastic()), sink)
+          .doOnError(e -> {
+            failure.set(e);
+            statusCode.completeExceptionally(e);
+          })
+          .doFinally(signal -> {
+            // no-op once the status is known, releases the calling thread if the response ended without one
+            statusCode.completeExceptionally(new ApiException("Response completed without a status", null));
+            closeQuietly(sink);
+          })
+          .subscribe(DataBufferUtils.releaseConsumer(), e -> {});
+
+      final int status;
+      try {
+        status = statusCode.join();
+      } catch (CompletionException e) {
+        throw toStreamingException(e.getCause());
+      }
+      final T result = bodyHandler.handle(body);
+      if (failure.get() != null) {
+        throw toStreamingException(failure.get());
+      }
+      return new ApiResponse<>(status, responseHeaders.get(), result);
+    } catch (IOException e) {
+      if (failure.get() != null) {
+        throw toStreamingException(failure.get());
+      }
+      throw new ApiException("Unable to read response body", e);
+    } finally {
+      if (clearTraceId) {
+        DistributedTracingContext.clear();
+      }
+    }
+  }
+
+  private static RuntimeException toStreamingException(Throwable failure) throws ApiException {
+    final Throwable unwrap = Exceptions.unwrap(failure);
+    if (unwrap instanceof ApiException) {
+      throw (ApiException) unwrap;
+    }
+    return Exceptions.propagate(unwrap);
+  }
+
+  private HttpMethod toHttpMethod(String method) throws ApiException {
     final List<String> allowedMethods =
             Arrays.asList("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE");
     if (method == null || !allowedMethods.contains(method)) {
       throw new ApiException(500, "unknown method type " + method);
     }
+    return HttpMethod.valueOf(method);
+  }
 
-    HttpMethod httpMethod = HttpMethod.valueOf(method);
-    this.updateParamsForAuth(authNames, headerParams);
-
+  private WebClient.RequestBodySpec buildRequest(HttpMethod httpMethod, String path, List<Pair> queryParams,
+      Map<String, String> headerParams, Map<String, String> cookieParams, String accept) {
     WebClient.RequestBodySpec requestBodySpec =
         this.webClient.method(httpMethod).uri(uriBuilder -> {
           uriBuilder = uriBuilder.path(path);
@@ -97,22 +262,12 @@ public class ApiClientWebClient implements ApiClient {
             }
           }
           return uriBuilder.build();
-        }).contentType(MediaType.parseMediaType(contentType));
+        });
 
     if (!"".equals(accept) && accept != null) {
       requestBodySpec.accept(MediaType.valueOf(accept));
     }
 
-    boolean clearTraceId = false;
-
-    if (!DistributedTracingContext.hasTraceId()) {
-      DistributedTracingContext.setTraceId();
-      clearTraceId = true;
-    }
-
-    requestBodySpec =
-        requestBodySpec.header(DistributedTracingContext.TRACE_ID, DistributedTracingContext.getTraceId());
-
     if (headerParams != null) {
       for (Map.Entry<String, String> headerParam : headerParams.entrySet()) {
         String value = headerParam.getValue();
@@ -142,52 +297,30 @@ public class ApiClientWebClient implements ApiClient {
       }
     }
 
-    if (formParams != null) {
-      if (contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
-        requestBodySpec.body(BodyInserters.fromMultipartData(serializeMultiPartData(formParams)));
-      } else if (contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)) {
-        MultiValueMap<String, String> formValueMap = new LinkedMultiValueMap<>();
-        for (Map.Entry<String, Object> param : formParams.entrySet()) {
-          formValueMap.add(param.getKey(), parameterToString(param.getValue()));
-        }
-        requestBodySpec.bodyValue(formValueMap);
-      }
-    }
-    if (body != null) {
-      requestBodySpec.body(BodyInserters.fromValue(body));
-    }
+    return requestBodySpec;
+  }
 
+  private static void closeQuietly(OutputStream outputStream) {
     try {
-      return requestBodySpec.exchangeToMono(response -> toApiResponse(returnType, response))
-          .block();
-    } catch (Exception e) {
-      Throwable unwrap = Exceptions.unwrap(e);
-      if (unwrap instanceof ApiException) {
-        throw (ApiException) unwrap;
-      }
-      if (e instanceof WebClientRequestException && e.getCause() instanceof ConnectTimeoutException) {
-        WebClientRequestException exception = (WebClientRequestException) e;
-        throw new WebClientRequestException(new SocketTimeoutException(e.getMessage()), exception.getMethod(),
-            exception.getUri(), exception.getHeaders());
-      } else {
-        throw e;
-      }
-    } finally {
-      if (clearTraceId) {
-        DistributedTracingContext.clear();
-      }
+      outputStream.close();
+    } catch (IOException e) {
+      // nothing to do, the reader side is already closed
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private <T> Mono<ApiResponse<T>> toApiResponse(TypeReference<T> returnType, ClientResponse response) {
-    Map<String, List<String>> headers = response
+  private static Map<String, List<String>> toResponseHeaders(ClientResponse response) {
+    return response
         .headers().asHttpHeaders().entrySet()
         .stream()
         .collect(Collectors.toMap(
             Map.Entry::getKey,
             Map.Entry::getValue
         ));
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Mono<ApiResponse<T>> toApiResponse(TypeReference<T> returnType, ClientResponse response) {
+    Map<String, List<String>> headers = toResponseHeaders(response);
 
     if (response.statusCode().equals(HttpStatus.NO_CONTENT)) {
       return Mono.just(
@@ -255,9 +388,19 @@ public class ApiClientWebClient implements ApiClient {
       MultiValueMap<String, Object> formValueMap) {
 
     final MultipartBodyBuilder multipartBodyBuilder = new MultipartBodyBuilder();
-    multipartBodyBuilder
-        .part(paramKey, new InputStreamResource(bodyPart.getContent()))
-        .filename(bodyPart.getFilename());
+    if (bodyPart.isReopenable()) {
+      // opened on subscription and streamed by chunks of BODY_PART_BUFFER_SIZE, without content length
+      final Flux<DataBuffer> content = DataBufferUtils.readInputStream(bodyPart::getContent,
+          DefaultDataBufferFactory.sharedInstance, BODY_PART_BUFFER_SIZE);
+      multipartBodyBuilder
+          .asyncPart(paramKey, content, DataBuffer.class)
+          .contentType(MediaType.APPLICATION_OCTET_STREAM)
+          .filename(bodyPart.getFilename());
+    } else {
+      multipartBodyBuilder
+          .part(paramKey, new InputStreamResource(bodyPart.getContent()))
+          .filename(bodyPart.getFilename());
+    }
 
     multipartBodyBuilder.build().forEach(formValueMap::addAll);
   }
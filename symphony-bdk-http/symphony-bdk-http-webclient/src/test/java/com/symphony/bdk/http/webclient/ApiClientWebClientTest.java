@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 
 import com.symphony.bdk.http.api.ApiClient;
+import com.symphony.bdk.http.api.ApiClientBodyPart;
 import com.symphony.bdk.http.api.ApiException;
 import com.symphony.bdk.http.api.ApiResponse;
 import com.symphony.bdk.http.api.Pair;
@@ -24,10 +25,16 @@ import org.mockserver.model.Parameter;
 import org.mockserver.model.ParameterBody;
 import org.springframework.http.MediaType;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -35,6 +42,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @ExtendWith(BdkMockServerExtension.class)
 class ApiClientWebClientTest {
@@ -286,6 +294,137 @@ class ApiClientWebClientTest {
     assertEquals("success", response.getData().getMessage());
   }
 
+  @Test
+  void testInvokeStreamingApi(final BdkMockServer mockServer) throws ApiException {
+    final byte[] content = new byte[200 * 1024];
+    Arrays.fill(content, (byte) 'a');
+    mockServer.onRequestModifierWithResponse(200,
+        httpRequest -> httpRequest
+            .withMethod("GET")
+            .withPath("/test-api")
+            .withQueryStringParameter("file", "fileId")
+            .withHeader("sessionToken", "test-token"),
+        httpResponse -> httpResponse.withBody(content));
+
+    final ApiResponse<Integer> response = this.apiClient.invokeStreamingAPI("/test-api", "GET",
+        Collections.singletonList(new Pair("file", "fileId")), Collections.singletonMap("sessionToken", "test-token"),
+        "application/octet-stream", new String[] {}, body -> body.readAllBytes().length);
+
+    assertEquals(200, response.getStatusCode());
+    assertEquals(content.length, response.getData());
+  }
+
+  @Test
+  void testInvokeStreamingApiException(final BdkMockServer mockServer) {
+    mockServer.onRequestModifierWithResponse(404,
+        httpRequest -> httpRequest
+            .withMethod("GET")
+            .withPath("/test-api"),
+        httpResponse -> httpResponse.withBody("not-found"));
+    final AtomicInteger handlerCalls = new AtomicInteger();
+
+    final ApiException exception = assertThrows(ApiException.class,
+        () -> this.apiClient.invokeStreamingAPI("/test-api", "GET", null, Collections.emptyMap(),
+            "application/octet-stream", new String[] {}, body -> handlerCalls.incrementAndGet()));
+
+    assertEquals(404, exception.getCode());
+    assertEquals(0, handlerCalls.get());
+  }
+
+  @Test
+  void testInvokeStreamingApiExceptionWithEmptyBody(final BdkMockServer mockServer) {
+    mockServer.onRequestModifierWithResponse(503,
+        httpRequest -> httpRequest
+            .withMethod("GET")
+            .withPath("/test-api"),
+        httpResponse -> {});
+    final AtomicInteger handlerCalls = new AtomicInteger();
+
+    final ApiException exception = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(
+        ApiException.class,
+        () -> this.apiClient.invokeStreamingAPI("/test-api", "GET", null, Collections.emptyMap(),
+            "application/octet-stream", new String[] {}, body -> handlerCalls.incrementAndGet())));
+
+    assertEquals(503, exception.getCode());
+    assertEquals(0, handlerCalls.get());
+  }
+
+  @Test
+  void testInvokeStreamingApiConnectionResetMidBody() throws Exception {
+    final byte[] partial = new byte[8 * 1024];
+    Arrays.fill(partial, (byte) 'a');
+    try (ServerSocket server = new ServerSocket(0)) {
+      final Thread responder = new Thread(() -> {
+        try (Socket socket = server.accept()) {
+          final InputStream request = socket.getInputStream();
+          // waits for the end of the request headers
+          int matched = 0;
+          while (matched < 4) {
+            final int b = request.read();
+            if (b < 0) {
+              return;
+            }
+            matched = b == "\r\n\r\n".charAt(matched) ? matched + 1 : (b == '\r' ? 1 : 0);
+          }
+          final OutputStream response = socket.getOutputStream();
+          response.write(("HTTP/1.1 200 OK\r\nContent-Type: application/octet-stream\r\nContent-Length: "
+              + partial.length * 4 + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+          response.write(partial);
+          response.flush();
+          // closing with a zero linger time resets the connection
+          socket.setSoLinger(true, 0);
+        } catch (IOException ignored) {
+          // the client failed first
+        }
+      });
+      responder.start();
+      final ApiClient client = new ApiClientBuilderWebClient()
+          .withBasePath("http://localhost:" + server.getLocalPort())
+          .build();
+      final AtomicInteger read = new AtomicInteger();
+
+      // the handler reaches the end of the truncated body, the call fails afterwards with the network error
+      final Exception exception = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(Exception.class,
+          () -> client.invokeStreamingAPI("/test-api", "GET", null, Collections.emptyMap(), "application/octet-stream",
+              new String[] {}, body -> {
+                read.addAndGet(body.readAllBytes().length);
+                return read.get();
+              })));
+
+      assertTrue(read.get() < partial.length * 4);
+      assertTrue(hasCause(exception, IOException.class), "Unexpected failure " + exception);
+      responder.join(5000);
+    }
+  }
+
+  @Test
+  void testInvokeApiWithReopenableBodyPart(final BdkMockServer mockServer) throws ApiException {
+    mockServer.onRequestModifierWithResponse(200,
+        httpRequest -> httpRequest
+            .withMethod("POST")
+            .withPath("/test-api")
+            .withBody(anyString()),
+        httpResponse -> httpResponse
+            .withBody("{\"code\": 200, \"message\": \"success\"}"));
+
+    final AtomicInteger opened = new AtomicInteger();
+    final ApiClientBodyPart part = new ApiClientBodyPart(() -> {
+      opened.incrementAndGet();
+      return new ByteArrayInputStream("attachment".getBytes(StandardCharsets.UTF_8));
+    }, "file.txt");
+    Map<String, Object> formParams = new HashMap<>();
+    formParams.put("attachment", new ApiClientBodyPart[] {part});
+
+    for (int i = 0; i < 2; i++) {
+      ApiResponse<Response> response =
+          this.apiClient.invokeAPI("/test-api", "POST", null, null, Collections.emptyMap(), Collections.emptyMap(),
+              formParams, null, MediaType.MULTIPART_FORM_DATA_VALUE, new String[] {},
+              new TypeReference<Response>() {});
+      assertEquals(200, response.getData().getCode());
+    }
+    assertEquals(2, opened.get());
+  }
+
   @Test
   void shouldClearTraceIdIfNotSet(final BdkMockServer mockServer) throws ApiException {
     mockServer.onRequestModifierWithResponse(200,
@@ -378,6 +517,15 @@ class ApiClientWebClientTest {
     assertEquals("http://localhost/search?q=hello+world", this.apiClient.escapeString(url));
   }
 
+  private static boolean hasCause(Throwable throwable, Class<? extends Throwable> type) {
+    for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+      if (type.isInstance(cause)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private static class RequestBody {
     private String id;
     private String content;
@@ -2,6 +2,8 @@ package com.symphony.bdk.template.api;
 
 import org.apiguardian.api.API;
 
+import java.io.IOException;
+
 /**
  * Interface to represent a template.
  * A template takes parameters in input and outputs a string.
@@ -18,4 +20,22 @@ public interface Template {
    * @throws TemplateException in case of issues during the string generation, e.g. missing parameter
    */
   String process(Object parameters);
+
+  /**
+   * Same as {@link #process(Object)}, but writes the generated content to the given output as it is produced, e.g. a
+   * {@link java.io.Writer} or a {@link StringBuilder}, instead of returning it as a string.
+   *
+   * @param parameters the object which contains the parameters to be used by the template.
+   * @param output     where the generated content is appended.
+   * @throws TemplateException in case of issues during the generation, e.g. missing parameter, or if the output cannot
+   *                           be written.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  default void process(Object parameters, Appendable output) {
+    try {
+      output.append(this.process(parameters));
+    } catch (IOException e) {
+      throw new TemplateException("Could not write generated string from template", e);
+    }
+  }
 }
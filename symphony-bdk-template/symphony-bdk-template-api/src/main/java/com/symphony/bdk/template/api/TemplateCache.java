@@ -0,0 +1,109 @@
+package com.symphony.bdk.template.api;
+
+import org.apiguardian.api.API;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of compiled templates used by {@link TemplateEngine} implementations, so that a template is parsed
+ * once instead of every time it is requested. When the cache is full, the least recently used template is evicted.
+ *
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @param <K> type of the cache keys, e.g. the template location or the inline template content
+ * @param <T> type of the compiled templates
+ */
+@API(status = API.Status.INTERNAL)
+public class TemplateCache<K, T> {
+
+  /**
+   * Default maximum number of templates kept in a cache.
+   */
+  public static final int DEFAULT_MAX_SIZE = 256;
+
+  private final int maxSize;
+  private final Map<K, T> templates;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * @param maxSize maximum number of templates kept in the cache, 0 or less to disable caching.
+   */
+  public TemplateCache(int maxSize) {
+    this.maxSize = Math.max(0, maxSize);
+    this.templates = new LinkedHashMap<K, T>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, T> eldest) {
+        return this.size() > TemplateCache.this.maxSize;
+      }
+    };
+  }
+
+  /**
+   * Returns the template cached for the given key, compiling and caching it on a miss. The compilation happens outside
+   * of the cache lock: concurrent misses on the same key may compile the template more than once, the last compiled
+   * template being kept.
+   *
+   * @param key      the cache key.
+   * @param compiler compiles the template on a cache miss, may throw a {@link TemplateException}.
+   * @return the compiled template.
+   */
+  public T get(K key, Function<K, T> compiler) {
+    if (this.maxSize > 0) {
+      final T cached;
+      synchronized (this.templates) {
+        cached = this.templates.get(key);
+      }
+      if (cached != null) {
+        this.hits.increment();
+        return cached;
+      }
+    }
+
+    this.misses.increment();
+    final T template = compiler.apply(key);
+    if (this.maxSize > 0 && template != null) {
+      synchronized (this.templates) {
+        this.templates.put(key, template);
+      }
+    }
+    return template;
+  }
+
+  /**
+   * Removes all the cached templates. Hit and miss counters are not reset.
+   */
+  public void clear() {
+    synchronized (this.templates) {
+      this.templates.clear();
+    }
+  }
+
+  /**
+   * @return the number of templates currently cached.
+   */
+  public int size() {
+    synchronized (this.templates) {
+      return this.templates.size();
+    }
+  }
+
+  /**
+   * @return the number of requests served from the cache.
+   */
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  /**
+   * @return the number of requests that required to compile a template.
+   */
+  public long getMisses() {
+    return this.misses.sum();
+  }
+}
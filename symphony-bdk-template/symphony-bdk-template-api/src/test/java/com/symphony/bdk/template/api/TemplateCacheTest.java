@@ -0,0 +1,76 @@
+package com.symphony.bdk.template.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for {@link TemplateCache}
+ */
+class TemplateCacheTest {
+
+  @Test
+  void shouldCompileOnceAndCountHits() {
+    final TemplateCache<String, Object> cache = new TemplateCache<>(2);
+    final AtomicInteger compilations = new AtomicInteger();
+
+    final Object first = cache.get("a", key -> compilations.incrementAndGet());
+    final Object second = cache.get("a", key -> compilations.incrementAndGet());
+
+    assertSame(first, second);
+    assertEquals(1, compilations.get());
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsed() {
+    final TemplateCache<String, String> cache = new TemplateCache<>(2);
+    cache.get("a", key -> key);
+    cache.get("b", key -> key);
+    cache.get("a", key -> key);
+    cache.get("c", key -> key);
+
+    assertEquals(2, cache.size());
+    assertEquals("a", cache.get("a", key -> "recompiled"));
+    assertEquals("recompiled", cache.get("b", key -> "recompiled"));
+  }
+
+  @Test
+  void shouldNotCacheWhenDisabled() {
+    final TemplateCache<String, String> cache = new TemplateCache<>(0);
+    cache.get("a", key -> key);
+    cache.get("a", key -> key);
+
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getHits());
+    assertEquals(2, cache.getMisses());
+  }
+
+  @Test
+  void shouldNotCacheFailures() {
+    final TemplateCache<String, String> cache = new TemplateCache<>(2);
+
+    assertThrows(TemplateException.class, () -> cache.get("a", key -> {
+      throw new TemplateException("invalid template");
+    }));
+    assertEquals("a", cache.get("a", key -> key));
+    assertEquals(2, cache.getMisses());
+  }
+
+  @Test
+  void shouldClear() {
+    final TemplateCache<String, String> cache = new TemplateCache<>(2);
+    cache.get("a", key -> key);
+
+    cache.clear();
+
+    assertEquals(0, cache.size());
+    assertEquals("recompiled", cache.get("a", key -> "recompiled"));
+  }
+}
@@ -1,6 +1,7 @@
 package com.symphony.bdk.template.freemarker;
 
 import com.symphony.bdk.template.api.Template;
+import com.symphony.bdk.template.api.TemplateCache;
 import com.symphony.bdk.template.api.TemplateEngine;
 import com.symphony.bdk.template.api.TemplateException;
 
@@ -12,31 +13,67 @@ import org.apiguardian.api.API;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * FreeMarker specific implementation of {@link TemplateEngine}. Instantiates {@link FreeMarkerTemplate} objects.
  *
  * <p>
+ * A {@link Configuration} is shared per template loader root (the classpath, or the directory of a template file) and
+ * compiled templates are kept in a bounded cache, keyed by template location or by content for inline templates. A
+ * template file modified after having been loaded is therefore not reloaded until {@link #clearCache()} is called.
+ * </p>
+ *
+ * <p>
  * This class is thread-safe.
  * </p>
  */
 @API(status = API.Status.INTERNAL)
 public class FreeMarkerEngine implements TemplateEngine {
 
+  private static final String CLASSPATH_PREFIX = "classpath:";
+  private static final String FILE_PREFIX = "file:";
+
+  /**
+   * Configurations are never modified once created, which makes them safe to share across threads.
+   */
+  private final Configuration classpathConfiguration = createConfiguration();
+  private final Configuration inlineConfiguration = createConfiguration();
+  private final Map<String, Configuration> fileConfigurations = new ConcurrentHashMap<>();
+
+  private final TemplateCache<String, freemarker.template.Template> templates;
+  private final TemplateCache<String, freemarker.template.Template> inlineTemplates;
+
+  public FreeMarkerEngine() {
+    this(TemplateCache.DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * @param cacheSize maximum number of compiled templates kept in memory, for both file or classpath templates and
+   *                  inline templates. 0 disables caching.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public FreeMarkerEngine(int cacheSize) {
+    this.classpathConfiguration.setClassForTemplateLoading(this.getClass(), "/");
+    this.templates = new TemplateCache<>(cacheSize);
+    this.inlineTemplates = new TemplateCache<>(cacheSize);
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   public Template newTemplateFromFile(String templatePath) {
-    try {
-      final String directory = FilenameUtils.getFullPathNoEndSeparator(templatePath);
-      final String file = FilenameUtils.getName(templatePath);
-      final Configuration configuration = createConfiguration(); // for thread-safety, we need to re-create configuration
-      configuration.setDirectoryForTemplateLoading(new File(directory));
-      return new FreeMarkerTemplate(configuration.getTemplate(file));
-    } catch (IOException e) {
-      throw new TemplateException("Unable to open template file", e);
-    }
+    final Path path = Paths.get(templatePath).toAbsolutePath().normalize();
+    return new FreeMarkerTemplate(this.templates.get(FILE_PREFIX + path, key -> this.compileFile(path)));
   }
 
   /**
@@ -44,13 +81,13 @@ public class FreeMarkerEngine implements TemplateEngine {
    */
   @Override
   public Template newTemplateFromClasspath(String templatePath) {
-    try {
-      final Configuration configuration = createConfiguration(); // for thread-safety, we need to re-create configuration
-      configuration.setClassForTemplateLoading(this.getClass(), "/");
-      return new FreeMarkerTemplate(configuration.getTemplate(templatePath));
-    } catch (IOException e) {
-      throw new TemplateException("Unable to load template from classpath", e);
-    }
+    return new FreeMarkerTemplate(this.templates.get(CLASSPATH_PREFIX + templatePath, key -> {
+      try {
+        return this.classpathConfiguration.getTemplate(templatePath);
+      } catch (IOException e) {
+        throw new TemplateException("Unable to load template from classpath", e);
+      }
+    }));
   }
 
   /**
@@ -58,11 +95,79 @@ public class FreeMarkerEngine implements TemplateEngine {
    */
   @Override
   public Template newTemplateFromString(String template) {
+    return new FreeMarkerTemplate(this.inlineTemplates.get(template, key -> {
+      try {
+        return new freemarker.template.Template(null, template, this.inlineConfiguration);
+      } catch (IOException e) {
+        throw new TemplateException("Unable to load template from string", e);
+      }
+    }));
+  }
+
+  /**
+   * Compiles all the template files of a directory and its sub-directories, so that they are served from the cache
+   * afterwards. Meant to be called at startup.
+   *
+   * @param directory the directory containing the templates.
+   * @param extension extension of the template files, e.g. "ftl".
+   * @return the number of compiled templates.
+   * @throws TemplateException if the directory cannot be read or if one of the templates cannot be compiled.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public int warmUp(String directory, String extension) {
+    final List<Path> files;
+    try (Stream<Path> paths = Files.walk(Paths.get(directory))) {
+      files = paths.filter(Files::isRegularFile)
+          .filter(path -> FilenameUtils.isExtension(path.getFileName().toString(), extension))
+          .collect(Collectors.toList());
+    } catch (IOException | UncheckedIOException e) {
+      throw new TemplateException("Unable to list templates from directory: " + directory, e);
+    }
+    files.forEach(file -> this.newTemplateFromFile(file.toString()));
+    return files.size();
+  }
+
+  /**
+   * Removes all the compiled templates from the cache, so that they are read and compiled again on next use.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public void clearCache() {
+    this.templates.clear();
+    this.inlineTemplates.clear();
+    this.fileConfigurations.clear();
+  }
+
+  /**
+   * @return the number of templates served from the cache.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public long getCacheHits() {
+    return this.templates.getHits() + this.inlineTemplates.getHits();
+  }
+
+  /**
+   * @return the number of templates that had to be compiled.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public long getCacheMisses() {
+    return this.templates.getMisses() + this.inlineTemplates.getMisses();
+  }
+
+  private freemarker.template.Template compileFile(Path path) {
+    final String directory = FilenameUtils.getFullPathNoEndSeparator(path.toString());
     try {
-      final Configuration configuration = createConfiguration();
-      return new FreeMarkerTemplate(new freemarker.template.Template(null, template, configuration));
-    } catch (IOException e) {
-      throw new TemplateException("Unable to load template from string", e);
+      final Configuration configuration = this.fileConfigurations.computeIfAbsent(directory, dir -> {
+        try {
+          final Configuration cfg = createConfiguration();
+          cfg.setDirectoryForTemplateLoading(new File(dir));
+          return cfg;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      return configuration.getTemplate(FilenameUtils.getName(path.toString()));
+    } catch (IOException | UncheckedIOException e) {
+      throw new TemplateException("Unable to open template file", e);
     }
   }
 
@@ -4,10 +4,11 @@ package com.symphony.bdk.template.freemarker;
 import com.symphony.bdk.template.api.Template;
 import com.symphony.bdk.template.api.TemplateException;
 
+import org.apache.commons.io.output.AppendableWriter;
+import org.apache.commons.io.output.StringBuilderWriter;
 import org.apiguardian.api.API;
 
 import java.io.IOException;
-import java.io.StringWriter;
 import java.io.Writer;
 
 /**
@@ -33,11 +34,26 @@ public class FreeMarkerTemplate implements Template {
   @Override
   public String process(Object parameters) {
     try {
-      Writer out = new StringWriter();
+      Writer out = new StringBuilderWriter();
       template.process(parameters, out);
       return out.toString();
     } catch (freemarker.template.TemplateException | IOException e) {
       throw new TemplateException("Could not generate string from template", e);
     }
   }
+
+  /**
+   * Same as {@link #process(Object)}, but writes the generated content to the given output as it is produced.
+   * @param parameters the object which contains the parameters to be used by the template.
+   * @param output where the generated content is appended, e.g. a {@link Writer} or a {@link StringBuilder}
+   * @throws TemplateException in case of issues during the generation, e.g. missing parameter
+   */
+  @Override
+  public void process(Object parameters, Appendable output) {
+    try {
+      template.process(parameters, output instanceof Writer ? (Writer) output : new AppendableWriter<>(output));
+    } catch (freemarker.template.TemplateException | IOException e) {
+      throw new TemplateException("Could not generate string from template", e);
+    }
+  }
 }
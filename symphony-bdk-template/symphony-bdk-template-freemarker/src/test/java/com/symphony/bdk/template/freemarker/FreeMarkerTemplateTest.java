@@ -9,6 +9,7 @@ import com.symphony.bdk.template.api.TemplateException;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.StringWriter;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -106,6 +107,81 @@ public class FreeMarkerTemplateTest {
     assertThrows(TemplateException.class, () -> new FreeMarkerEngine().newTemplateFromClasspath("./not/found.ftl"));
   }
 
+  @Test
+  public void testTemplatesAreCached() {
+    FreeMarkerEngine engine = new FreeMarkerEngine();
+    assertTemplateProducesOutput(engine.newTemplateFromClasspath("/subFolder/test.ftl"));
+    assertTemplateProducesOutput(engine.newTemplateFromClasspath("/subFolder/test.ftl"));
+    assertTemplateProducesOutput(engine.newTemplateFromFile("./src/test/resources/subFolder/test.ftl"));
+    assertTemplateProducesOutput(engine.newTemplateFromFile("./src/test/resources/subFolder/../subFolder/test.ftl"));
+    engine.newTemplateFromString("${message}");
+    engine.newTemplateFromString("${message}");
+
+    assertEquals(3, engine.getCacheHits());
+    assertEquals(3, engine.getCacheMisses());
+  }
+
+  @Test
+  public void testCacheDisabled() {
+    FreeMarkerEngine engine = new FreeMarkerEngine(0);
+    assertTemplateProducesOutput(engine.newTemplateFromClasspath("/subFolder/test.ftl"));
+    assertTemplateProducesOutput(engine.newTemplateFromClasspath("/subFolder/test.ftl"));
+
+    assertEquals(0, engine.getCacheHits());
+    assertEquals(2, engine.getCacheMisses());
+  }
+
+  @Test
+  public void testClearCache() {
+    FreeMarkerEngine engine = new FreeMarkerEngine();
+    engine.newTemplateFromClasspath("/subFolder/test.ftl");
+
+    engine.clearCache();
+    engine.newTemplateFromClasspath("/subFolder/test.ftl");
+
+    assertEquals(0, engine.getCacheHits());
+    assertEquals(2, engine.getCacheMisses());
+  }
+
+  @Test
+  public void testWarmUp() {
+    FreeMarkerEngine engine = new FreeMarkerEngine();
+
+    assertEquals(5, engine.warmUp("./src/test/resources", "ftl"));
+    assertTemplateProducesOutput(engine.newTemplateFromFile("./src/test/resources/subFolder/test.ftl"));
+    assertTemplateProducesOutput(engine.newTemplateFromFile("./src/test/resources/subFolder/testWithInclude.ftl"),
+        new HashMap<>(), "Template with include\nHello from included file!\n");
+    assertEquals(2, engine.getCacheHits());
+    assertEquals(5, engine.getCacheMisses());
+  }
+
+  @Test
+  public void testWarmUpNotFoundDirectory() {
+    assertThrows(TemplateException.class, () -> new FreeMarkerEngine().warmUp("./not/found", "ftl"));
+  }
+
+  @Test
+  public void testProcessToAppendable() {
+    Template freeMarkerTemplate = new FreeMarkerEngine().newTemplateFromClasspath("/subFolder/test.ftl");
+    StringBuilder output = new StringBuilder("start:");
+    freeMarkerTemplate.process(Collections.singletonMap("message", "Hello World!"), output);
+    assertEquals("start:<messageML>Hello World!</messageML>\n", output.toString());
+  }
+
+  @Test
+  public void testProcessToWriter() {
+    Template freeMarkerTemplate = new FreeMarkerEngine().newTemplateFromString("<messageML>${message}</messageML>");
+    StringWriter output = new StringWriter();
+    freeMarkerTemplate.process(Collections.singletonMap("message", "Hello World!"), output);
+    assertEquals("<messageML>Hello World!</messageML>", output.toString());
+  }
+
+  @Test
+  public void testProcessToAppendableWithMissingParameter() {
+    Template freeMarkerTemplate = new FreeMarkerEngine().newTemplateFromString("${message}");
+    assertThrows(TemplateException.class, () -> freeMarkerTemplate.process(new HashMap<>(), new StringBuilder()));
+  }
+
   private void assertTemplateProducesOutput(Template freeMarkerTemplate) {
     Map<String, Object> parameters = new HashMap<>();
     parameters.put("message", "Hello World!");
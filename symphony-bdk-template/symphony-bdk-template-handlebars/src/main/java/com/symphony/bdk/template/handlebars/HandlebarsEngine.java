@@ -1,6 +1,7 @@
 package com.symphony.bdk.template.handlebars;
 
 import com.symphony.bdk.template.api.Template;
+import com.symphony.bdk.template.api.TemplateCache;
 import com.symphony.bdk.template.api.TemplateEngine;
 import com.symphony.bdk.template.api.TemplateException;
 
@@ -12,11 +13,19 @@ import org.apache.commons.io.FilenameUtils;
 import org.apiguardian.api.API;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * {@link Handlebars} implementation of the {@link TemplateEngine} interface.
  *
  * <p>
+ * Compiled templates are kept in a bounded cache, keyed by template location or by content for inline templates. A
+ * template file modified after having been loaded is therefore not reloaded until {@link #clearCache()} is called.
+ * </p>
+ *
+ * <p>
  * This class is thread-safe.
  * </p>
  */
@@ -28,20 +37,48 @@ public class HandlebarsEngine implements TemplateEngine {
    */
   private static final Handlebars HANDLEBARS = createHandlebars(new ClassPathTemplateLoader());
 
+  private static final String CLASSPATH_PREFIX = "classpath:";
+  private static final String FILE_PREFIX = "file:";
+
+  /**
+   * Handlebars for file loading, per base directory.
+   */
+  private final Map<String, Handlebars> fileHandlebars = new ConcurrentHashMap<>();
+
+  private final TemplateCache<String, com.github.jknack.handlebars.Template> templates;
+  private final TemplateCache<String, com.github.jknack.handlebars.Template> inlineTemplates;
+
+  public HandlebarsEngine() {
+    this(TemplateCache.DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * @param cacheSize maximum number of compiled templates kept in memory, for both file or classpath templates and
+   *                  inline templates. 0 disables caching.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public HandlebarsEngine(int cacheSize) {
+    this.templates = new TemplateCache<>(cacheSize);
+    this.inlineTemplates = new TemplateCache<>(cacheSize);
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   public Template newTemplateFromFile(String templatePath) {
-    final String basedir = FilenameUtils.getFullPathNoEndSeparator(templatePath);
-    final String file = FilenameUtils.getName(templatePath);
-    // for thread-safety, we need to create a specific Handlebars object
-    final Handlebars handlebars = createHandlebars(new FileTemplateLoader(basedir));
-    try {
-      return new HandlebarsTemplate(handlebars.compile(file));
-    } catch (IOException e) {
-      throw new TemplateException("Unable to compile Handlebars template from file location: " + templatePath, e);
-    }
+    final String path = Paths.get(templatePath).toAbsolutePath().normalize().toString();
+    return new HandlebarsTemplate(this.templates.get(FILE_PREFIX + path, key -> {
+      final String basedir = FilenameUtils.getFullPathNoEndSeparator(path);
+      final String file = FilenameUtils.getName(path);
+      final Handlebars handlebars =
+          this.fileHandlebars.computeIfAbsent(basedir, dir -> createHandlebars(new FileTemplateLoader(dir)));
+      try {
+        return handlebars.compile(file);
+      } catch (IOException e) {
+        throw new TemplateException("Unable to compile Handlebars template from file location: " + templatePath, e);
+      }
+    }));
   }
 
   /**
@@ -49,11 +86,14 @@ public class HandlebarsEngine implements TemplateEngine {
    */
   @Override
   public Template newTemplateFromClasspath(String templatePath) {
-    try {
-      return new HandlebarsTemplate(HANDLEBARS.compile(templatePath));
-    } catch (IOException e) {
-      throw new TemplateException("Unable to compile Handlebars template from classpath location: " + templatePath, e);
-    }
+    return new HandlebarsTemplate(this.templates.get(CLASSPATH_PREFIX + templatePath, key -> {
+      try {
+        return HANDLEBARS.compile(templatePath);
+      } catch (IOException e) {
+        throw new TemplateException("Unable to compile Handlebars template from classpath location: " + templatePath,
+            e);
+      }
+    }));
   }
 
   /**
@@ -61,14 +101,39 @@ public class HandlebarsEngine implements TemplateEngine {
    */
   @Override
   public Template newTemplateFromString(String template) {
-    try {
-      return new HandlebarsTemplate(HANDLEBARS.compileInline(template));
-    } catch (IOException e) {
-      throw new TemplateException("Unable to compile Handlebars template from inline string: " + template, e);
-    }
+    return new HandlebarsTemplate(this.inlineTemplates.get(template, key -> {
+      try {
+        return HANDLEBARS.compileInline(template);
+      } catch (IOException e) {
+        throw new TemplateException("Unable to compile Handlebars template from inline string: " + template, e);
+      }
+    }));
+  }
+
+  /**
+   * Removes all the compiled templates from the cache, so that they are read and compiled again on next use.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public void clearCache() {
+    this.templates.clear();
+    this.inlineTemplates.clear();
   }
 
+  /**
+   * @return the number of templates served from the cache.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public long getCacheHits() {
+    return this.templates.getHits() + this.inlineTemplates.getHits();
+  }
 
+  /**
+   * @return the number of templates that had to be compiled.
+   */
+  @API(status = API.Status.EXPERIMENTAL)
+  public long getCacheMisses() {
+    return this.templates.getMisses() + this.inlineTemplates.getMisses();
+  }
 
   /**
    * Creates a new {@link Handlebars} object with suffix set to "" to make this {@link TemplateEngine} implementation
@@ -4,9 +4,11 @@ import com.symphony.bdk.template.api.Template;
 import com.symphony.bdk.template.api.TemplateException;
 
 import com.github.jknack.handlebars.Handlebars;
+import org.apache.commons.io.output.AppendableWriter;
 import org.apiguardian.api.API;
 
 import java.io.IOException;
+import java.io.Writer;
 
 /**
  * {@link Handlebars} implementation of the {@link Template} interface.
@@ -31,4 +33,16 @@ public class HandlebarsTemplate implements Template {
       throw new TemplateException("Could not generate string from template", e);
     }
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void process(Object parameters, Appendable output) {
+    try {
+      this.template.apply(parameters, output instanceof Writer ? (Writer) output : new AppendableWriter<>(output));
+    } catch (IOException e) {
+      throw new TemplateException("Could not generate string from template", e);
+    }
+  }
 }
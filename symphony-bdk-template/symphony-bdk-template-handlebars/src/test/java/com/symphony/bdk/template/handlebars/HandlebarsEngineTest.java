@@ -9,6 +9,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
@@ -69,4 +70,50 @@ class HandlebarsEngineTest {
     final String home = template.process(null);
     assertTrue(home.contains("Powered by Handlebars.java")); // which is contained in base.hbs
   }
+
+  @Test
+  void should_render_to_appendable() {
+    final Template template = this.engine.newTemplateFromClasspath("/test.hbs");
+    final StringBuilder output = new StringBuilder("start:");
+    template.process(Collections.singletonMap("message", "hello"), output);
+    assertEquals("start:" + EXPECTED_TEST_HBS, output.toString());
+  }
+
+  @Test
+  void should_render_to_writer() {
+    final Template template = this.engine.newTemplateFromString("<messageML>\n{{message}}\n</messageML>\n");
+    final StringWriter output = new StringWriter();
+    template.process(Collections.singletonMap("message", "hello"), output);
+    assertEquals(EXPECTED_TEST_HBS, output.toString());
+  }
+
+  @Test
+  void should_cache_compiled_templates(@TempDir Path tempDir) throws Exception {
+    final Path templatePath = tempDir.resolve("test.hbs");
+    Files.copy(this.getClass().getResourceAsStream("/test.hbs"), templatePath);
+
+    this.engine.newTemplateFromClasspath("/test.hbs");
+    this.engine.newTemplateFromClasspath("/test.hbs");
+    this.engine.newTemplateFromFile(templatePath.toString());
+    this.engine.newTemplateFromFile(tempDir.resolve("sub").resolve("..").resolve("test.hbs").toString());
+    this.engine.newTemplateFromString("{{message}}");
+    this.engine.newTemplateFromString("{{message}}");
+
+    assertEquals(3, this.engine.getCacheHits());
+    assertEquals(3, this.engine.getCacheMisses());
+
+    this.engine.clearCache();
+    this.engine.newTemplateFromClasspath("/test.hbs");
+    assertEquals(4, this.engine.getCacheMisses());
+  }
+
+  @Test
+  void should_not_cache_when_disabled() {
+    final HandlebarsEngine noCacheEngine = new HandlebarsEngine(0);
+    noCacheEngine.newTemplateFromClasspath("/test.hbs");
+    noCacheEngine.newTemplateFromClasspath("/test.hbs");
+
+    assertEquals(0, noCacheEngine.getCacheHits());
+    assertEquals(2, noCacheEngine.getCacheMisses());
+  }
 }